@@ -0,0 +1,80 @@
+package com.inventory.dto;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encodes and decodes the deduction request and response of /inventory/update in JSON and in Smile,
+ * with object mappers configured like the ones of Spring's message converters. The response holds
+ * three batch deductions, as when an order spans several batches.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class WireFormatBenchmark {
+
+    @Param({"json", "smile"})
+    private String format;
+
+    private ObjectMapper mapper;
+    private InventoryUpdateRequest request;
+    private InventoryUpdateResponse response;
+    private byte[] encodedRequest;
+    private byte[] encodedResponse;
+
+    @Setup
+    public void setUp() throws IOException {
+        mapper = "smile".equals(format)
+                ? Jackson2ObjectMapperBuilder.smile().build()
+                : Jackson2ObjectMapperBuilder.json().build();
+        request = InventoryUpdateRequest.builder()
+                .productId("PROD-002")
+                .quantity(120)
+                .build();
+        response = InventoryUpdateResponse.builder()
+                .productId("PROD-002")
+                .totalQuantityDeducted(120)
+                .batchDeductions(List.of(
+                        new InventoryUpdateResponse.BatchDeduction("BATCH-002-A", 50),
+                        new InventoryUpdateResponse.BatchDeduction("BATCH-002-B", 40),
+                        new InventoryUpdateResponse.BatchDeduction("BATCH-002-C", 30)))
+                .message("Inventory deducted successfully using FIFO strategy")
+                .build();
+        encodedRequest = mapper.writeValueAsBytes(request);
+        encodedResponse = mapper.writeValueAsBytes(response);
+        System.out.printf("%n%s payload: request %d bytes, response %d bytes%n",
+                format, encodedRequest.length, encodedResponse.length);
+    }
+
+    @Benchmark
+    public byte[] encodeRequest() throws IOException {
+        return mapper.writeValueAsBytes(request);
+    }
+
+    @Benchmark
+    public InventoryUpdateRequest decodeRequest() throws IOException {
+        return mapper.readValue(encodedRequest, InventoryUpdateRequest.class);
+    }
+
+    @Benchmark
+    public byte[] encodeResponse() throws IOException {
+        return mapper.writeValueAsBytes(response);
+    }
+
+    @Benchmark
+    public InventoryUpdateResponse decodeResponse() throws IOException {
+        return mapper.readValue(encodedResponse, InventoryUpdateResponse.class);
+    }
+}
@@ -0,0 +1,146 @@
+package com.inventory.store;
+
+import com.inventory.InventoryServiceApplication;
+import com.inventory.dto.InventoryUpdateResponse;
+import com.inventory.factory.FifoInventoryStrategy;
+import com.inventory.model.InventoryBatch;
+import org.flywaydb.core.Flyway;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Compares the inventory store engines on the calls the service makes: reading a product's
+ * available batches, a complete FIFO deduction of one unit in its own transaction, and reading
+ * the stock snapshot of the whole catalog. Each engine runs in the real application context
+ * against its own in-memory H2 database holding the same generated catalog.
+ * Run with ./gradlew jmh; results are written to build/results/jmh.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class InventoryStoreBenchmark {
+
+    private static final int BATCHES_PER_PRODUCT = 4;
+
+    @Param({"jpa", "jdbc", "memory"})
+    private String engine;
+
+    @Param({"10000"})
+    private int products;
+
+    private ConfigurableApplicationContext context;
+    private InventoryStore store;
+    private TransactionTemplate transactionTemplate;
+    private TransactionTemplate readOnlyTemplate;
+    private final FifoInventoryStrategy strategy = new FifoInventoryStrategy();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        String url = "jdbc:h2:mem:bench-" + engine + ";DB_CLOSE_DELAY=-1";
+        seed(url);
+        // Arguments, unlike default properties, take precedence over application.yml
+        context = new SpringApplicationBuilder(InventoryServiceApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=" + url,
+                        "--spring.jpa.show-sql=false",
+                        "--logging.level.root=WARN",
+                        "--logging.level.com.inventory=WARN",
+                        "--logging.level.org.hibernate.SQL=WARN",
+                        "--logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN",
+                        "--inventory.store.engine=" + engine,
+                        "--inventory.journal.enabled=false",
+                        "--inventory.snapshot.enabled=false",
+                        "--inventory.warmup.enabled=false",
+                        "--inventory.startup.report-steps=0");
+        store = context.getBean(InventoryStore.class);
+        PlatformTransactionManager transactionManager = context.getBean(PlatformTransactionManager.class);
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        readOnlyTemplate = new TransactionTemplate(transactionManager);
+        readOnlyTemplate.setReadOnly(true);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<InventoryBatch> findAvailableBatches() {
+        String productId = randomProductId();
+        return readOnlyTemplate.execute(status -> store.findAvailableBatches(productId));
+    }
+
+    @Benchmark
+    public InventoryUpdateResponse deduct() {
+        String productId = randomProductId();
+        return transactionTemplate.execute(status -> {
+            List<InventoryBatch> batches = store.findAvailableBatches(productId);
+            InventoryUpdateResponse response = strategy.deductInventory(batches, 1);
+            store.applyDeductions(batches, response.getBatchDeductions());
+            return response;
+        });
+    }
+
+    @Benchmark
+    public long streamAvailableBatches() {
+        return readOnlyTemplate.execute(status -> {
+            try (Stream<AvailableBatch> batches = store.streamAvailableBatches()) {
+                return batches.count();
+            }
+        });
+    }
+
+    private String randomProductId() {
+        return productId(ThreadLocalRandom.current().nextInt(products));
+    }
+
+    private static String productId(int index) {
+        return String.format("BENCH-%06d", index);
+    }
+
+    /**
+     * Migrate the schema and generate the catalog before the application starts, so the in-memory
+     * engine loads it too. The seed rows use ids above those of the migrations.
+     */
+    private void seed(String url) {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(url, "sa", "");
+        Flyway.configure().dataSource(dataSource).locations("classpath:db/migration").load().migrate();
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        List<Object[]> productRows = new ArrayList<>(products);
+        List<Object[]> batchRows = new ArrayList<>(products * BATCHES_PER_PRODUCT);
+        LocalDate today = LocalDate.now();
+        for (int i = 0; i < products; i++) {
+            long id = 1_000 + i;
+            productRows.add(new Object[]{id, productId(i), "Benchmark product " + i});
+            for (int b = 0; b < BATCHES_PER_PRODUCT; b++) {
+                batchRows.add(new Object[]{id * BATCHES_PER_PRODUCT + b, productId(i) + "-" + b, id,
+                        1_000_000, today.plusDays(30L * (b + 1)), today.minusDays(30)});
+            }
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO products (id, product_id, name) VALUES (?, ?, ?)", productRows);
+        jdbcTemplate.batchUpdate("INSERT INTO inventory_batches (id, batch_number, product_id, quantity, " +
+                "expiry_date, manufacturing_date) VALUES (?, ?, ?, ?, ?, ?)", batchRows);
+    }
+}
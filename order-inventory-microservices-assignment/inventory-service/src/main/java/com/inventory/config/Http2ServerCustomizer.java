@@ -0,0 +1,36 @@
+package com.inventory.config;
+
+import org.apache.coyote.UpgradeProtocol;
+import org.apache.coyote.http2.Http2Protocol;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.embedded.tomcat.TomcatServletWebServerFactory;
+import org.springframework.boot.web.server.WebServerFactoryCustomizer;
+import org.springframework.stereotype.Component;
+
+/**
+ * Sizes the HTTP/2 protocol that server.http2.enabled adds to Tomcat. Without TLS, Tomcat serves
+ * HTTP/2 over cleartext (h2c) on the HTTP/1.1 port, both to connections that start with the HTTP/2
+ * preface and to ones that upgrade, so Order Service can multiplex its requests over a few connections.
+ */
+@Component
+public class Http2ServerCustomizer implements WebServerFactoryCustomizer<TomcatServletWebServerFactory> {
+
+    private final int maxConcurrentStreams;
+
+    public Http2ServerCustomizer(@Value("${inventory.http2.max-concurrent-streams:200}") int maxConcurrentStreams) {
+        this.maxConcurrentStreams = maxConcurrentStreams;
+    }
+
+    @Override
+    public void customize(TomcatServletWebServerFactory factory) {
+        factory.addConnectorCustomizers(connector -> {
+            for (UpgradeProtocol protocol : connector.findUpgradeProtocols()) {
+                if (protocol instanceof Http2Protocol http2) {
+                    http2.setMaxConcurrentStreams(maxConcurrentStreams);
+                    // Tomcat otherwise runs only 20 streams of a connection at a time and queues the rest
+                    http2.setMaxConcurrentStreamExecution(maxConcurrentStreams);
+                }
+            }
+        });
+    }
+}
@@ -0,0 +1,41 @@
+package com.inventory.config;
+
+import com.inventory.dto.InventoryChangeEvent;
+import com.inventory.dto.MovementTotals;
+import com.inventory.repository.InventoryBatchRepository;
+import org.springframework.aop.SpringProxy;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.annotation.RegisterReflectionForBinding;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+import org.springframework.core.DecoratingProxy;
+import org.springframework.data.projection.TargetAware;
+
+/**
+ * Hints for a GraalVM native image that Spring AOT cannot infer on its own.
+ * Controller payloads, JPA entities, repositories and the strategies injected into
+ * InventoryStrategyFactory are discovered at build time and need nothing here.
+ */
+@Configuration(proxyBeanMethods = false)
+@ImportRuntimeHints(NativeHintsConfig.InventoryRuntimeHints.class)
+@RegisterReflectionForBinding({InventoryChangeEvent.class, MovementTotals.class})
+public class NativeHintsConfig {
+
+    static class InventoryRuntimeHints implements RuntimeHintsRegistrar {
+
+        @Override
+        public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+            // Interface projections are backed by JDK proxies created at runtime
+            hints.proxies().registerJdkProxy(InventoryBatchRepository.ExpiryQuantity.class,
+                    TargetAware.class, SpringProxy.class, DecoratingProxy.class);
+            hints.reflection().registerType(InventoryBatchRepository.ExpiryQuantity.class,
+                    MemberCategory.INVOKE_PUBLIC_METHODS);
+            hints.proxies().registerJdkProxy(InventoryBatchRepository.BatchQuantity.class,
+                    TargetAware.class, SpringProxy.class, DecoratingProxy.class);
+            hints.reflection().registerType(InventoryBatchRepository.BatchQuantity.class,
+                    MemberCategory.INVOKE_PUBLIC_METHODS);
+        }
+    }
+}
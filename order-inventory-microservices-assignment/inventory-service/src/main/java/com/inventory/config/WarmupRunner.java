@@ -0,0 +1,154 @@
+package com.inventory.config;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.inventory.dto.InventoryUpdateRequest;
+import com.inventory.repository.InventoryBatchRepository;
+import com.inventory.repository.ProductRepository;
+import com.inventory.service.InventoryService;
+import com.inventory.sharding.ShardOwnership;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.env.Environment;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Exercises the hot request paths before the service reports ready, so the first real orders do not
+ * pay for interpreted code, lazy class loading and cold Hibernate and Jackson caches.
+ * Spring Boot switches readiness to ACCEPTING_TRAFFIC only after all ApplicationRunners have
+ * completed, and /inventory/health answers 503 until then.
+ * Deductions run in transactions that are flushed and then rolled back, so stock is never changed
+ * and nothing reaches the stock counters or the change feed.
+ */
+@Component
+@Slf4j
+public class WarmupRunner implements ApplicationRunner {
+
+    private static final String[] STRATEGIES = {"FIFO", "LIFO", "FEFO"};
+    private static final int PRODUCT_SAMPLE_SIZE = 100;
+
+    private final InventoryService inventoryService;
+    private final ProductRepository productRepository;
+    private final ShardOwnership shardOwnership;
+    private final InventoryBatchRepository inventoryBatchRepository;
+    private final TransactionTemplate rollbackTemplate;
+    private final ObjectMapper objectMapper;
+    private final Environment environment;
+    private final boolean enabled;
+    private final int iterations;
+    private final Duration maxDuration;
+
+    public WarmupRunner(InventoryService inventoryService,
+                        ProductRepository productRepository,
+                        ShardOwnership shardOwnership,
+                        InventoryBatchRepository inventoryBatchRepository,
+                        PlatformTransactionManager transactionManager,
+                        ObjectMapper objectMapper,
+                        Environment environment,
+                        @Value("${inventory.warmup.enabled:true}") boolean enabled,
+                        @Value("${inventory.warmup.iterations:2000}") int iterations,
+                        @Value("${inventory.warmup.max-duration:30s}") Duration maxDuration) {
+        this.inventoryService = inventoryService;
+        this.productRepository = productRepository;
+        this.shardOwnership = shardOwnership;
+        this.inventoryBatchRepository = inventoryBatchRepository;
+        this.rollbackTemplate = new TransactionTemplate(transactionManager);
+        this.objectMapper = objectMapper;
+        this.environment = environment;
+        this.enabled = enabled;
+        this.iterations = iterations;
+        this.maxDuration = maxDuration;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!enabled || iterations <= 0) {
+            return;
+        }
+        // A sample of the catalog exercises the same code as all of it, and loading every product id
+        // would make startup grow with the catalog. Products of other shards would only exercise forwarding.
+        List<String> productIds = productRepository.findProductIds(PageRequest.of(0, PRODUCT_SAMPLE_SIZE)).stream()
+                .filter(shardOwnership::owns)
+                .toList();
+        if (productIds.isEmpty()) {
+            log.info("Skipping warm-up, no products");
+            return;
+        }
+
+        HttpClient httpClient = HttpClient.newHttpClient();
+        String baseUrl = localBaseUrl();
+        long start = System.nanoTime();
+        long deadline = start + maxDuration.toNanos();
+        int completed = 0;
+        int failed = 0;
+        while (completed < iterations && System.nanoTime() - deadline < 0) {
+            String productId = productIds.get(completed % productIds.size());
+            try {
+                warmUp(productId, STRATEGIES[completed % STRATEGIES.length]);
+                if (baseUrl != null) {
+                    get(httpClient, baseUrl + "/inventory/" + productId);
+                    get(httpClient, baseUrl + "/inventory/" + productId + "/available?quantity=1");
+                }
+            } catch (RuntimeException | IOException e) {
+                if (failed++ == 0) {
+                    log.debug("Warm-up iteration failed: {}", e.getMessage());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            completed++;
+        }
+        log.info("Warm-up finished: {} iterations ({} failed) in {} ms",
+                completed, failed, Duration.ofNanos(System.nanoTime() - start).toMillis());
+    }
+
+    private void warmUp(String productId, String strategy) {
+        serialize(inventoryService.getInventoryByProductId(productId));
+        serialize(inventoryService.getAvailability(productId, 1));
+
+        rollbackTemplate.executeWithoutResult(status -> {
+            status.setRollbackOnly();
+            InventoryUpdateRequest request = InventoryUpdateRequest.builder()
+                    .productId(productId)
+                    .quantity(1)
+                    .build();
+            serialize(inventoryService.updateInventory(request, strategy));
+            // Send the UPDATE statements too, then roll them back
+            inventoryBatchRepository.flush();
+        });
+    }
+
+    private void serialize(Object value) {
+        try {
+            objectMapper.writeValueAsBytes(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Base URL of the embedded server, or null when there is none (e.g. in mock web environment tests).
+     */
+    private String localBaseUrl() {
+        String port = environment.getProperty("local.server.port");
+        return port != null ? "http://localhost:" + port : null;
+    }
+
+    private void get(HttpClient httpClient, String url) throws IOException, InterruptedException {
+        httpClient.send(HttpRequest.newBuilder(URI.create(url)).GET().build(), HttpResponse.BodyHandlers.discarding());
+    }
+}
@@ -1,21 +1,48 @@
 package com.inventory.controller;
 
-import com.inventory.dto.InventoryBatchResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.inventory.dto.AvailabilityResponse;
+import com.inventory.dto.BulkReceiptResponse;
+import com.inventory.dto.ConcurrencyLimitMetrics;
+import com.inventory.dto.InventoryChangeEvent;
+import com.inventory.dto.InventoryMovement;
 import com.inventory.dto.InventoryUpdateRequest;
 import com.inventory.dto.InventoryUpdateResponse;
+import com.inventory.dto.MovementTotals;
+import com.inventory.exception.FeatureDisabledException;
+import com.inventory.journal.MovementJournal;
+import com.inventory.limiter.AdaptiveConcurrencyLimiter;
+import com.inventory.service.BatchReceivingService;
+import com.inventory.service.InventoryChangeFeed;
+import com.inventory.service.InventoryResponseCache;
+import com.inventory.service.InventoryResponseCache.EncodedInventory;
 import com.inventory.service.InventoryService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.availability.ApplicationAvailability;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/inventory")
@@ -23,45 +50,265 @@ import java.util.List;
 @Tag(name = "Inventory Management", description = "APIs for managing product inventory")
 public class InventoryController {
 
+    private static final int MAX_CHANGES_PER_POLL = 1000;
+    private static final int MAX_POLL_WAIT_SECONDS = 30;
+    private static final int MAX_MOVEMENTS_PER_READ = 1000;
+
+    /**
+     * Smile, the binary form of JSON, negotiated on deductions by Order Service.
+     */
+    public static final String APPLICATION_SMILE_VALUE = "application/x-jackson-smile";
+
     private final InventoryService inventoryService;
+    private final InventoryChangeFeed changeFeed;
+    private final ObjectMapper objectMapper;
+    private final ApplicationAvailability applicationAvailability;
+    private final AdaptiveConcurrencyLimiter concurrencyLimiter;
+    private final MovementJournal movementJournal;
+    private final InventoryResponseCache responseCache;
+    private final BatchReceivingService batchReceivingService;
 
-    @GetMapping("/{productId}")
+    @GetMapping(value = "/{productId}", produces = MediaType.APPLICATION_JSON_VALUE)
     @Operation(summary = "Get inventory batches by product ID",
-               description = "Returns all inventory batches for a product, sorted by expiry date (earliest first)")
+               description = "Returns all inventory batches for a product, sorted by expiry date (earliest first). " +
+                       "The body is encoded once per stock change and carries an ETag; send it back in " +
+                       "If-None-Match to get a 304 while the inventory is unchanged. Large bodies are gzipped " +
+                       "for clients that accept it. With includeArchived, depleted and expired batches moved to " +
+                       "the archive are listed too; those reads are not cached.")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Successfully retrieved inventory"),
+        @ApiResponse(responseCode = "304", description = "Inventory unchanged since the ETag in If-None-Match"),
+        @ApiResponse(responseCode = "404", description = "Product not found")
+    })
+    public ResponseEntity<byte[]> getInventory(
+            @Parameter(description = "Product identifier", required = true)
+            @PathVariable String productId,
+            @Parameter(description = "Also list batches moved to the archive")
+            @RequestParam(defaultValue = "false") boolean includeArchived,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding)
+            throws IOException {
+        
+        if (includeArchived) {
+            return ResponseEntity.ok()
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(objectMapper.writeValueAsBytes(inventoryService.getInventoryByProductId(productId, true)));
+        }
+        EncodedInventory inventory = responseCache.get(productId, inventoryService::getInventoryByProductId);
+        boolean gzip = inventory.getGzip() != null && acceptsGzip(acceptEncoding);
+        String etag = gzip ? inventory.getGzipEtag() : inventory.getEtag();
+        if (inventory.matches(ifNoneMatch)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(etag)
+                    .cacheControl(CacheControl.noCache())
+                    .varyBy(HttpHeaders.ACCEPT_ENCODING)
+                    .build();
+        }
+        ResponseEntity.BodyBuilder ok = ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache())
+                .varyBy(HttpHeaders.ACCEPT_ENCODING)
+                .contentType(MediaType.APPLICATION_JSON);
+        if (gzip) {
+            ok.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return ok.body(gzip ? inventory.getGzip() : inventory.getJson());
+    }
+
+    @GetMapping("/{productId}/available")
+    @Operation(summary = "Get available quantity of a product",
+               description = "Returns the available-to-promise quantity from in-memory stock counters. " +
+                       "Pass quantity to also check whether it can be fulfilled.")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Successfully retrieved availability"),
         @ApiResponse(responseCode = "404", description = "Product not found")
     })
-    public ResponseEntity<List<InventoryBatchResponse>> getInventory(
+    public ResponseEntity<AvailabilityResponse> getAvailability(
             @Parameter(description = "Product identifier", required = true)
-            @PathVariable String productId) {
+            @PathVariable String productId,
+            @Parameter(description = "Quantity to check")
+            @RequestParam(required = false) Integer quantity) {
+        
+        return ResponseEntity.ok(inventoryService.getAvailability(productId, quantity));
+    }
+
+    @GetMapping("/available")
+    @Operation(summary = "Get available quantity of several products",
+               description = "Returns the available-to-promise quantity of each known product; unknown products are omitted")
+    @ApiResponse(responseCode = "200", description = "Successfully retrieved availability")
+    public ResponseEntity<List<AvailabilityResponse>> getAvailability(
+            @Parameter(description = "Comma-separated product identifiers", required = true)
+            @RequestParam List<String> productIds) {
+        
+        return ResponseEntity.ok(inventoryService.getAvailability(productIds));
+    }
+
+    @GetMapping(value = "/changes", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Poll inventory changes",
+               description = "Returns batch deductions and restocks after the given sequence as NDJSON, oldest first. " +
+                       "If there are none yet, waits up to waitSeconds for new ones. " +
+                       "The X-Last-Sequence header carries the latest published sequence.")
+    @ApiResponse(responseCode = "200", description = "Changes after the cursor, possibly none")
+    public void pollChanges(
+            @Parameter(description = "Last sequence already seen; defaults to the latest sequence, 0 reads from the beginning")
+            @RequestParam(required = false) Long since,
+            @Parameter(description = "Maximum number of events (max 1000)")
+            @RequestParam(defaultValue = "500") int limit,
+            @Parameter(description = "Seconds to wait for new events when there are none (max 30)")
+            @RequestParam(defaultValue = "0") int waitSeconds,
+            HttpServletResponse response) throws IOException, InterruptedException {
         
-        List<InventoryBatchResponse> inventory = inventoryService.getInventoryByProductId(productId);
-        return ResponseEntity.ok(inventory);
+        List<InventoryChangeEvent> events = changeFeed.poll(since != null ? since : changeFeed.getLastSequence(),
+                Math.max(1, Math.min(limit, MAX_CHANGES_PER_POLL)),
+                Duration.ofSeconds(Math.max(0, Math.min(waitSeconds, MAX_POLL_WAIT_SECONDS))));
+        
+        response.setStatus(HttpStatus.OK.value());
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        response.setHeader("X-Last-Sequence", Long.toString(changeFeed.getLastSequence()));
+        OutputStream out = response.getOutputStream();
+        for (InventoryChangeEvent event : events) {
+            out.write(objectMapper.writeValueAsBytes(event));
+            out.write('\n');
+        }
+        out.flush();
     }
 
-    @PostMapping("/update")
+    @GetMapping(value = "/changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Stream inventory changes",
+               description = "Streams batch deductions and restocks after the given sequence as server-sent events, " +
+                       "then live changes. Event ids are sequences; reconnecting with Last-Event-ID resumes the stream.")
+    @ApiResponse(responseCode = "200", description = "Event stream")
+    public SseEmitter streamChanges(
+            @Parameter(description = "Last sequence already seen; defaults to the latest sequence")
+            @RequestParam(required = false) Long since,
+            @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId) {
+        
+        long cursor = lastEventId != null ? lastEventId
+                : since != null ? since
+                : changeFeed.getLastSequence();
+        return changeFeed.subscribe(cursor);
+    }
+
+    @GetMapping("/movements")
+    @Operation(summary = "Read the movement journal",
+               description = "Returns journaled batch deductions and restocks after the given sequence, oldest first. " +
+                       "The X-Last-Sequence header carries the latest journal sequence.")
+    @ApiResponse(responseCode = "200", description = "Movements after the cursor, possibly none")
+    public ResponseEntity<List<InventoryMovement>> readMovements(
+            @Parameter(description = "Last journal sequence already seen, 0 reads from the beginning")
+            @RequestParam(defaultValue = "0") long since,
+            @Parameter(description = "Maximum number of movements (max 1000)")
+            @RequestParam(defaultValue = "100") int limit,
+            @Parameter(description = "Only return movements of this product")
+            @RequestParam(required = false) String productId) {
+        
+        List<InventoryMovement> movements = movementJournal.read(since,
+                Math.max(1, Math.min(limit, MAX_MOVEMENTS_PER_READ)), productId);
+        return ResponseEntity.ok()
+                .header("X-Last-Sequence", Long.toString(movementJournal.getLastSequence()))
+                .body(movements);
+    }
+
+    @GetMapping(value = "/movements/totals", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Sum up the movement journal per product",
+               description = "Returns, as NDJSON, one line per product with the quantities deducted and restocked " +
+                       "by journaled movements in the time window. Used to reconcile orders against deductions. " +
+                       "The X-Last-Sequence header carries the latest journal sequence.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Totals of every product with movements in the window"),
+            @ApiResponse(responseCode = "501", description = "The movement journal is disabled")
+    })
+    public void movementTotals(
+            @Parameter(description = "Only count movements at or after this local time, e.g. 2026-01-01T00:00:00")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @Parameter(description = "Only count movements before this local time")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            HttpServletResponse response) throws IOException {
+        
+        if (!movementJournal.isEnabled()) {
+            throw new FeatureDisabledException("The movement journal is disabled");
+        }
+        Map<String, MovementTotals> totals = movementJournal.totals(from, to);
+        
+        response.setStatus(HttpStatus.OK.value());
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        response.setHeader("X-Last-Sequence", Long.toString(movementJournal.getLastSequence()));
+        OutputStream out = response.getOutputStream();
+        for (MovementTotals product : totals.values()) {
+            out.write(objectMapper.writeValueAsBytes(product));
+            out.write('\n');
+        }
+        out.flush();
+    }
+
+    @PostMapping(value = "/update",
+                 consumes = {MediaType.APPLICATION_JSON_VALUE, APPLICATION_SMILE_VALUE},
+                 produces = {MediaType.APPLICATION_JSON_VALUE, APPLICATION_SMILE_VALUE})
     @Operation(summary = "Update inventory after order",
-               description = "Deducts inventory quantity for an order. Uses FIFO strategy by default.")
+               description = "Deducts inventory quantity for an order. Uses FIFO strategy by default. " +
+                             "Accepts and answers JSON or Smile (" + APPLICATION_SMILE_VALUE + ") by content negotiation.")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Inventory updated successfully"),
         @ApiResponse(responseCode = "400", description = "Invalid request or insufficient inventory"),
-        @ApiResponse(responseCode = "404", description = "Product not found")
+        @ApiResponse(responseCode = "404", description = "Product not found"),
+        @ApiResponse(responseCode = "503", description = "Concurrency limit reached, retry after the Retry-After delay")
     })
     public ResponseEntity<InventoryUpdateResponse> updateInventory(
             @Parameter(description = "Inventory update request", required = true)
             @Valid @RequestBody InventoryUpdateRequest request,
-            @Parameter(description = "Inventory deduction strategy (FIFO, LIFO)")
+            @Parameter(description = "Inventory deduction strategy (FIFO, LIFO, FEFO)")
             @RequestParam(required = false, defaultValue = "FIFO") String strategy) {
         
         InventoryUpdateResponse response = inventoryService.updateInventory(request, strategy);
         return ResponseEntity.ok(response);
     }
 
+    @PostMapping(value = "/batches/bulk",
+                 consumes = MediaType.APPLICATION_NDJSON_VALUE,
+                 produces = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(summary = "Bulk goods receipt",
+               description = "Accepts an NDJSON stream of received batches for any number of products and inserts " +
+                       "them in chunks: new batch numbers are inserted, existing batches are left unchanged. " +
+                       "Lines are validated individually; invalid lines and repeated batch numbers are reported " +
+                       "without failing the rest of the receipt.")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Receipt processed, see the counts and rejected lines"),
+        @ApiResponse(responseCode = "501", description = "Bulk receipts are not supported by the configured store engine")
+    })
+    public ResponseEntity<BulkReceiptResponse> receiveBatches(
+            @Parameter(description = "NDJSON stream of received batches", required = true)
+            InputStream requestBody) throws IOException {
+        
+        return ResponseEntity.ok(batchReceivingService.receive(requestBody));
+    }
+
+    @GetMapping("/limiter/metrics")
+    @Operation(summary = "Concurrency limiter metrics",
+               description = "Current adaptive concurrency limit, requests in flight and accepted/rejected counters")
+    public ResponseEntity<ConcurrencyLimitMetrics> limiterMetrics() {
+        return ResponseEntity.ok(concurrencyLimiter.getMetrics());
+    }
+
     @GetMapping("/health")
-    @Operation(summary = "Health check", description = "Check if the service is running")
+    @Operation(summary = "Health check",
+               description = "Check if the service is running and ready for traffic; 503 while warming up")
     public ResponseEntity<String> healthCheck() {
+        if (applicationAvailability.getReadinessState() != ReadinessState.ACCEPTING_TRAFFIC) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body("Inventory Service is warming up");
+        }
         return ResponseEntity.ok("Inventory Service is running");
     }
-}
 
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.split(";");
+            if (parts[0].trim().equalsIgnoreCase("gzip")) {
+                return parts.length < 2 || !parts[1].replace(" ", "").matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,60 @@
+package com.inventory.controller;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+
+/**
+ * Product request paths of {@link InventoryController}, for the filters that act on a request before
+ * it is mapped: GET /inventory/{productId}, GET /inventory/{productId}/available and
+ * POST /inventory/update.
+ */
+public final class InventoryRequestPaths {
+
+    public static final String PREFIX = "/inventory/";
+    public static final String UPDATE_PATH = "/inventory/update";
+
+    // First segments under /inventory/ that name an endpoint rather than a product
+    private static final Set<String> NON_PRODUCT_PATHS =
+            Set.of("health", "changes", "available", "update", "limiter", "movements", "batches");
+
+    private InventoryRequestPaths() {
+    }
+
+    /**
+     * @return Request path without the context path
+     */
+    public static String pathOf(HttpServletRequest request) {
+        return request.getRequestURI().substring(request.getContextPath().length());
+    }
+
+    /**
+     * @return true for POST /inventory/update
+     */
+    public static boolean isUpdate(String method, String path) {
+        return "POST".equals(method) && UPDATE_PATH.equals(path);
+    }
+
+    /**
+     * Product id of GET /inventory/{productId} and GET /inventory/{productId}/available.
+     *
+     * @param method HTTP method
+     * @param path Request path without the context path
+     * @return Decoded product id, or null for any other request
+     */
+    public static String productIdFromPath(String method, String path) {
+        if (!"GET".equals(method) || !path.startsWith(PREFIX)) {
+            return null;
+        }
+        String[] segments = path.substring(PREFIX.length()).split("/", -1);
+        if (segments[0].isEmpty() || NON_PRODUCT_PATHS.contains(segments[0])) {
+            return null;
+        }
+        if (segments.length > 2 || (segments.length == 2 && !"available".equals(segments[1]))) {
+            return null;
+        }
+        return URLDecoder.decode(segments[0], StandardCharsets.UTF_8);
+    }
+}
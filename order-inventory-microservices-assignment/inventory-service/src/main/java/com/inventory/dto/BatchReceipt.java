@@ -0,0 +1,37 @@
+package com.inventory.dto;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * One received batch, a line of a bulk goods receipt.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BatchReceipt {
+
+    @NotBlank(message = "Batch number is required")
+    private String batchNumber;
+
+    @NotBlank(message = "Product ID is required")
+    private String productId;
+
+    @NotNull(message = "Quantity is required")
+    @Min(value = 0, message = "Quantity must not be negative")
+    private Integer quantity;
+
+    @NotNull(message = "Expiry date is required")
+    private LocalDate expiryDate;
+
+    @NotNull(message = "Manufacturing date is required")
+    private LocalDate manufacturingDate;
+}
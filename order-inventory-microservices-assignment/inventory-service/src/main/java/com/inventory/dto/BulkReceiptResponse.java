@@ -0,0 +1,38 @@
+package com.inventory.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Outcome of a bulk goods receipt. Every non-blank line is counted exactly once: as inserted,
+ * unchanged, duplicate or rejected. Rejected lines are listed with their error.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BulkReceiptResponse {
+
+    private int received;
+    private int inserted;
+    private int unchanged;
+    private int duplicates;
+    private int rejected;
+    private long durationMs;
+
+    @Builder.Default
+    private List<RejectedLine> errors = new ArrayList<>();
+
+    @Data
+    @AllArgsConstructor
+    public static class RejectedLine {
+        private int line;
+        private String batchNumber;
+        private String error;
+    }
+}
@@ -0,0 +1,21 @@
+package com.inventory.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * State of the adaptive concurrency limiter.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ConcurrencyLimitMetrics {
+    private int limit;
+    private int inFlight;
+    private long accepted;
+    private long rejected;
+    private double baselineLatencyMillis;
+}
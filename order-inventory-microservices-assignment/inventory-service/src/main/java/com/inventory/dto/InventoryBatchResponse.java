@@ -1,11 +1,13 @@
 package com.inventory.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 
 @Data
 @NoArgsConstructor
@@ -20,5 +22,11 @@ public class InventoryBatchResponse {
     private LocalDate expiryDate;
     private LocalDate manufacturingDate;
     private Boolean isExpired;
+
+    /**
+     * When the batch was moved to the archive; absent for live batches.
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private LocalDateTime archivedAt;
 }
 
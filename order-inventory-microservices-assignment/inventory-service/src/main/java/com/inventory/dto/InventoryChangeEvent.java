@@ -0,0 +1,31 @@
+package com.inventory.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * A change to the quantity of one inventory batch, as published on the change feed.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class InventoryChangeEvent {
+
+    private long sequence;
+    private String productId;
+    private String batchNumber;
+    private ChangeType type;
+    private Integer quantityDelta;
+    private Integer remainingQuantity;
+    private LocalDateTime occurredAt;
+
+    public enum ChangeType {
+        DEDUCTION,
+        RESTOCK
+    }
+}
@@ -0,0 +1,26 @@
+package com.inventory.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * A deduction from or restock of one inventory batch, as recorded in the movement journal.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class InventoryMovement {
+
+    private long sequence;
+    private String productId;
+    private String batchNumber;
+    private InventoryChangeEvent.ChangeType type;
+    private int quantityDelta;
+    private int remainingQuantity;
+    private LocalDateTime occurredAt;
+}
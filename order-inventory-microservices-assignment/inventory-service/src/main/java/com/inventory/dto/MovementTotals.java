@@ -0,0 +1,21 @@
+package com.inventory.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Journaled movements of one product summed up, for reconciling orders against deductions.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class MovementTotals {
+
+    private String productId;
+    private long deducted;
+    private long restocked;
+    private long movements;
+}
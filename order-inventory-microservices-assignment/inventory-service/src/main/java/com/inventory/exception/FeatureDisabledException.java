@@ -0,0 +1,14 @@
+package com.inventory.exception;
+
+/**
+ * An endpoint that cannot work with the current configuration, e.g. one that needs the movement
+ * journal while it is disabled. Answered with 501 Not Implemented.
+ */
+public class FeatureDisabledException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public FeatureDisabledException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,85 @@
+package com.inventory.factory;
+
+import com.inventory.dto.InventoryUpdateResponse;
+import com.inventory.exception.InsufficientInventoryException;
+import com.inventory.model.InventoryBatch;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * FEFO (First Expired First Out) strategy with a minimum remaining shelf-life.
+ * Batches expiring within the configured number of days are skipped. The quantity is then taken
+ * from the first eligible batches in expiry order, each emptied before the next is used. The batches
+ * come sorted by expiry, so the eligible ones start at the cut-off and the eligible stock is checked
+ * before any batch is changed.
+ */
+@Component
+@Slf4j
+public class FefoInventoryStrategy implements InventoryStrategy {
+
+    private final int minShelfLifeDays;
+
+    public FefoInventoryStrategy(@Value("${inventory.strategy.fefo.min-shelf-life-days:0}") int minShelfLifeDays) {
+        this.minShelfLifeDays = minShelfLifeDays;
+    }
+
+    @Override
+    public InventoryUpdateResponse deductInventory(List<InventoryBatch> batches, int quantity) {
+        log.info("Applying FEFO strategy to deduct {} units (min shelf-life {} days)", quantity, minShelfLifeDays);
+
+        // A batch expiring on the cut-off date still has exactly minShelfLifeDays left
+        LocalDate cutOff = LocalDate.now().plusDays(minShelfLifeDays);
+        int from = 0;
+        while (from < batches.size() && batches.get(from).getExpiryDate().isBefore(cutOff)) {
+            from++;
+        }
+
+        long available = 0;
+        for (int position = from; position < batches.size() && available < quantity; position++) {
+            available += batches.get(position).getQuantity();
+        }
+        if (available < quantity) {
+            throw new InsufficientInventoryException(
+                "Insufficient inventory with at least " + minShelfLifeDays + " days shelf-life. Required: "
+                        + quantity + ", Available: " + available
+            );
+        }
+
+        int remainingQuantity = quantity;
+        List<InventoryUpdateResponse.BatchDeduction> deductions = new ArrayList<>();
+
+        for (int position = from; position < batches.size() && remainingQuantity > 0; position++) {
+            InventoryBatch batch = batches.get(position);
+            int toDeduct = Math.min(remainingQuantity, batch.getQuantity());
+            if (toDeduct == 0) {
+                continue;
+            }
+
+            batch.reduceQuantity(toDeduct);
+            remainingQuantity -= toDeduct;
+
+            deductions.add(InventoryUpdateResponse.BatchDeduction.builder()
+                    .batchNumber(batch.getBatchNumber())
+                    .quantityDeducted(toDeduct)
+                    .build());
+
+            log.debug("Deducted {} units from batch {}", toDeduct, batch.getBatchNumber());
+        }
+
+        return InventoryUpdateResponse.builder()
+                .totalQuantityDeducted(quantity)
+                .batchDeductions(deductions)
+                .message("Inventory deducted successfully using FEFO strategy")
+                .build();
+    }
+
+    @Override
+    public String getStrategyType() {
+        return "FEFO";
+    }
+}
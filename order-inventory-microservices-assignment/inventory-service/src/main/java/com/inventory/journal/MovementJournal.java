@@ -0,0 +1,706 @@
+package com.inventory.journal;
+
+import com.inventory.dto.InventoryChangeEvent;
+import com.inventory.dto.InventoryMovement;
+import com.inventory.dto.MovementTotals;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only binary journal of inventory movements (batch deductions and restocks).
+ * Records are written into memory-mapped segment files of a fixed size; when a record does not fit,
+ * the segment is forced to disk and a new one is started, named after its first sequence.
+ * Durability uses group commit: appends only copy bytes into the mapping, and a single flusher
+ * thread forces everything written since its last pass with one fsync. Callers that wait for their
+ * records to be durable therefore share fsyncs with every other append in flight.
+ * <p>
+ * Services journal their movements just before their transaction commits, so a crash can never
+ * leave a committed change without its movement. If the transaction then rolls back, compensating
+ * movements with the opposite quantity are appended; only a crash between the append and the end of
+ * the transaction leaves movements that never happened. The database is therefore the authority for
+ * any product moved in a replayed journal tail, and the journal over-reports rather than misses.
+ * <p>
+ * Segment layout: magic, format version and first sequence, followed by records of
+ * length, CRC32C of the payload and the payload itself (sequence, time, type, quantity delta,
+ * remaining quantity, product id and batch number). The length is written last, so a record torn
+ * by a crash fails the length or checksum test and ends the journal on recovery.
+ */
+@Component
+@Slf4j
+public class MovementJournal {
+
+    static final int SEGMENT_HEADER_SIZE = 16;
+    static final int RECORD_HEADER_SIZE = 8;
+
+    private static final int MAGIC = 0x494D4A4C;
+    private static final int VERSION = 1;
+    private static final int FIXED_PAYLOAD_SIZE = 8 + 8 + 1 + 4 + 4 + 2 + 2;
+    private static final int MAX_ID_BYTES = 1024;
+    private static final Pattern SEGMENT_NAME = Pattern.compile("movements-(\\d{20})\\.seg");
+    private static final InventoryChangeEvent.ChangeType[] TYPES = InventoryChangeEvent.ChangeType.values();
+
+    private final boolean enabled;
+    private final Path directory;
+    private final int segmentSize;
+    private final boolean waitForFsync;
+    private final long fsyncIntervalNanos;
+    private final long fsyncTimeoutNanos;
+    // Segments never move or shrink once their header is written, so one read mapping each serves every replay
+    private final Map<Long, ByteBuffer> readMappings = new ConcurrentHashMap<>();
+
+    // Guarded by this
+    private Segment active;
+    private int dirtyFrom;
+    private long lastSequence;
+    private long durableSequence;
+    // First sequence of each append whose transaction has not completed yet
+    private final TreeSet<Long> unsettled = new TreeSet<>();
+    private long fsyncCount;
+    private boolean closed;
+    private Thread flusher;
+
+    @Autowired
+    public MovementJournal(@Value("${inventory.journal.enabled:true}") boolean enabled,
+                           @Value("${inventory.journal.directory:data/journal}") Path directory,
+                           @Value("${inventory.journal.segment-size:64MB}") DataSize segmentSize,
+                           @Value("${inventory.journal.wait-for-fsync:true}") boolean waitForFsync,
+                           @Value("${inventory.journal.fsync-interval:10ms}") Duration fsyncInterval,
+                           @Value("${inventory.journal.fsync-timeout:2s}") Duration fsyncTimeout) {
+        if (segmentSize.toBytes() > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Journal segment size must be below 2GB");
+        }
+        if (segmentSize.toBytes() < SEGMENT_HEADER_SIZE + RECORD_HEADER_SIZE + FIXED_PAYLOAD_SIZE + 2 * MAX_ID_BYTES) {
+            throw new IllegalArgumentException("Journal segment size is too small to hold a record");
+        }
+        this.enabled = enabled;
+        this.directory = directory;
+        this.segmentSize = (int) segmentSize.toBytes();
+        this.waitForFsync = waitForFsync;
+        this.fsyncIntervalNanos = fsyncInterval.toNanos();
+        this.fsyncTimeoutNanos = fsyncTimeout.toNanos();
+    }
+
+    /**
+     * Open the last segment, drop a record torn by a crash and start the flusher.
+     */
+    @PostConstruct
+    public synchronized void open() {
+        if (!enabled) {
+            log.info("Movement journal is disabled");
+            return;
+        }
+        try {
+            Files.createDirectories(directory);
+            Map.Entry<Long, Path> last = listSegments().lastEntry();
+            if (last == null) {
+                active = createSegment(1);
+                lastSequence = 0;
+            } else {
+                active = mapForWrite(last.getValue(), last.getKey());
+                ScanResult recovered = scan(active.buffer, active.baseSequence, Long.MAX_VALUE, Long.MAX_VALUE, null);
+                active.position = recovered.end;
+                lastSequence = recovered.lastSequence;
+                clearTail(active.buffer, recovered.end);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open movement journal in " + directory, e);
+        }
+        dirtyFrom = active.position;
+        durableSequence = lastSequence;
+        flusher = new Thread(this::runFlusher, "movement-journal-flusher");
+        flusher.setDaemon(true);
+        flusher.start();
+        log.info("Movement journal opened in {} at sequence {}", directory.toAbsolutePath(), lastSequence);
+    }
+
+    /**
+     * Append movements to the journal. When wait-for-fsync is on, returns once they are on disk.
+     *
+     * @param events Committed batch changes, in the order they happened
+     * @return Journal sequence of the last appended movement, or 0 if nothing was appended
+     */
+    public long append(List<InventoryChangeEvent> events) {
+        if (!enabled || events.isEmpty()) {
+            return 0;
+        }
+        long sequence = writeAll(events, false);
+        if (waitForFsync && !awaitDurable(sequence)) {
+            log.warn("Movement journal fsync did not complete within {} ms, sequence {} is not yet durable",
+                    TimeUnit.NANOSECONDS.toMillis(fsyncTimeoutNanos), sequence);
+        }
+        return sequence;
+    }
+
+    /**
+     * Append the movements of the current transaction just before it commits. With wait-for-fsync
+     * on, a movement that is not on disk within fsync-timeout fails the commit, so every committed
+     * change is journaled. If the transaction rolls back after the append, compensating movements
+     * are appended. Without a transaction the movements are appended right away.
+     *
+     * @param events Batch changes made in the current transaction, in the order they happened
+     */
+    public void appendBeforeCommit(List<InventoryChangeEvent> events) {
+        if (!enabled || events.isEmpty()) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            append(events);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            private long first;
+
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                long last = writeAll(events, true);
+                first = last - events.size() + 1;
+                if (waitForFsync && !awaitDurable(last)) {
+                    throw new IllegalStateException("Movement journal fsync did not complete within "
+                            + TimeUnit.NANOSECONDS.toMillis(fsyncTimeoutNanos) + " ms");
+                }
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                if (first == 0) {
+                    return;
+                }
+                try {
+                    if (status == STATUS_ROLLED_BACK) {
+                        append(compensate(events));
+                    } else if (status == STATUS_UNKNOWN) {
+                        log.warn("Outcome of the transaction that journaled movements {} to {} is unknown",
+                                first, first + events.size() - 1);
+                    }
+                } catch (RuntimeException e) {
+                    log.error("Failed to compensate rolled back movements {} to {}: {}",
+                            first, first + events.size() - 1, e.getMessage());
+                } finally {
+                    synchronized (MovementJournal.this) {
+                        unsettled.remove(first);
+                    }
+                }
+            }
+        });
+    }
+
+    /**
+     * Movements after the given sequence, oldest first.
+     *
+     * @param since Last sequence already seen, 0 to read from the beginning
+     * @param limit Maximum number of movements
+     * @param productId Only return movements of this product, or null for all
+     * @return Up to limit movements
+     */
+    public List<InventoryMovement> read(long since, int limit, String productId) {
+        List<InventoryMovement> movements = new ArrayList<>(Math.min(limit, 1024));
+        if (limit <= 0) {
+            return movements;
+        }
+        replay(since, movement -> {
+            if (productId == null || productId.equals(movement.getProductId())) {
+                movements.add(movement);
+            }
+            return movements.size() < limit;
+        });
+        return movements;
+    }
+
+    /**
+     * Sum up the journaled movements of each product that occurred in a time window.
+     * Memory grows with the number of products, not with the length of the journal.
+     *
+     * @param from Only count movements at or after this time, or null for no lower bound
+     * @param to Only count movements before this time, or null for no upper bound
+     * @return Totals by product id; deductions are summed as positive quantities
+     */
+    public Map<String, MovementTotals> totals(LocalDateTime from, LocalDateTime to) {
+        Map<String, MovementTotals> totals = new HashMap<>();
+        replay(0, movement -> {
+            LocalDateTime occurredAt = movement.getOccurredAt();
+            if ((from != null && occurredAt.isBefore(from)) || (to != null && !occurredAt.isBefore(to))) {
+                return true;
+            }
+            MovementTotals product = totals.computeIfAbsent(movement.getProductId(),
+                    id -> MovementTotals.builder().productId(id).build());
+            if (movement.getType() == InventoryChangeEvent.ChangeType.DEDUCTION) {
+                product.setDeducted(product.getDeducted() - movement.getQuantityDelta());
+            } else {
+                product.setRestocked(product.getRestocked() + movement.getQuantityDelta());
+            }
+            product.setMovements(product.getMovements() + 1);
+            return true;
+        });
+        return totals;
+    }
+
+    /**
+     * Feed every movement after the given sequence to the visitor, oldest first, until it returns false.
+     * Only movements appended before the call are visited.
+     *
+     * @param since Last sequence already seen, 0 to replay from the beginning
+     * @param visitor Called for each movement; return false to stop
+     * @return Sequence of the last visited movement, or since if none was visited
+     */
+    public long replay(long since, Predicate<InventoryMovement> visitor) {
+        return replay(since, getLastSequence(), visitor);
+    }
+
+    /**
+     * Like {@link #replay(long, Predicate)}, but stop after the given sequence.
+     *
+     * @param since Last sequence already seen, 0 to replay from the beginning
+     * @param upTo Last sequence to visit
+     * @param visitor Called for each movement; return false to stop
+     * @return Sequence of the last visited movement, or since if none was visited
+     */
+    public long replay(long since, long upTo, Predicate<InventoryMovement> visitor) {
+        if (!enabled) {
+            return since;
+        }
+        long last = since;
+        try {
+            List<Map.Entry<Long, Path>> segments = new ArrayList<>(listSegments().entrySet());
+            for (int i = 0; i < segments.size() && last < upTo; i++) {
+                boolean hasNext = i + 1 < segments.size();
+                if (hasNext && segments.get(i + 1).getKey() <= last + 1) {
+                    // Everything wanted starts in a later segment
+                    continue;
+                }
+                ByteBuffer buffer = mapForRead(segments.get(i).getValue(), segments.get(i).getKey());
+                if (buffer == null) {
+                    continue;
+                }
+                ScanResult result = scan(buffer, segments.get(i).getKey(), last, upTo, visitor);
+                last = Math.max(last, result.lastVisited);
+                if (result.stopped) {
+                    break;
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read movement journal in " + directory, e);
+        }
+        return last;
+    }
+
+    /**
+     * Wait until every movement up to the sequence has been forced to disk.
+     *
+     * @param sequence Journal sequence returned by {@link #append}
+     * @return true if durable, false on timeout or close
+     */
+    public boolean awaitDurable(long sequence) {
+        long deadline = System.nanoTime() + fsyncTimeoutNanos;
+        synchronized (this) {
+            while (durableSequence < sequence && !closed) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    return false;
+                }
+                try {
+                    TimeUnit.NANOSECONDS.timedWait(this, remaining);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+            }
+            return durableSequence >= sequence;
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Sequence of the most recently appended movement, or 0 if none.
+     */
+    public synchronized long getLastSequence() {
+        return lastSequence;
+    }
+
+    /**
+     * Sequence up to which every movement belongs to a finished transaction: committed, or rolled
+     * back and compensated. A database read started afterwards sees all of them.
+     */
+    public synchronized long getSettledSequence() {
+        return unsettled.isEmpty() ? lastSequence : unsettled.first() - 1;
+    }
+
+    /**
+     * Sequence up to which movements are known to be on disk.
+     */
+    public synchronized long getDurableSequence() {
+        return durableSequence;
+    }
+
+    /**
+     * Number of fsyncs issued by the flusher; compared with the number of appends this shows
+     * how many appends each fsync covered.
+     */
+    public synchronized long getFsyncCount() {
+        return fsyncCount;
+    }
+
+    @PreDestroy
+    public void close() {
+        Thread thread;
+        synchronized (this) {
+            if (!enabled || closed) {
+                return;
+            }
+            closed = true;
+            notifyAll();
+            thread = flusher;
+        }
+        try {
+            thread.join(TimeUnit.NANOSECONDS.toMillis(fsyncTimeoutNanos));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        synchronized (this) {
+            active.buffer.force();
+            durableSequence = lastSequence;
+        }
+    }
+
+    private synchronized long writeAll(List<InventoryChangeEvent> events, boolean untilCompletion) {
+        if (closed) {
+            throw new IllegalStateException("Movement journal is closed");
+        }
+        long first = lastSequence + 1;
+        for (InventoryChangeEvent event : events) {
+            write(event);
+        }
+        if (untilCompletion) {
+            unsettled.add(first);
+        }
+        notifyAll();
+        return lastSequence;
+    }
+
+    private void write(InventoryChangeEvent event) {
+        byte[] productId = encode(event.getProductId());
+        byte[] batchNumber = encode(event.getBatchNumber());
+        int length = FIXED_PAYLOAD_SIZE + productId.length + batchNumber.length;
+        if (active.position + RECORD_HEADER_SIZE + length > active.buffer.capacity()) {
+            roll();
+        }
+        long sequence = lastSequence + 1;
+        long occurredAt = (event.getOccurredAt() != null ? event.getOccurredAt() : LocalDateTime.now())
+                .toInstant(ZoneOffset.UTC).toEpochMilli();
+
+        MappedByteBuffer buffer = active.buffer;
+        int record = active.position;
+        int offset = record + RECORD_HEADER_SIZE;
+        buffer.putLong(offset, sequence);
+        buffer.putLong(offset + 8, occurredAt);
+        buffer.put(offset + 16, (byte) event.getType().ordinal());
+        buffer.putInt(offset + 17, event.getQuantityDelta() != null ? event.getQuantityDelta() : 0);
+        buffer.putInt(offset + 21, event.getRemainingQuantity() != null ? event.getRemainingQuantity() : 0);
+        buffer.putShort(offset + 25, (short) productId.length);
+        buffer.put(offset + 27, productId);
+        buffer.putShort(offset + 27 + productId.length, (short) batchNumber.length);
+        buffer.put(offset + 29 + productId.length, batchNumber);
+        buffer.putInt(record + 4, checksum(buffer, offset, length));
+        // Publish the record by writing its length last
+        buffer.putInt(record, length);
+
+        active.position = offset + length;
+        lastSequence = sequence;
+    }
+
+    /**
+     * Force the full segment and continue in a new one. Called with the lock held.
+     */
+    private void roll() {
+        active.buffer.force();
+        durableSequence = lastSequence;
+        try {
+            active = createSegment(lastSequence + 1);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot create movement journal segment in " + directory, e);
+        }
+        dirtyFrom = active.position;
+        notifyAll();
+        log.debug("Movement journal rolled to segment starting at sequence {}", active.baseSequence);
+    }
+
+    /**
+     * Flush loop: wait for appends, then force everything written so far with one fsync.
+     * Without wait-for-fsync the flusher first lets appends accumulate for the fsync interval.
+     */
+    private void runFlusher() {
+        try {
+            while (true) {
+                synchronized (this) {
+                    while (!closed && durableSequence == lastSequence) {
+                        wait();
+                    }
+                    if (closed) {
+                        return;
+                    }
+                }
+                if (!waitForFsync) {
+                    TimeUnit.NANOSECONDS.sleep(fsyncIntervalNanos);
+                }
+                Segment segment;
+                int from;
+                int to;
+                long upTo;
+                synchronized (this) {
+                    segment = active;
+                    from = dirtyFrom;
+                    to = active.position;
+                    upTo = lastSequence;
+                    dirtyFrom = to;
+                }
+                if (to > from) {
+                    segment.buffer.force(from, to - from);
+                }
+                synchronized (this) {
+                    durableSequence = Math.max(durableSequence, upTo);
+                    fsyncCount++;
+                    notifyAll();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            log.error("Movement journal flusher stopped: {}", e.getMessage(), e);
+        }
+    }
+
+    private Segment createSegment(long baseSequence) throws IOException {
+        Path path = directory.resolve(String.format("movements-%020d.seg", baseSequence));
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+        }
+        buffer.putInt(0, MAGIC);
+        buffer.putInt(4, VERSION);
+        buffer.putLong(8, baseSequence);
+        buffer.force(0, SEGMENT_HEADER_SIZE);
+        Segment segment = new Segment(buffer, baseSequence);
+        segment.position = SEGMENT_HEADER_SIZE;
+        return segment;
+    }
+
+    private Segment mapForWrite(Path path, long baseSequence) throws IOException {
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            // Keep the size the segment was created with, even if the configured size has changed since
+            buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size());
+        }
+        if (buffer.getInt(0) == 0) {
+            // Created just before a crash, header never written
+            buffer.putInt(0, MAGIC);
+            buffer.putInt(4, VERSION);
+            buffer.putLong(8, baseSequence);
+        } else if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+            throw new IllegalStateException("Not a movement journal segment: " + path);
+        }
+        return new Segment(buffer, baseSequence);
+    }
+
+    /**
+     * Read-only mapping of a segment, or null if its header has not been written yet. Mappings are
+     * cached for the life of the journal; readers only use absolute reads, so they can share one.
+     * Records appended later through the write mapping are visible through it, since both map the same file.
+     */
+    private ByteBuffer mapForRead(Path path, long baseSequence) throws IOException {
+        ByteBuffer cached = readMappings.get(baseSequence);
+        if (cached != null) {
+            return cached;
+        }
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        if (buffer.capacity() < SEGMENT_HEADER_SIZE || buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+            return null;
+        }
+        ByteBuffer existing = readMappings.putIfAbsent(baseSequence, buffer);
+        return existing != null ? existing : buffer;
+    }
+
+    private TreeMap<Long, Path> listSegments() throws IOException {
+        TreeMap<Long, Path> segments = new TreeMap<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            files.forEach(file -> {
+                Matcher matcher = SEGMENT_NAME.matcher(file.getFileName().toString());
+                if (matcher.matches()) {
+                    segments.put(Long.parseLong(matcher.group(1)), file);
+                }
+            });
+        }
+        return segments;
+    }
+
+    /**
+     * Walk the valid records of a segment, visiting those after since and up to upTo.
+     * Stops at the first empty, torn or out-of-sequence record.
+     */
+    private static ScanResult scan(ByteBuffer buffer, long baseSequence, long since, long upTo,
+                                   Predicate<InventoryMovement> visitor) {
+        ScanResult result = new ScanResult();
+        int position = SEGMENT_HEADER_SIZE;
+        long expected = baseSequence;
+        int limit = buffer.capacity();
+        while (position + RECORD_HEADER_SIZE <= limit) {
+            int length = buffer.getInt(position);
+            int offset = position + RECORD_HEADER_SIZE;
+            if (length < FIXED_PAYLOAD_SIZE || length > limit - offset
+                    || buffer.getLong(offset) != expected || expected > upTo
+                    || buffer.getInt(position + 4) != checksum(buffer, offset, length)) {
+                break;
+            }
+            if (expected > since && visitor != null) {
+                result.lastVisited = expected;
+                if (!visitor.test(decode(buffer, offset))) {
+                    result.stopped = true;
+                    break;
+                }
+            }
+            position = offset + length;
+            expected++;
+        }
+        if (expected > upTo) {
+            result.stopped = true;
+        }
+        result.end = position;
+        result.lastSequence = expected - 1;
+        return result;
+    }
+
+    /**
+     * Movements undoing the given ones: same product, batch and type with the opposite quantity.
+     */
+    private static List<InventoryChangeEvent> compensate(List<InventoryChangeEvent> events) {
+        List<InventoryChangeEvent> compensations = new ArrayList<>(events.size());
+        for (InventoryChangeEvent event : events) {
+            int delta = event.getQuantityDelta() != null ? event.getQuantityDelta() : 0;
+            int remaining = event.getRemainingQuantity() != null ? event.getRemainingQuantity() : 0;
+            compensations.add(InventoryChangeEvent.builder()
+                    .productId(event.getProductId())
+                    .batchNumber(event.getBatchNumber())
+                    .type(event.getType())
+                    .quantityDelta(-delta)
+                    .remainingQuantity(remaining - delta)
+                    .occurredAt(event.getOccurredAt())
+                    .build());
+        }
+        return compensations;
+    }
+
+    private static InventoryMovement decode(ByteBuffer buffer, int offset) {
+        int productIdLength = Short.toUnsignedInt(buffer.getShort(offset + 25));
+        int batchNumberLength = Short.toUnsignedInt(buffer.getShort(offset + 27 + productIdLength));
+        return InventoryMovement.builder()
+                .sequence(buffer.getLong(offset))
+                .occurredAt(LocalDateTime.ofInstant(Instant.ofEpochMilli(buffer.getLong(offset + 8)), ZoneOffset.UTC))
+                .type(TYPES[buffer.get(offset + 16)])
+                .quantityDelta(buffer.getInt(offset + 17))
+                .remainingQuantity(buffer.getInt(offset + 21))
+                .productId(decode(buffer, offset + 27, productIdLength))
+                .batchNumber(decode(buffer, offset + 29 + productIdLength, batchNumberLength))
+                .build();
+    }
+
+    private static String decode(ByteBuffer buffer, int offset, int length) {
+        byte[] bytes = new byte[length];
+        buffer.get(offset, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static byte[] encode(String value) {
+        byte[] bytes = (value != null ? value : "").getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > MAX_ID_BYTES) {
+            throw new IllegalArgumentException("Identifier too long for the movement journal: " + value);
+        }
+        return bytes;
+    }
+
+    private static int checksum(ByteBuffer buffer, int offset, int length) {
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.duplicate().limit(offset + length).position(offset));
+        return (int) crc.getValue();
+    }
+
+    /**
+     * Zero whatever a crashed writer left after the last valid record, so it can never be
+     * mistaken for a record once new ones are appended in front of it. Only the record being
+     * written at the time of the crash can be there, so the largest possible record is cleared
+     * rather than the whole, mostly untouched, rest of the segment.
+     */
+    private static void clearTail(MappedByteBuffer buffer, int from) {
+        int limit = (int) Math.min(buffer.capacity(), (long) from + RECORD_HEADER_SIZE + FIXED_PAYLOAD_SIZE + 2 * MAX_ID_BYTES);
+        int position = from;
+        while (position < limit && (position & 7) != 0) {
+            buffer.put(position++, (byte) 0);
+        }
+        for (; position + 8 <= limit; position += 8) {
+            if (buffer.getLong(position) != 0) {
+                buffer.putLong(position, 0);
+            }
+        }
+        for (; position < limit; position++) {
+            buffer.put(position, (byte) 0);
+        }
+    }
+
+    private static final class Segment {
+
+        private final MappedByteBuffer buffer;
+        private final long baseSequence;
+        private int position;
+
+        private Segment(MappedByteBuffer buffer, long baseSequence) {
+            this.buffer = buffer;
+            this.baseSequence = baseSequence;
+        }
+    }
+
+    private static final class ScanResult {
+
+        private int end;
+        private long lastSequence;
+        private long lastVisited;
+        private boolean stopped;
+    }
+}
@@ -0,0 +1,155 @@
+package com.inventory.journal;
+
+import com.inventory.journal.StockSnapshot.BatchStock;
+import com.inventory.journal.StockSnapshot.ProductStock;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.TreeSet;
+import java.util.function.Function;
+
+/**
+ * Batch quantities as of a point in the movement journal: a stock snapshot plus the products moved
+ * in the journal after it. The tail may hold movements of transactions that never committed, so the
+ * snapshot only answers for products the tail did not move; the database is the authority for the
+ * others. Only the journal tail is read; the snapshot itself stays memory-mapped and products are
+ * looked up in it on demand.
+ */
+public class RecoveredStock {
+
+    private final StockSnapshot snapshot;
+    private final TreeSet<String> tailProducts;
+    private final long lastSequence;
+    private final long tailMovements;
+
+    public RecoveredStock(StockSnapshot snapshot, TreeSet<String> tailProducts,
+                          long lastSequence, long tailMovements) {
+        this.snapshot = snapshot;
+        this.tailProducts = tailProducts;
+        this.lastSequence = lastSequence;
+        this.tailMovements = tailMovements;
+    }
+
+    /**
+     * Replay the whole journal after the snapshot's sequence.
+     *
+     * @param snapshot Snapshot to start from
+     * @param journal Journal holding the movements after the snapshot
+     * @return Quantities as of the last journaled movement
+     */
+    public static RecoveredStock replay(StockSnapshot snapshot, MovementJournal journal) {
+        return replay(snapshot, journal, journal.getLastSequence());
+    }
+
+    /**
+     * Replay the journal after the snapshot's sequence up to the given sequence.
+     *
+     * @param snapshot Snapshot to start from
+     * @param journal Journal holding the movements after the snapshot
+     * @param upTo Last sequence to replay
+     * @return Quantities as of the last replayed movement
+     */
+    public static RecoveredStock replay(StockSnapshot snapshot, MovementJournal journal, long upTo) {
+        TreeSet<String> products = new TreeSet<>();
+        long[] movements = new long[1];
+        long last = journal.replay(snapshot.getJournalSequence(), upTo, movement -> {
+            products.add(movement.getProductId());
+            movements[0]++;
+            return true;
+        });
+        return new RecoveredStock(snapshot, products, last, movements[0]);
+    }
+
+    /**
+     * Batches of a product as of the snapshot, if the journal tail did not move the product.
+     *
+     * @param productId The product identifier
+     * @return The product's batches, or null if the snapshot cannot tell: the product is not in it,
+     *         or the tail moved it and only the database knows its quantities
+     */
+    public List<BatchStock> findBatches(String productId) {
+        if (tailProducts.contains(productId)) {
+            return null;
+        }
+        return snapshot.findBatches(productId);
+    }
+
+    /**
+     * Every product, in ascending product id order, for writing the next snapshot: products the tail
+     * did not move as in the snapshot, the others as the database has them now. Batches left empty
+     * or expired are dropped.
+     *
+     * @param currentBatches Batches of a product as the database has them now
+     * @param today Batches expiring on or before this date are dropped
+     * @return Products to write
+     */
+    public Iterator<ProductStock> merge(Function<String, List<BatchStock>> currentBatches, LocalDate today) {
+        Iterator<ProductStock> snapshotProducts = snapshot.iterator();
+        Iterator<String> movedProducts = tailProducts.iterator();
+        return new Iterator<>() {
+            private ProductStock nextSnapshot = advance(snapshotProducts);
+            private String nextTail = advance(movedProducts);
+
+            @Override
+            public boolean hasNext() {
+                return nextSnapshot != null || nextTail != null;
+            }
+
+            @Override
+            public ProductStock next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                int comparison = nextSnapshot == null ? 1
+                        : nextTail == null ? -1
+                        : nextSnapshot.getProductId().compareTo(nextTail);
+                ProductStock product;
+                if (comparison < 0) {
+                    product = nextSnapshot;
+                } else {
+                    product = new ProductStock(nextTail, currentBatches.apply(nextTail));
+                    nextTail = advance(movedProducts);
+                }
+                if (comparison <= 0) {
+                    nextSnapshot = advance(snapshotProducts);
+                }
+                return available(product, today);
+            }
+        };
+    }
+
+    public StockSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    /**
+     * Sequence of the last movement reflected in the quantities.
+     */
+    public long getLastSequence() {
+        return lastSequence;
+    }
+
+    /**
+     * Number of movements replayed from the journal.
+     */
+    public long getTailMovements() {
+        return tailMovements;
+    }
+
+    private static ProductStock available(ProductStock product, LocalDate today) {
+        List<BatchStock> batches = new ArrayList<>(product.getBatches().size());
+        for (BatchStock batch : product.getBatches()) {
+            if (batch.getQuantity() > 0 && batch.getExpiryDate().isAfter(today)) {
+                batches.add(batch);
+            }
+        }
+        return new ProductStock(product.getProductId(), batches);
+    }
+
+    private static <T> T advance(Iterator<T> iterator) {
+        return iterator.hasNext() ? iterator.next() : null;
+    }
+}
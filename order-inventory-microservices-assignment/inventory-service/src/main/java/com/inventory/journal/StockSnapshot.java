@@ -0,0 +1,265 @@
+package com.inventory.journal;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.UUID;
+
+/**
+ * Compact binary image of the batches of every product, taken at one movement journal sequence.
+ * Layout: a header (magic, format version, journal sequence, database epoch, creation time and
+ * product count), one record per product sorted by product id, an index of record offsets and an
+ * end marker. A product record holds the product id and its batches (batch number, expiry day and
+ * quantity). Snapshots are memory-mapped and products are found by binary search over the index,
+ * so opening one costs the same however large the catalog is.
+ */
+public final class StockSnapshot {
+
+    private static final int MAGIC = 0x494D5353;
+    private static final int END_MARKER = ~MAGIC;
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 48;
+    private static final int PRODUCT_COUNT_OFFSET = 40;
+
+    private final Path path;
+    private final MappedByteBuffer buffer;
+    private final long journalSequence;
+    private final UUID databaseEpoch;
+    private final Instant createdAt;
+    private final int productCount;
+    private final int indexOffset;
+
+    private StockSnapshot(Path path, MappedByteBuffer buffer) throws IOException {
+        int size = buffer.capacity();
+        if (size < HEADER_SIZE + 4 || buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION
+                || buffer.getInt(size - 4) != END_MARKER) {
+            throw new IOException("Not a complete stock snapshot: " + path);
+        }
+        this.path = path;
+        this.buffer = buffer;
+        this.journalSequence = buffer.getLong(8);
+        this.databaseEpoch = new UUID(buffer.getLong(16), buffer.getLong(24));
+        this.createdAt = Instant.ofEpochMilli(buffer.getLong(32));
+        this.productCount = buffer.getInt(PRODUCT_COUNT_OFFSET);
+        this.indexOffset = size - 4 - 4 * productCount;
+        if (productCount < 0 || indexOffset < HEADER_SIZE) {
+            throw new IOException("Corrupt stock snapshot index: " + path);
+        }
+    }
+
+    /**
+     * Memory-map a snapshot file.
+     *
+     * @param path Snapshot file
+     * @return The mapped snapshot
+     * @throws IOException if the file cannot be read or is not a complete snapshot
+     */
+    public static StockSnapshot open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Stock snapshot too large to map: " + path);
+            }
+            return new StockSnapshot(path, channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /**
+     * Write a snapshot file and force it to disk.
+     *
+     * @param path File to create or replace
+     * @param journalSequence Last journal sequence reflected in the batch quantities
+     * @param databaseEpoch Epoch of the database the quantities came from
+     * @param products Products in ascending product id order
+     * @return Number of products written
+     * @throws IOException if the file cannot be written
+     */
+    public static int write(Path path, long journalSequence, UUID databaseEpoch,
+                            Iterator<ProductStock> products) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel), 1 << 16));
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(journalSequence);
+            out.writeLong(databaseEpoch.getMostSignificantBits());
+            out.writeLong(databaseEpoch.getLeastSignificantBits());
+            out.writeLong(System.currentTimeMillis());
+            // Product count, filled in at the end
+            out.writeInt(0);
+            out.writeInt(0);
+
+            int[] offsets = new int[1024];
+            int count = 0;
+            String previous = null;
+            while (products.hasNext()) {
+                ProductStock product = products.next();
+                if (previous != null && previous.compareTo(product.getProductId()) >= 0) {
+                    throw new IllegalArgumentException("Snapshot products must be in ascending order: "
+                            + previous + ", " + product.getProductId());
+                }
+                previous = product.getProductId();
+                if (count == offsets.length) {
+                    offsets = Arrays.copyOf(offsets, count * 2);
+                }
+                offsets[count++] = out.size();
+                writeString(out, product.getProductId());
+                out.writeInt(product.getBatches().size());
+                for (BatchStock batch : product.getBatches()) {
+                    writeString(out, batch.getBatchNumber());
+                    out.writeInt((int) batch.getExpiryDate().toEpochDay());
+                    out.writeInt(batch.getQuantity());
+                }
+                // size() stops at Integer.MAX_VALUE instead of wrapping, so a file past the limit
+                // still fails here; the index and end marker must fit too, or the file cannot be mapped
+                if ((long) out.size() + 4L * count + 4 >= Integer.MAX_VALUE) {
+                    throw new IOException("Stock snapshot exceeds 2GB");
+                }
+            }
+            for (int i = 0; i < count; i++) {
+                out.writeInt(offsets[i]);
+            }
+            out.writeInt(END_MARKER);
+            out.flush();
+
+            ByteBuffer productCount = ByteBuffer.allocate(4).putInt(0, count);
+            channel.write(productCount, PRODUCT_COUNT_OFFSET);
+            channel.force(true);
+            return count;
+        }
+    }
+
+    /**
+     * Batches of a product as of this snapshot.
+     *
+     * @param productId The product identifier
+     * @return The product's batches, or null if the product is not in the snapshot
+     */
+    public List<BatchStock> findBatches(String productId) {
+        int low = 0;
+        int high = productCount - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int offset = buffer.getInt(indexOffset + 4 * middle);
+            int comparison = readString(offset).compareTo(productId);
+            if (comparison < 0) {
+                low = middle + 1;
+            } else if (comparison > 0) {
+                high = middle - 1;
+            } else {
+                return readProduct(offset).getBatches();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Every product of the snapshot in ascending product id order.
+     */
+    public Iterator<ProductStock> iterator() {
+        return new Iterator<>() {
+            private int next;
+
+            @Override
+            public boolean hasNext() {
+                return next < productCount;
+            }
+
+            @Override
+            public ProductStock next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return readProduct(buffer.getInt(indexOffset + 4 * next++));
+            }
+        };
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    public long getJournalSequence() {
+        return journalSequence;
+    }
+
+    public UUID getDatabaseEpoch() {
+        return databaseEpoch;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public int getProductCount() {
+        return productCount;
+    }
+
+    private ProductStock readProduct(int offset) {
+        String productId = readString(offset);
+        int position = offset + 2 + Short.toUnsignedInt(buffer.getShort(offset));
+        int batchCount = buffer.getInt(position);
+        position += 4;
+        List<BatchStock> batches = new ArrayList<>(batchCount);
+        for (int i = 0; i < batchCount; i++) {
+            String batchNumber = readString(position);
+            position += 2 + Short.toUnsignedInt(buffer.getShort(position));
+            batches.add(new BatchStock(batchNumber,
+                    LocalDate.ofEpochDay(buffer.getInt(position)), buffer.getInt(position + 4)));
+            position += 8;
+        }
+        return new ProductStock(productId, batches);
+    }
+
+    private String readString(int offset) {
+        byte[] bytes = new byte[Short.toUnsignedInt(buffer.getShort(offset))];
+        buffer.get(offset + 2, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > 0xFFFF) {
+            throw new IllegalArgumentException("Identifier too long for a stock snapshot: " + value);
+        }
+        out.writeShort(bytes.length);
+        out.write(bytes);
+    }
+
+    /**
+     * A product and its batches.
+     */
+    @Data
+    @AllArgsConstructor
+    public static class ProductStock {
+        private String productId;
+        private List<BatchStock> batches;
+    }
+
+    /**
+     * Quantity of one batch.
+     */
+    @Data
+    @AllArgsConstructor
+    public static class BatchStock {
+        private String batchNumber;
+        private LocalDate expiryDate;
+        private int quantity;
+    }
+}
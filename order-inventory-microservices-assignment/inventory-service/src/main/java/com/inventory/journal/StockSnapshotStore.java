@@ -0,0 +1,256 @@
+package com.inventory.journal;
+
+import com.inventory.journal.StockSnapshot.BatchStock;
+import com.inventory.journal.StockSnapshot.ProductStock;
+import com.inventory.repository.DatabaseEpochRepository;
+import com.inventory.repository.InventoryBatchRepository;
+import com.inventory.store.AvailableBatch;
+import com.inventory.store.InventoryStore;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Periodic binary snapshots of every product's batch quantities, so startup can memory-map the latest
+ * snapshot and replay only the movement journal after it instead of reloading the catalog.
+ * The first snapshot of a database is taken from the database while the service starts; later ones
+ * are compacted from the previous snapshot, reading from the database only the products moved in
+ * the journal since, because the journal may hold movements of transactions that never committed.
+ * Each snapshot records the epoch of its database and is only used with that database.
+ */
+@Component
+@Slf4j
+public class StockSnapshotStore {
+
+    private static final Pattern SNAPSHOT_NAME = Pattern.compile("stock-(\\d{20})\\.snap");
+
+    private final MovementJournal journal;
+    private final InventoryStore inventoryStore;
+    private final InventoryBatchRepository inventoryBatchRepository;
+    private final DatabaseEpochRepository databaseEpochRepository;
+    private final Clock clock;
+    private final boolean enabled;
+    private final Path directory;
+    private final long minMovements;
+    private final int retain;
+
+    @Autowired
+    public StockSnapshotStore(MovementJournal journal,
+                              InventoryStore inventoryStore,
+                              InventoryBatchRepository inventoryBatchRepository,
+                              DatabaseEpochRepository databaseEpochRepository,
+                              @Value("${inventory.snapshot.enabled:true}") boolean enabled,
+                              @Value("${inventory.snapshot.directory:data/snapshots}") Path directory,
+                              @Value("${inventory.snapshot.min-movements:1000}") long minMovements,
+                              @Value("${inventory.snapshot.retain:2}") int retain) {
+        this(journal, inventoryStore, inventoryBatchRepository, databaseEpochRepository,
+                enabled, directory, minMovements, retain, Clock.systemDefaultZone());
+    }
+
+    StockSnapshotStore(MovementJournal journal,
+                       InventoryStore inventoryStore,
+                       InventoryBatchRepository inventoryBatchRepository,
+                       DatabaseEpochRepository databaseEpochRepository,
+                       boolean enabled, Path directory, long minMovements, int retain, Clock clock) {
+        this.journal = journal;
+        this.inventoryStore = inventoryStore;
+        this.inventoryBatchRepository = inventoryBatchRepository;
+        this.databaseEpochRepository = databaseEpochRepository;
+        this.enabled = enabled;
+        this.directory = directory;
+        this.minMovements = Math.max(1, minMovements);
+        this.retain = Math.max(1, retain);
+        this.clock = clock;
+    }
+
+    /**
+     * Snapshots need the journal to replay what happened after them.
+     */
+    public boolean isEnabled() {
+        return enabled && journal.isEnabled();
+    }
+
+    /**
+     * Map the latest usable snapshot of this database and replay the journal after it.
+     *
+     * @return Recovered quantities, or empty if there is no usable snapshot
+     */
+    public Optional<RecoveredStock> recover() {
+        return recover(journal.getLastSequence());
+    }
+
+    private Optional<RecoveredStock> recover(long upTo) {
+        if (!isEnabled()) {
+            return Optional.empty();
+        }
+        UUID epoch = databaseEpochRepository.findEpoch();
+        for (Path path : listSnapshots().descendingMap().values()) {
+            StockSnapshot snapshot;
+            try {
+                snapshot = StockSnapshot.open(path);
+            } catch (IOException e) {
+                log.warn("Skipping unreadable stock snapshot {}: {}", path, e.getMessage());
+                continue;
+            }
+            if (!snapshot.getDatabaseEpoch().equals(epoch)) {
+                log.info("Ignoring stock snapshot {}, it was taken from another database", path.getFileName());
+                continue;
+            }
+            if (snapshot.getJournalSequence() > journal.getLastSequence()) {
+                log.warn("Ignoring stock snapshot {}, it is ahead of the movement journal", path.getFileName());
+                continue;
+            }
+            return Optional.of(RecoveredStock.replay(snapshot, journal, upTo));
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Snapshot the batch quantities in the inventory store. Deductions may be committing while the
+     * database is read, so the snapshot is labelled with the settled journal sequence taken before
+     * the read: every movement up to it belongs to a finished transaction the read sees, and any
+     * product moved after it is in the journal tail, which recovery reads from the database.
+     * Batches are streamed from the store into the file one product at a time.
+     */
+    @Transactional(readOnly = true)
+    public synchronized void writeFromDatabase() {
+        if (!isEnabled()) {
+            return;
+        }
+        long sequence = journal.getSettledSequence();
+        try (Stream<AvailableBatch> batches = inventoryStore.streamAvailableBatches()) {
+            write(sequence, byProduct(batches.iterator()));
+        }
+    }
+
+    /**
+     * Fold the journal written since the latest snapshot into a new snapshot, once at least
+     * min-movements have accumulated, so recovery never has a long tail to replay. Only movements of
+     * finished transactions are folded in, so the database read for the moved products sees them all.
+     */
+    @Scheduled(fixedDelayString = "${inventory.snapshot.interval-ms:300000}",
+               initialDelayString = "${inventory.snapshot.interval-ms:300000}")
+    public synchronized void compact() {
+        if (!isEnabled()) {
+            return;
+        }
+        Optional<RecoveredStock> recovered = recover(journal.getSettledSequence());
+        if (recovered.isEmpty()) {
+            return;
+        }
+        StockSnapshot previous = recovered.get().getSnapshot();
+        if (recovered.get().getTailMovements() < minMovements) {
+            return;
+        }
+        write(recovered.get().getLastSequence(), recovered.get().merge(this::currentBatches, LocalDate.now(clock)));
+        log.debug("Compacted {} journaled movements into the stock snapshot after sequence {}",
+                recovered.get().getTailMovements(), previous.getJournalSequence());
+    }
+
+    private void write(long sequence, Iterator<ProductStock> products) {
+        long start = System.nanoTime();
+        try {
+            Files.createDirectories(directory);
+            Path target = directory.resolve(String.format("stock-%020d.snap", sequence));
+            Path temporary = directory.resolve(target.getFileName() + ".tmp");
+            int count = StockSnapshot.write(temporary, sequence, databaseEpochRepository.findEpoch(), products);
+            Files.move(temporary, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            log.info("Wrote stock snapshot of {} products at journal sequence {} in {} ms",
+                    count, sequence, (System.nanoTime() - start) / 1_000_000);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot write stock snapshot in " + directory, e);
+        }
+        prune();
+    }
+
+    /**
+     * Delete all but the newest snapshots. A snapshot still mapped by a reader stays readable.
+     */
+    private void prune() {
+        TreeMap<Long, Path> snapshots = listSnapshots();
+        while (snapshots.size() > retain) {
+            Path oldest = snapshots.pollFirstEntry().getValue();
+            try {
+                Files.deleteIfExists(oldest);
+            } catch (IOException e) {
+                log.debug("Cannot delete stock snapshot {}: {}", oldest, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Group store rows, which arrive in ascending product id order, into one product at a time.
+     */
+    private static Iterator<ProductStock> byProduct(Iterator<AvailableBatch> rows) {
+        return new Iterator<>() {
+            private AvailableBatch pending = rows.hasNext() ? rows.next() : null;
+
+            @Override
+            public boolean hasNext() {
+                return pending != null;
+            }
+
+            @Override
+            public ProductStock next() {
+                if (pending == null) {
+                    throw new NoSuchElementException();
+                }
+                String productId = pending.getProductId();
+                List<BatchStock> batches = new ArrayList<>();
+                while (pending != null && pending.getProductId().equals(productId)) {
+                    if (pending.getBatchNumber() != null) {
+                        batches.add(new BatchStock(pending.getBatchNumber(), pending.getExpiryDate(),
+                                pending.getQuantity()));
+                    }
+                    pending = rows.hasNext() ? rows.next() : null;
+                }
+                return new ProductStock(productId, batches);
+            }
+        };
+    }
+
+    private List<BatchStock> currentBatches(String productId) {
+        return inventoryBatchRepository.findByProductIdOrderByExpiryDate(productId).stream()
+                .map(batch -> new BatchStock(batch.getBatchNumber(), batch.getExpiryDate(), batch.getQuantity()))
+                .toList();
+    }
+
+    private TreeMap<Long, Path> listSnapshots() {
+        TreeMap<Long, Path> snapshots = new TreeMap<>();
+        if (!Files.isDirectory(directory)) {
+            return snapshots;
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            files.forEach(file -> {
+                Matcher matcher = SNAPSHOT_NAME.matcher(file.getFileName().toString());
+                if (matcher.matches()) {
+                    snapshots.put(Long.parseLong(matcher.group(1)), file);
+                }
+            });
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot list stock snapshots in " + directory, e);
+        }
+        return snapshots;
+    }
+}
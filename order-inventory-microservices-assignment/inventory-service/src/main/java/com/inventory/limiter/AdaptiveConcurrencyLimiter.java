@@ -0,0 +1,158 @@
+package com.inventory.limiter;
+
+import com.inventory.dto.ConcurrencyLimitMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Concurrency limit that adapts to observed latency, in the style of a gradient limiter.
+ * Latency is averaged over windows of requests and compared with a long-term baseline. While
+ * latency stays near the baseline the limit grows by a small queue allowance; once requests start
+ * queueing and latency rises, the limit shrinks in proportion, so the service keeps running at
+ * the concurrency it can actually serve instead of letting Tomcat's queue grow until every
+ * request times out.
+ */
+@Component
+@Slf4j
+public class AdaptiveConcurrencyLimiter {
+
+    private static final int WINDOW_SAMPLES = 10;
+    private static final double LONG_RTT_WEIGHT = 2.0 / (600 + 1);
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double tolerance;
+    private final double smoothing;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicLong accepted = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private volatile int limit;
+
+    // Guarded by this
+    private double estimatedLimit;
+    private double longRttNanos;
+    private long windowRttSum;
+    private int windowSamples;
+    private int windowMaxInFlight;
+
+    @Autowired
+    public AdaptiveConcurrencyLimiter(@Value("${inventory.limiter.initial-limit:20}") int initialLimit,
+                                      @Value("${inventory.limiter.min-limit:4}") int minLimit,
+                                      @Value("${inventory.limiter.max-limit:200}") int maxLimit,
+                                      @Value("${inventory.limiter.tolerance:2.0}") double tolerance,
+                                      @Value("${inventory.limiter.smoothing:0.2}") double smoothing) {
+        if (minLimit < 1 || maxLimit < minLimit) {
+            throw new IllegalArgumentException("Concurrency limits must satisfy 1 <= min-limit <= max-limit");
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.tolerance = tolerance;
+        this.smoothing = smoothing;
+        this.estimatedLimit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+        this.limit = (int) estimatedLimit;
+    }
+
+    /**
+     * Take a slot if the service is below its limit.
+     * A successful call must be followed by {@link #release}.
+     *
+     * @return Requests in flight including this one, or 0 if the request is rejected
+     */
+    public int tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= limit) {
+                rejected.incrementAndGet();
+                return 0;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                accepted.incrementAndGet();
+                return current + 1;
+            }
+        }
+    }
+
+    /**
+     * Give the slot back and learn from the request's latency.
+     *
+     * @param latencyNanos Time the request spent in the service
+     * @param inFlightAtStart Requests in flight when it was admitted, itself included
+     */
+    public void release(long latencyNanos, int inFlightAtStart) {
+        inFlight.decrementAndGet();
+        synchronized (this) {
+            windowRttSum += latencyNanos;
+            windowMaxInFlight = Math.max(windowMaxInFlight, inFlightAtStart);
+            if (++windowSamples < WINDOW_SAMPLES) {
+                return;
+            }
+            double shortRtt = (double) windowRttSum / windowSamples;
+            int maxInFlight = windowMaxInFlight;
+            windowRttSum = 0;
+            windowSamples = 0;
+            windowMaxInFlight = 0;
+            update(shortRtt, maxInFlight);
+        }
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    /**
+     * Current limit, load and counters.
+     *
+     * @return Limiter metrics
+     */
+    public ConcurrencyLimitMetrics getMetrics() {
+        double baseline;
+        synchronized (this) {
+            baseline = longRttNanos;
+        }
+        return ConcurrencyLimitMetrics.builder()
+                .limit(limit)
+                .inFlight(inFlight.get())
+                .accepted(accepted.get())
+                .rejected(rejected.get())
+                .baselineLatencyMillis(baseline / 1_000_000.0)
+                .build();
+    }
+
+    private void update(double shortRtt, int maxInFlight) {
+        if (longRttNanos == 0) {
+            longRttNanos = shortRtt;
+        } else {
+            longRttNanos += (shortRtt - longRttNanos) * LONG_RTT_WEIGHT;
+        }
+        // After a long overload the baseline has drifted up; let it recover faster than it rose
+        if (longRttNanos / shortRtt > 2) {
+            longRttNanos *= 0.95;
+        }
+        // No evidence about a higher limit while most of the current one is unused
+        if (maxInFlight < estimatedLimit / 2) {
+            return;
+        }
+
+        double gradient = Math.max(0.5, Math.min(1.0, tolerance * longRttNanos / shortRtt));
+        double queueAllowance = Math.sqrt(estimatedLimit);
+        double target = estimatedLimit * gradient + queueAllowance;
+        double next = estimatedLimit * (1 - smoothing) + target * smoothing;
+        next = Math.max(minLimit, Math.min(maxLimit, next));
+        if ((int) next != limit) {
+            log.debug("Concurrency limit {} -> {} (latency {} ms, baseline {} ms)", limit, (int) next,
+                    Math.round(shortRtt / 1_000_000), Math.round(longRttNanos / 1_000_000));
+        }
+        estimatedLimit = next;
+        limit = (int) next;
+    }
+}
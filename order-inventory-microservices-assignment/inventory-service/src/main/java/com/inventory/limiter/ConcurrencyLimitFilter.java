@@ -0,0 +1,92 @@
+package com.inventory.limiter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.inventory.controller.InventoryRequestPaths;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Admits inventory reads and deductions only up to the limit of {@link AdaptiveConcurrencyLimiter}.
+ * Requests over the limit get an immediate 503 with Retry-After, before their body is read or a
+ * database connection is taken, so callers can back off and retry instead of waiting in Tomcat's
+ * queue. Nothing has been done for a shed request, so even a deduction is safe to send again. Runs ahead of the other filters so that shedding load stays cheap.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 100)
+@Slf4j
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    private final AdaptiveConcurrencyLimiter limiter;
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final String retryAfterSeconds;
+
+    public ConcurrencyLimitFilter(AdaptiveConcurrencyLimiter limiter,
+                                  ObjectMapper objectMapper,
+                                  @Value("${inventory.limiter.enabled:true}") boolean enabled,
+                                  @Value("${inventory.limiter.retry-after:1s}") Duration retryAfter) {
+        this.limiter = limiter;
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        // Retry-After takes whole seconds
+        this.retryAfterSeconds = Long.toString(Math.max(1, (retryAfter.toMillis() + 999) / 1000));
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled || !isLimited(request.getMethod(), InventoryRequestPaths.pathOf(request));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        int inFlight = limiter.tryAcquire();
+        if (inFlight == 0) {
+            reject(response);
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            limiter.release(System.nanoTime() - start, inFlight);
+        }
+    }
+
+    /**
+     * POST /inventory/update, GET /inventory/{productId} and GET /inventory/{productId}/available.
+     */
+    static boolean isLimited(String method, String path) {
+        return InventoryRequestPaths.isUpdate(method, path)
+                || InventoryRequestPaths.productIdFromPath(method, path) != null;
+    }
+
+    private void reject(HttpServletResponse response) throws IOException {
+        Map<String, Object> error = new LinkedHashMap<>();
+        error.put("timestamp", LocalDateTime.now());
+        error.put("status", HttpStatus.SERVICE_UNAVAILABLE.value());
+        error.put("error", HttpStatus.SERVICE_UNAVAILABLE.getReasonPhrase());
+        error.put("message", "Inventory Service is at its concurrency limit of " + limiter.getLimit());
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, retryAfterSeconds);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), error);
+    }
+}
@@ -0,0 +1,140 @@
+package com.inventory.repository;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Set-based reads and JDBC batch writes for bulk goods receipts. Every method takes a whole chunk
+ * of receipt lines, so a chunk costs a fixed number of round trips however many lines it has.
+ * Lookups pass their keys as one array parameter and join the unnested array to the table: each
+ * key is then a single index probe, where a long IN list is also re-checked against every row found.
+ */
+@Repository
+@RequiredArgsConstructor
+public class BatchReceiptRepository {
+
+    private static final String FIND_PRODUCT_KEYS_SQL =
+            "SELECT p.id, p.product_id FROM UNNEST(CAST(? AS VARCHAR ARRAY)) k(product_id) " +
+            "JOIN products p ON p.product_id = k.product_id";
+
+    private static final String FIND_EXISTING_SQL =
+            "SELECT b.batch_number, p.product_id, b.expiry_date, b.manufacturing_date " +
+            "FROM UNNEST(CAST(? AS VARCHAR ARRAY)) k(batch_number) " +
+            "JOIN inventory_batches b ON b.batch_number = k.batch_number " +
+            "JOIN products p ON p.id = b.product_id";
+
+    private static final String FIND_ARCHIVED_SQL =
+            "SELECT a.batch_number FROM UNNEST(CAST(? AS VARCHAR ARRAY)) k(batch_number) " +
+            "JOIN inventory_batches_archive a ON a.batch_number = k.batch_number";
+
+    private static final String INSERT_SQL =
+            "INSERT INTO inventory_batches (batch_number, product_id, quantity, expiry_date, manufacturing_date) " +
+            "VALUES (?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Primary keys of the given products.
+     *
+     * @param productIds Product identifiers
+     * @return Primary key by product identifier, without unknown products
+     */
+    public Map<String, Long> findProductKeys(Collection<String> productIds) {
+        Map<String, Long> keys = new HashMap<>();
+        if (!productIds.isEmpty()) {
+            jdbcTemplate.query(FIND_PRODUCT_KEYS_SQL,
+                    rs -> { keys.put(rs.getString(2), rs.getLong(1)); }, (Object) toArray(productIds));
+        }
+        return keys;
+    }
+
+    /**
+     * Live batches with the given numbers. Receipts never change an existing batch, so they are
+     * read without locking.
+     *
+     * @param batchNumbers Batch numbers
+     * @return Stored batch by batch number, without numbers that are not in inventory_batches
+     */
+    public Map<String, StoredBatch> findExisting(Collection<String> batchNumbers) {
+        Map<String, StoredBatch> batches = new HashMap<>();
+        if (!batchNumbers.isEmpty()) {
+            jdbcTemplate.query(FIND_EXISTING_SQL,
+                    rs -> {
+                        batches.put(rs.getString(1), new StoredBatch(rs.getString(2),
+                                rs.getObject(3, LocalDate.class), rs.getObject(4, LocalDate.class)));
+                    }, (Object) toArray(batchNumbers));
+        }
+        return batches;
+    }
+
+    /**
+     * Which of the given batch numbers belong to archived batches.
+     *
+     * @param batchNumbers Batch numbers
+     * @return The archived ones
+     */
+    public Set<String> findArchivedBatchNumbers(Collection<String> batchNumbers) {
+        if (batchNumbers.isEmpty()) {
+            return Set.of();
+        }
+        return new HashSet<>(jdbcTemplate.queryForList(FIND_ARCHIVED_SQL, String.class, (Object) toArray(batchNumbers)));
+    }
+
+    /**
+     * Insert new batches as a single JDBC batch.
+     *
+     * @param batches Batches to insert
+     */
+    public void insert(List<NewBatch> batches) {
+        if (batches.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(INSERT_SQL, batches, batches.size(), (ps, batch) -> {
+            ps.setString(1, batch.getBatchNumber());
+            ps.setLong(2, batch.getProductKey());
+            ps.setInt(3, batch.getQuantity());
+            ps.setDate(4, Date.valueOf(batch.getExpiryDate()));
+            ps.setDate(5, Date.valueOf(batch.getManufacturingDate()));
+        });
+    }
+
+    private static String[] toArray(Collection<String> keys) {
+        return keys.toArray(new String[0]);
+    }
+
+    /**
+     * Live batch as stored.
+     */
+    @Data
+    @AllArgsConstructor
+    public static class StoredBatch {
+        private String productId;
+        private LocalDate expiryDate;
+        private LocalDate manufacturingDate;
+    }
+
+    /**
+     * Batch to insert.
+     */
+    @Data
+    @AllArgsConstructor
+    public static class NewBatch {
+        private String batchNumber;
+        private long productKey;
+        private int quantity;
+        private LocalDate expiryDate;
+        private LocalDate manufacturingDate;
+    }
+}
@@ -0,0 +1,24 @@
+package com.inventory.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.UUID;
+
+/**
+ * Random identifier assigned to the database when its schema is created.
+ */
+@Repository
+@RequiredArgsConstructor
+public class DatabaseEpochRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Epoch of the current database.
+     */
+    public UUID findEpoch() {
+        return jdbcTemplate.queryForObject("SELECT epoch FROM database_epoch WHERE id = 1", UUID.class);
+    }
+}
@@ -0,0 +1,129 @@
+package com.inventory.repository;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Depleted and expired batches moved out of inventory_batches, keyed by their original id and
+ * still pointing at their product, so a product's full batch history can be listed.
+ */
+@Repository
+@RequiredArgsConstructor
+public class InventoryBatchArchive {
+
+    private static final String FIND_ARCHIVABLE_SQL =
+            "SELECT b.id, p.product_id FROM inventory_batches b JOIN products p ON p.id = b.product_id " +
+            "WHERE b.quantity = 0 OR b.expiry_date < ? ORDER BY b.id FETCH FIRST ? ROWS ONLY FOR UPDATE";
+
+    private static final String COPY_SQL =
+            "INSERT INTO inventory_batches_archive (id, batch_number, product_id, quantity, expiry_date, " +
+            "manufacturing_date, archived_at) SELECT id, batch_number, product_id, quantity, expiry_date, " +
+            "manufacturing_date, ? FROM inventory_batches WHERE id IN (%s)";
+
+    private static final String DELETE_SQL = "DELETE FROM inventory_batches WHERE id IN (%s)";
+
+    private static final String FIND_BY_PRODUCT_SQL =
+            "SELECT a.batch_number, a.quantity, a.expiry_date, a.manufacturing_date, a.archived_at, " +
+            "p.product_id, p.name FROM inventory_batches_archive a JOIN products p ON p.id = a.product_id " +
+            "WHERE p.product_id = ? ORDER BY a.expiry_date";
+
+    private static final RowMapper<ArchivedBatch> ROW_MAPPER = (rs, rowNum) -> ArchivedBatch.builder()
+            .batchNumber(rs.getString("batch_number"))
+            .productId(rs.getString("product_id"))
+            .productName(rs.getString("name"))
+            .quantity(rs.getInt("quantity"))
+            .expiryDate(rs.getObject("expiry_date", LocalDate.class))
+            .manufacturingDate(rs.getObject("manufacturing_date", LocalDate.class))
+            .archivedAt(rs.getTimestamp("archived_at").toLocalDateTime())
+            .build();
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Lock up to limit batches that are depleted or expired before today, for the current
+     * transaction to archive. The owning product's id comes back with each batch, so the caller
+     * knows which cached inventory responses to drop.
+     *
+     * @param today Batches expiring before this date are archivable
+     * @param limit Maximum number of batches
+     * @return The batches' ids with their product, lowest id first
+     */
+    public List<ArchivableBatch> lockArchivable(LocalDate today, int limit) {
+        return jdbcTemplate.query(FIND_ARCHIVABLE_SQL,
+                (rs, rowNum) -> new ArchivableBatch(rs.getLong(1), rs.getString(2)), today, limit);
+    }
+
+    /**
+     * Copy batches into the archive and delete them from inventory_batches, in the caller's
+     * transaction. If the two row counts differ, the move fails and rolls back.
+     *
+     * @param ids Ids of batches locked with {@link #lockArchivable}
+     * @param archivedAt Time recorded on the archived rows
+     * @return Number of batches moved
+     */
+    public int archive(List<Long> ids, LocalDateTime archivedAt) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        String placeholders = String.join(", ", Collections.nCopies(ids.size(), "?"));
+        List<Object> copyArgs = new ArrayList<>(ids.size() + 1);
+        copyArgs.add(Timestamp.valueOf(archivedAt));
+        copyArgs.addAll(ids);
+        int copied = jdbcTemplate.update(String.format(COPY_SQL, placeholders), copyArgs.toArray());
+        int deleted = jdbcTemplate.update(String.format(DELETE_SQL, placeholders), ids.toArray());
+        if (copied != deleted) {
+            throw new IllegalStateException("Archived " + copied + " batches but deleted " + deleted);
+        }
+        return deleted;
+    }
+
+    /**
+     * Archived batches of a product, earliest expiry first.
+     *
+     * @param productId The product identifier
+     * @return The product's archived batches
+     */
+    public List<ArchivedBatch> findByProductId(String productId) {
+        return jdbcTemplate.query(FIND_BY_PRODUCT_SQL, ROW_MAPPER, productId);
+    }
+
+    /**
+     * Batch locked for archival.
+     */
+    @Data
+    @AllArgsConstructor
+    public static class ArchivableBatch {
+        private long id;
+        private String productId;
+    }
+
+    /**
+     * Batch row in the archive.
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class ArchivedBatch {
+        private String batchNumber;
+        private String productId;
+        private String productName;
+        private Integer quantity;
+        private LocalDate expiryDate;
+        private LocalDate manufacturingDate;
+        private LocalDateTime archivedAt;
+    }
+}
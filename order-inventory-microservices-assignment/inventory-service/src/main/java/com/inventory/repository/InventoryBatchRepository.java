@@ -6,8 +6,10 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface InventoryBatchRepository extends JpaRepository<InventoryBatch, Long> {
@@ -25,5 +27,45 @@ public interface InventoryBatchRepository extends JpaRepository<InventoryBatch,
            "AND ib.expiryDate > CURRENT_DATE " +
            "ORDER BY ib.expiryDate ASC")
     List<InventoryBatch> findAvailableBatchesByProductId(@Param("productId") String productId);
-}
 
+    @Query("SELECT ib.product.productId AS productId, ib.expiryDate AS expiryDate, SUM(ib.quantity) AS quantity " +
+           "FROM InventoryBatch ib " +
+           "WHERE ib.quantity > 0 " +
+           "AND ib.expiryDate > CURRENT_DATE " +
+           "GROUP BY ib.product.productId, ib.expiryDate")
+    List<ExpiryQuantity> sumAvailableQuantityByProductAndExpiry();
+
+    @Query("SELECT ib.product.productId AS productId, ib.expiryDate AS expiryDate, SUM(ib.quantity) AS quantity " +
+           "FROM InventoryBatch ib " +
+           "WHERE ib.product.productId = :productId " +
+           "AND ib.quantity > 0 " +
+           "AND ib.expiryDate > CURRENT_DATE " +
+           "GROUP BY ib.product.productId, ib.expiryDate")
+    List<ExpiryQuantity> sumAvailableQuantityByExpiry(@Param("productId") String productId);
+
+    @Query("SELECT p.productId AS productId, ib.batchNumber AS batchNumber, " +
+           "ib.expiryDate AS expiryDate, ib.quantity AS quantity " +
+           "FROM Product p LEFT JOIN p.batches ib " +
+           "ON ib.quantity > 0 AND ib.expiryDate > CURRENT_DATE " +
+           "ORDER BY p.productId")
+    Stream<BatchQuantity> streamAvailableBatchQuantities();
+
+    /**
+     * Available quantity of a product that expires on a given date.
+     */
+    interface ExpiryQuantity {
+        String getProductId();
+        LocalDate getExpiryDate();
+        Long getQuantity();
+    }
+
+    /**
+     * Quantity left in one batch; batch fields are null for a product without available batches.
+     */
+    interface BatchQuantity {
+        String getProductId();
+        String getBatchNumber();
+        LocalDate getExpiryDate();
+        Integer getQuantity();
+    }
+}
@@ -0,0 +1,100 @@
+package com.inventory.repository;
+
+import com.inventory.dto.InventoryChangeEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+/**
+ * Durable log of inventory change events, written in batches by the change feed.
+ */
+@Repository
+@RequiredArgsConstructor
+public class InventoryChangeJournal {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO inventory_changes (sequence, product_id, batch_number, change_type, " +
+            "quantity_delta, remaining_quantity, occurred_at) VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String SELECT_AFTER_SQL =
+            "SELECT sequence, product_id, batch_number, change_type, quantity_delta, remaining_quantity, " +
+            "occurred_at FROM inventory_changes WHERE sequence > ? ORDER BY sequence LIMIT ?";
+
+    private static final RowMapper<InventoryChangeEvent> ROW_MAPPER = (rs, rowNum) -> InventoryChangeEvent.builder()
+            .sequence(rs.getLong("sequence"))
+            .productId(rs.getString("product_id"))
+            .batchNumber(rs.getString("batch_number"))
+            .type(InventoryChangeEvent.ChangeType.valueOf(rs.getString("change_type")))
+            .quantityDelta(rs.getInt("quantity_delta"))
+            .remainingQuantity(rs.getInt("remaining_quantity"))
+            .occurredAt(rs.getTimestamp("occurred_at").toLocalDateTime())
+            .build();
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Append events as a single JDBC batch.
+     *
+     * @param events Events with their sequence already assigned
+     */
+    public void append(List<InventoryChangeEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(INSERT_SQL, events, events.size(), (ps, event) -> {
+            ps.setLong(1, event.getSequence());
+            ps.setString(2, event.getProductId());
+            ps.setString(3, event.getBatchNumber());
+            ps.setString(4, event.getType().name());
+            ps.setInt(5, event.getQuantityDelta());
+            ps.setInt(6, event.getRemainingQuantity());
+            ps.setTimestamp(7, Timestamp.valueOf(event.getOccurredAt()));
+        });
+    }
+
+    /**
+     * Events after the given sequence, oldest first.
+     *
+     * @param since Last sequence already seen
+     * @param limit Maximum number of events
+     * @return Events in sequence order
+     */
+    public List<InventoryChangeEvent> findAfter(long since, int limit) {
+        return jdbcTemplate.query(SELECT_AFTER_SQL, ROW_MAPPER, since, limit);
+    }
+
+    /**
+     * Highest journaled sequence, or 0 if the journal is empty.
+     */
+    public long findLastSequence() {
+        Long last = jdbcTemplate.queryForObject("SELECT MAX(sequence) FROM inventory_changes", Long.class);
+        return last != null ? last : 0;
+    }
+
+    /**
+     * Highest sequence reserved by {@link #reserveSequencesUntil}, or 0 if none was.
+     */
+    public long findReservedSequence() {
+        List<Long> reserved = jdbcTemplate.queryForList(
+                "SELECT reserved_until FROM inventory_change_sequence WHERE id = 1", Long.class);
+        return reserved.isEmpty() ? 0 : reserved.get(0);
+    }
+
+    /**
+     * Record that sequences up to the given one may be handed out. Commits in its own transaction,
+     * also when called from another transaction's afterCommit callback, so the reservation is durable
+     * before any of its sequences is used.
+     *
+     * @param sequence Highest reserved sequence
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void reserveSequencesUntil(long sequence) {
+        jdbcTemplate.update("UPDATE inventory_change_sequence SET reserved_until = ? WHERE id = 1", sequence);
+    }
+}
@@ -1,9 +1,12 @@
 package com.inventory.repository;
 
 import com.inventory.model.Product;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -12,5 +15,11 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
     Optional<Product> findByProductId(String productId);
     
     boolean existsByProductId(String productId);
+    
+    @Query("SELECT p.productId FROM Product p")
+    List<String> findAllProductIds();
+
+    @Query("SELECT p.productId FROM Product p ORDER BY p.id")
+    List<String> findProductIds(Pageable pageable);
 }
 
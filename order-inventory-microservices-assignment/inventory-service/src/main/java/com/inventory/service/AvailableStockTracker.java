@@ -0,0 +1,305 @@
+package com.inventory.service;
+
+import com.inventory.journal.RecoveredStock;
+import com.inventory.journal.StockSnapshot;
+import com.inventory.journal.StockSnapshotStore;
+import com.inventory.repository.InventoryBatchRepository;
+import com.inventory.repository.ProductRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Incrementally maintained available-to-promise quantity per product.
+ * Each product keeps its sellable stock bucketed by expiry date plus a running total, so reading
+ * availability is O(1) with no batch scan. Deductions and restocks adjust the buckets; stock whose
+ * expiry date has been reached rolls off lazily on the next read and in a nightly sweep.
+ * Counts follow the same rule as InventoryBatchRepository#findAvailableBatchesByProductId:
+ * batches with quantity left that expire after today.
+ * When a stock snapshot of the database is available, startup maps it and replays the movement
+ * journal after it instead of querying the catalog; each product's counters are then built from
+ * the snapshot the first time the product is used.
+ * A counter read from the database is only installed if no change to the product was in flight
+ * or finished while it was read: a change committing around the read may or may not be in the
+ * result, so the counter could drift for good. Such a read answers the caller without being kept
+ * and the next use reads the product again.
+ */
+@Component
+@Slf4j
+public class AvailableStockTracker {
+
+    private final ProductRepository productRepository;
+    private final InventoryBatchRepository inventoryBatchRepository;
+    private final StockSnapshotStore stockSnapshots;
+    private final Clock clock;
+    private final Map<String, ProductStock> stocks = new ConcurrentHashMap<>();
+    private final Map<String, PendingChanges> pending = new ConcurrentHashMap<>();
+    private final AtomicLong changeClock = new AtomicLong();
+    private volatile RecoveredStock recovered;
+
+    @Autowired
+    public AvailableStockTracker(ProductRepository productRepository,
+                                 InventoryBatchRepository inventoryBatchRepository,
+                                 StockSnapshotStore stockSnapshots) {
+        this(productRepository, inventoryBatchRepository, stockSnapshots, Clock.systemDefaultZone());
+    }
+
+    AvailableStockTracker(ProductRepository productRepository,
+                          InventoryBatchRepository inventoryBatchRepository,
+                          StockSnapshotStore stockSnapshots,
+                          Clock clock) {
+        this.productRepository = productRepository;
+        this.inventoryBatchRepository = inventoryBatchRepository;
+        this.stockSnapshots = stockSnapshots;
+        this.clock = clock;
+    }
+
+    /**
+     * Recover counters from the latest stock snapshot and the journal after it, or else load them
+     * for the whole catalog with one aggregate query and snapshot the result for the next start.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadAll() {
+        long start = System.nanoTime();
+        Optional<RecoveredStock> snapshot = stockSnapshots.recover();
+        if (snapshot.isPresent()) {
+            recovered = snapshot.get();
+            log.info("Recovered available stock from snapshot at sequence {} of {} products plus {} journaled movements in {} ms",
+                    recovered.getSnapshot().getJournalSequence(), recovered.getSnapshot().getProductCount(),
+                    recovered.getTailMovements(), (System.nanoTime() - start) / 1_000_000);
+            return;
+        }
+
+        long readFrom = changeClock.get();
+        Map<String, ProductStock> loaded = new HashMap<>();
+        for (String productId : productRepository.findAllProductIds()) {
+            loaded.put(productId, new ProductStock());
+        }
+        for (InventoryBatchRepository.ExpiryQuantity row : inventoryBatchRepository.sumAvailableQuantityByProductAndExpiry()) {
+            loaded.computeIfAbsent(row.getProductId(), id -> new ProductStock())
+                    .add(row.getExpiryDate(), row.getQuantity());
+        }
+        int installed = 0;
+        for (Map.Entry<String, ProductStock> entry : loaded.entrySet()) {
+            if (install(entry.getKey(), entry.getValue(), readFrom) == entry.getValue()) {
+                installed++;
+            }
+        }
+        log.info("Loaded available stock counters for {} products, {} changed while loading are loaded on first use",
+                installed, loaded.size() - installed);
+        try {
+            stockSnapshots.writeFromDatabase();
+        } catch (RuntimeException e) {
+            log.warn("Failed to write the initial stock snapshot: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Available quantity of a product.
+     *
+     * @param productId The product identifier
+     * @return Available quantity, or empty if the product does not exist
+     */
+    public OptionalLong getAvailable(String productId) {
+        ProductStock stock = stocks.get(productId);
+        if (stock == null) {
+            stock = loadProduct(productId);
+            if (stock == null) {
+                return OptionalLong.empty();
+            }
+        }
+        return OptionalLong.of(stock.available(today()));
+    }
+
+    /**
+     * Announce stock changes to these products that the current transaction is about to commit.
+     * Until {@link #endChanges} no counter of them is installed from a database read, since the read
+     * cannot tell whether it includes the changes. Call it before the commit and pair it with
+     * {@link #endChanges} once the transaction has completed, after recording what it committed.
+     *
+     * @param productIds The products the transaction changes
+     */
+    public void beginChanges(Collection<String> productIds) {
+        for (String productId : productIds) {
+            PendingChanges changes = pendingChanges(productId);
+            synchronized (changes) {
+                changes.inFlight++;
+                changes.lastChange = changeClock.incrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Mark the changes announced by {@link #beginChanges} as committed and recorded, or rolled back.
+     *
+     * @param productIds The products the transaction changed
+     */
+    public void endChanges(Collection<String> productIds) {
+        for (String productId : productIds) {
+            PendingChanges changes = pendingChanges(productId);
+            synchronized (changes) {
+                changes.inFlight--;
+                changes.lastChange = changeClock.incrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Record stock taken from a batch expiring on the given date.
+     */
+    public void recordDeduction(String productId, LocalDate expiryDate, int quantity) {
+        record(productId, expiryDate, -quantity);
+    }
+
+    /**
+     * Record stock received into a batch expiring on the given date.
+     */
+    public void recordRestock(String productId, LocalDate expiryDate, int quantity) {
+        if (!expiryDate.isAfter(today())) {
+            return;
+        }
+        record(productId, expiryDate, quantity);
+    }
+
+    /**
+     * Drop stock that expired overnight from every counter.
+     */
+    @Scheduled(cron = "${inventory.availability.rollover-cron:0 0 0 * * *}")
+    public void rollOverExpired() {
+        LocalDate today = today();
+        stocks.values().forEach(stock -> stock.rollOver(today));
+    }
+
+    /**
+     * Apply a change to the counters of a product that are already loaded or can be built from the
+     * snapshot. Changes to any other product are left out: they are committed, so loading it from
+     * the database later includes them. Runs under the product's lock so a counter read from the
+     * database cannot be installed between the check and the change.
+     */
+    private void record(String productId, LocalDate expiryDate, long quantity) {
+        synchronized (pendingChanges(productId)) {
+            ProductStock stock = stocks.get(productId);
+            if (stock == null) {
+                stock = loadFromSnapshot(productId);
+            }
+            if (stock != null) {
+                stock.add(expiryDate, quantity);
+            }
+        }
+    }
+
+    private ProductStock loadFromSnapshot(String productId) {
+        RecoveredStock snapshot = recovered;
+        List<StockSnapshot.BatchStock> batches = snapshot != null ? snapshot.findBatches(productId) : null;
+        if (batches == null) {
+            return null;
+        }
+        LocalDate today = today();
+        ProductStock stock = new ProductStock();
+        for (StockSnapshot.BatchStock batch : batches) {
+            if (batch.getQuantity() > 0 && batch.getExpiryDate().isAfter(today)) {
+                stock.add(batch.getExpiryDate(), batch.getQuantity());
+            }
+        }
+        ProductStock existing = stocks.putIfAbsent(productId, stock);
+        return existing != null ? existing : stock;
+    }
+
+    private ProductStock loadProduct(String productId) {
+        ProductStock fromSnapshot = loadFromSnapshot(productId);
+        if (fromSnapshot != null) {
+            return fromSnapshot;
+        }
+        long readFrom = changeClock.get();
+        if (!productRepository.existsByProductId(productId)) {
+            return null;
+        }
+        ProductStock stock = new ProductStock();
+        for (InventoryBatchRepository.ExpiryQuantity row : inventoryBatchRepository.sumAvailableQuantityByExpiry(productId)) {
+            stock.add(row.getExpiryDate(), row.getQuantity());
+        }
+        return install(productId, stock, readFrom);
+    }
+
+    /**
+     * Install counters read from the database unless a change to the product was in flight or
+     * finished since the read started, in which case they are returned without being kept.
+     *
+     * @param readFrom Value of the change clock taken before the read
+     * @return The installed counters, or the given ones if they could not be installed
+     */
+    private ProductStock install(String productId, ProductStock stock, long readFrom) {
+        PendingChanges changes = pendingChanges(productId);
+        synchronized (changes) {
+            if (changes.inFlight > 0 || changes.lastChange > readFrom) {
+                return stock;
+            }
+            ProductStock existing = stocks.putIfAbsent(productId, stock);
+            return existing != null ? existing : stock;
+        }
+    }
+
+    private PendingChanges pendingChanges(String productId) {
+        return pending.computeIfAbsent(productId, id -> new PendingChanges());
+    }
+
+    private LocalDate today() {
+        return LocalDate.now(clock);
+    }
+
+    /**
+     * Changes to a product announced by {@link #beginChanges} and not yet ended, and the change
+     * clock value of the last announcement or end. Also the lock that orders loads against changes.
+     */
+    private static final class PendingChanges {
+        private int inFlight;
+        private long lastChange;
+    }
+
+    private static final class ProductStock {
+        private final TreeMap<LocalDate, Long> quantityByExpiry = new TreeMap<>();
+        private volatile long available;
+        private volatile LocalDate earliestExpiry;
+
+        synchronized void add(LocalDate expiryDate, long quantity) {
+            long remaining = quantityByExpiry.getOrDefault(expiryDate, 0L) + quantity;
+            if (remaining > 0) {
+                quantityByExpiry.put(expiryDate, remaining);
+            } else {
+                quantityByExpiry.remove(expiryDate);
+            }
+            available += quantity;
+            earliestExpiry = quantityByExpiry.isEmpty() ? null : quantityByExpiry.firstKey();
+        }
+
+        long available(LocalDate today) {
+            LocalDate earliest = earliestExpiry;
+            if (earliest != null && !earliest.isAfter(today)) {
+                rollOver(today);
+            }
+            return Math.max(available, 0);
+        }
+
+        synchronized void rollOver(LocalDate today) {
+            while (!quantityByExpiry.isEmpty() && !quantityByExpiry.firstKey().isAfter(today)) {
+                available -= quantityByExpiry.pollFirstEntry().getValue();
+            }
+            earliestExpiry = quantityByExpiry.isEmpty() ? null : quantityByExpiry.firstKey();
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.inventory.service;
+
+import com.inventory.repository.InventoryBatchArchive;
+import com.inventory.repository.InventoryBatchArchive.ArchivableBatch;
+import com.inventory.store.InventoryStore;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Moves depleted batches and batches expired before today from inventory_batches to
+ * inventory_batches_archive, so the table deductions scan only holds stock that may still be sold.
+ * Deductions only read batches with stock that expire after today, so they never want a row this
+ * job moves. The one overlap is a batch that a deduction has just emptied: the archiver may wait for
+ * that deduction to commit before it can take the row. A chunk takes at most chunk-size batches, and
+ * the pause between chunks keeps a large backlog from running as one long burst of writes.
+ * With the in-memory store engine the database is only read at startup, so there is nothing to archive.
+ */
+@Component
+@Slf4j
+public class BatchArchiver {
+
+    private final InventoryBatchArchive archive;
+    private final InventoryResponseCache responseCache;
+    private final TransactionTemplate transactionTemplate;
+    private final Clock clock;
+    private final boolean enabled;
+    private final int chunkSize;
+    private final Duration chunkPause;
+
+    @Autowired
+    public BatchArchiver(InventoryBatchArchive archive,
+                         InventoryResponseCache responseCache,
+                         InventoryStore inventoryStore,
+                         PlatformTransactionManager transactionManager,
+                         @Value("${inventory.archival.enabled:true}") boolean enabled,
+                         @Value("${inventory.archival.chunk-size:500}") int chunkSize,
+                         @Value("${inventory.archival.chunk-pause:50ms}") Duration chunkPause) {
+        this(archive, responseCache, new TransactionTemplate(transactionManager),
+                enabled && !"memory".equals(inventoryStore.getEngine()), chunkSize, chunkPause,
+                Clock.systemDefaultZone());
+    }
+
+    BatchArchiver(InventoryBatchArchive archive,
+                  InventoryResponseCache responseCache,
+                  TransactionTemplate transactionTemplate,
+                  boolean enabled, int chunkSize, Duration chunkPause, Clock clock) {
+        this.archive = archive;
+        this.responseCache = responseCache;
+        this.transactionTemplate = transactionTemplate;
+        this.enabled = enabled;
+        this.chunkSize = Math.max(1, chunkSize);
+        this.chunkPause = chunkPause;
+        this.clock = clock;
+    }
+
+    /**
+     * Archive every batch that is depleted or expired, chunk by chunk.
+     *
+     * @return Number of batches archived
+     */
+    @Scheduled(fixedDelayString = "${inventory.archival.interval-ms:3600000}",
+               initialDelayString = "${inventory.archival.interval-ms:3600000}")
+    public int archiveAll() {
+        if (!enabled) {
+            return 0;
+        }
+        long start = System.nanoTime();
+        LocalDate today = LocalDate.now(clock);
+        int total = 0;
+        int moved;
+        do {
+            moved = archiveChunk(today);
+            total += moved;
+            if (moved == chunkSize && !pause()) {
+                break;
+            }
+        } while (moved == chunkSize);
+        if (total > 0) {
+            log.info("Archived {} depleted or expired batches in {} ms", total, (System.nanoTime() - start) / 1_000_000);
+        }
+        return total;
+    }
+
+    /**
+     * Archive one chunk in its own transaction. Once it completes, the products it touched are
+     * marked as changed so their cached inventory responses drop the archived batches; a rollback
+     * bumps them too, which only costs a rebuild.
+     */
+    private int archiveChunk(LocalDate today) {
+        Integer moved = transactionTemplate.execute(status -> {
+            List<ArchivableBatch> batches = archive.lockArchivable(today, chunkSize);
+            List<Long> ids = new ArrayList<>(batches.size());
+            Set<String> products = new LinkedHashSet<>();
+            for (ArchivableBatch batch : batches) {
+                ids.add(batch.getId());
+                products.add(batch.getProductId());
+            }
+            int count = archive.archive(ids, LocalDateTime.now(clock));
+            Runnable invalidate = () -> products.forEach(responseCache::recordChange);
+            if (TransactionSynchronizationManager.isSynchronizationActive()) {
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCompletion(int completionStatus) {
+                        invalidate.run();
+                    }
+                });
+            } else {
+                invalidate.run();
+            }
+            return count;
+        });
+        return moved != null ? moved : 0;
+    }
+
+    private boolean pause() {
+        try {
+            Thread.sleep(chunkPause.toMillis());
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
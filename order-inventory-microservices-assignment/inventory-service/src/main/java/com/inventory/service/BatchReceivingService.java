@@ -0,0 +1,315 @@
+package com.inventory.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.inventory.dto.BatchReceipt;
+import com.inventory.dto.BulkReceiptResponse;
+import com.inventory.dto.InventoryChangeEvent;
+import com.inventory.exception.FeatureDisabledException;
+import com.inventory.journal.MovementJournal;
+import com.inventory.repository.BatchReceiptRepository;
+import com.inventory.repository.BatchReceiptRepository.NewBatch;
+import com.inventory.repository.BatchReceiptRepository.StoredBatch;
+import com.inventory.sharding.ShardOwnership;
+import com.inventory.store.InventoryStore;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Streaming bulk goods receipt.
+ * Lines are read and validated one at a time and inserted in chunks, each in its own transaction:
+ * the chunk's products, live batches and archived batch numbers are read with one query each and
+ * new batches are inserted with one JDBC batch. Once a chunk commits, its new stock is applied to
+ * the available stock counters, cached responses, change feed and movement journal in a single pass.
+ * A batch number seen again in the same request is counted as a duplicate and skipped. A batch that
+ * already exists is left as it is: a receipt names the goods that arrived, and stock sold from the
+ * batch since must not come back when the same file is sent again. Existing batches with the same
+ * product and dates are counted as unchanged, others are rejected.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class BatchReceivingService {
+
+    private final BatchReceiptRepository receiptRepository;
+    private final InventoryStore inventoryStore;
+    private final ShardOwnership ownership;
+    private final AvailableStockTracker availableStockTracker;
+    private final InventoryResponseCache responseCache;
+    private final InventoryChangeFeed changeFeed;
+    private final MovementJournal movementJournal;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${inventory.receiving.chunk-size:1000}")
+    private int chunkSize;
+
+    /**
+     * Insert the new batches of an NDJSON stream of BatchReceipt objects.
+     *
+     * @param input NDJSON receipt stream
+     * @return Counts per outcome and the rejected lines
+     */
+    public BulkReceiptResponse receive(InputStream input) throws IOException {
+        if ("memory".equals(inventoryStore.getEngine())) {
+            // The in-memory store never reads the database after startup, so received batches would not be sold
+            throw new FeatureDisabledException("Bulk receipts are not supported with the in-memory store engine");
+        }
+        long start = System.nanoTime();
+        ObjectReader receiptReader = objectMapper.readerFor(BatchReceipt.class);
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        BulkReceiptResponse response = new BulkReceiptResponse();
+        Set<String> seen = new HashSet<>();
+
+        List<ReceiptLine> chunk = new ArrayList<>(chunkSize);
+        int lineNumber = 0;
+        String text;
+
+        while ((text = reader.readLine()) != null) {
+            lineNumber++;
+            if (text.isBlank()) {
+                continue;
+            }
+            response.setReceived(response.getReceived() + 1);
+            ReceiptLine line = parseLine(receiptReader, lineNumber, text);
+            if (line.error != null) {
+                reject(response, line);
+            } else if (!seen.add(line.receipt.getBatchNumber())) {
+                response.setDuplicates(response.getDuplicates() + 1);
+            } else {
+                chunk.add(line);
+                if (chunk.size() >= chunkSize) {
+                    processChunk(chunk, response);
+                    chunk.clear();
+                }
+            }
+        }
+
+        if (!chunk.isEmpty()) {
+            processChunk(chunk, response);
+        }
+
+        response.setDurationMs((System.nanoTime() - start) / 1_000_000);
+        log.info("Bulk receipt finished: {} lines, {} inserted, {} unchanged, {} duplicates, {} rejected in {} ms",
+                response.getReceived(), response.getInserted(), response.getUnchanged(),
+                response.getDuplicates(), response.getRejected(), response.getDurationMs());
+        return response;
+    }
+
+    private ReceiptLine parseLine(ObjectReader receiptReader, int lineNumber, String text) {
+        ReceiptLine line = new ReceiptLine(lineNumber);
+        try {
+            line.receipt = receiptReader.readValue(text);
+        } catch (JsonProcessingException e) {
+            line.error = "Malformed JSON: " + e.getOriginalMessage();
+            return line;
+        }
+        if (line.receipt == null) {
+            line.error = "Expected a batch receipt object, got null";
+            return line;
+        }
+
+        Set<ConstraintViolation<BatchReceipt>> violations = validator.validate(line.receipt);
+        if (!violations.isEmpty()) {
+            line.error = violations.stream()
+                    .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining(", "));
+        } else if (line.receipt.getManufacturingDate().isAfter(line.receipt.getExpiryDate())) {
+            line.error = "Manufacturing date is after the expiry date";
+        } else if (!ownership.owns(line.receipt.getProductId())) {
+            line.error = "Product " + line.receipt.getProductId() + " is owned by shard "
+                    + ownership.ownerOf(line.receipt.getProductId());
+        }
+        return line;
+    }
+
+    /**
+     * Insert a chunk. A concurrent receipt may insert one of the chunk's new batches first; the
+     * chunk then rolls back and is retried once, finding that batch in place.
+     */
+    private void processChunk(List<ReceiptLine> chunk, BulkReceiptResponse response) {
+        try {
+            insertChunk(chunk);
+        } catch (DuplicateKeyException e) {
+            log.info("Bulk receipt chunk raced with another receipt, retrying: {}", e.getMessage());
+            chunk.forEach(ReceiptLine::reset);
+            insertChunk(chunk);
+        }
+        for (ReceiptLine line : chunk) {
+            switch (line.outcome) {
+                case INSERTED -> response.setInserted(response.getInserted() + 1);
+                case UNCHANGED -> response.setUnchanged(response.getUnchanged() + 1);
+                case REJECTED -> reject(response, line);
+            }
+        }
+    }
+
+    private void insertChunk(List<ReceiptLine> chunk) {
+        Set<String> productIds = new LinkedHashSet<>();
+        List<String> batchNumbers = new ArrayList<>(chunk.size());
+        for (ReceiptLine line : chunk) {
+            productIds.add(line.receipt.getProductId());
+            batchNumbers.add(line.receipt.getBatchNumber());
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            Map<String, Long> productKeys = receiptRepository.findProductKeys(productIds);
+            Map<String, StoredBatch> existing = receiptRepository.findExisting(batchNumbers);
+            Set<String> archived = receiptRepository.findArchivedBatchNumbers(batchNumbers);
+
+            List<NewBatch> inserts = new ArrayList<>();
+            List<ReceiptLine> inserted = new ArrayList<>();
+            for (ReceiptLine line : chunk) {
+                BatchReceipt receipt = line.receipt;
+                StoredBatch stored = existing.get(receipt.getBatchNumber());
+                Long productKey = productKeys.get(receipt.getProductId());
+                if (productKey == null) {
+                    line.reject("Product not found with ID: " + receipt.getProductId());
+                } else if (archived.contains(receipt.getBatchNumber())) {
+                    line.reject("Batch " + receipt.getBatchNumber() + " was depleted or expired and has been archived");
+                } else if (stored == null) {
+                    inserts.add(new NewBatch(receipt.getBatchNumber(), productKey, receipt.getQuantity(),
+                            receipt.getExpiryDate(), receipt.getManufacturingDate()));
+                    line.outcome = Outcome.INSERTED;
+                    inserted.add(line);
+                } else if (!stored.getProductId().equals(receipt.getProductId())
+                        || !stored.getExpiryDate().equals(receipt.getExpiryDate())
+                        || !stored.getManufacturingDate().equals(receipt.getManufacturingDate())) {
+                    line.reject("Batch " + receipt.getBatchNumber() + " already exists for product "
+                            + stored.getProductId() + ", expiring " + stored.getExpiryDate());
+                } else {
+                    line.outcome = Outcome.UNCHANGED;
+                }
+            }
+
+            receiptRepository.insert(inserts);
+            recordReceiptsAfterCommit(inserted);
+        });
+    }
+
+    /**
+     * Journal the received quantities just before the chunk commits, then apply them to the available
+     * stock counters, bump the products' response versions and publish them on the change feed once
+     * it has committed. The counters hear of the chunk before it commits, so none of its products is
+     * loaded from a read that may or may not include it.
+     */
+    private void recordReceiptsAfterCommit(List<ReceiptLine> inserted) {
+        if (inserted.isEmpty()) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        Set<String> products = new LinkedHashSet<>();
+        List<ReceiptLine> stocked = new ArrayList<>(inserted.size());
+        List<InventoryChangeEvent> events = new ArrayList<>(inserted.size());
+        for (ReceiptLine line : inserted) {
+            BatchReceipt receipt = line.receipt;
+            products.add(receipt.getProductId());
+            if (receipt.getQuantity() == 0) {
+                continue;
+            }
+            stocked.add(line);
+            events.add(InventoryChangeEvent.builder()
+                    .productId(receipt.getProductId())
+                    .batchNumber(receipt.getBatchNumber())
+                    .type(InventoryChangeEvent.ChangeType.RESTOCK)
+                    .quantityDelta(receipt.getQuantity())
+                    .remainingQuantity(receipt.getQuantity())
+                    .occurredAt(now)
+                    .build());
+        }
+        Runnable apply = () -> {
+            LocalDate today = LocalDate.now();
+            for (ReceiptLine line : stocked) {
+                BatchReceipt receipt = line.receipt;
+                // Batches expiring today or earlier were never counted as available
+                if (receipt.getExpiryDate().isAfter(today)) {
+                    availableStockTracker.recordRestock(receipt.getProductId(), receipt.getExpiryDate(),
+                            receipt.getQuantity());
+                }
+            }
+            products.forEach(responseCache::recordChange);
+            changeFeed.publish(events);
+        };
+
+        movementJournal.appendBeforeCommit(events);
+        availableStockTracker.beginChanges(products);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply.run();
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    availableStockTracker.endChanges(products);
+                }
+            });
+        } else {
+            try {
+                apply.run();
+            } finally {
+                availableStockTracker.endChanges(products);
+            }
+        }
+    }
+
+    private static void reject(BulkReceiptResponse response, ReceiptLine line) {
+        response.setRejected(response.getRejected() + 1);
+        response.getErrors().add(new BulkReceiptResponse.RejectedLine(line.lineNumber,
+                line.receipt != null ? line.receipt.getBatchNumber() : null, line.error));
+    }
+
+    private enum Outcome {
+        INSERTED,
+        UNCHANGED,
+        REJECTED
+    }
+
+    private static final class ReceiptLine {
+        private final int lineNumber;
+        private BatchReceipt receipt;
+        private String error;
+        private Outcome outcome;
+
+        private ReceiptLine(int lineNumber) {
+            this.lineNumber = lineNumber;
+        }
+
+        private void reject(String error) {
+            this.outcome = Outcome.REJECTED;
+            this.error = error;
+        }
+
+        private void reset() {
+            outcome = null;
+            error = null;
+        }
+    }
+}
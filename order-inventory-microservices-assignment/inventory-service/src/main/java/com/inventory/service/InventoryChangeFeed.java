@@ -0,0 +1,342 @@
+package com.inventory.service;
+
+import com.inventory.dto.InventoryChangeEvent;
+import com.inventory.repository.InventoryChangeJournal;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Monotonically sequenced feed of inventory batch changes.
+ * The most recent events live in an in-memory ring buffer, so readers that keep up are served
+ * without touching the database. Events are spilled to the inventory_changes journal in the
+ * background; readers whose cursor has fallen out of the ring are served from the journal.
+ * Sequences are reserved durably in blocks before they are handed out, so events lost with a crash
+ * before they were journaled never have their sequences reused: a reader's cursor stays behind
+ * everything published after the restart. The next block is reserved outside the feed's lock once
+ * half of the current one is used. Events published while no sequence is reserved wait, in order,
+ * until a reservation succeeds; they are never dropped.
+ * Subscribers can long-poll with {@link #poll} or receive server-sent events via {@link #subscribe}.
+ */
+@Component
+@Slf4j
+public class InventoryChangeFeed {
+
+    private static final int DRAIN_BATCH_SIZE = 500;
+
+    private final InventoryChangeJournal journal;
+    private final InventoryChangeEvent[] ring;
+    private final long sseTimeoutMillis;
+    private final int sequenceBlockSize;
+    private final Object flushLock = new Object();
+    private final ReentrantLock reserveLock = new ReentrantLock();
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean dispatchScheduled = new AtomicBoolean();
+    private final ExecutorService dispatcher = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "inventory-change-feed");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // Guarded by this
+    private long nextSequence = 1;
+    private long reservedUntil;
+    private long firstRingSequence = 1;
+    private List<InventoryChangeEvent> unflushed = new ArrayList<>();
+    private final List<InventoryChangeEvent> unsequenced = new ArrayList<>();
+
+    @Autowired
+    public InventoryChangeFeed(InventoryChangeJournal journal,
+                               @Value("${inventory.changes.buffer-size:4096}") int bufferSize,
+                               @Value("${inventory.changes.sse-timeout:30m}") Duration sseTimeout,
+                               @Value("${inventory.changes.sequence-block:1000}") int sequenceBlockSize) {
+        if (bufferSize < 1) {
+            throw new IllegalArgumentException("Change feed buffer size must be positive");
+        }
+        if (sequenceBlockSize < 1) {
+            throw new IllegalArgumentException("Change feed sequence block must be positive");
+        }
+        this.journal = journal;
+        this.ring = new InventoryChangeEvent[bufferSize];
+        this.sseTimeoutMillis = sseTimeout.toMillis();
+        this.sequenceBlockSize = sequenceBlockSize;
+    }
+
+    /**
+     * Continue numbering after the last reserved sequence, so cursors stay valid across restarts.
+     * Sequences reserved but never journaled before a crash are skipped, never reused.
+     */
+    @PostConstruct
+    public synchronized void init() {
+        reservedUntil = Math.max(journal.findLastSequence(), journal.findReservedSequence());
+        nextSequence = reservedUntil + 1;
+        firstRingSequence = nextSequence;
+    }
+
+    /**
+     * Assign sequence numbers to the events and make them visible to readers.
+     * Callers publish only committed changes. Events that find no reserved sequence left wait for
+     * the next reservation, which is retried on every publish and flush until it succeeds, rather
+     * than being numbered with sequences that could be reused.
+     *
+     * @param events Events in the order they happened
+     */
+    public void publish(List<InventoryChangeEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        boolean reserve;
+        synchronized (this) {
+            unsequenced.addAll(events);
+            assignSequences();
+            reserve = needsReservation();
+        }
+        if (reserve) {
+            reserveSequences();
+        }
+        scheduleDispatch();
+    }
+
+    /**
+     * Events after the given sequence, oldest first.
+     *
+     * @param since Last sequence already seen by the reader
+     * @param limit Maximum number of events
+     * @return Up to limit events, empty if the reader is up to date
+     */
+    public List<InventoryChangeEvent> read(long since, int limit) {
+        synchronized (this) {
+            long from = since + 1;
+            if (from >= Math.max(firstRingSequence, nextSequence - ring.length)) {
+                long to = Math.min(nextSequence, from + limit);
+                List<InventoryChangeEvent> events = new ArrayList<>((int) Math.max(0, to - from));
+                for (long sequence = from; sequence < to; sequence++) {
+                    events.add(ring[slot(sequence)]);
+                }
+                return events;
+            }
+        }
+        // Cursor is older than the ring: make sure the journal has everything, then read from it
+        flush();
+        return journal.findAfter(since, limit);
+    }
+
+    /**
+     * Like {@link #read}, but wait up to the given time for new events if there are none yet.
+     */
+    public List<InventoryChangeEvent> poll(long since, int limit, Duration wait) throws InterruptedException {
+        long deadline = System.nanoTime() + wait.toNanos();
+        synchronized (this) {
+            while (nextSequence - 1 <= since) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    break;
+                }
+                TimeUnit.NANOSECONDS.timedWait(this, remaining);
+            }
+        }
+        return read(since, limit);
+    }
+
+    /**
+     * Stream events after the given sequence, followed by live events, as server-sent events.
+     * Each event id is its sequence, so clients can resume with Last-Event-ID.
+     *
+     * @param since Last sequence already seen by the client
+     * @return Emitter to hand back to Spring MVC
+     */
+    public SseEmitter subscribe(long since) {
+        SseEmitter emitter = new SseEmitter(sseTimeoutMillis);
+        Subscriber subscriber = new Subscriber(emitter, since);
+        subscribers.add(subscriber);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(e -> subscribers.remove(subscriber));
+        dispatcher.execute(subscriber::drain);
+        return emitter;
+    }
+
+    /**
+     * Sequence of the most recently published event, or the last sequence reserved before the
+     * restart if none was published since, or 0 if none ever was.
+     */
+    public synchronized long getLastSequence() {
+        return nextSequence - 1;
+    }
+
+    /**
+     * Write events not yet journaled in one batch, after retrying the reservation for events still
+     * waiting for a sequence.
+     */
+    @Scheduled(fixedDelayString = "${inventory.changes.flush-interval-ms:1000}")
+    public void flush() {
+        boolean waiting;
+        synchronized (this) {
+            waiting = !unsequenced.isEmpty();
+        }
+        if (waiting) {
+            reserveSequences();
+            scheduleDispatch();
+        }
+        synchronized (flushLock) {
+            List<InventoryChangeEvent> batch;
+            synchronized (this) {
+                if (unflushed.isEmpty()) {
+                    return;
+                }
+                batch = unflushed;
+                unflushed = new ArrayList<>();
+            }
+            try {
+                journal.append(batch);
+            } catch (RuntimeException e) {
+                log.warn("Failed to journal {} inventory changes, will retry: {}", batch.size(), e.getMessage());
+                synchronized (this) {
+                    List<InventoryChangeEvent> retry = new ArrayList<>(batch);
+                    retry.addAll(unflushed);
+                    unflushed = retry;
+                }
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        dispatcher.shutdownNow();
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+        flush();
+    }
+
+    /**
+     * Number waiting events with the reserved sequences left, oldest first. Caller holds this.
+     */
+    private void assignSequences() {
+        int count = (int) Math.min(unsequenced.size(), reservedUntil - nextSequence + 1);
+        if (count <= 0) {
+            return;
+        }
+        for (InventoryChangeEvent event : unsequenced.subList(0, count)) {
+            event.setSequence(nextSequence);
+            ring[slot(nextSequence)] = event;
+            unflushed.add(event);
+            nextSequence++;
+        }
+        unsequenced.subList(0, count).clear();
+        notifyAll();
+    }
+
+    /**
+     * Whether events are waiting for sequences or half of the reserved block is used. Caller holds this.
+     */
+    private boolean needsReservation() {
+        return !unsequenced.isEmpty() || reservedUntil - nextSequence + 1 < (sequenceBlockSize + 1) / 2;
+    }
+
+    /**
+     * Reserve the next block of sequences without holding the feed's lock, so readers and publishers
+     * carry on during the database write, then number the events that waited for it. Only one thread
+     * reserves at a time; the others leave their events to it.
+     */
+    private void reserveSequences() {
+        if (!reserveLock.tryLock()) {
+            return;
+        }
+        try {
+            while (true) {
+                long target;
+                synchronized (this) {
+                    if (!needsReservation()) {
+                        return;
+                    }
+                    target = nextSequence - 1 + unsequenced.size() + sequenceBlockSize;
+                }
+                try {
+                    journal.reserveSequencesUntil(target);
+                } catch (RuntimeException e) {
+                    synchronized (this) {
+                        if (!unsequenced.isEmpty()) {
+                            log.warn("Failed to reserve change feed sequences, {} events wait for the retry: {}",
+                                    unsequenced.size(), e.getMessage());
+                        }
+                    }
+                    return;
+                }
+                synchronized (this) {
+                    reservedUntil = Math.max(reservedUntil, target);
+                    assignSequences();
+                }
+            }
+        } finally {
+            reserveLock.unlock();
+        }
+    }
+
+    private int slot(long sequence) {
+        return (int) (sequence % ring.length);
+    }
+
+    /**
+     * Push new events to SSE subscribers off the publishing thread.
+     * Bursts of publishes collapse into a single pass over the subscribers.
+     */
+    private void scheduleDispatch() {
+        if (subscribers.isEmpty() || !dispatchScheduled.compareAndSet(false, true)) {
+            return;
+        }
+        dispatcher.execute(() -> {
+            dispatchScheduled.set(false);
+            subscribers.forEach(Subscriber::drain);
+        });
+    }
+
+    private final class Subscriber {
+
+        private final SseEmitter emitter;
+        private long cursor;
+
+        private Subscriber(SseEmitter emitter, long cursor) {
+            this.emitter = emitter;
+            this.cursor = cursor;
+        }
+
+        /**
+         * Send everything after the cursor. Reading from the feed rather than sending the
+         * published events keeps each stream gap-free and in order.
+         */
+        private void drain() {
+            try {
+                List<InventoryChangeEvent> events;
+                while (!(events = read(cursor, DRAIN_BATCH_SIZE)).isEmpty()) {
+                    for (InventoryChangeEvent event : events) {
+                        emitter.send(SseEmitter.event()
+                                .id(Long.toString(event.getSequence()))
+                                .name("inventory-change")
+                                .data(event));
+                        cursor = event.getSequence();
+                    }
+                }
+            } catch (IOException | IllegalStateException e) {
+                log.debug("Dropping change feed subscriber: {}", e.getMessage());
+                subscribers.remove(this);
+                emitter.completeWithError(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package com.inventory.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.inventory.dto.InventoryBatchResponse;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Encoded GET /inventory/{productId} bodies, kept per product until its stock changes.
+ * Every product has a version that is bumped once each deduction or restock of it commits. A body is
+ * encoded to JSON (and gzip, when large enough) the first time it is read at a version and then
+ * served as is, with an ETag derived from the version, so repeat reads of unchanged inventory neither
+ * query the store nor run Jackson, and clients holding the current ETag get a 304.
+ * The version is read before the batches, so a body can only ever be labelled older than its data
+ * and is rebuilt on the next read. Bodies are also rebuilt when the date changes, because whether a
+ * batch is expired depends on it.
+ */
+@Component
+public class InventoryResponseCache {
+
+    private final ObjectMapper objectMapper;
+    private final Clock clock;
+    private final boolean gzipEnabled;
+    private final int gzipMinSize;
+    // Versions restart from zero with the process, so tags carry the start time to stay unique
+    private final String instanceTag = Long.toString(System.currentTimeMillis(), 36);
+    private final Map<String, Long> versions = new ConcurrentHashMap<>();
+    private final Map<String, EncodedInventory> entries = new ConcurrentHashMap<>();
+
+    @Autowired
+    public InventoryResponseCache(ObjectMapper objectMapper,
+                                  @Value("${inventory.read-cache.gzip:true}") boolean gzipEnabled,
+                                  @Value("${inventory.read-cache.gzip-min-size:512}") int gzipMinSize) {
+        this(objectMapper, gzipEnabled, gzipMinSize, Clock.systemDefaultZone());
+    }
+
+    InventoryResponseCache(ObjectMapper objectMapper, boolean gzipEnabled, int gzipMinSize, Clock clock) {
+        this.objectMapper = objectMapper;
+        this.gzipEnabled = gzipEnabled;
+        this.gzipMinSize = gzipMinSize;
+        this.clock = clock;
+    }
+
+    /**
+     * Encoded inventory of a product at its current version, loading and encoding it on a miss.
+     *
+     * @param productId The product identifier
+     * @param loader Reads the product's batches; its exceptions propagate and nothing is cached
+     * @return The encoded body
+     */
+    public EncodedInventory get(String productId, Function<String, List<InventoryBatchResponse>> loader) {
+        long version = getVersion(productId);
+        LocalDate today = LocalDate.now(clock);
+        EncodedInventory cached = entries.get(productId);
+        if (cached != null && cached.version == version && cached.date.equals(today)) {
+            return cached;
+        }
+        EncodedInventory encoded = encode(version, today, loader.apply(productId));
+        // Two concurrent misses may race; keep whichever body is for the later version
+        return entries.merge(productId, encoded, (old, fresh) -> old.version > fresh.version ? old : fresh);
+    }
+
+    /**
+     * Record that a product's stock changed, making its cached body and ETag stale.
+     * Call once the change is committed.
+     *
+     * @param productId The product identifier
+     */
+    public void recordChange(String productId) {
+        versions.merge(productId, 1L, Long::sum);
+    }
+
+    /**
+     * Current version of a product, 0 until its stock first changes.
+     *
+     * @param productId The product identifier
+     * @return The version
+     */
+    public long getVersion(String productId) {
+        return versions.getOrDefault(productId, 0L);
+    }
+
+    private EncodedInventory encode(long version, LocalDate date, List<InventoryBatchResponse> batches) {
+        byte[] json;
+        try {
+            json = objectMapper.writeValueAsBytes(batches);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot encode inventory batches", e);
+        }
+        byte[] gzip = gzipEnabled && json.length >= gzipMinSize ? gzip(json) : null;
+        String tag = instanceTag + "-" + version + "-" + date.toEpochDay();
+        return new EncodedInventory(version, date, "\"" + tag + "\"", "\"" + tag + "-gzip\"", json, gzip);
+    }
+
+    private static byte[] gzip(byte[] data) {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(data.length / 4 + 32);
+        try (GZIPOutputStream out = new GZIPOutputStream(buffer)) {
+            out.write(data);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return buffer.toByteArray();
+    }
+
+    /**
+     * A product's batches encoded at one version. The JSON and gzip bodies are distinct
+     * representations, so each has its own strong ETag.
+     */
+    @Getter
+    public static final class EncodedInventory {
+
+        private final long version;
+        private final LocalDate date;
+        private final String etag;
+        private final String gzipEtag;
+        private final byte[] json;
+        private final byte[] gzip;
+
+        EncodedInventory(long version, LocalDate date, String etag, String gzipEtag, byte[] json, byte[] gzip) {
+            this.version = version;
+            this.date = date;
+            this.etag = etag;
+            this.gzipEtag = gzipEtag;
+            this.json = json;
+            this.gzip = gzip;
+        }
+
+        /**
+         * Whether an If-None-Match header names either representation of this version.
+         *
+         * @param ifNoneMatch The header value, may be null
+         * @return true if the client already holds this version
+         */
+        public boolean matches(String ifNoneMatch) {
+            if (ifNoneMatch == null) {
+                return false;
+            }
+            for (String candidate : ifNoneMatch.split(",")) {
+                String tag = candidate.trim();
+                if (tag.startsWith("W/")) {
+                    tag = tag.substring(2);
+                }
+                if (tag.equals("*") || tag.equals(etag) || tag.equals(gzipEtag)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
@@ -1,20 +1,33 @@
 package com.inventory.service;
 
+import com.inventory.dto.AvailabilityResponse;
 import com.inventory.dto.InventoryBatchResponse;
+import com.inventory.dto.InventoryChangeEvent;
 import com.inventory.dto.InventoryUpdateRequest;
 import com.inventory.dto.InventoryUpdateResponse;
 import com.inventory.exception.ResourceNotFoundException;
 import com.inventory.factory.InventoryStrategyFactory;
+import com.inventory.journal.MovementJournal;
 import com.inventory.model.InventoryBatch;
-import com.inventory.model.Product;
-import com.inventory.repository.InventoryBatchRepository;
-import com.inventory.repository.ProductRepository;
+import com.inventory.repository.InventoryBatchArchive;
+import com.inventory.store.InventoryStore;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
@@ -22,9 +35,13 @@ import java.util.stream.Collectors;
 @Slf4j
 public class InventoryService {
 
-    private final ProductRepository productRepository;
-    private final InventoryBatchRepository inventoryBatchRepository;
+    private final InventoryStore inventoryStore;
     private final InventoryStrategyFactory strategyFactory;
+    private final AvailableStockTracker availableStockTracker;
+    private final InventoryChangeFeed changeFeed;
+    private final MovementJournal movementJournal;
+    private final InventoryResponseCache responseCache;
+    private final InventoryBatchArchive inventoryBatchArchive;
 
     /**
      * Get all inventory batches for a product, sorted by expiry date.
@@ -36,12 +53,11 @@ public class InventoryService {
     public List<InventoryBatchResponse> getInventoryByProductId(String productId) {
         log.info("Fetching inventory for product: {}", productId);
         
-        if (!productRepository.existsByProductId(productId)) {
+        if (!inventoryStore.productExists(productId)) {
             throw new ResourceNotFoundException("Product not found with ID: " + productId);
         }
         
-        List<InventoryBatch> batches = inventoryBatchRepository
-                .findByProductIdOrderByExpiryDate(productId);
+        List<InventoryBatch> batches = inventoryStore.findBatches(productId);
         
         log.info("Found {} batches for product {}", batches.size(), productId);
         
@@ -50,6 +66,31 @@ public class InventoryService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Get the inventory batches of a product, optionally with its archived batches, sorted by expiry date.
+     *
+     * @param productId The product identifier
+     * @param includeArchived Whether to include depleted and expired batches moved to the archive
+     * @return List of inventory batch responses
+     */
+    @Transactional(readOnly = true)
+    public List<InventoryBatchResponse> getInventoryByProductId(String productId, boolean includeArchived) {
+        List<InventoryBatchResponse> live = getInventoryByProductId(productId);
+        if (!includeArchived) {
+            return live;
+        }
+        // A batch archived between the two reads shows up in both; keep the live row
+        Set<String> liveNumbers = live.stream().map(InventoryBatchResponse::getBatchNumber).collect(Collectors.toSet());
+        List<InventoryBatchResponse> batches = new ArrayList<>(live);
+        for (InventoryBatchArchive.ArchivedBatch archived : inventoryBatchArchive.findByProductId(productId)) {
+            if (!liveNumbers.contains(archived.getBatchNumber())) {
+                batches.add(convertToResponse(archived));
+            }
+        }
+        batches.sort(Comparator.comparing(InventoryBatchResponse::getExpiryDate));
+        return batches;
+    }
+
     /**
      * Update inventory by deducting quantity for an order.
      * Uses the Factory Pattern to apply the configured inventory strategy.
@@ -63,13 +104,12 @@ public class InventoryService {
         log.info("Updating inventory for product {} with quantity {} using strategy {}", 
                 request.getProductId(), request.getQuantity(), strategyType);
         
-        Product product = productRepository.findByProductId(request.getProductId())
-                .orElseThrow(() -> new ResourceNotFoundException(
-                        "Product not found with ID: " + request.getProductId()));
+        if (!inventoryStore.productExists(request.getProductId())) {
+            throw new ResourceNotFoundException("Product not found with ID: " + request.getProductId());
+        }
         
         // Get available batches (non-expired, with quantity > 0)
-        List<InventoryBatch> availableBatches = inventoryBatchRepository
-                .findAvailableBatchesByProductId(request.getProductId());
+        List<InventoryBatch> availableBatches = inventoryStore.findAvailableBatches(request.getProductId());
         
         if (availableBatches.isEmpty()) {
             throw new ResourceNotFoundException(
@@ -84,9 +124,10 @@ public class InventoryService {
                 availableBatches, request.getQuantity());
         
         // Save the updated batches
-        inventoryBatchRepository.saveAll(availableBatches);
+        inventoryStore.applyDeductions(availableBatches, response.getBatchDeductions());
         
         response.setProductId(request.getProductId());
+        recordDeductionsAfterCommit(request.getProductId(), availableBatches, response);
         
         log.info("Successfully updated inventory for product {}", request.getProductId());
         return response;
@@ -103,6 +144,117 @@ public class InventoryService {
         return updateInventory(request, "FIFO");
     }
 
+    /**
+     * Get the available-to-promise quantity of a product from the in-memory stock counters.
+     *
+     * @param productId The product identifier
+     * @param quantity Optional quantity to check against
+     * @return Availability of the product
+     */
+    public AvailabilityResponse getAvailability(String productId, Integer quantity) {
+        long available = availableStockTracker.getAvailable(productId)
+                .orElseThrow(() -> new ResourceNotFoundException("Product not found with ID: " + productId));
+        
+        return AvailabilityResponse.builder()
+                .productId(productId)
+                .availableQuantity(available)
+                .requestedQuantity(quantity)
+                .canFulfill(quantity != null ? available >= quantity : null)
+                .build();
+    }
+
+    /**
+     * Get the available-to-promise quantity of several products.
+     * Unknown products are omitted from the result.
+     *
+     * @param productIds The product identifiers
+     * @return Availability of each known product
+     */
+    public List<AvailabilityResponse> getAvailability(List<String> productIds) {
+        List<AvailabilityResponse> result = new ArrayList<>(productIds.size());
+        for (String productId : new LinkedHashSet<>(productIds)) {
+            OptionalLong available = availableStockTracker.getAvailable(productId);
+            if (available.isPresent()) {
+                result.add(AvailabilityResponse.builder()
+                        .productId(productId)
+                        .availableQuantity(available.getAsLong())
+                        .build());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Journal the deductions just before the transaction commits, so a crash cannot lose a committed
+     * movement, then apply them to the available stock counters, bump the product's response version
+     * and publish them on the change feed once it has committed, so a rolled-back update is never
+     * seen by readers. The counters hear of the update before it commits, so the product is not
+     * loaded from a read that may or may not include it.
+     */
+    private void recordDeductionsAfterCommit(String productId, List<InventoryBatch> batches,
+                                             InventoryUpdateResponse response) {
+        Map<String, InventoryBatch> batchByNumber = new HashMap<>();
+        for (InventoryBatch batch : batches) {
+            batchByNumber.put(batch.getBatchNumber(), batch);
+        }
+        LocalDateTime now = LocalDateTime.now();
+        List<InventoryChangeEvent> events = new ArrayList<>(response.getBatchDeductions().size());
+        for (InventoryUpdateResponse.BatchDeduction deduction : response.getBatchDeductions()) {
+            events.add(InventoryChangeEvent.builder()
+                    .productId(productId)
+                    .batchNumber(deduction.getBatchNumber())
+                    .type(InventoryChangeEvent.ChangeType.DEDUCTION)
+                    .quantityDelta(-deduction.getQuantityDeducted())
+                    .remainingQuantity(batchByNumber.get(deduction.getBatchNumber()).getQuantity())
+                    .occurredAt(now)
+                    .build());
+        }
+        Runnable apply = () -> {
+            response.getBatchDeductions().forEach(deduction ->
+                    availableStockTracker.recordDeduction(productId,
+                            batchByNumber.get(deduction.getBatchNumber()).getExpiryDate(),
+                            deduction.getQuantityDeducted()));
+            responseCache.recordChange(productId);
+            changeFeed.publish(events);
+        };
+
+        movementJournal.appendBeforeCommit(events);
+
+        availableStockTracker.beginChanges(List.of(productId));
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply.run();
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    availableStockTracker.endChanges(List.of(productId));
+                }
+            });
+        } else {
+            try {
+                apply.run();
+            } finally {
+                availableStockTracker.endChanges(List.of(productId));
+            }
+        }
+    }
+
+    private InventoryBatchResponse convertToResponse(InventoryBatchArchive.ArchivedBatch batch) {
+        return InventoryBatchResponse.builder()
+                .batchNumber(batch.getBatchNumber())
+                .productId(batch.getProductId())
+                .productName(batch.getProductName())
+                .quantity(batch.getQuantity())
+                .expiryDate(batch.getExpiryDate())
+                .manufacturingDate(batch.getManufacturingDate())
+                .isExpired(LocalDate.now().isAfter(batch.getExpiryDate()))
+                .archivedAt(batch.getArchivedAt())
+                .build();
+    }
+
     private InventoryBatchResponse convertToResponse(InventoryBatch batch) {
         return InventoryBatchResponse.builder()
                 .batchNumber(batch.getBatchNumber())
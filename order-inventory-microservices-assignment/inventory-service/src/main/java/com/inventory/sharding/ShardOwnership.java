@@ -0,0 +1,77 @@
+package com.inventory.sharding;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Which shard owns which product, from the same consistent-hash ring Order Service routes with.
+ * Without a configured shard id every product is owned locally.
+ */
+@Component
+@Slf4j
+public class ShardOwnership {
+
+    private final ShardingProperties properties;
+    private final ConsistentHashRing ring;
+
+    public ShardOwnership(ShardingProperties properties) {
+        this.properties = properties;
+        if (!properties.isEnabled()) {
+            this.ring = null;
+            return;
+        }
+        if (!properties.getShards().containsKey(properties.getShardId())) {
+            throw new IllegalStateException("Shard " + properties.getShardId()
+                    + " is not one of the configured shards " + properties.getShards().keySet());
+        }
+        Set<String> urls = new HashSet<>();
+        properties.getShards().forEach((shard, url) -> {
+            if (url == null || url.isBlank()) {
+                throw new IllegalStateException("Inventory shard " + shard + " has no instance");
+            }
+            if (!urls.add(url)) {
+                throw new IllegalStateException("Inventory shard " + shard + " shares instance " + url
+                        + " with another shard");
+            }
+        });
+        this.ring = new ConsistentHashRing(properties.getShards().keySet(), properties.getVirtualNodes());
+        log.info("Serving inventory shard {} of {}", properties.getShardId(), ring.getNodes());
+    }
+
+    public boolean isEnabled() {
+        return ring != null;
+    }
+
+    public String getShardId() {
+        return properties.getShardId();
+    }
+
+    /**
+     * @param productId The product identifier
+     * @return Shard owning the product, this instance's shard while sharding is off
+     */
+    public String ownerOf(String productId) {
+        return ring != null ? ring.nodeFor(productId) : properties.getShardId();
+    }
+
+    /**
+     * @param productId The product identifier
+     * @return true if requests for the product are served here
+     */
+    public boolean owns(String productId) {
+        return ring == null || ring.nodeFor(productId).equals(properties.getShardId());
+    }
+
+    /**
+     * Base URL of the instance serving the shard.
+     *
+     * @param shard Shard id
+     * @return Base URL
+     */
+    public String baseUrlOf(String shard) {
+        return properties.getShards().get(shard);
+    }
+}
@@ -0,0 +1,248 @@
+package com.inventory.sharding;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.inventory.controller.InventoryController;
+import com.inventory.controller.InventoryRequestPaths;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Makes sure every product request is served by the shard that owns the product.
+ * Order Service routes with the same ring as {@link ShardOwnership}, so normally every request
+ * already arrives at the owner. Requests that do not, e.g. while a membership change is
+ * rolled out, are forwarded to the owner or rejected with 421 Misdirected Request, depending on
+ * inventory.sharding.mode. A forwarded request that still misses is rejected rather than forwarded
+ * again, so instances that disagree about membership cannot bounce a request between them.
+ */
+@Component
+@Slf4j
+public class ShardRoutingFilter extends OncePerRequestFilter {
+
+    static final String FORWARDED_BY_HEADER = "X-Inventory-Forwarded-By";
+    static final String SHARD_HEADER = "X-Inventory-Shard";
+
+    private static final int MISDIRECTED_REQUEST = 421;
+    private static final List<String> FORWARDED_RESPONSE_HEADERS = List.of(HttpHeaders.CONTENT_TYPE,
+            HttpHeaders.CONTENT_ENCODING, HttpHeaders.ETAG, HttpHeaders.VARY, HttpHeaders.CACHE_CONTROL,
+            HttpHeaders.RETRY_AFTER);
+    private static final MediaType APPLICATION_SMILE = MediaType.valueOf(InventoryController.APPLICATION_SMILE_VALUE);
+
+    private final ShardOwnership ownership;
+    private final ShardingProperties properties;
+    private final ObjectMapper objectMapper;
+    private final ObjectMapper smileMapper;
+    private final HttpClient httpClient;
+
+    public ShardRoutingFilter(ShardOwnership ownership, ShardingProperties properties, ObjectMapper objectMapper) {
+        this.ownership = ownership;
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+        this.smileMapper = objectMapper.copyWith(new SmileFactory());
+        this.httpClient = HttpClient.newBuilder().connectTimeout(properties.getForwardTimeout()).build();
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !ownership.isEnabled()
+                || !InventoryRequestPaths.pathOf(request).startsWith(InventoryRequestPaths.PREFIX);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String path = InventoryRequestPaths.pathOf(request);
+        byte[] body = null;
+        String productId;
+        if (InventoryRequestPaths.isUpdate(request.getMethod(), path)) {
+            body = request.getInputStream().readAllBytes();
+            request = new CachedBodyRequest(request, body);
+            productId = productIdFromBody(body, request.getContentType());
+        } else {
+            productId = InventoryRequestPaths.productIdFromPath(request.getMethod(), path);
+        }
+
+        if (productId == null || ownership.owns(productId)) {
+            response.setHeader(SHARD_HEADER, ownership.getShardId());
+            chain.doFilter(request, response);
+            return;
+        }
+
+        String owner = ownership.ownerOf(productId);
+        String forwardedBy = request.getHeader(FORWARDED_BY_HEADER);
+        if (forwardedBy != null || properties.getMode() == ShardingProperties.Mode.REJECT) {
+            log.warn("Rejecting request for product {} owned by shard {}{}", productId, owner,
+                    forwardedBy != null ? " forwarded by shard " + forwardedBy : "");
+            response.setHeader(SHARD_HEADER, owner);
+            writeError(response, MISDIRECTED_REQUEST, "Misdirected Request",
+                    "Product " + productId + " is owned by shard " + owner);
+            return;
+        }
+        forward(request, body, owner, path, response);
+    }
+
+    private void forward(HttpServletRequest request, byte[] body, String owner, String path,
+                         HttpServletResponse response) throws IOException {
+        String target = ownership.baseUrlOf(owner) + path
+                + (request.getQueryString() != null ? "?" + request.getQueryString() : "");
+        HttpRequest.Builder forwarded = HttpRequest.newBuilder(URI.create(target))
+                .timeout(properties.getForwardTimeout())
+                .header(FORWARDED_BY_HEADER, ownership.getShardId())
+                .method(request.getMethod(), body != null
+                        ? HttpRequest.BodyPublishers.ofByteArray(body)
+                        : HttpRequest.BodyPublishers.noBody());
+        copyHeader(request, forwarded, HttpHeaders.CONTENT_TYPE);
+        copyHeader(request, forwarded, HttpHeaders.ACCEPT);
+        copyHeader(request, forwarded, HttpHeaders.ACCEPT_ENCODING);
+        copyHeader(request, forwarded, HttpHeaders.IF_NONE_MATCH);
+
+        try {
+            HttpResponse<byte[]> answer = httpClient.send(forwarded.build(), HttpResponse.BodyHandlers.ofByteArray());
+            response.setStatus(answer.statusCode());
+            response.setHeader(SHARD_HEADER, owner);
+            for (String name : FORWARDED_RESPONSE_HEADERS) {
+                answer.headers().firstValue(name).ifPresent(value -> response.setHeader(name, value));
+            }
+            response.getOutputStream().write(answer.body());
+        } catch (IOException e) {
+            log.warn("Failed to forward request to shard {} at {}: {}", owner, target, e.getMessage());
+            writeError(response, HttpStatus.BAD_GATEWAY.value(), HttpStatus.BAD_GATEWAY.getReasonPhrase(),
+                    "Shard " + owner + " is unavailable");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            writeError(response, HttpStatus.SERVICE_UNAVAILABLE.value(),
+                    HttpStatus.SERVICE_UNAVAILABLE.getReasonPhrase(), "Interrupted while forwarding to shard " + owner);
+        }
+    }
+
+    private void copyHeader(HttpServletRequest request, HttpRequest.Builder forwarded, String name) {
+        String value = request.getHeader(name);
+        if (value != null) {
+            forwarded.header(name, value);
+        }
+    }
+
+    /**
+     * Same body shape as GlobalExceptionHandler, which does not see requests stopped by a filter.
+     */
+    private void writeError(HttpServletResponse response, int status, String reason, String message)
+            throws IOException {
+        Map<String, Object> error = new LinkedHashMap<>();
+        error.put("timestamp", LocalDateTime.now());
+        error.put("status", status);
+        error.put("error", reason);
+        error.put("message", message);
+        response.setStatus(status);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), error);
+    }
+
+    /**
+     * Product id of an update request, read as Smile or JSON like the controller would by its
+     * Content-Type, or null if the body cannot be read, in which case the request is left for
+     * validation to reject locally.
+     */
+    private String productIdFromBody(byte[] body, String contentType) {
+        try {
+            ObjectMapper reader = isSmile(contentType) ? smileMapper : objectMapper;
+            JsonNode productId = reader.readTree(body).path("productId");
+            return productId.isTextual() && !productId.asText().isBlank() ? productId.asText() : null;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private static boolean isSmile(String contentType) {
+        try {
+            return contentType != null && APPLICATION_SMILE.isCompatibleWith(MediaType.parseMediaType(contentType));
+        } catch (InvalidMediaTypeException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Request whose body was already read, replayed for the controller.
+     */
+    private static final class CachedBodyRequest extends HttpServletRequestWrapper {
+
+        private final byte[] body;
+
+        private CachedBodyRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream input = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public boolean isFinished() {
+                    return input.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener listener) {
+                    // The whole body is already in memory, so it can be handed over straight away
+                    try {
+                        listener.onDataAvailable();
+                        listener.onAllDataRead();
+                    } catch (IOException e) {
+                        listener.onError(e);
+                        throw new UncheckedIOException(e);
+                    }
+                }
+
+                @Override
+                public int read() {
+                    return input.read();
+                }
+
+                @Override
+                public int read(byte[] buffer, int offset, int length) {
+                    return input.read(buffer, offset, length);
+                }
+            };
+        }
+
+        @Override
+        public int getContentLength() {
+            return body.length;
+        }
+
+        @Override
+        public long getContentLengthLong() {
+            return body.length;
+        }
+    }
+}
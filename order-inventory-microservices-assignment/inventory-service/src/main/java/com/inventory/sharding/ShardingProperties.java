@@ -0,0 +1,55 @@
+package com.inventory.sharding;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Inventory shard layout, shared with Order Service under the same property names.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "inventory.sharding")
+public class ShardingProperties {
+
+    /**
+     * Shard served by this instance. Sharding is off while it is blank.
+     */
+    private String shardId;
+
+    /**
+     * Shard id to the base URL of the one instance serving it, including this one. A shard is never
+     * spread over several instances, since each keeps its own database and in-memory stock state.
+     */
+    private Map<String, String> shards = new LinkedHashMap<>();
+
+    /**
+     * Positions per shard on the hash ring.
+     */
+    private int virtualNodes = 128;
+
+    /**
+     * What to do with requests for products owned by another shard.
+     */
+    private Mode mode = Mode.FORWARD;
+
+    /**
+     * Timeout for a request forwarded to the owning shard.
+     */
+    private Duration forwardTimeout = Duration.ofSeconds(5);
+
+    public boolean isEnabled() {
+        return shardId != null && !shardId.isBlank() && !shards.isEmpty();
+    }
+
+    public enum Mode {
+        /** Proxy the request to the owning shard */
+        FORWARD,
+        /** Answer 421 Misdirected Request naming the owning shard */
+        REJECT
+    }
+}
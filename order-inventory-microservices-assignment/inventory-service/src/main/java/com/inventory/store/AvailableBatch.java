@@ -0,0 +1,22 @@
+package com.inventory.store;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * One available batch of a product, as read by {@link InventoryStore#streamAvailableBatches}.
+ * A product without available batches is read as a single row without a batch number.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AvailableBatch {
+
+    private String productId;
+    private String batchNumber;
+    private LocalDate expiryDate;
+    private int quantity;
+}
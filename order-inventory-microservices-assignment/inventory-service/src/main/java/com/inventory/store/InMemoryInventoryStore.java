@@ -0,0 +1,230 @@
+package com.inventory.store;
+
+import com.inventory.dto.InventoryUpdateResponse;
+import com.inventory.exception.InsufficientInventoryException;
+import com.inventory.model.InventoryBatch;
+import com.inventory.model.Product;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.stream.Stream;
+
+/**
+ * Inventory store that keeps every product and batch on the heap, for benchmarks and tests.
+ * It is loaded from the database once at startup and never writes back, so deductions are lost
+ * on restart. Callers get copies of the stored batches; deductions are applied under a per-product
+ * lock, checked against the stored quantities, and undone if the surrounding transaction rolls back.
+ */
+@Component
+@ConditionalOnProperty(name = "inventory.store.engine", havingValue = "memory")
+@Slf4j
+public class InMemoryInventoryStore implements InventoryStore {
+
+    private static final Comparator<InventoryBatch> BY_EXPIRY = Comparator.comparing(InventoryBatch::getExpiryDate);
+
+    private final ConcurrentNavigableMap<String, ProductEntry> products = new ConcurrentSkipListMap<>();
+
+    /**
+     * Create an empty store.
+     */
+    public InMemoryInventoryStore() {
+    }
+
+    /**
+     * Create a store holding every product and batch currently in the database.
+     *
+     * @param jdbcTemplate Template for the database to load from
+     */
+    @Autowired
+    public InMemoryInventoryStore(JdbcTemplate jdbcTemplate) {
+        JdbcInventoryStore source = new JdbcInventoryStore(jdbcTemplate);
+        source.findAllProducts().forEach(this::addProduct);
+        List<InventoryBatch> batches = source.findAllBatches();
+        batches.forEach(this::addBatch);
+        log.info("Loaded {} products and {} batches into the in-memory inventory store", products.size(), batches.size());
+    }
+
+    /**
+     * Add a product, or replace it and drop its batches if it already exists.
+     *
+     * @param product The product
+     */
+    public void addProduct(Product product) {
+        Product copy = Product.builder()
+                .id(product.getId())
+                .productId(product.getProductId())
+                .name(product.getName())
+                .description(product.getDescription())
+                .build();
+        products.put(product.getProductId(), new ProductEntry(copy));
+    }
+
+    /**
+     * Add a batch to the product it references, which must already have been added.
+     *
+     * @param batch The batch
+     */
+    public void addBatch(InventoryBatch batch) {
+        ProductEntry entry = products.get(batch.getProduct().getProductId());
+        if (entry == null) {
+            throw new IllegalArgumentException("Unknown product: " + batch.getProduct().getProductId());
+        }
+        synchronized (entry) {
+            InventoryBatch copy = copy(batch, entry.product);
+            int index = 0;
+            while (index < entry.batches.size() && BY_EXPIRY.compare(entry.batches.get(index), copy) <= 0) {
+                index++;
+            }
+            entry.batches.add(index, copy);
+        }
+    }
+
+    @Override
+    public boolean productExists(String productId) {
+        return products.containsKey(productId);
+    }
+
+    @Override
+    public List<InventoryBatch> findBatches(String productId) {
+        ProductEntry entry = products.get(productId);
+        if (entry == null) {
+            return List.of();
+        }
+        synchronized (entry) {
+            List<InventoryBatch> batches = new ArrayList<>(entry.batches.size());
+            entry.batches.forEach(batch -> batches.add(copy(batch, entry.product)));
+            return batches;
+        }
+    }
+
+    @Override
+    public List<InventoryBatch> findAvailableBatches(String productId) {
+        ProductEntry entry = products.get(productId);
+        if (entry == null) {
+            return List.of();
+        }
+        LocalDate today = LocalDate.now();
+        synchronized (entry) {
+            List<InventoryBatch> batches = new ArrayList<>(entry.batches.size());
+            for (InventoryBatch batch : entry.batches) {
+                if (isAvailable(batch, today)) {
+                    batches.add(copy(batch, entry.product));
+                }
+            }
+            return batches;
+        }
+    }
+
+    @Override
+    public void applyDeductions(List<InventoryBatch> batches, List<InventoryUpdateResponse.BatchDeduction> deductions) {
+        if (deductions.isEmpty()) {
+            return;
+        }
+        ProductEntry entry = products.get(batches.get(0).getProduct().getProductId());
+        if (entry == null) {
+            throw new IllegalArgumentException("Unknown product: " + batches.get(0).getProduct().getProductId());
+        }
+        synchronized (entry) {
+            Map<String, InventoryBatch> stored = new HashMap<>();
+            entry.batches.forEach(batch -> stored.put(batch.getBatchNumber(), batch));
+            for (InventoryUpdateResponse.BatchDeduction deduction : deductions) {
+                InventoryBatch batch = stored.get(deduction.getBatchNumber());
+                if (batch == null || batch.getQuantity() < deduction.getQuantityDeducted()) {
+                    throw new InsufficientInventoryException("Batch " + deduction.getBatchNumber()
+                            + " no longer holds " + deduction.getQuantityDeducted() + " units");
+                }
+            }
+            deductions.forEach(deduction -> stored.get(deduction.getBatchNumber())
+                    .reduceQuantity(deduction.getQuantityDeducted()));
+        }
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        restore(entry, deductions);
+                    }
+                }
+            });
+        }
+    }
+
+    @Override
+    public Stream<AvailableBatch> streamAvailableBatches() {
+        LocalDate today = LocalDate.now();
+        // The map is sorted by product id; each product is copied under its lock as the stream reaches it
+        return products.entrySet().stream().flatMap(product -> {
+            List<AvailableBatch> batches = new ArrayList<>();
+            synchronized (product.getValue()) {
+                for (InventoryBatch batch : product.getValue().batches) {
+                    if (isAvailable(batch, today)) {
+                        batches.add(new AvailableBatch(product.getKey(), batch.getBatchNumber(),
+                                batch.getExpiryDate(), batch.getQuantity()));
+                    }
+                }
+            }
+            return batches.isEmpty()
+                    ? Stream.of(new AvailableBatch(product.getKey(), null, null, 0))
+                    : batches.stream();
+        });
+    }
+
+    @Override
+    public String getEngine() {
+        return "memory";
+    }
+
+    private static void restore(ProductEntry entry, List<InventoryUpdateResponse.BatchDeduction> deductions) {
+        synchronized (entry) {
+            for (InventoryUpdateResponse.BatchDeduction deduction : deductions) {
+                for (InventoryBatch batch : entry.batches) {
+                    if (batch.getBatchNumber().equals(deduction.getBatchNumber())) {
+                        batch.setQuantity(batch.getQuantity() + deduction.getQuantityDeducted());
+                    }
+                }
+            }
+        }
+    }
+
+    private static boolean isAvailable(InventoryBatch batch, LocalDate today) {
+        return batch.getQuantity() > 0 && batch.getExpiryDate().isAfter(today);
+    }
+
+    private static InventoryBatch copy(InventoryBatch batch, Product product) {
+        return InventoryBatch.builder()
+                .id(batch.getId())
+                .batchNumber(batch.getBatchNumber())
+                .product(product)
+                .quantity(batch.getQuantity())
+                .expiryDate(batch.getExpiryDate())
+                .manufacturingDate(batch.getManufacturingDate())
+                .build();
+    }
+
+    /**
+     * A product and its batches, earliest expiry first. Guarded by its own monitor.
+     */
+    private static class ProductEntry {
+
+        private final Product product;
+        private final List<InventoryBatch> batches = new ArrayList<>();
+
+        ProductEntry(Product product) {
+            this.product = product;
+        }
+    }
+}
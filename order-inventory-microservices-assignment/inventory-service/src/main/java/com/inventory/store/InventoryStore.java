@@ -0,0 +1,67 @@
+package com.inventory.store;
+
+import com.inventory.dto.InventoryUpdateResponse;
+import com.inventory.model.InventoryBatch;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Storage engine for products and their inventory batches.
+ * Implementations are selected with inventory.store.engine; each one registers itself as the only
+ * InventoryStore bean when its engine name is configured.
+ */
+public interface InventoryStore {
+
+    /**
+     * Whether a product exists.
+     *
+     * @param productId The product identifier
+     * @return true if the product exists
+     */
+    boolean productExists(String productId);
+
+    /**
+     * All batches of a product, earliest expiry first. Each batch references its product.
+     *
+     * @param productId The product identifier
+     * @return The product's batches, empty if it has none or does not exist
+     */
+    List<InventoryBatch> findBatches(String productId);
+
+    /**
+     * Batches of a product that can still be deducted from (non-expired, with quantity > 0),
+     * earliest expiry first. The caller may change the returned batches' quantities and hand
+     * them back to {@link #applyDeductions}.
+     *
+     * @param productId The product identifier
+     * @return The product's available batches
+     */
+    List<InventoryBatch> findAvailableBatches(String productId);
+
+    /**
+     * Persist deductions made on batches returned by {@link #findAvailableBatches} in the
+     * current transaction.
+     *
+     * @param batches The batches, with their quantities already reduced
+     * @param deductions Quantity taken from each batch
+     */
+    void applyDeductions(List<InventoryBatch> batches, List<InventoryUpdateResponse.BatchDeduction> deductions);
+
+    /**
+     * Available batches (non-expired, with quantity > 0) of every product, for writing a stock snapshot.
+     * Rows are read as the stream is consumed, so the catalog is never held in memory at once; the
+     * caller must close the stream. Database engines need a transaction around the whole read.
+     *
+     * @return Rows in ascending product id order, one per available batch and one without a batch
+     *         number for each product that has none
+     */
+    Stream<AvailableBatch> streamAvailableBatches();
+
+    /**
+     * Name of the engine, as configured in inventory.store.engine.
+     *
+     * @return The engine name
+     */
+    String getEngine();
+}
@@ -0,0 +1,164 @@
+package com.inventory.store;
+
+import com.inventory.dto.InventoryUpdateResponse;
+import com.inventory.exception.InsufficientInventoryException;
+import com.inventory.model.InventoryBatch;
+import com.inventory.model.Product;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Component;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Inventory store that reads and writes batches with hand-written SQL over prepared statements.
+ * Batches are plain objects rather than managed entities, so no persistence context is hydrated or
+ * dirty-checked. Deductions are sent as one JDBC batch of relative updates, each guarded so that a
+ * concurrent deduction can never take a batch below zero.
+ */
+@Component
+@ConditionalOnProperty(name = "inventory.store.engine", havingValue = "jdbc")
+@RequiredArgsConstructor
+public class JdbcInventoryStore implements InventoryStore {
+
+    private static final String SELECT_BATCHES_SQL =
+            "SELECT b.id, b.batch_number, b.quantity, b.expiry_date, b.manufacturing_date, " +
+            "p.id AS product_pk, p.product_id, p.name, p.description " +
+            "FROM inventory_batches b JOIN products p ON p.id = b.product_id ";
+
+    private static final String FIND_BATCHES_SQL =
+            SELECT_BATCHES_SQL + "WHERE p.product_id = ? ORDER BY b.expiry_date";
+
+    private static final String FIND_AVAILABLE_BATCHES_SQL =
+            SELECT_BATCHES_SQL + "WHERE p.product_id = ? AND b.quantity > 0 AND b.expiry_date > CURRENT_DATE " +
+            "ORDER BY b.expiry_date";
+
+    private static final String DEDUCT_SQL =
+            "UPDATE inventory_batches SET quantity = quantity - ? WHERE id = ? AND quantity >= ?";
+
+    private static final String SNAPSHOT_SQL =
+            "SELECT p.product_id, b.batch_number, b.expiry_date, b.quantity " +
+            "FROM products p LEFT JOIN inventory_batches b " +
+            "ON b.product_id = p.id AND b.quantity > 0 AND b.expiry_date > CURRENT_DATE " +
+            "ORDER BY p.product_id";
+
+    private static final RowMapper<Product> PRODUCT_ROW_MAPPER = (rs, rowNum) -> Product.builder()
+            .id(rs.getLong("id"))
+            .productId(rs.getString("product_id"))
+            .name(rs.getString("name"))
+            .description(rs.getString("description"))
+            .build();
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public boolean productExists(String productId) {
+        return !jdbcTemplate.queryForList("SELECT 1 FROM products WHERE product_id = ?", Integer.class, productId)
+                .isEmpty();
+    }
+
+    @Override
+    public List<InventoryBatch> findBatches(String productId) {
+        return jdbcTemplate.query(FIND_BATCHES_SQL, new BatchRowMapper(), productId);
+    }
+
+    @Override
+    public List<InventoryBatch> findAvailableBatches(String productId) {
+        return jdbcTemplate.query(FIND_AVAILABLE_BATCHES_SQL, new BatchRowMapper(), productId);
+    }
+
+    @Override
+    public void applyDeductions(List<InventoryBatch> batches, List<InventoryUpdateResponse.BatchDeduction> deductions) {
+        if (deductions.isEmpty()) {
+            return;
+        }
+        Map<String, Long> idByNumber = new HashMap<>();
+        for (InventoryBatch batch : batches) {
+            idByNumber.put(batch.getBatchNumber(), batch.getId());
+        }
+        int[][] counts = jdbcTemplate.batchUpdate(DEDUCT_SQL, deductions, deductions.size(), (ps, deduction) -> {
+            ps.setInt(1, deduction.getQuantityDeducted());
+            ps.setLong(2, idByNumber.get(deduction.getBatchNumber()));
+            ps.setInt(3, deduction.getQuantityDeducted());
+        });
+        int index = 0;
+        for (int[] chunk : counts) {
+            for (int count : chunk) {
+                // 0 means the quantity guard failed; drivers may also answer SUCCESS_NO_INFO for batched statements
+                if (count == 0) {
+                    throw new InsufficientInventoryException("Batch " + deductions.get(index).getBatchNumber()
+                            + " no longer holds " + deductions.get(index).getQuantityDeducted() + " units");
+                }
+                index++;
+            }
+        }
+    }
+
+    @Override
+    public Stream<AvailableBatch> streamAvailableBatches() {
+        return jdbcTemplate.queryForStream(SNAPSHOT_SQL, (rs, rowNum) -> new AvailableBatch(
+                rs.getString(1), rs.getString(2), rs.getObject(3, LocalDate.class), rs.getInt(4)));
+    }
+
+    /**
+     * Every product, for loading another store.
+     *
+     * @return All products, without their batches
+     */
+    public List<Product> findAllProducts() {
+        return jdbcTemplate.query("SELECT id, product_id, name, description FROM products", PRODUCT_ROW_MAPPER);
+    }
+
+    /**
+     * Every batch of every product, for loading another store.
+     *
+     * @return All batches, earliest expiry first
+     */
+    public List<InventoryBatch> findAllBatches() {
+        return jdbcTemplate.query(SELECT_BATCHES_SQL + "ORDER BY b.expiry_date", new BatchRowMapper());
+    }
+
+    @Override
+    public String getEngine() {
+        return "jdbc";
+    }
+
+    /**
+     * Maps batch rows joined with their product, sharing one Product per product row.
+     */
+    private static class BatchRowMapper implements RowMapper<InventoryBatch> {
+
+        private final Map<Long, Product> products = new HashMap<>();
+
+        @Override
+        public InventoryBatch mapRow(ResultSet rs, int rowNum) throws SQLException {
+            long productKey = rs.getLong("product_pk");
+            Product product = products.get(productKey);
+            if (product == null) {
+                product = Product.builder()
+                        .id(productKey)
+                        .productId(rs.getString("product_id"))
+                        .name(rs.getString("name"))
+                        .description(rs.getString("description"))
+                        .build();
+                products.put(productKey, product);
+            }
+            return InventoryBatch.builder()
+                    .id(rs.getLong("id"))
+                    .batchNumber(rs.getString("batch_number"))
+                    .product(product)
+                    .quantity(rs.getInt("quantity"))
+                    .expiryDate(rs.getObject("expiry_date", LocalDate.class))
+                    .manufacturingDate(rs.getObject("manufacturing_date", LocalDate.class))
+                    .build();
+        }
+    }
+}
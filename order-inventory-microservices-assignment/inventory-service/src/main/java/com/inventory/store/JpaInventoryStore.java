@@ -0,0 +1,57 @@
+package com.inventory.store;
+
+import com.inventory.dto.InventoryUpdateResponse;
+import com.inventory.model.InventoryBatch;
+import com.inventory.repository.InventoryBatchRepository;
+import com.inventory.repository.ProductRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Inventory store backed by the Spring Data JPA repositories. Batches are managed entities, so
+ * deductions are written by Hibernate's dirty checking when the transaction flushes.
+ */
+@Component
+@ConditionalOnProperty(name = "inventory.store.engine", havingValue = "jpa", matchIfMissing = true)
+@RequiredArgsConstructor
+public class JpaInventoryStore implements InventoryStore {
+
+    private final ProductRepository productRepository;
+    private final InventoryBatchRepository inventoryBatchRepository;
+
+    @Override
+    public boolean productExists(String productId) {
+        return productRepository.existsByProductId(productId);
+    }
+
+    @Override
+    public List<InventoryBatch> findBatches(String productId) {
+        return inventoryBatchRepository.findByProductIdOrderByExpiryDate(productId);
+    }
+
+    @Override
+    public List<InventoryBatch> findAvailableBatches(String productId) {
+        return inventoryBatchRepository.findAvailableBatchesByProductId(productId);
+    }
+
+    @Override
+    public void applyDeductions(List<InventoryBatch> batches, List<InventoryUpdateResponse.BatchDeduction> deductions) {
+        inventoryBatchRepository.saveAll(batches);
+    }
+
+    @Override
+    public Stream<AvailableBatch> streamAvailableBatches() {
+        return inventoryBatchRepository.streamAvailableBatchQuantities()
+                .map(row -> new AvailableBatch(row.getProductId(), row.getBatchNumber(), row.getExpiryDate(),
+                        row.getQuantity() != null ? row.getQuantity() : 0));
+    }
+
+    @Override
+    public String getEngine() {
+        return "jpa";
+    }
+}
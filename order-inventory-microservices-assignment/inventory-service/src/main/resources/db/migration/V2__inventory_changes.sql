@@ -0,0 +1,9 @@
+CREATE TABLE inventory_changes (
+    sequence BIGINT PRIMARY KEY,
+    product_id VARCHAR(255) NOT NULL,
+    batch_number VARCHAR(255) NOT NULL,
+    change_type VARCHAR(32) NOT NULL,
+    quantity_delta INTEGER NOT NULL,
+    remaining_quantity INTEGER NOT NULL,
+    occurred_at TIMESTAMP NOT NULL
+);
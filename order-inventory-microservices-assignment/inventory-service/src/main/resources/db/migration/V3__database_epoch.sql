@@ -0,0 +1,8 @@
+-- Identifies this database instance. Stock snapshots record the epoch they were taken from and are
+-- ignored when the database has been recreated since, e.g. an in-memory database after a restart.
+CREATE TABLE database_epoch (
+    id INTEGER PRIMARY KEY,
+    epoch UUID NOT NULL
+);
+
+INSERT INTO database_epoch (id, epoch) VALUES (1, RANDOM_UUID());
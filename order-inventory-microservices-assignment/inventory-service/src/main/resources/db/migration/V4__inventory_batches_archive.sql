@@ -0,0 +1,18 @@
+-- Depleted and expired batches are moved here by the archival job, so inventory_batches only holds
+-- batches that may still be sold and its scans track live stock rather than history.
+CREATE TABLE inventory_batches_archive (
+    id BIGINT PRIMARY KEY,
+    batch_number VARCHAR(255) NOT NULL UNIQUE,
+    product_id BIGINT NOT NULL,
+    quantity INTEGER NOT NULL,
+    expiry_date DATE NOT NULL,
+    manufacturing_date DATE NOT NULL,
+    archived_at TIMESTAMP NOT NULL,
+
+    CONSTRAINT fk_inventory_batches_archive_product
+        FOREIGN KEY (product_id)
+        REFERENCES products(id)
+        ON DELETE CASCADE
+);
+
+CREATE INDEX idx_inventory_batches_product_expiry ON inventory_batches (product_id, expiry_date);
@@ -0,0 +1,7 @@
+-- Batches inserted with explicit ids, like the seed data, do not advance the identity column, so
+-- the first batch inserted without one would collide with them. Start generated ids above every
+-- id in use, archived batches included since they keep their id.
+ALTER TABLE inventory_batches ALTER COLUMN id RESTART WITH (
+    SELECT GREATEST(
+        (SELECT COALESCE(MAX(id), 0) FROM inventory_batches),
+        (SELECT COALESCE(MAX(id), 0) FROM inventory_batches_archive)) + 1);
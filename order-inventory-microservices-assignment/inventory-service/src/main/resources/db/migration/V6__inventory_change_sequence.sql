@@ -0,0 +1,10 @@
+-- Highest change feed sequence handed out or reserved. The feed reserves sequences in blocks and
+-- records the end of a block here before using any number in it, so events still waiting to be
+-- journaled when the service crashes never have their sequences handed out again after a restart.
+CREATE TABLE inventory_change_sequence (
+    id INTEGER PRIMARY KEY,
+    reserved_until BIGINT NOT NULL
+);
+
+INSERT INTO inventory_change_sequence (id, reserved_until)
+SELECT 1, COALESCE(MAX(sequence), 0) FROM inventory_changes;
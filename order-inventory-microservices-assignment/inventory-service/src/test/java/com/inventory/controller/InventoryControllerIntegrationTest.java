@@ -1,21 +1,39 @@
 package com.inventory.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
 import com.inventory.dto.InventoryUpdateRequest;
+import com.inventory.dto.InventoryUpdateResponse;
+import com.inventory.service.BatchArchiver;
+import com.inventory.service.InventoryResponseCache;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.availability.ReadinessState;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.ByteArrayInputStream;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
-@SpringBootTest
+@SpringBootTest(properties = {
+        "inventory.warmup.iterations=20",
+        "inventory.journal.directory=build/test-journal",
+        "inventory.snapshot.directory=build/test-snapshots",
+        "inventory.read-cache.gzip-min-size=0"
+})
 @AutoConfigureMockMvc
 @Transactional
 @DisplayName("Inventory Controller Integration Tests")
@@ -24,9 +42,18 @@ class InventoryControllerIntegrationTest {
     @Autowired
     private MockMvc mockMvc;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private BatchArchiver batchArchiver;
+
+    @Autowired
+    private InventoryResponseCache responseCache;
+
     @Test
     @DisplayName("Should get inventory batches for existing product")
     void shouldGetInventoryBatchesSuccessfully() throws Exception {
@@ -49,6 +76,112 @@ class InventoryControllerIntegrationTest {
                 .andExpect(jsonPath("$.message").value(containsString("Product not found")));
     }
 
+    @Test
+    @DisplayName("Should answer 304 to a read carrying the current ETag")
+    void shouldAnswerNotModifiedForCurrentEtag() throws Exception {
+        String etag = mockMvc.perform(get("/inventory/PROD-002"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/inventory/PROD-002").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag))
+                .andExpect(content().string(""));
+
+        mockMvc.perform(get("/inventory/PROD-002").header(HttpHeaders.IF_NONE_MATCH, "\"stale\""))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].productId").value("PROD-002"));
+    }
+
+    @Test
+    @DisplayName("Should gzip inventory batches for clients that accept it")
+    void shouldGzipInventoryBatches() throws Exception {
+        MvcResult result = mockMvc.perform(get("/inventory/PROD-002").header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andExpect(header().string(HttpHeaders.ETAG, endsWith("-gzip\"")))
+                .andReturn();
+
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(result.getResponse().getContentAsByteArray()))) {
+            assertThat(objectMapper.readTree(in).get(0).get("productId").asText()).isEqualTo("PROD-002");
+        }
+    }
+
+    @Test
+    @DisplayName("Should list archived batches only when asked to")
+    void shouldListArchivedBatchesOnRequest() throws Exception {
+        // Every PROD-001 batch in the sample data has expired
+        assertThat(batchArchiver.archiveAll()).isGreaterThanOrEqualTo(3);
+        // The archival only commits with the test transaction, so drop the cached body by hand
+        responseCache.recordChange("PROD-001");
+
+        mockMvc.perform(get("/inventory/PROD-001"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(0)));
+
+        mockMvc.perform(get("/inventory/PROD-001").param("includeArchived", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(3)))
+                .andExpect(jsonPath("$[0].batchNumber").value("BATCH-001-B"))
+                .andExpect(jsonPath("$[0].archivedAt").exists());
+    }
+
+    @Test
+    @DisplayName("Should insert a bulk goods receipt and report every line")
+    void shouldReceiveBatchesInBulk() throws Exception {
+        // Given
+        String ndjson = String.join("\n",
+                "{\"batchNumber\":\"BATCH-002-NEW\",\"productId\":\"PROD-002\",\"quantity\":40,\"expiryDate\":\"2030-01-31\",\"manufacturingDate\":\"2026-01-01\"}",
+                "{\"batchNumber\":\"BATCH-002-A\",\"productId\":\"PROD-002\",\"quantity\":250,\"expiryDate\":\"2027-01-31\",\"manufacturingDate\":\"2024-02-01\"}",
+                "{\"batchNumber\":\"BATCH-002-NEW\",\"productId\":\"PROD-002\",\"quantity\":99,\"expiryDate\":\"2030-01-31\",\"manufacturingDate\":\"2026-01-01\"}",
+                "{\"batchNumber\":\"BATCH-X\",\"productId\":\"NON-EXISTENT\",\"quantity\":1,\"expiryDate\":\"2030-01-31\",\"manufacturingDate\":\"2026-01-01\"}",
+                "{\"batchNumber\":\"BATCH-Y\",\"productId\":\"PROD-002\",\"quantity\":-1}",
+                "not json");
+
+        // When / Then
+        mockMvc.perform(post("/inventory/batches/bulk")
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content(ndjson))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.received").value(6))
+                .andExpect(jsonPath("$.inserted").value(1))
+                .andExpect(jsonPath("$.unchanged").value(1))
+                .andExpect(jsonPath("$.duplicates").value(1))
+                .andExpect(jsonPath("$.rejected").value(3))
+                .andExpect(jsonPath("$.errors[0].line").value(5))
+                .andExpect(jsonPath("$.errors[0].error").value(containsString("quantity")))
+                .andExpect(jsonPath("$.errors[1].line").value(6))
+                .andExpect(jsonPath("$.errors[1].error").value(containsString("Malformed JSON")))
+                .andExpect(jsonPath("$.errors[2].line").value(4))
+                .andExpect(jsonPath("$.errors[2].error").value(containsString("Product not found")));
+
+        mockMvc.perform(get("/inventory/PROD-002").param("includeArchived", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[?(@.batchNumber == 'BATCH-002-NEW')].quantity").value(contains(40)))
+                .andExpect(jsonPath("$[?(@.batchNumber == 'BATCH-002-A')].quantity").value(contains(200)));
+    }
+
+    @Test
+    @DisplayName("Should leave batches unchanged when the same receipt is sent again")
+    void shouldIgnoreRepeatedGoodsReceipt() throws Exception {
+        // Given
+        String ndjson = "{\"batchNumber\":\"BATCH-003-B\",\"productId\":\"PROD-003\",\"quantity\":80," +
+                "\"expiryDate\":\"2026-05-31\",\"manufacturingDate\":\"2024-11-01\"}\n" +
+                "{\"batchNumber\":\"BATCH-002-B\",\"productId\":\"PROD-003\",\"quantity\":5," +
+                "\"expiryDate\":\"2026-08-31\",\"manufacturingDate\":\"2024-08-01\"}";
+
+        // When / Then
+        mockMvc.perform(post("/inventory/batches/bulk")
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content(ndjson))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.unchanged").value(1))
+                .andExpect(jsonPath("$.rejected").value(1))
+                .andExpect(jsonPath("$.errors[0].error").value(containsString("already exists for product PROD-002")));
+    }
+
     @Test
     @DisplayName("Should update inventory successfully")
     void shouldUpdateInventorySuccessfully() throws Exception {
@@ -96,6 +229,106 @@ class InventoryControllerIntegrationTest {
                 .andExpect(jsonPath("$.error").value("Insufficient Inventory"));
     }
 
+    @Test
+    @DisplayName("Should update inventory in Smile when the client negotiates it")
+    void shouldUpdateInventoryInSmile() throws Exception {
+        ObjectMapper smileMapper = new ObjectMapper(new SmileFactory());
+        MediaType smile = MediaType.parseMediaType(InventoryController.APPLICATION_SMILE_VALUE);
+        InventoryUpdateRequest request = InventoryUpdateRequest.builder()
+                .productId("PROD-002")
+                .quantity(10)
+                .build();
+
+        MvcResult result = mockMvc.perform(post("/inventory/update")
+                        .contentType(smile)
+                        .accept(smile, MediaType.APPLICATION_JSON)
+                        .content(smileMapper.writeValueAsBytes(request)))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(smile))
+                .andReturn();
+
+        InventoryUpdateResponse response = smileMapper.readValue(
+                result.getResponse().getContentAsByteArray(), InventoryUpdateResponse.class);
+        assertThat(response.getProductId()).isEqualTo("PROD-002");
+        assertThat(response.getTotalQuantityDeducted()).isEqualTo(10);
+        assertThat(response.getBatchDeductions()).hasSize(1);
+    }
+
+    @Test
+    @DisplayName("Should answer errors in JSON to a Smile request")
+    void shouldAnswerErrorsInJsonToSmileRequest() throws Exception {
+        MediaType smile = MediaType.parseMediaType(InventoryController.APPLICATION_SMILE_VALUE);
+        InventoryUpdateRequest request = InventoryUpdateRequest.builder()
+                .productId("NON-EXISTENT")
+                .quantity(1)
+                .build();
+
+        mockMvc.perform(post("/inventory/update")
+                        .contentType(smile)
+                        .accept(smile, MediaType.APPLICATION_JSON)
+                        .content(new ObjectMapper(new SmileFactory()).writeValueAsBytes(request)))
+                .andExpect(status().isNotFound())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.message").value(containsString("Product not found")));
+    }
+
+    @Test
+    @DisplayName("Should get available quantity for existing product")
+    void shouldGetAvailableQuantity() throws Exception {
+        mockMvc.perform(get("/inventory/PROD-002/available").param("quantity", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.productId").value("PROD-002"))
+                .andExpect(jsonPath("$.availableQuantity").isNumber())
+                .andExpect(jsonPath("$.requestedQuantity").value(1));
+    }
+
+    @Test
+    @DisplayName("Should return 404 for availability of non-existent product")
+    void shouldReturn404ForAvailabilityOfNonExistentProduct() throws Exception {
+        mockMvc.perform(get("/inventory/NON-EXISTENT/available"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @DisplayName("Should get available quantity for several products")
+    void shouldGetAvailableQuantityForSeveralProducts() throws Exception {
+        mockMvc.perform(get("/inventory/available").param("productIds", "PROD-001,PROD-002,NON-EXISTENT"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].productId").value("PROD-001"))
+                .andExpect(jsonPath("$[1].productId").value("PROD-002"));
+    }
+
+    @Test
+    @DisplayName("Should poll inventory changes as NDJSON")
+    void shouldPollInventoryChanges() throws Exception {
+        mockMvc.perform(get("/inventory/changes").param("since", "0"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andExpect(header().exists("X-Last-Sequence"));
+    }
+
+    @Test
+    @DisplayName("Should stream inventory changes as server-sent events")
+    void shouldStreamInventoryChanges() throws Exception {
+        mockMvc.perform(get("/inventory/changes").accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(status().isOk())
+                .andExpect(request().asyncStarted());
+    }
+
+    @Test
+    @DisplayName("Should report concurrency limiter metrics")
+    void shouldReturnLimiterMetrics() throws Exception {
+        mockMvc.perform(get("/inventory/PROD-002"))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/inventory/limiter/metrics"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.limit").value(greaterThanOrEqualTo(4)))
+                .andExpect(jsonPath("$.inFlight").value(0))
+                .andExpect(jsonPath("$.accepted").value(greaterThan(0)));
+    }
+
     @Test
     @DisplayName("Should return health check")
     void shouldReturnHealthCheck() throws Exception {
@@ -103,5 +336,17 @@ class InventoryControllerIntegrationTest {
                 .andExpect(status().isOk())
                 .andExpect(content().string(containsString("running")));
     }
-}
 
+    @Test
+    @DisplayName("Should report not ready while refusing traffic")
+    void shouldReturn503FromHealthCheckWhileNotReady() throws Exception {
+        AvailabilityChangeEvent.publish(eventPublisher, this, ReadinessState.REFUSING_TRAFFIC);
+        try {
+            mockMvc.perform(get("/inventory/health"))
+                    .andExpect(status().isServiceUnavailable())
+                    .andExpect(content().string(containsString("warming up")));
+        } finally {
+            AvailabilityChangeEvent.publish(eventPublisher, this, ReadinessState.ACCEPTING_TRAFFIC);
+        }
+    }
+}
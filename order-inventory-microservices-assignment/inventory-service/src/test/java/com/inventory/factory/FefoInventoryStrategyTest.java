@@ -0,0 +1,86 @@
+package com.inventory.factory;
+
+import com.inventory.dto.InventoryUpdateResponse;
+import com.inventory.exception.InsufficientInventoryException;
+import com.inventory.model.InventoryBatch;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("FEFO Inventory Strategy Tests")
+class FefoInventoryStrategyTest {
+
+    @Test
+    @DisplayName("Should skip batches below the minimum shelf-life")
+    void shouldSkipBatchesBelowMinimumShelfLife() {
+        // Given
+        List<InventoryBatch> batches = List.of(
+                batch("BATCH-A", 50, 3),
+                batch("BATCH-B", 20, 30),
+                batch("BATCH-C", 40, 60));
+        FefoInventoryStrategy strategy = new FefoInventoryStrategy(7);
+
+        // When
+        InventoryUpdateResponse response = strategy.deductInventory(batches, 30);
+
+        // Then
+        assertThat(response.getBatchDeductions())
+                .extracting(InventoryUpdateResponse.BatchDeduction::getBatchNumber)
+                .containsExactly("BATCH-B", "BATCH-C");
+        assertThat(batches.get(0).getQuantity()).isEqualTo(50);
+        assertThat(batches.get(1).getQuantity()).isZero();
+        assertThat(batches.get(2).getQuantity()).isEqualTo(30);
+    }
+
+    @Test
+    @DisplayName("Should touch only the batches needed to cover the quantity")
+    void shouldTouchOnlyCoveringBatches() {
+        // Given
+        List<InventoryBatch> batches = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            batches.add(batch("BATCH-" + i, i % 3 == 0 ? 0 : 10, 10 + i));
+        }
+        FefoInventoryStrategy strategy = new FefoInventoryStrategy(0);
+
+        // When
+        InventoryUpdateResponse response = strategy.deductInventory(batches, 35);
+
+        // Then
+        assertThat(response.getTotalQuantityDeducted()).isEqualTo(35);
+        assertThat(response.getBatchDeductions())
+                .extracting(InventoryUpdateResponse.BatchDeduction::getBatchNumber)
+                .containsExactly("BATCH-1", "BATCH-2", "BATCH-4", "BATCH-5");
+        assertThat(batches.get(5).getQuantity()).isEqualTo(5);
+        assertThat(batches.get(7).getQuantity()).isEqualTo(10);
+    }
+
+    @Test
+    @DisplayName("Should throw without deducting when eligible stock is insufficient")
+    void shouldThrowWhenEligibleStockInsufficient() {
+        // Given
+        List<InventoryBatch> batches = List.of(
+                batch("BATCH-A", 100, 2),
+                batch("BATCH-B", 10, 30));
+        FefoInventoryStrategy strategy = new FefoInventoryStrategy(7);
+
+        // When & Then
+        assertThatThrownBy(() -> strategy.deductInventory(batches, 20))
+                .isInstanceOf(InsufficientInventoryException.class)
+                .hasMessageContaining("Available: 10");
+        assertThat(batches.get(1).getQuantity()).isEqualTo(10);
+    }
+
+    private InventoryBatch batch(String batchNumber, int quantity, int daysToExpiry) {
+        return InventoryBatch.builder()
+                .batchNumber(batchNumber)
+                .quantity(quantity)
+                .expiryDate(LocalDate.now().plusDays(daysToExpiry))
+                .manufacturingDate(LocalDate.now().minusMonths(1))
+                .build();
+    }
+}
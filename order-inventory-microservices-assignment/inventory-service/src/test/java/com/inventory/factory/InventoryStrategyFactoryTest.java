@@ -19,7 +19,8 @@ class InventoryStrategyFactoryTest {
     void setUp() {
         strategies = Arrays.asList(
                 new FifoInventoryStrategy(),
-                new LifoInventoryStrategy()
+                new LifoInventoryStrategy(),
+                new FefoInventoryStrategy(0)
         );
         factory = new InventoryStrategyFactory(strategies);
         factory.init();
@@ -47,6 +48,17 @@ class InventoryStrategyFactoryTest {
         assertThat(strategy.getStrategyType()).isEqualTo("LIFO");
     }
 
+    @Test
+    @DisplayName("Should return FEFO strategy")
+    void shouldReturnFefoStrategy() {
+        // When
+        InventoryStrategy strategy = factory.getStrategy("FEFO");
+
+        // Then
+        assertThat(strategy).isNotNull();
+        assertThat(strategy.getStrategyType()).isEqualTo("FEFO");
+    }
+
     @Test
     @DisplayName("Should return default FIFO strategy for unknown type")
     void shouldReturnDefaultStrategyForUnknownType() {
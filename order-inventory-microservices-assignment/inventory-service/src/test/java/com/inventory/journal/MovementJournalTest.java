@@ -0,0 +1,270 @@
+package com.inventory.journal;
+
+import com.inventory.dto.InventoryChangeEvent;
+import com.inventory.dto.InventoryMovement;
+import com.inventory.dto.MovementTotals;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("Movement Journal Tests")
+class MovementJournalTest {
+
+    @TempDir
+    Path directory;
+
+    private final List<MovementJournal> opened = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        opened.forEach(MovementJournal::close);
+    }
+
+    @Test
+    @DisplayName("Should read back appended movements in order")
+    void shouldReadBackAppendedMovements() {
+        // Given
+        MovementJournal journal = open(DataSize.ofMegabytes(1));
+        LocalDateTime occurredAt = LocalDateTime.of(2024, 3, 1, 12, 30, 15);
+
+        // When
+        long last = journal.append(List.of(
+                deduction("PROD-001", "BATCH-001", -40, 10, occurredAt),
+                deduction("PROD-002", "BATCH-002-A", -5, 195, occurredAt)));
+
+        // Then
+        assertThat(last).isEqualTo(2);
+        List<InventoryMovement> movements = journal.read(0, 10, null);
+        assertThat(movements).hasSize(2);
+        assertThat(movements.get(0)).isEqualTo(InventoryMovement.builder()
+                .sequence(1)
+                .productId("PROD-001")
+                .batchNumber("BATCH-001")
+                .type(InventoryChangeEvent.ChangeType.DEDUCTION)
+                .quantityDelta(-40)
+                .remainingQuantity(10)
+                .occurredAt(occurredAt)
+                .build());
+        assertThat(journal.read(1, 10, null)).extracting(InventoryMovement::getBatchNumber)
+                .containsExactly("BATCH-002-A");
+        assertThat(journal.read(0, 10, "PROD-002")).extracting(InventoryMovement::getSequence)
+                .containsExactly(2L);
+        assertThat(journal.getDurableSequence()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should sum up movements per product within the time window")
+    void shouldSumUpMovementsPerProduct() {
+        // Given
+        MovementJournal journal = open(DataSize.ofMegabytes(1));
+        LocalDateTime noon = LocalDateTime.of(2024, 3, 1, 12, 0);
+        InventoryChangeEvent restock = InventoryChangeEvent.builder()
+                .productId("PROD-001")
+                .batchNumber("BATCH-001")
+                .type(InventoryChangeEvent.ChangeType.RESTOCK)
+                .quantityDelta(25)
+                .remainingQuantity(35)
+                .occurredAt(noon.plusMinutes(5))
+                .build();
+        journal.append(List.of(
+                deduction("PROD-001", "BATCH-001", -40, 10, noon.minusMinutes(1)),
+                deduction("PROD-001", "BATCH-001", -3, 7, noon),
+                deduction("PROD-002", "BATCH-002-A", -5, 195, noon.plusMinutes(1)),
+                restock,
+                deduction("PROD-002", "BATCH-002-A", -9, 186, noon.plusHours(1))));
+
+        // When
+        Map<String, MovementTotals> totals = journal.totals(noon, noon.plusHours(1));
+
+        // Then
+        assertThat(totals).containsOnlyKeys("PROD-001", "PROD-002");
+        assertThat(totals.get("PROD-001")).isEqualTo(new MovementTotals("PROD-001", 3, 25, 2));
+        assertThat(totals.get("PROD-002")).isEqualTo(new MovementTotals("PROD-002", 5, 0, 1));
+        assertThat(journal.totals(null, null).get("PROD-002").getDeducted()).isEqualTo(14);
+    }
+
+    @Test
+    @DisplayName("Should journal before commit and compensate movements of a rolled back transaction")
+    void shouldCompensateRolledBackTransaction() {
+        // Given
+        MovementJournal journal = open(DataSize.ofMegabytes(1));
+        LocalDateTime noon = LocalDateTime.of(2024, 3, 1, 12, 0);
+        journal.append(List.of(deduction("PROD-001", "BATCH-001", -4, 46, noon)));
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            journal.appendBeforeCommit(List.of(
+                    deduction("PROD-001", "BATCH-001", -10, 36, noon),
+                    deduction("PROD-002", "BATCH-002-A", -5, 195, noon)));
+
+            // When
+            TransactionSynchronizationUtils.triggerBeforeCommit(false);
+            long inFlight = journal.getSettledSequence();
+            TransactionSynchronizationUtils.triggerAfterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+
+            // Then
+            assertThat(journal.getLastSequence()).isEqualTo(5);
+            assertThat(inFlight).isEqualTo(1);
+            assertThat(journal.getSettledSequence()).isEqualTo(5);
+            assertThat(journal.read(3, 10, null)).extracting(InventoryMovement::getQuantityDelta,
+                            InventoryMovement::getRemainingQuantity)
+                    .containsExactly(tuple(10, 46), tuple(5, 200));
+            Map<String, MovementTotals> totals = journal.totals(null, null);
+            assertThat(totals.get("PROD-001").getDeducted()).isEqualTo(4);
+            assertThat(totals.get("PROD-002").getDeducted()).isZero();
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    @DisplayName("Should roll to new segments and read across them")
+    void shouldRollSegments() throws IOException {
+        // Given
+        MovementJournal journal = open(DataSize.ofKilobytes(4));
+
+        // When
+        for (int i = 1; i <= 200; i++) {
+            journal.append(List.of(deduction("PROD-001", "BATCH-" + i, -1, 200 - i, LocalDateTime.now())));
+        }
+
+        // Then
+        assertThat(segmentCount()).isGreaterThan(1);
+        assertThat(journal.read(0, 1000, null)).extracting(InventoryMovement::getSequence)
+                .containsExactlyElementsOf(sequences(1, 200));
+        assertThat(journal.read(150, 10, null)).extracting(InventoryMovement::getBatchNumber)
+                .first().isEqualTo("BATCH-151");
+    }
+
+    @Test
+    @DisplayName("Should continue after the last valid record and drop a torn one on reopen")
+    void shouldRecoverAfterTornRecord() throws IOException {
+        // Given
+        MovementJournal journal = open(DataSize.ofMegabytes(1));
+        journal.append(List.of(
+                deduction("PROD-001", "BATCH-001", -1, 49, LocalDateTime.now()),
+                deduction("PROD-001", "BATCH-001", -1, 48, LocalDateTime.now())));
+        journal.close();
+        // A crash in the middle of a third record: payload written, length not yet
+        Path segment = onlySegment();
+        int end;
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            end = endOfRecords(channel);
+            channel.write(ByteBuffer.wrap(new byte[]{0, 0, 0, 0, 1, 2, 3, 4, 5, 6, 7, 8, 9}), end);
+        }
+
+        // When
+        MovementJournal reopened = open(DataSize.ofMegabytes(1));
+        reopened.append(List.of(deduction("PROD-003", "BATCH-003", -2, 8, LocalDateTime.now())));
+
+        // Then
+        assertThat(reopened.read(0, 10, null)).extracting(InventoryMovement::getSequence)
+                .containsExactly(1L, 2L, 3L);
+        assertThat(reopened.read(2, 10, null).get(0).getProductId()).isEqualTo("PROD-003");
+    }
+
+    @Test
+    @DisplayName("Should share fsyncs between concurrent appends")
+    void shouldGroupCommit() throws Exception {
+        // Given
+        MovementJournal journal = open(DataSize.ofMegabytes(1));
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<?>> futures = new ArrayList<>();
+
+        // When
+        for (int thread = 0; thread < 8; thread++) {
+            futures.add(executor.submit(() -> {
+                for (int i = 0; i < 100; i++) {
+                    long sequence = journal.append(List.of(
+                            deduction("PROD-001", "BATCH-001", -1, 0, LocalDateTime.now())));
+                    assertThat(journal.getDurableSequence()).isGreaterThanOrEqualTo(sequence);
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+
+        // Then
+        assertThat(journal.getLastSequence()).isEqualTo(800);
+        assertThat(journal.getFsyncCount()).isLessThan(800);
+        assertThat(journal.read(0, 1000, null)).hasSize(800);
+    }
+
+    private MovementJournal open(DataSize segmentSize) {
+        MovementJournal journal = new MovementJournal(true, directory, segmentSize, true,
+                Duration.ofMillis(10), Duration.ofSeconds(5));
+        journal.open();
+        opened.add(journal);
+        return journal;
+    }
+
+    private static InventoryChangeEvent deduction(String productId, String batchNumber, int delta, int remaining,
+                                                  LocalDateTime occurredAt) {
+        return InventoryChangeEvent.builder()
+                .productId(productId)
+                .batchNumber(batchNumber)
+                .type(InventoryChangeEvent.ChangeType.DEDUCTION)
+                .quantityDelta(delta)
+                .remainingQuantity(remaining)
+                .occurredAt(occurredAt)
+                .build();
+    }
+
+    private static List<Long> sequences(long from, long to) {
+        List<Long> sequences = new ArrayList<>();
+        for (long sequence = from; sequence <= to; sequence++) {
+            sequences.add(sequence);
+        }
+        return sequences;
+    }
+
+    private long segmentCount() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.count();
+        }
+    }
+
+    private Path onlySegment() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.findFirst().orElseThrow();
+        }
+    }
+
+    private static int endOfRecords(FileChannel channel) throws IOException {
+        ByteBuffer length = ByteBuffer.allocate(4);
+        int position = MovementJournal.SEGMENT_HEADER_SIZE;
+        while (true) {
+            length.clear();
+            channel.read(length, position);
+            int value = length.flip().getInt();
+            if (value == 0) {
+                return position;
+            }
+            position += MovementJournal.RECORD_HEADER_SIZE + value;
+        }
+    }
+}
@@ -0,0 +1,209 @@
+package com.inventory.journal;
+
+import com.inventory.dto.InventoryChangeEvent;
+import com.inventory.journal.StockSnapshot.BatchStock;
+import com.inventory.model.InventoryBatch;
+import com.inventory.repository.DatabaseEpochRepository;
+import com.inventory.repository.InventoryBatchRepository;
+import com.inventory.store.AvailableBatch;
+import com.inventory.store.InventoryStore;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Stock Snapshot Store Tests")
+class StockSnapshotStoreTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2025, 1, 10);
+    private static final UUID EPOCH = UUID.randomUUID();
+
+    @TempDir
+    Path directory;
+
+    @Mock
+    private InventoryStore inventoryStore;
+
+    @Mock
+    private InventoryBatchRepository inventoryBatchRepository;
+
+    @Mock
+    private DatabaseEpochRepository databaseEpochRepository;
+
+    private MovementJournal journal;
+    private StockSnapshotStore store;
+
+    @BeforeEach
+    void setUp() {
+        journal = new MovementJournal(true, directory.resolve("journal"), DataSize.ofMegabytes(1), false,
+                Duration.ofMillis(1), Duration.ofSeconds(5));
+        journal.open();
+        store = new StockSnapshotStore(journal, inventoryStore, inventoryBatchRepository, databaseEpochRepository,
+                true, directory.resolve("snapshots"), 1, 2, Clock.fixed(TODAY.atStartOfDay().toInstant(ZoneOffset.UTC), ZoneOffset.UTC));
+        when(databaseEpochRepository.findEpoch()).thenReturn(EPOCH);
+        when(inventoryStore.streamAvailableBatches()).thenAnswer(invocation -> Stream.of(
+                new AvailableBatch("PROD-001", "BATCH-001-A", TODAY.plusDays(30), 50),
+                new AvailableBatch("PROD-001", "BATCH-001-B", TODAY.plusDays(90), 75),
+                new AvailableBatch("PROD-002", "BATCH-002-A", TODAY.plusDays(60), 200),
+                new AvailableBatch("PROD-003", null, null, 0)));
+    }
+
+    @AfterEach
+    void tearDown() {
+        journal.close();
+    }
+
+    @Test
+    @DisplayName("Should answer from the snapshot only for products the journal tail did not move")
+    void shouldRecoverSnapshotPlusTail() {
+        // Given
+        journal.append(List.of(deduction("PROD-002", "BATCH-002-A", -10)));
+        store.writeFromDatabase();
+        journal.append(List.of(
+                deduction("PROD-001", "BATCH-001-A", -20),
+                deduction("PROD-001", "BATCH-001-A", -5)));
+
+        // When
+        RecoveredStock recovered = store.recover().orElseThrow();
+
+        // Then
+        assertThat(recovered.getSnapshot().getJournalSequence()).isEqualTo(1);
+        assertThat(recovered.getTailMovements()).isEqualTo(2);
+        assertThat(recovered.findBatches("PROD-001")).isNull();
+        assertThat(recovered.findBatches("PROD-002")).extracting(BatchStock::getQuantity).containsExactly(200);
+        assertThat(recovered.findBatches("PROD-003")).isEmpty();
+        assertThat(recovered.findBatches("PROD-999")).isNull();
+    }
+
+    @Test
+    @DisplayName("Should not answer for a product whose batch is missing from the snapshot")
+    void shouldNotAnswerForUnknownBatch() {
+        // Given
+        store.writeFromDatabase();
+        journal.append(List.of(restock("PROD-003", "BATCH-003-NEW", 40)));
+
+        // When
+        RecoveredStock recovered = store.recover().orElseThrow();
+
+        // Then
+        assertThat(recovered.findBatches("PROD-003")).isNull();
+        assertThat(recovered.findBatches("PROD-001")).hasSize(2);
+    }
+
+    @Test
+    @DisplayName("Should label a snapshot taken during a deduction with the sequence before it")
+    void shouldSnapshotBeforeUnsettledMovements() {
+        // Given
+        journal.append(List.of(deduction("PROD-002", "BATCH-002-A", -10)));
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            journal.appendBeforeCommit(List.of(deduction("PROD-001", "BATCH-001-A", -20)));
+            TransactionSynchronizationUtils.triggerBeforeCommit(false);
+
+            // When
+            store.writeFromDatabase();
+            TransactionSynchronizationUtils.triggerAfterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        RecoveredStock recovered = store.recover().orElseThrow();
+
+        // Then
+        assertThat(recovered.getSnapshot().getJournalSequence()).isEqualTo(1);
+        assertThat(recovered.getTailMovements()).isEqualTo(1);
+        assertThat(recovered.findBatches("PROD-001")).isNull();
+        assertThat(recovered.findBatches("PROD-002")).extracting(BatchStock::getQuantity).containsExactly(200);
+    }
+
+    @Test
+    @DisplayName("Should ignore snapshots taken from another database")
+    void shouldIgnoreSnapshotOfAnotherDatabase() {
+        // Given
+        store.writeFromDatabase();
+
+        // When
+        when(databaseEpochRepository.findEpoch()).thenReturn(UUID.randomUUID());
+
+        // Then
+        assertThat(store.recover()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should compact the journal tail into a new snapshot and keep only the newest ones")
+    void shouldCompactTail() throws IOException {
+        // Given
+        store.writeFromDatabase();
+        when(inventoryBatchRepository.findByProductIdOrderByExpiryDate("PROD-001")).thenReturn(List.of(
+                batch("BATCH-001-A", TODAY.plusDays(30), 0),
+                batch("BATCH-001-B", TODAY.plusDays(90), 75)));
+        when(inventoryBatchRepository.findByProductIdOrderByExpiryDate("PROD-003")).thenReturn(List.of(
+                batch("BATCH-003-NEW", TODAY.plusDays(10), 40)));
+        when(inventoryBatchRepository.findByProductIdOrderByExpiryDate("PROD-002")).thenReturn(List.of(
+                batch("BATCH-002-A", TODAY.plusDays(60), 199)));
+        journal.append(List.of(deduction("PROD-001", "BATCH-001-A", -50), restock("PROD-003", "BATCH-003-NEW", 40)));
+        store.compact();
+        journal.append(List.of(deduction("PROD-002", "BATCH-002-A", -1)));
+        store.compact();
+
+        // When
+        RecoveredStock recovered = store.recover().orElseThrow();
+
+        // Then
+        assertThat(recovered.getSnapshot().getJournalSequence()).isEqualTo(3);
+        assertThat(recovered.getTailMovements()).isZero();
+        assertThat(recovered.findBatches("PROD-001")).extracting(BatchStock::getBatchNumber).containsExactly("BATCH-001-B");
+        assertThat(recovered.findBatches("PROD-002")).extracting(BatchStock::getQuantity).containsExactly(199);
+        assertThat(recovered.findBatches("PROD-003")).containsExactly(new BatchStock("BATCH-003-NEW", TODAY.plusDays(10), 40));
+        try (Stream<Path> files = Files.list(directory.resolve("snapshots"))) {
+            assertThat(files).hasSize(2);
+        }
+    }
+
+    private static InventoryBatch batch(String batchNumber, LocalDate expiry, int quantity) {
+        return InventoryBatch.builder().batchNumber(batchNumber).expiryDate(expiry).quantity(quantity).build();
+    }
+
+    private static InventoryChangeEvent deduction(String productId, String batchNumber, int delta) {
+        return movement(productId, batchNumber, InventoryChangeEvent.ChangeType.DEDUCTION, delta);
+    }
+
+    private static InventoryChangeEvent restock(String productId, String batchNumber, int delta) {
+        return movement(productId, batchNumber, InventoryChangeEvent.ChangeType.RESTOCK, delta);
+    }
+
+    private static InventoryChangeEvent movement(String productId, String batchNumber,
+                                                 InventoryChangeEvent.ChangeType type, int delta) {
+        return InventoryChangeEvent.builder()
+                .productId(productId)
+                .batchNumber(batchNumber)
+                .type(type)
+                .quantityDelta(delta)
+                .remainingQuantity(0)
+                .occurredAt(LocalDateTime.now())
+                .build();
+    }
+}
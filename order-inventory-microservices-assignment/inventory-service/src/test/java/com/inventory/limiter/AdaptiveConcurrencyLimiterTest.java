@@ -0,0 +1,92 @@
+package com.inventory.limiter;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Adaptive Concurrency Limiter Tests")
+class AdaptiveConcurrencyLimiterTest {
+
+    @Test
+    @DisplayName("Should reject requests beyond the limit and count them")
+    void shouldRejectBeyondLimit() {
+        // Given
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(2, 2, 2, 2.0, 0.2);
+
+        // When
+        int first = limiter.tryAcquire();
+        int second = limiter.tryAcquire();
+        int third = limiter.tryAcquire();
+
+        // Then
+        assertThat(first).isEqualTo(1);
+        assertThat(second).isEqualTo(2);
+        assertThat(third).isZero();
+        assertThat(limiter.getMetrics().getAccepted()).isEqualTo(2);
+        assertThat(limiter.getMetrics().getRejected()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should raise the limit while latency stays at the baseline under full use")
+    void shouldGrowWhileLatencyIsSteady() {
+        // Given
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(10, 4, 100, 2.0, 0.2);
+
+        // When
+        runWindows(limiter, 20, 1);
+
+        // Then
+        assertThat(limiter.getLimit()).isGreaterThan(10);
+    }
+
+    @Test
+    @DisplayName("Should not raise the limit while most of it is unused")
+    void shouldNotGrowWhenUnderused() {
+        // Given
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(10, 4, 100, 2.0, 0.2);
+
+        // When
+        for (int i = 0; i < 200; i++) {
+            int inFlight = limiter.tryAcquire();
+            limiter.release(TimeUnit.MILLISECONDS.toNanos(1), inFlight);
+        }
+
+        // Then
+        assertThat(limiter.getLimit()).isEqualTo(10);
+    }
+
+    @Test
+    @DisplayName("Should cut the limit when latency climbs well above the baseline")
+    void shouldShrinkWhenLatencyRises() {
+        // Given
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(20, 4, 100, 2.0, 0.2);
+        runWindows(limiter, 10, 1);
+        int before = limiter.getLimit();
+
+        // When
+        runWindows(limiter, 10, 20);
+
+        // Then
+        assertThat(limiter.getLimit()).isLessThan(before);
+        assertThat(limiter.getInFlight()).isZero();
+    }
+
+    /**
+     * Fill the limit, then complete every request with the given latency.
+     */
+    private void runWindows(AdaptiveConcurrencyLimiter limiter, int rounds, long latencyMillis) {
+        for (int round = 0; round < rounds; round++) {
+            int limit = limiter.getLimit();
+            int[] admitted = new int[limit];
+            for (int i = 0; i < limit; i++) {
+                admitted[i] = limiter.tryAcquire();
+            }
+            for (int inFlight : admitted) {
+                limiter.release(TimeUnit.MILLISECONDS.toNanos(latencyMillis), inFlight);
+            }
+        }
+    }
+}
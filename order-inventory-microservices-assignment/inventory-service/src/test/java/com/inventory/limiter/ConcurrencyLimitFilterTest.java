@@ -0,0 +1,65 @@
+package com.inventory.limiter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Concurrency Limit Filter Tests")
+class ConcurrencyLimitFilterTest {
+
+    @Test
+    @DisplayName("Should answer 503 with Retry-After when the limit is reached")
+    void shouldRejectWithRetryAfter() throws Exception {
+        // Given
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(1, 1, 1, 2.0, 0.2);
+        ConcurrencyLimitFilter filter = new ConcurrencyLimitFilter(limiter,
+                new ObjectMapper().registerModule(new JavaTimeModule()), true, Duration.ofMillis(1500));
+        limiter.tryAcquire();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        // When
+        filter.doFilter(new MockHttpServletRequest("GET", "/inventory/PROD-001"), response, chain);
+
+        // Then
+        assertThat(chain.getRequest()).isNull();
+        assertThat(response.getStatus()).isEqualTo(503);
+        assertThat(response.getHeader("Retry-After")).isEqualTo("2");
+        assertThat(response.getContentAsString()).contains("concurrency limit of 1");
+    }
+
+    @Test
+    @DisplayName("Should release the slot after the request completes")
+    void shouldReleaseAfterRequest() throws Exception {
+        // Given
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(1, 1, 1, 2.0, 0.2);
+        ConcurrencyLimitFilter filter = new ConcurrencyLimitFilter(limiter, new ObjectMapper(), true, Duration.ofSeconds(1));
+
+        // When
+        filter.doFilter(new MockHttpServletRequest("POST", "/inventory/update"), new MockHttpServletResponse(), new MockFilterChain());
+
+        // Then
+        assertThat(limiter.getInFlight()).isZero();
+        assertThat(limiter.getMetrics().getAccepted()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should limit only product reads and deductions")
+    void shouldSelectLimitedEndpoints() {
+        assertThat(ConcurrencyLimitFilter.isLimited("GET", "/inventory/PROD-001")).isTrue();
+        assertThat(ConcurrencyLimitFilter.isLimited("GET", "/inventory/PROD-001/available")).isTrue();
+        assertThat(ConcurrencyLimitFilter.isLimited("POST", "/inventory/update")).isTrue();
+        assertThat(ConcurrencyLimitFilter.isLimited("GET", "/inventory/health")).isFalse();
+        assertThat(ConcurrencyLimitFilter.isLimited("GET", "/inventory/changes")).isFalse();
+        assertThat(ConcurrencyLimitFilter.isLimited("GET", "/inventory/limiter/metrics")).isFalse();
+        assertThat(ConcurrencyLimitFilter.isLimited("POST", "/inventory/batches/bulk")).isFalse();
+    }
+}
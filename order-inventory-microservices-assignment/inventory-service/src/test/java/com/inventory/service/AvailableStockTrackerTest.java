@@ -0,0 +1,234 @@
+package com.inventory.service;
+
+import com.inventory.journal.RecoveredStock;
+import com.inventory.journal.StockSnapshot;
+import com.inventory.journal.StockSnapshotStore;
+import com.inventory.repository.InventoryBatchRepository;
+import com.inventory.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Available Stock Tracker Tests")
+class AvailableStockTrackerTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2025, 1, 10);
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private InventoryBatchRepository inventoryBatchRepository;
+
+    @Mock
+    private StockSnapshotStore stockSnapshots;
+
+    private MutableClock clock;
+    private AvailableStockTracker tracker;
+
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock(TODAY);
+        tracker = new AvailableStockTracker(productRepository, inventoryBatchRepository, stockSnapshots, clock);
+    }
+
+    @Test
+    @DisplayName("Should load counters for the catalog and apply deductions and restocks")
+    void shouldLoadAndMaintainCounters() {
+        // Given
+        when(productRepository.findAllProductIds()).thenReturn(List.of("PROD-001", "PROD-002"));
+        when(inventoryBatchRepository.sumAvailableQuantityByProductAndExpiry()).thenReturn(List.of(
+                row("PROD-001", TODAY.plusDays(5), 50),
+                row("PROD-001", TODAY.plusDays(30), 30)));
+        tracker.loadAll();
+
+        // When
+        tracker.recordDeduction("PROD-001", TODAY.plusDays(5), 20);
+        tracker.recordRestock("PROD-002", TODAY.plusDays(90), 15);
+
+        // Then
+        assertThat(tracker.getAvailable("PROD-001")).hasValue(60);
+        assertThat(tracker.getAvailable("PROD-002")).hasValue(15);
+        verify(productRepository, never()).existsByProductId(anyString());
+    }
+
+    @Test
+    @DisplayName("Should roll expired stock off the counter when the date passes")
+    void shouldRollOverExpiredStock() {
+        // Given
+        when(productRepository.findAllProductIds()).thenReturn(List.of("PROD-001"));
+        when(inventoryBatchRepository.sumAvailableQuantityByProductAndExpiry()).thenReturn(List.of(
+                row("PROD-001", TODAY.plusDays(1), 50),
+                row("PROD-001", TODAY.plusDays(3), 30)));
+        tracker.loadAll();
+
+        // When
+        clock.setDate(TODAY.plusDays(1));
+
+        // Then
+        assertThat(tracker.getAvailable("PROD-001")).hasValue(30);
+    }
+
+    @Test
+    @DisplayName("Should lazily load unknown products and report missing ones as empty")
+    void shouldLazilyLoadProducts() {
+        // Given
+        when(productRepository.existsByProductId("PROD-009")).thenReturn(true);
+        when(inventoryBatchRepository.sumAvailableQuantityByExpiry("PROD-009"))
+                .thenReturn(List.of(row("PROD-009", TODAY.plusDays(10), 7)));
+        when(productRepository.existsByProductId("MISSING")).thenReturn(false);
+
+        // When & Then
+        assertThat(tracker.getAvailable("PROD-009")).hasValue(7);
+        assertThat(tracker.getAvailable("PROD-009")).hasValue(7);
+        assertThat(tracker.getAvailable("MISSING")).isEmpty();
+        verify(inventoryBatchRepository, times(1)).sumAvailableQuantityByExpiry("PROD-009");
+    }
+
+    @Test
+    @DisplayName("Should not keep a counter read while a deduction of the product committed")
+    void shouldNotInstallCounterReadDuringChange() {
+        // Given
+        when(productRepository.existsByProductId("PROD-009")).thenReturn(true);
+        when(inventoryBatchRepository.sumAvailableQuantityByExpiry("PROD-009"))
+                .thenAnswer(invocation -> {
+                    // A deduction commits after the read saw the batch and before the counter is installed
+                    tracker.beginChanges(List.of("PROD-009"));
+                    tracker.recordDeduction("PROD-009", TODAY.plusDays(10), 3);
+                    tracker.endChanges(List.of("PROD-009"));
+                    return List.of(row("PROD-009", TODAY.plusDays(10), 10));
+                })
+                .thenReturn(List.of(row("PROD-009", TODAY.plusDays(10), 7)));
+
+        // When & Then
+        assertThat(tracker.getAvailable("PROD-009")).hasValue(10);
+        assertThat(tracker.getAvailable("PROD-009")).hasValue(7);
+        tracker.recordDeduction("PROD-009", TODAY.plusDays(10), 2);
+        assertThat(tracker.getAvailable("PROD-009")).hasValue(5);
+        verify(inventoryBatchRepository, times(2)).sumAvailableQuantityByExpiry("PROD-009");
+    }
+
+    @Test
+    @DisplayName("Should leave products changed during the catalog load to be loaded on first use")
+    void shouldSkipProductsChangedDuringLoadAll() {
+        // Given
+        when(productRepository.findAllProductIds()).thenReturn(List.of("PROD-001", "PROD-002"));
+        when(inventoryBatchRepository.sumAvailableQuantityByProductAndExpiry()).thenAnswer(invocation -> {
+            tracker.beginChanges(List.of("PROD-001"));
+            return List.of(
+                    row("PROD-001", TODAY.plusDays(5), 50),
+                    row("PROD-002", TODAY.plusDays(5), 20));
+        });
+        tracker.loadAll();
+        // The deduction commits after the catalog was read
+        tracker.recordDeduction("PROD-001", TODAY.plusDays(5), 20);
+        tracker.endChanges(List.of("PROD-001"));
+        when(productRepository.existsByProductId("PROD-001")).thenReturn(true);
+        when(inventoryBatchRepository.sumAvailableQuantityByExpiry("PROD-001"))
+                .thenReturn(List.of(row("PROD-001", TODAY.plusDays(5), 30)));
+
+        // When & Then
+        assertThat(tracker.getAvailable("PROD-001")).hasValue(30);
+        assertThat(tracker.getAvailable("PROD-002")).hasValue(20);
+        verify(productRepository, never()).existsByProductId("PROD-002");
+    }
+
+    @Test
+    @DisplayName("Should build counters from the recovered snapshot without querying the catalog")
+    void shouldRecoverFromSnapshot(@TempDir Path directory) throws IOException {
+        // Given
+        Path path = directory.resolve("stock.snap");
+        StockSnapshot.write(path, 5, UUID.randomUUID(), List.of(
+                new StockSnapshot.ProductStock("PROD-001", List.of(
+                        new StockSnapshot.BatchStock("BATCH-001-A", TODAY.plusDays(5), 40),
+                        new StockSnapshot.BatchStock("BATCH-001-B", TODAY.minusDays(1), 30))),
+                new StockSnapshot.ProductStock("PROD-002", List.of()),
+                new StockSnapshot.ProductStock("PROD-003", List.of(
+                        new StockSnapshot.BatchStock("BATCH-003-A", TODAY.plusDays(5), 10)))).iterator());
+        // The journal tail moved PROD-003, so only the database knows its quantities
+        when(stockSnapshots.recover()).thenReturn(Optional.of(
+                new RecoveredStock(StockSnapshot.open(path), new TreeSet<>(Set.of("PROD-003")), 6, 1)));
+        when(productRepository.existsByProductId("PROD-003")).thenReturn(true);
+        when(inventoryBatchRepository.sumAvailableQuantityByExpiry("PROD-003"))
+                .thenReturn(List.of(row("PROD-003", TODAY.plusDays(5), 9)));
+        tracker.loadAll();
+
+        // When
+        tracker.recordDeduction("PROD-001", TODAY.plusDays(5), 5);
+        tracker.recordRestock("PROD-002", TODAY.plusDays(20), 12);
+
+        // Then
+        assertThat(tracker.getAvailable("PROD-001")).hasValue(35);
+        assertThat(tracker.getAvailable("PROD-002")).hasValue(12);
+        assertThat(tracker.getAvailable("PROD-003")).hasValue(9);
+        verify(productRepository, never()).findAllProductIds();
+        verify(inventoryBatchRepository, never()).sumAvailableQuantityByProductAndExpiry();
+    }
+
+    private InventoryBatchRepository.ExpiryQuantity row(String productId, LocalDate expiry, long quantity) {
+        return new InventoryBatchRepository.ExpiryQuantity() {
+            @Override
+            public String getProductId() {
+                return productId;
+            }
+
+            @Override
+            public LocalDate getExpiryDate() {
+                return expiry;
+            }
+
+            @Override
+            public Long getQuantity() {
+                return quantity;
+            }
+        };
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant instant;
+
+        private MutableClock(LocalDate date) {
+            setDate(date);
+        }
+
+        void setDate(LocalDate date) {
+            instant = date.atStartOfDay(ZoneOffset.UTC).toInstant();
+        }
+
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(java.time.ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
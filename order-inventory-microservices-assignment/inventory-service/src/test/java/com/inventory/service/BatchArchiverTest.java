@@ -0,0 +1,81 @@
+package com.inventory.service;
+
+import com.inventory.repository.InventoryBatchArchive;
+import com.inventory.repository.InventoryBatchArchive.ArchivableBatch;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Batch Archiver Tests")
+class BatchArchiverTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2025, 1, 10);
+
+    @Mock
+    private InventoryBatchArchive archive;
+
+    @Mock
+    private InventoryResponseCache responseCache;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private BatchArchiver archiver;
+
+    @BeforeEach
+    void setUp() {
+        archiver = archiver(true);
+    }
+
+    @Test
+    @DisplayName("Should archive in chunks, each in its own transaction, until a chunk comes back short")
+    void shouldArchiveInChunks() {
+        // Given
+        when(archive.lockArchivable(TODAY, 2))
+                .thenReturn(List.of(new ArchivableBatch(1, "PROD-001"), new ArchivableBatch(2, "PROD-001")))
+                .thenReturn(List.of(new ArchivableBatch(5, "PROD-002")));
+        when(archive.archive(eq(List.of(1L, 2L)), any())).thenReturn(2);
+        when(archive.archive(eq(List.of(5L)), any())).thenReturn(1);
+
+        // When
+        int archived = archiver.archiveAll();
+
+        // Then
+        assertThat(archived).isEqualTo(3);
+        verify(transactionManager, times(2)).commit(any());
+        verify(responseCache).recordChange("PROD-001");
+        verify(responseCache).recordChange("PROD-002");
+    }
+
+    @Test
+    @DisplayName("Should do nothing when disabled")
+    void shouldDoNothingWhenDisabled() {
+        // When
+        int archived = archiver(false).archiveAll();
+
+        // Then
+        assertThat(archived).isZero();
+        verifyNoInteractions(archive, responseCache, transactionManager);
+    }
+
+    private BatchArchiver archiver(boolean enabled) {
+        return new BatchArchiver(archive, responseCache, new TransactionTemplate(transactionManager),
+                enabled, 2, Duration.ZERO, Clock.fixed(TODAY.atStartOfDay().toInstant(ZoneOffset.UTC), ZoneOffset.UTC));
+    }
+}
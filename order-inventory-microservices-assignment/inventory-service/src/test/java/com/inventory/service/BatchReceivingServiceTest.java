@@ -0,0 +1,161 @@
+package com.inventory.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.inventory.dto.BulkReceiptResponse;
+import com.inventory.dto.InventoryChangeEvent;
+import com.inventory.exception.FeatureDisabledException;
+import com.inventory.journal.MovementJournal;
+import com.inventory.repository.BatchReceiptRepository;
+import com.inventory.repository.BatchReceiptRepository.StoredBatch;
+import com.inventory.sharding.ShardOwnership;
+import com.inventory.sharding.ShardingProperties;
+import com.inventory.store.InventoryStore;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Batch Receiving Service Tests")
+class BatchReceivingServiceTest {
+
+    private static final LocalDate EXPIRY = LocalDate.now().plusYears(1);
+    private static final LocalDate MANUFACTURED = LocalDate.now().minusMonths(1);
+
+    @Mock
+    private BatchReceiptRepository receiptRepository;
+
+    @Mock
+    private InventoryStore inventoryStore;
+
+    @Mock
+    private AvailableStockTracker availableStockTracker;
+
+    @Mock
+    private InventoryResponseCache responseCache;
+
+    @Mock
+    private InventoryChangeFeed changeFeed;
+
+    @Mock
+    private MovementJournal movementJournal;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private BatchReceivingService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new BatchReceivingService(receiptRepository, inventoryStore, new ShardOwnership(new ShardingProperties()),
+                availableStockTracker, responseCache, changeFeed, movementJournal,
+                new ObjectMapper().registerModule(new JavaTimeModule()),
+                Validation.buildDefaultValidatorFactory().getValidator(),
+                new TransactionTemplate(transactionManager));
+        ReflectionTestUtils.setField(service, "chunkSize", 2);
+    }
+
+    @Test
+    @DisplayName("Should insert new batches in chunks and leave existing batches as they are")
+    void shouldInsertInChunksAndKeepExistingBatches() throws Exception {
+        // Given
+        when(inventoryStore.getEngine()).thenReturn("jdbc");
+        when(receiptRepository.findProductKeys(anyCollection())).thenReturn(Map.of("PROD-001", 1L, "PROD-002", 2L));
+        when(receiptRepository.findExisting(anyCollection()))
+                .thenReturn(Map.of("B-1", new StoredBatch("PROD-001", EXPIRY, MANUFACTURED)))
+                .thenReturn(Map.of("B-3", new StoredBatch("PROD-002", EXPIRY, MANUFACTURED)));
+        when(receiptRepository.findArchivedBatchNumbers(anyCollection())).thenReturn(Set.of());
+
+        // When
+        BulkReceiptResponse response = service.receive(ndjson(
+                line("B-1", "PROD-001", 80),
+                line("B-2", "PROD-001", 25),
+                line("B-3", "PROD-002", 5),
+                line("B-4", "PROD-002", 12)));
+
+        // Then
+        assertThat(response.getInserted()).isEqualTo(2);
+        assertThat(response.getUnchanged()).isEqualTo(2);
+        verify(transactionManager, times(2)).commit(any());
+        verify(receiptRepository, times(2)).insert(any());
+        verify(availableStockTracker).recordRestock("PROD-001", EXPIRY, 25);
+        verify(availableStockTracker).recordRestock("PROD-002", EXPIRY, 12);
+        verify(availableStockTracker, never()).recordDeduction(any(), any(), anyInt());
+        verify(responseCache).recordChange("PROD-001");
+        verify(responseCache).recordChange("PROD-002");
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<InventoryChangeEvent>> events = ArgumentCaptor.forClass(List.class);
+        verify(movementJournal, times(2)).appendBeforeCommit(events.capture());
+        assertThat(events.getAllValues())
+                .flatExtracting(chunk -> chunk)
+                .extracting(InventoryChangeEvent::getBatchNumber, InventoryChangeEvent::getType,
+                        InventoryChangeEvent::getQuantityDelta)
+                .containsExactly(tuple("B-2", InventoryChangeEvent.ChangeType.RESTOCK, 25),
+                        tuple("B-4", InventoryChangeEvent.ChangeType.RESTOCK, 12));
+    }
+
+    @Test
+    @DisplayName("Should reject a null line and receive the others")
+    void shouldRejectNullLine() throws Exception {
+        // Given
+        when(inventoryStore.getEngine()).thenReturn("jdbc");
+        when(receiptRepository.findProductKeys(anyCollection())).thenReturn(Map.of("PROD-001", 1L));
+        when(receiptRepository.findExisting(anyCollection())).thenReturn(Map.of());
+        when(receiptRepository.findArchivedBatchNumbers(anyCollection())).thenReturn(Set.of());
+
+        // When
+        BulkReceiptResponse response = service.receive(ndjson("null", line("B-1", "PROD-001", 10)));
+
+        // Then
+        assertThat(response.getReceived()).isEqualTo(2);
+        assertThat(response.getRejected()).isEqualTo(1);
+        assertThat(response.getInserted()).isEqualTo(1);
+        assertThat(response.getErrors())
+                .extracting(BulkReceiptResponse.RejectedLine::getLine, BulkReceiptResponse.RejectedLine::getError)
+                .containsExactly(tuple(1, "Expected a batch receipt object, got null"));
+        verify(availableStockTracker).recordRestock("PROD-001", EXPIRY, 10);
+    }
+
+    @Test
+    @DisplayName("Should refuse bulk receipts with the in-memory store")
+    void shouldRefuseWithInMemoryStore() {
+        // Given
+        when(inventoryStore.getEngine()).thenReturn("memory");
+
+        // When / Then
+        assertThatThrownBy(() -> service.receive(ndjson(line("B-1", "PROD-001", 1))))
+                .isInstanceOf(FeatureDisabledException.class);
+        verifyNoInteractions(receiptRepository);
+    }
+
+    private static String line(String batchNumber, String productId, int quantity) {
+        return "{\"batchNumber\":\"" + batchNumber + "\",\"productId\":\"" + productId + "\",\"quantity\":" + quantity
+                + ",\"expiryDate\":\"" + EXPIRY + "\",\"manufacturingDate\":\"" + MANUFACTURED + "\"}";
+    }
+
+    private static ByteArrayInputStream ndjson(String... lines) {
+        return new ByteArrayInputStream(String.join("\n", lines).getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,172 @@
+package com.inventory.service;
+
+import com.inventory.dto.InventoryChangeEvent;
+import com.inventory.repository.InventoryChangeJournal;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Inventory Change Feed Tests")
+class InventoryChangeFeedTest {
+
+    @Mock
+    private InventoryChangeJournal journal;
+
+    private InventoryChangeFeed feed;
+
+    @BeforeEach
+    void setUp() {
+        when(journal.findLastSequence()).thenReturn(10L);
+        feed = new InventoryChangeFeed(journal, 4, Duration.ofMinutes(1), 5);
+        feed.init();
+    }
+
+    @Test
+    @DisplayName("Should assign sequences after the last journaled event and read from the ring")
+    void shouldAssignSequencesAndReadFromRing() {
+        // Given
+        feed.publish(events(3));
+
+        // When
+        List<InventoryChangeEvent> events = feed.read(11, 10);
+
+        // Then
+        assertThat(events).extracting(InventoryChangeEvent::getSequence).containsExactly(12L, 13L);
+        assertThat(feed.read(11, 1)).hasSize(1);
+        assertThat(feed.read(13, 10)).isEmpty();
+        assertThat(feed.getLastSequence()).isEqualTo(13);
+        verify(journal, never()).findAfter(anyLong(), anyInt());
+    }
+
+    @Test
+    @DisplayName("Should spill to the journal and read from it when the cursor falls out of the ring")
+    void shouldReadFromJournalWhenCursorIsOlderThanRing() {
+        // Given
+        feed.publish(events(6));
+        List<InventoryChangeEvent> journaled = events(1);
+        when(journal.findAfter(11, 10)).thenReturn(journaled);
+
+        // When
+        List<InventoryChangeEvent> events = feed.read(11, 10);
+
+        // Then
+        assertThat(events).isSameAs(journaled);
+        verify(journal).append(argThat(batch -> batch.size() == 6));
+    }
+
+    @Test
+    @DisplayName("Should keep events for the next flush when journaling fails")
+    void shouldRetryFailedFlush() {
+        // Given
+        feed.publish(events(2));
+        doThrow(new RuntimeException("database unavailable")).doNothing().when(journal).append(anyList());
+
+        // When
+        feed.flush();
+        feed.publish(events(1));
+        feed.flush();
+
+        // Then
+        verify(journal, times(2)).append(anyList());
+        verify(journal).append(argThat(batch -> batch.size() == 3 && batch.get(0).getSequence() == 11));
+    }
+
+    @Test
+    @DisplayName("Should reserve sequences in blocks before handing them out")
+    void shouldReserveSequenceBlocks() {
+        // When
+        feed.publish(events(3));
+        feed.publish(events(2));
+        feed.publish(events(4));
+
+        // Then
+        verify(journal).reserveSequencesUntil(18);
+        verify(journal).reserveSequencesUntil(24);
+        verify(journal, times(2)).reserveSequencesUntil(anyLong());
+        assertThat(feed.getLastSequence()).isEqualTo(19);
+    }
+
+    @Test
+    @DisplayName("Should continue after the reserved sequences when events were lost in a crash")
+    void shouldNotReuseSequencesAfterCrash() {
+        // Given: sequences up to 18 were reserved, but only 10 made it to the journal
+        when(journal.findReservedSequence()).thenReturn(18L);
+        InventoryChangeFeed restarted = new InventoryChangeFeed(journal, 4, Duration.ofMinutes(1), 5);
+        restarted.init();
+
+        // When
+        restarted.publish(events(1));
+
+        // Then
+        assertThat(restarted.read(18, 10)).extracting(InventoryChangeEvent::getSequence).containsExactly(19L);
+        verify(journal).reserveSequencesUntil(24);
+    }
+
+    @Test
+    @DisplayName("Should hold events back until a failed reservation succeeds on retry")
+    void shouldRetryFailedReservation() {
+        // Given
+        doThrow(new RuntimeException("database unavailable")).doNothing()
+                .when(journal).reserveSequencesUntil(anyLong());
+        feed.publish(events(2));
+        assertThat(feed.getLastSequence()).isEqualTo(10);
+        assertThat(feed.read(10, 10)).isEmpty();
+
+        // When
+        feed.flush();
+
+        // Then
+        assertThat(feed.read(10, 10)).extracting(InventoryChangeEvent::getSequence).containsExactly(11L, 12L);
+        verify(journal, times(2)).reserveSequencesUntil(17);
+        verify(journal).append(argThat(batch -> batch.size() == 2 && batch.get(0).getSequence() == 11));
+    }
+
+    @Test
+    @DisplayName("Should wake up long polls when events are published")
+    void shouldWakeUpLongPoll() throws Exception {
+        // Given
+        CompletableFuture<List<InventoryChangeEvent>> poll = CompletableFuture.supplyAsync(() -> {
+            try {
+                return feed.poll(10, 10, Duration.ofSeconds(10));
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+
+        // When
+        Thread.sleep(50);
+        feed.publish(events(1));
+
+        // Then
+        assertThat(poll.get(5, TimeUnit.SECONDS)).extracting(InventoryChangeEvent::getSequence).containsExactly(11L);
+        assertThat(feed.poll(11, 10, Duration.ofMillis(10))).isEmpty();
+    }
+
+    private List<InventoryChangeEvent> events(int count) {
+        return IntStream.range(0, count)
+                .mapToObj(i -> InventoryChangeEvent.builder()
+                        .productId("PROD-001")
+                        .batchNumber("BATCH-001")
+                        .type(InventoryChangeEvent.ChangeType.DEDUCTION)
+                        .quantityDelta(-1)
+                        .remainingQuantity(10)
+                        .occurredAt(LocalDateTime.now())
+                        .build())
+                .toList();
+    }
+}
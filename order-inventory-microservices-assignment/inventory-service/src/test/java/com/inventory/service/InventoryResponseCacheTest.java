@@ -0,0 +1,153 @@
+package com.inventory.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.inventory.dto.InventoryBatchResponse;
+import com.inventory.service.InventoryResponseCache.EncodedInventory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("Inventory Response Cache Tests")
+class InventoryResponseCacheTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2025, 1, 10);
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+    private final AtomicInteger loads = new AtomicInteger();
+    private MutableClock clock;
+    private InventoryResponseCache cache;
+    private int quantity;
+
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock(TODAY.atStartOfDay().toInstant(ZoneOffset.UTC));
+        cache = new InventoryResponseCache(objectMapper, true, 512, clock);
+        quantity = 50;
+    }
+
+    @Test
+    @DisplayName("Should serve the same encoded body until the product changes")
+    void shouldReuseBodyUntilChange() {
+        // Given
+        EncodedInventory first = cache.get("PROD-001", loader(1));
+        EncodedInventory second = cache.get("PROD-001", loader(1));
+
+        // When
+        quantity = 40;
+        cache.recordChange("PROD-001");
+        EncodedInventory changed = cache.get("PROD-001", loader(1));
+
+        // Then
+        assertThat(second).isSameAs(first);
+        assertThat(loads).hasValue(2);
+        assertThat(changed.getVersion()).isEqualTo(1);
+        assertThat(changed.getEtag()).isNotEqualTo(first.getEtag());
+        assertThat(new String(changed.getJson())).contains("\"quantity\":40");
+        assertThat(cache.get("PROD-002", loader(1)).getVersion()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should re-encode the body when the date changes")
+    void shouldReencodeOnNewDay() {
+        // Given
+        EncodedInventory yesterday = cache.get("PROD-001", loader(1));
+
+        // When
+        clock.instant = clock.instant.plusSeconds(86_400);
+        EncodedInventory today = cache.get("PROD-001", loader(1));
+
+        // Then
+        assertThat(loads).hasValue(2);
+        assertThat(today.getVersion()).isEqualTo(yesterday.getVersion());
+        assertThat(today.getEtag()).isNotEqualTo(yesterday.getEtag());
+    }
+
+    @Test
+    @DisplayName("Should gzip only bodies of at least the minimum size")
+    void shouldGzipLargeBodies() throws IOException {
+        // When
+        EncodedInventory small = cache.get("PROD-001", loader(1));
+        EncodedInventory large = cache.get("PROD-002", loader(20));
+
+        // Then
+        assertThat(small.getGzip()).isNull();
+        assertThat(large.getGzip()).isNotNull().hasSizeLessThan(large.getJson().length);
+        assertThat(large.getGzipEtag()).isNotEqualTo(large.getEtag());
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(large.getGzip()))) {
+            assertThat(in.readAllBytes()).isEqualTo(large.getJson());
+        }
+    }
+
+    @Test
+    @DisplayName("Should match If-None-Match naming either representation of the current version")
+    void shouldMatchIfNoneMatch() {
+        // Given
+        EncodedInventory inventory = cache.get("PROD-002", loader(20));
+
+        // Then
+        assertThat(inventory.matches(inventory.getEtag())).isTrue();
+        assertThat(inventory.matches("\"other\", W/" + inventory.getGzipEtag())).isTrue();
+        assertThat(inventory.matches("*")).isTrue();
+        assertThat(inventory.matches("\"other\"")).isFalse();
+        assertThat(inventory.matches(null)).isFalse();
+    }
+
+    private Function<String, List<InventoryBatchResponse>> loader(int batches) {
+        return productId -> {
+            loads.incrementAndGet();
+            List<InventoryBatchResponse> result = new ArrayList<>(batches);
+            for (int i = 0; i < batches; i++) {
+                result.add(InventoryBatchResponse.builder()
+                        .batchNumber("BATCH-" + i)
+                        .productId(productId)
+                        .productName("Laptop")
+                        .quantity(quantity)
+                        .expiryDate(TODAY.plusDays(30 + i))
+                        .manufacturingDate(TODAY.minusDays(30))
+                        .isExpired(false)
+                        .build());
+            }
+            return result;
+        };
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant instant;
+
+        MutableClock(Instant instant) {
+            this.instant = instant;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.inventory.service;
 
+import com.inventory.dto.AvailabilityResponse;
 import com.inventory.dto.InventoryBatchResponse;
 import com.inventory.dto.InventoryUpdateRequest;
 import com.inventory.dto.InventoryUpdateResponse;
@@ -7,10 +8,11 @@ import com.inventory.exception.InsufficientInventoryException;
 import com.inventory.exception.ResourceNotFoundException;
 import com.inventory.factory.FifoInventoryStrategy;
 import com.inventory.factory.InventoryStrategyFactory;
+import com.inventory.journal.MovementJournal;
 import com.inventory.model.InventoryBatch;
 import com.inventory.model.Product;
-import com.inventory.repository.InventoryBatchRepository;
-import com.inventory.repository.ProductRepository;
+import com.inventory.repository.InventoryBatchArchive;
+import com.inventory.store.InventoryStore;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -20,10 +22,11 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
-import java.util.Optional;
+import java.util.OptionalLong;
 
 import static org.assertj.core.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -34,13 +37,25 @@ import static org.mockito.Mockito.*;
 class InventoryServiceTest {
 
     @Mock
-    private ProductRepository productRepository;
+    private InventoryStore inventoryStore;
 
     @Mock
-    private InventoryBatchRepository inventoryBatchRepository;
+    private InventoryStrategyFactory strategyFactory;
 
     @Mock
-    private InventoryStrategyFactory strategyFactory;
+    private AvailableStockTracker availableStockTracker;
+
+    @Mock
+    private InventoryChangeFeed changeFeed;
+
+    @Mock
+    private MovementJournal movementJournal;
+
+    @Mock
+    private InventoryResponseCache responseCache;
+
+    @Mock
+    private InventoryBatchArchive inventoryBatchArchive;
 
     @InjectMocks
     private InventoryService inventoryService;
@@ -82,9 +97,8 @@ class InventoryServiceTest {
     @DisplayName("Should get inventory batches by product ID successfully")
     void shouldGetInventoryByProductId() {
         // Given
-        when(productRepository.existsByProductId("PROD-001")).thenReturn(true);
-        when(inventoryBatchRepository.findByProductIdOrderByExpiryDate("PROD-001"))
-                .thenReturn(testBatches);
+        when(inventoryStore.productExists("PROD-001")).thenReturn(true);
+        when(inventoryStore.findBatches("PROD-001")).thenReturn(testBatches);
 
         // When
         List<InventoryBatchResponse> result = inventoryService.getInventoryByProductId("PROD-001");
@@ -93,23 +107,44 @@ class InventoryServiceTest {
         assertThat(result).hasSize(2);
         assertThat(result.get(0).getBatchNumber()).isEqualTo("BATCH-001");
         assertThat(result.get(0).getQuantity()).isEqualTo(50);
-        verify(productRepository).existsByProductId("PROD-001");
-        verify(inventoryBatchRepository).findByProductIdOrderByExpiryDate("PROD-001");
+        verify(inventoryStore).productExists("PROD-001");
+        verify(inventoryStore).findBatches("PROD-001");
+    }
+
+    @Test
+    @DisplayName("Should merge archived batches by expiry date, preferring a batch still live")
+    void shouldIncludeArchivedBatches() {
+        // Given
+        when(inventoryStore.productExists("PROD-001")).thenReturn(true);
+        when(inventoryStore.findBatches("PROD-001")).thenReturn(testBatches);
+        when(inventoryBatchArchive.findByProductId("PROD-001")).thenReturn(List.of(
+                archived("BATCH-OLD", LocalDate.now().minusMonths(1)),
+                archived("BATCH-002", LocalDate.now().plusMonths(12))));
+
+        // When
+        List<InventoryBatchResponse> result = inventoryService.getInventoryByProductId("PROD-001", true);
+
+        // Then
+        assertThat(result).extracting(InventoryBatchResponse::getBatchNumber)
+                .containsExactly("BATCH-OLD", "BATCH-001", "BATCH-002");
+        assertThat(result.get(0).getArchivedAt()).isNotNull();
+        assertThat(result.get(0).getIsExpired()).isTrue();
+        assertThat(result.get(2).getArchivedAt()).isNull();
     }
 
     @Test
     @DisplayName("Should throw ResourceNotFoundException when product does not exist")
     void shouldThrowExceptionWhenProductNotFound() {
         // Given
-        when(productRepository.existsByProductId("INVALID")).thenReturn(false);
+        when(inventoryStore.productExists("INVALID")).thenReturn(false);
 
         // When & Then
         assertThatThrownBy(() -> inventoryService.getInventoryByProductId("INVALID"))
                 .isInstanceOf(ResourceNotFoundException.class)
                 .hasMessageContaining("Product not found");
 
-        verify(productRepository).existsByProductId("INVALID");
-        verify(inventoryBatchRepository, never()).findByProductIdOrderByExpiryDate(anyString());
+        verify(inventoryStore).productExists("INVALID");
+        verify(inventoryStore, never()).findBatches(anyString());
     }
 
     @Test
@@ -123,11 +158,9 @@ class InventoryServiceTest {
 
         FifoInventoryStrategy fifoStrategy = new FifoInventoryStrategy();
         
-        when(productRepository.findByProductId("PROD-001")).thenReturn(Optional.of(testProduct));
-        when(inventoryBatchRepository.findAvailableBatchesByProductId("PROD-001"))
-                .thenReturn(testBatches);
+        when(inventoryStore.productExists("PROD-001")).thenReturn(true);
+        when(inventoryStore.findAvailableBatches("PROD-001")).thenReturn(testBatches);
         when(strategyFactory.getStrategy("FIFO")).thenReturn(fifoStrategy);
-        when(inventoryBatchRepository.saveAll(anyList())).thenReturn(testBatches);
 
         // When
         InventoryUpdateResponse response = inventoryService.updateInventory(request, "FIFO");
@@ -136,7 +169,32 @@ class InventoryServiceTest {
         assertThat(response).isNotNull();
         assertThat(response.getProductId()).isEqualTo("PROD-001");
         assertThat(response.getTotalQuantityDeducted()).isEqualTo(40);
-        verify(inventoryBatchRepository).saveAll(anyList());
+        verify(inventoryStore).applyDeductions(eq(testBatches), argThat(deductions -> deductions.size() == 1
+                && deductions.get(0).getBatchNumber().equals("BATCH-001")
+                && deductions.get(0).getQuantityDeducted() == 40));
+        verify(availableStockTracker).recordDeduction("PROD-001", testBatches.get(0).getExpiryDate(), 40);
+        verify(responseCache).recordChange("PROD-001");
+        verify(changeFeed).publish(argThat(events -> events.size() == 1
+                && events.get(0).getBatchNumber().equals("BATCH-001")
+                && events.get(0).getQuantityDelta() == -40
+                && events.get(0).getRemainingQuantity() == 10));
+        verify(movementJournal).appendBeforeCommit(argThat(events -> events.size() == 1
+                && events.get(0).getBatchNumber().equals("BATCH-001")));
+    }
+
+    @Test
+    @DisplayName("Should report availability from the stock counters")
+    void shouldReportAvailabilityFromCounters() {
+        // Given
+        when(availableStockTracker.getAvailable("PROD-001")).thenReturn(OptionalLong.of(80));
+
+        // When
+        AvailabilityResponse availability = inventoryService.getAvailability("PROD-001", 100);
+
+        // Then
+        assertThat(availability.getAvailableQuantity()).isEqualTo(80);
+        assertThat(availability.getCanFulfill()).isFalse();
+        verifyNoInteractions(inventoryStore);
     }
 
     @Test
@@ -148,15 +206,15 @@ class InventoryServiceTest {
                 .quantity(10)
                 .build();
 
-        when(productRepository.findByProductId("INVALID")).thenReturn(Optional.empty());
+        when(inventoryStore.productExists("INVALID")).thenReturn(false);
 
         // When & Then
         assertThatThrownBy(() -> inventoryService.updateInventory(request))
                 .isInstanceOf(ResourceNotFoundException.class)
                 .hasMessageContaining("Product not found");
 
-        verify(productRepository).findByProductId("INVALID");
-        verify(inventoryBatchRepository, never()).findAvailableBatchesByProductId(anyString());
+        verify(inventoryStore).productExists("INVALID");
+        verify(inventoryStore, never()).findAvailableBatches(anyString());
     }
 
     @Test
@@ -168,14 +226,24 @@ class InventoryServiceTest {
                 .quantity(10)
                 .build();
 
-        when(productRepository.findByProductId("PROD-001")).thenReturn(Optional.of(testProduct));
-        when(inventoryBatchRepository.findAvailableBatchesByProductId("PROD-001"))
-                .thenReturn(Collections.emptyList());
+        when(inventoryStore.productExists("PROD-001")).thenReturn(true);
+        when(inventoryStore.findAvailableBatches("PROD-001")).thenReturn(Collections.emptyList());
 
         // When & Then
         assertThatThrownBy(() -> inventoryService.updateInventory(request))
                 .isInstanceOf(ResourceNotFoundException.class)
                 .hasMessageContaining("No available inventory batches");
     }
-}
 
+    private static InventoryBatchArchive.ArchivedBatch archived(String batchNumber, LocalDate expiryDate) {
+        return InventoryBatchArchive.ArchivedBatch.builder()
+                .batchNumber(batchNumber)
+                .productId("PROD-001")
+                .productName("Test Product")
+                .quantity(0)
+                .expiryDate(expiryDate)
+                .manufacturingDate(expiryDate.minusYears(1))
+                .archivedAt(LocalDateTime.now())
+                .build();
+    }
+}
@@ -0,0 +1,40 @@
+package com.inventory.sharding;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Consistent Hash Ring Tests")
+class ConsistentHashRingTest {
+
+    private static final List<String> PRODUCTS = IntStream.range(0, 10_000)
+            .mapToObj(i -> String.format("PROD-%05d", i))
+            .toList();
+
+    @Test
+    @DisplayName("Should hash and place virtual nodes exactly like the ring in Order Service")
+    void shouldMatchTheOtherServicesRing() {
+        // Given: the same constants are pinned in the other service's copy of this test
+        ConsistentHashRing ring = new ConsistentHashRing(List.of("shard-a", "shard-b", "shard-c"), 128);
+
+        // When
+        Map<String, Integer> counts = new HashMap<>();
+        PRODUCTS.forEach(productId -> counts.merge(ring.nodeFor(productId), 1, Integer::sum));
+
+        // Then
+        assertThat(ConsistentHashRing.hash("PROD-001")).isEqualTo(-7411531014702386371L);
+        assertThat(ConsistentHashRing.hash("shard-a#0")).isEqualTo(158024568776520412L);
+        assertThat(ConsistentHashRing.hash("shard-c#127")).isEqualTo(2316835761546827693L);
+        assertThat(counts).containsExactlyInAnyOrderEntriesOf(
+                Map.of("shard-a", 2878, "shard-b", 3736, "shard-c", 3386));
+        assertThat(List.of("PROD-001", "PROD-002", "PROD-003", "PROD-004", "PROD-005"))
+                .extracting(ring::nodeFor)
+                .containsExactly("shard-a", "shard-a", "shard-c", "shard-b", "shard-c");
+    }
+}
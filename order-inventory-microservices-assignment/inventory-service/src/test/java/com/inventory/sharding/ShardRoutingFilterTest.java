@@ -0,0 +1,219 @@
+package com.inventory.sharding;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.sun.net.httpserver.HttpServer;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Shard Routing Filter Tests")
+class ShardRoutingFilterTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+    private HttpServer otherShard;
+    private AtomicReference<String> forwardedBy;
+    private ShardingProperties properties;
+    private String localProduct;
+    private String remoteProduct;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        forwardedBy = new AtomicReference<>();
+        otherShard = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        otherShard.createContext("/", exchange -> {
+            forwardedBy.set(exchange.getRequestHeaders().getFirst(ShardRoutingFilter.FORWARDED_BY_HEADER));
+            byte[] body = ("{\"path\":\"" + exchange.getRequestURI() + "\"}").getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        otherShard.start();
+
+        properties = new ShardingProperties();
+        properties.setShardId("shard-a");
+        properties.setShards(Map.of(
+                "shard-a", "http://localhost:1",
+                "shard-b", "http://localhost:" + otherShard.getAddress().getPort()));
+
+        ConsistentHashRing ring = new ConsistentHashRing(properties.getShards().keySet(), properties.getVirtualNodes());
+        List<String> products = IntStream.range(0, 100).mapToObj(i -> "PROD-" + i).toList();
+        localProduct = products.stream().filter(id -> ring.nodeFor(id).equals("shard-a")).findFirst().orElseThrow();
+        remoteProduct = products.stream().filter(id -> ring.nodeFor(id).equals("shard-b")).findFirst().orElseThrow();
+    }
+
+    @AfterEach
+    void tearDown() {
+        otherShard.stop(0);
+    }
+
+    @Test
+    @DisplayName("Should serve products owned by this shard locally")
+    void shouldPassThroughOwnedProducts() throws Exception {
+        // Given
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/inventory/" + localProduct);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        // When
+        filter().doFilter(request, response, chain);
+
+        // Then
+        assertThat(chain.getRequest()).isNotNull();
+        assertThat(response.getHeader(ShardRoutingFilter.SHARD_HEADER)).isEqualTo("shard-a");
+    }
+
+    @Test
+    @DisplayName("Should forward updates for other shards' products with the body intact")
+    void shouldForwardToOwningShard() throws Exception {
+        // Given
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/inventory/update");
+        request.setContentType("application/json");
+        request.setContent(("{\"productId\":\"" + remoteProduct + "\",\"quantity\":1}").getBytes(StandardCharsets.UTF_8));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        // When
+        filter().doFilter(request, response, chain);
+
+        // Then
+        assertThat(chain.getRequest()).isNull();
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getContentAsString()).contains("/inventory/update");
+        assertThat(response.getHeader(ShardRoutingFilter.SHARD_HEADER)).isEqualTo("shard-b");
+        assertThat(forwardedBy.get()).isEqualTo("shard-a");
+    }
+
+    @Test
+    @DisplayName("Should hand a locally served update's body to a read listener")
+    void shouldDeliverCachedBodyToReadListener() throws Exception {
+        // Given
+        byte[] content = ("{\"productId\":\"" + localProduct + "\",\"quantity\":1}").getBytes(StandardCharsets.UTF_8);
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/inventory/update");
+        request.setContentType("application/json");
+        request.setContent(content);
+        MockFilterChain chain = new MockFilterChain();
+        filter().doFilter(request, new MockHttpServletResponse(), chain);
+        ServletInputStream input = chain.getRequest().getInputStream();
+        ByteArrayOutputStream read = new ByteArrayOutputStream();
+        AtomicBoolean allRead = new AtomicBoolean();
+
+        // When
+        input.setReadListener(new ReadListener() {
+            @Override
+            public void onDataAvailable() throws IOException {
+                while (input.isReady() && !input.isFinished()) {
+                    read.write(input.read());
+                }
+            }
+
+            @Override
+            public void onAllDataRead() {
+                allRead.set(true);
+            }
+
+            @Override
+            public void onError(Throwable t) {
+            }
+        });
+
+        // Then
+        assertThat(read.toByteArray()).isEqualTo(content);
+        assertThat(allRead).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should reject instead of forwarding an already forwarded request")
+    void shouldRejectForwardedRequestForOtherShard() throws Exception {
+        // Given
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/inventory/" + remoteProduct);
+        request.addHeader(ShardRoutingFilter.FORWARDED_BY_HEADER, "shard-b");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        // When
+        filter().doFilter(request, response, chain);
+
+        // Then
+        assertThat(chain.getRequest()).isNull();
+        assertThat(response.getStatus()).isEqualTo(421);
+        assertThat(response.getContentAsString()).contains("owned by shard shard-b");
+        assertThat(forwardedBy.get()).isNull();
+    }
+
+    @Test
+    @DisplayName("Should reject other shards' products in reject mode")
+    void shouldRejectInRejectMode() throws Exception {
+        // Given
+        properties.setMode(ShardingProperties.Mode.REJECT);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/inventory/" + remoteProduct + "/available");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // When
+        filter().doFilter(request, response, new MockFilterChain());
+
+        // Then
+        assertThat(response.getStatus()).isEqualTo(421);
+        assertThat(response.getHeader(ShardRoutingFilter.SHARD_HEADER)).isEqualTo("shard-b");
+    }
+
+    @Test
+    @DisplayName("Should reject a Smile update for another shard's product")
+    void shouldRejectMisdirectedSmileUpdate() throws Exception {
+        // Given
+        properties.setMode(ShardingProperties.Mode.REJECT);
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/inventory/update");
+        request.setContentType("application/x-jackson-smile");
+        request.setContent(new ObjectMapper(new SmileFactory())
+                .writeValueAsBytes(Map.of("productId", remoteProduct, "quantity", 1)));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        // When
+        filter().doFilter(request, response, chain);
+
+        // Then
+        assertThat(chain.getRequest()).isNull();
+        assertThat(response.getStatus()).isEqualTo(421);
+        assertThat(response.getContentAsString()).contains(remoteProduct + " is owned by shard shard-b");
+    }
+
+    @Test
+    @DisplayName("Should leave non-product endpoints alone")
+    void shouldIgnoreNonProductPaths() throws Exception {
+        // Given
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/inventory/health");
+        MockFilterChain chain = new MockFilterChain();
+
+        // When
+        filter().doFilter(request, new MockHttpServletResponse(), chain);
+
+        // Then
+        assertThat(chain.getRequest()).isNotNull();
+    }
+
+    private ShardRoutingFilter filter() {
+        return new ShardRoutingFilter(new ShardOwnership(properties), properties, objectMapper);
+    }
+}
@@ -0,0 +1,111 @@
+package com.inventory.store;
+
+import com.inventory.dto.InventoryUpdateResponse;
+import com.inventory.exception.InsufficientInventoryException;
+import com.inventory.model.InventoryBatch;
+import com.inventory.model.Product;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("In-Memory Inventory Store Tests")
+class InMemoryInventoryStoreTest {
+
+    private static final LocalDate TODAY = LocalDate.now();
+
+    private InMemoryInventoryStore store;
+
+    @BeforeEach
+    void setUp() {
+        store = new InMemoryInventoryStore();
+        Product product = Product.builder().id(1L).productId("PROD-001").name("Test Product").build();
+        store.addProduct(product);
+        store.addProduct(Product.builder().id(2L).productId("PROD-000").name("Empty Product").build());
+        store.addBatch(batch(product, "BATCH-LATE", 30, TODAY.plusDays(90)));
+        store.addBatch(batch(product, "BATCH-EARLY", 50, TODAY.plusDays(30)));
+        store.addBatch(batch(product, "BATCH-EXPIRED", 20, TODAY.minusDays(1)));
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    @DisplayName("Should hand out copies and change stored quantities only through deductions")
+    void shouldApplyDeductions() {
+        // Given
+        List<InventoryBatch> batches = store.findAvailableBatches("PROD-001");
+        batches.get(0).reduceQuantity(50);
+
+        // When
+        store.applyDeductions(batches, List.of(deduction("BATCH-EARLY", 50), deduction("BATCH-LATE", 5)));
+
+        // Then
+        assertThat(batches).extracting(InventoryBatch::getBatchNumber).containsExactly("BATCH-EARLY", "BATCH-LATE");
+        assertThat(batches.get(1).getQuantity()).isEqualTo(30);
+        assertThat(store.findBatches("PROD-001")).extracting(InventoryBatch::getQuantity).containsExactly(20, 0, 25);
+        assertThat(store.findAvailableBatches("PROD-001")).extracting(InventoryBatch::getBatchNumber)
+                .containsExactly("BATCH-LATE");
+    }
+
+    @Test
+    @DisplayName("Should refuse a deduction that a concurrent one already took")
+    void shouldRefuseStaleDeduction() {
+        // Given
+        List<InventoryBatch> first = store.findAvailableBatches("PROD-001");
+        List<InventoryBatch> second = store.findAvailableBatches("PROD-001");
+        store.applyDeductions(first, List.of(deduction("BATCH-EARLY", 40)));
+
+        // When & Then
+        assertThatThrownBy(() -> store.applyDeductions(second, List.of(deduction("BATCH-LATE", 5), deduction("BATCH-EARLY", 40))))
+                .isInstanceOf(InsufficientInventoryException.class)
+                .hasMessageContaining("BATCH-EARLY");
+        assertThat(store.findBatches("PROD-001")).extracting(InventoryBatch::getQuantity).containsExactly(20, 10, 30);
+    }
+
+    @Test
+    @DisplayName("Should undo deductions when the transaction rolls back")
+    void shouldUndoDeductionsOnRollback() {
+        // Given
+        TransactionSynchronizationManager.initSynchronization();
+        store.applyDeductions(store.findAvailableBatches("PROD-001"), List.of(deduction("BATCH-EARLY", 10)));
+
+        // When
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        // Then
+        assertThat(store.streamAvailableBatches()).containsExactly(
+                new AvailableBatch("PROD-000", null, null, 0),
+                new AvailableBatch("PROD-001", "BATCH-EARLY", TODAY.plusDays(30), 50),
+                new AvailableBatch("PROD-001", "BATCH-LATE", TODAY.plusDays(90), 30));
+    }
+
+    private static InventoryBatch batch(Product product, String batchNumber, int quantity, LocalDate expiry) {
+        return InventoryBatch.builder()
+                .batchNumber(batchNumber)
+                .product(product)
+                .quantity(quantity)
+                .expiryDate(expiry)
+                .manufacturingDate(TODAY.minusDays(100))
+                .build();
+    }
+
+    private static InventoryUpdateResponse.BatchDeduction deduction(String batchNumber, int quantity) {
+        return InventoryUpdateResponse.BatchDeduction.builder()
+                .batchNumber(batchNumber)
+                .quantityDeducted(quantity)
+                .build();
+    }
+}
@@ -0,0 +1,104 @@
+package com.inventory.store;
+
+import com.inventory.dto.InventoryUpdateResponse;
+import com.inventory.exception.InsufficientInventoryException;
+import com.inventory.model.InventoryBatch;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.*;
+
+@JdbcTest
+@DisplayName("JDBC Inventory Store Tests")
+class JdbcInventoryStoreTest {
+
+    private static final LocalDate TODAY = LocalDate.now();
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private JdbcInventoryStore store;
+
+    @BeforeEach
+    void setUp() {
+        store = new JdbcInventoryStore(jdbcTemplate);
+        jdbcTemplate.update("INSERT INTO products (id, product_id, name, description) VALUES " +
+                "(900, 'PROD-900', 'Test Product', 'Test Description'), (901, 'PROD-901', 'Empty Product', NULL)");
+        insertBatch(900, "BATCH-900-LATE", 30, TODAY.plusDays(90));
+        insertBatch(901, "BATCH-900-EARLY", 50, TODAY.plusDays(30));
+        insertBatch(902, "BATCH-900-EXPIRED", 20, TODAY.minusDays(1));
+        insertBatch(903, "BATCH-900-EMPTY", 0, TODAY.plusDays(60));
+    }
+
+    @Test
+    @DisplayName("Should find available batches earliest expiry first with their product")
+    void shouldFindAvailableBatches() {
+        // When
+        List<InventoryBatch> batches = store.findAvailableBatches("PROD-900");
+
+        // Then
+        assertThat(batches).extracting(InventoryBatch::getBatchNumber)
+                .containsExactly("BATCH-900-EARLY", "BATCH-900-LATE");
+        assertThat(batches.get(0).getId()).isEqualTo(901);
+        assertThat(batches.get(0).getQuantity()).isEqualTo(50);
+        assertThat(batches.get(0).getProduct().getName()).isEqualTo("Test Product");
+        assertThat(store.findBatches("PROD-900")).hasSize(4);
+        assertThat(store.productExists("PROD-901")).isTrue();
+        assertThat(store.productExists("PROD-999")).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should apply deductions as one batch and refuse to take a batch below zero")
+    void shouldApplyDeductions() {
+        // Given
+        List<InventoryBatch> batches = store.findAvailableBatches("PROD-900");
+
+        // When
+        store.applyDeductions(batches, List.of(deduction("BATCH-900-EARLY", 50), deduction("BATCH-900-LATE", 5)));
+
+        // Then
+        assertThat(store.findBatches("PROD-900")).extracting(InventoryBatch::getQuantity)
+                .containsExactly(20, 50 - 50, 0, 30 - 5);
+        assertThatThrownBy(() -> store.applyDeductions(batches, List.of(deduction("BATCH-900-EARLY", 1))))
+                .isInstanceOf(InsufficientInventoryException.class)
+                .hasMessageContaining("BATCH-900-EARLY");
+    }
+
+    @Test
+    @DisplayName("Should stream available batches of every product in product id order")
+    void shouldStreamAvailableBatches() {
+        // When
+        List<AvailableBatch> batches;
+        try (Stream<AvailableBatch> stream = store.streamAvailableBatches()) {
+            batches = stream.toList();
+        }
+
+        // Then
+        assertThat(batches).extracting(AvailableBatch::getProductId).isSorted()
+                .contains("PROD-900", "PROD-901");
+        assertThat(batches).filteredOn(batch -> batch.getProductId().startsWith("PROD-90")).containsExactlyInAnyOrder(
+                new AvailableBatch("PROD-900", "BATCH-900-EARLY", TODAY.plusDays(30), 50),
+                new AvailableBatch("PROD-900", "BATCH-900-LATE", TODAY.plusDays(90), 30),
+                new AvailableBatch("PROD-901", null, null, 0));
+    }
+
+    private void insertBatch(long id, String batchNumber, int quantity, LocalDate expiry) {
+        jdbcTemplate.update("INSERT INTO inventory_batches (id, batch_number, product_id, quantity, expiry_date, " +
+                "manufacturing_date) VALUES (?, ?, 900, ?, ?, ?)", id, batchNumber, quantity, expiry, TODAY.minusDays(100));
+    }
+
+    private static InventoryUpdateResponse.BatchDeduction deduction(String batchNumber, int quantity) {
+        return InventoryUpdateResponse.BatchDeduction.builder()
+                .batchNumber(batchNumber)
+                .quantityDeducted(quantity)
+                .build();
+    }
+}
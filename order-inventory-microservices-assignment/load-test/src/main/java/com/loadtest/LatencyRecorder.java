@@ -0,0 +1,148 @@
+package com.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Collects per-operation latency histograms (in microseconds) and outcome counters,
+ * plus per-product write counts so hot-SKU skew is visible in the report.
+ */
+public class LatencyRecorder {
+
+    private static final long MAX_LATENCY_MICROS = TimeUnit.MINUTES.toMicros(5);
+
+    private final Map<Workload.Operation, Stats> stats = new EnumMap<>(Workload.Operation.class);
+    private final LongAdder[] writesPerProduct;
+    private final LongAdder dropped = new LongAdder();
+    private volatile long windowStartNanos = Long.MAX_VALUE;
+    private volatile long windowEndNanos = Long.MAX_VALUE;
+
+    public LatencyRecorder(int productCount) {
+        for (Workload.Operation operation : Workload.Operation.values()) {
+            stats.put(operation, new Stats());
+        }
+        writesPerProduct = new LongAdder[productCount];
+        for (int i = 0; i < productCount; i++) {
+            writesPerProduct[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Set the measurement window. Only calls whose start falls inside it are kept,
+     * so warm-up requests that complete late do not leak into the results.
+     */
+    public void setWindow(long startNanos, long endNanos) {
+        windowStartNanos = startNanos;
+        windowEndNanos = endNanos;
+    }
+
+    /**
+     * Record a completed call.
+     *
+     * @param call The call that completed
+     * @param startNanos Intended start time; in open-loop mode this is the scheduled time,
+     *                   so queueing delay caused by a slow server is included
+     * @param endNanos Completion time
+     * @param status HTTP status, or -1 if the call failed without a response
+     */
+    public void record(Workload.Call call, long startNanos, long endNanos, int status) {
+        if (!inWindow(startNanos)) {
+            return;
+        }
+        Stats s = stats.get(call.operation());
+        long micros = Math.min(TimeUnit.NANOSECONDS.toMicros(endNanos - startNanos), MAX_LATENCY_MICROS);
+        s.histogram.recordValue(Math.max(micros, 1));
+        if (status < 0) {
+            s.errors.increment();
+        } else if (status < 400) {
+            s.ok.increment();
+        } else if (status < 500) {
+            s.clientErrors.increment();
+        } else {
+            s.serverErrors.increment();
+        }
+        if (call.operation() == Workload.Operation.PLACE_ORDER && call.productRank() >= 0) {
+            writesPerProduct[call.productRank()].increment();
+        }
+    }
+
+    /**
+     * Count a request that was due in open-loop mode but not sent because too many were in flight.
+     */
+    public void recordDropped(long intendedNanos) {
+        if (inWindow(intendedNanos)) {
+            dropped.increment();
+        }
+    }
+
+    private boolean inWindow(long startNanos) {
+        return startNanos - windowStartNanos >= 0 && startNanos - windowEndNanos < 0;
+    }
+
+    /**
+     * Print the summary table and write one HdrHistogram percentile distribution file per operation.
+     */
+    public void report(PrintStream out, LoadTestConfig config, double measuredSeconds) throws IOException {
+        Files.createDirectories(config.getOutput());
+
+        out.println();
+        out.println("=== Load test summary ===");
+        out.println(config);
+        out.printf("%-14s %9s %9s %7s %7s %7s %10s %9s %9s %9s %9s %9s%n",
+                "operation", "count", "ok", "4xx", "5xx", "errors", "req/s",
+                "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+
+        long total = 0;
+        for (Map.Entry<Workload.Operation, Stats> entry : stats.entrySet()) {
+            Stats s = entry.getValue();
+            Histogram h = s.histogram;
+            long count = h.getTotalCount();
+            total += count;
+            if (count == 0) {
+                continue;
+            }
+            out.printf("%-14s %9d %9d %7d %7d %7d %10.1f %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                    entry.getKey(), count, s.ok.sum(), s.clientErrors.sum(), s.serverErrors.sum(), s.errors.sum(),
+                    count / measuredSeconds,
+                    millis(h.getValueAtPercentile(50)), millis(h.getValueAtPercentile(90)),
+                    millis(h.getValueAtPercentile(99)), millis(h.getValueAtPercentile(99.9)),
+                    millis(h.getMaxValue()));
+
+            Path file = config.getOutput().resolve(entry.getKey().name().toLowerCase() + ".hgrm");
+            try (PrintStream hgrm = new PrintStream(Files.newOutputStream(file))) {
+                h.outputPercentileDistribution(hgrm, 1000.0);
+            }
+        }
+        out.printf("Total throughput: %.1f req/s over %.1f s%n", total / measuredSeconds, measuredSeconds);
+        if (dropped.sum() > 0) {
+            out.printf("Dropped (max in-flight reached): %d%n", dropped.sum());
+        }
+
+        out.println("Writes per product (hottest first):");
+        for (int rank = 0; rank < Math.min(writesPerProduct.length, 10); rank++) {
+            out.printf("  %-12s %9d%n", config.getProducts().get(rank), writesPerProduct[rank].sum());
+        }
+        out.println("Histograms written to " + config.getOutput().toAbsolutePath());
+    }
+
+    private static double millis(long micros) {
+        return micros / 1000.0;
+    }
+
+    private static final class Stats {
+        private final Histogram histogram = new ConcurrentHistogram(MAX_LATENCY_MICROS, 3);
+        private final LongAdder ok = new LongAdder();
+        private final LongAdder clientErrors = new LongAdder();
+        private final LongAdder serverErrors = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+    }
+}
@@ -0,0 +1,172 @@
+package com.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Load test settings, parsed from {@code --key=value} arguments.
+ * Every setting has a default that works against both services started locally with H2.
+ */
+public class LoadTestConfig {
+
+    public enum Mode {
+        /** Fixed arrival rate, independent of how fast the services respond. */
+        OPEN,
+        /** Fixed number of workers, each sending its next request when the previous one completes. */
+        CLOSED
+    }
+
+    private String orderServiceUrl = "http://localhost:8082";
+    private String inventoryServiceUrl = "http://localhost:8081";
+    private Mode mode = Mode.OPEN;
+    private double rate = 200;
+    private int concurrency = 16;
+    private int maxInFlight = 2000;
+    private Duration duration = Duration.ofSeconds(60);
+    private Duration warmup = Duration.ofSeconds(10);
+    private Duration requestTimeout = Duration.ofSeconds(10);
+    private List<String> products = List.of("PROD-001", "PROD-002", "PROD-003");
+    private double zipfExponent = 1.1;
+    private double readRatio = 0.5;
+    private double inventoryReadShare = 0.5;
+    private int maxQuantity = 3;
+    private Path output = Path.of("build", "load-test");
+
+    public static LoadTestConfig parse(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --key=value but got: " + arg);
+            }
+            int eq = arg.indexOf('=');
+            values.put(arg.substring(2, eq), arg.substring(eq + 1));
+        }
+
+        LoadTestConfig config = new LoadTestConfig();
+        for (Map.Entry<String, String> entry : values.entrySet()) {
+            String value = entry.getValue();
+            switch (entry.getKey()) {
+                case "orderUrl" -> config.orderServiceUrl = value;
+                case "inventoryUrl" -> config.inventoryServiceUrl = value;
+                case "mode" -> config.mode = Mode.valueOf(value.toUpperCase());
+                case "rate" -> config.rate = Double.parseDouble(value);
+                case "concurrency" -> config.concurrency = Integer.parseInt(value);
+                case "maxInFlight" -> config.maxInFlight = Integer.parseInt(value);
+                case "duration" -> config.duration = parseDuration(value);
+                case "warmup" -> config.warmup = parseDuration(value);
+                case "timeout" -> config.requestTimeout = parseDuration(value);
+                case "products" -> config.products = List.of(value.split(","));
+                case "productCount" -> config.products = generatedProducts(Integer.parseInt(value));
+                case "zipf" -> config.zipfExponent = Double.parseDouble(value);
+                case "readRatio" -> config.readRatio = Double.parseDouble(value);
+                case "inventoryReadShare" -> config.inventoryReadShare = Double.parseDouble(value);
+                case "maxQuantity" -> config.maxQuantity = Integer.parseInt(value);
+                case "output" -> config.output = Path.of(value);
+                default -> throw new IllegalArgumentException("Unknown option --" + entry.getKey()
+                        + ". Known options: " + Arrays.toString(new String[] {
+                        "orderUrl", "inventoryUrl", "mode", "rate", "concurrency", "maxInFlight",
+                        "duration", "warmup", "timeout", "products", "productCount", "zipf",
+                        "readRatio", "inventoryReadShare", "maxQuantity", "output"}));
+            }
+        }
+        return config;
+    }
+
+    /**
+     * Parse durations such as 500ms, 30s or 5m.
+     */
+    static Duration parseDuration(String value) {
+        if (value.endsWith("ms")) {
+            return Duration.ofMillis(Long.parseLong(value.substring(0, value.length() - 2)));
+        }
+        if (value.endsWith("s")) {
+            return Duration.ofSeconds(Long.parseLong(value.substring(0, value.length() - 1)));
+        }
+        if (value.endsWith("m")) {
+            return Duration.ofMinutes(Long.parseLong(value.substring(0, value.length() - 1)));
+        }
+        return Duration.ofSeconds(Long.parseLong(value));
+    }
+
+    private static List<String> generatedProducts(int count) {
+        List<String> generated = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            generated.add(String.format("PROD-%03d", i));
+        }
+        return generated;
+    }
+
+    public String getOrderServiceUrl() {
+        return orderServiceUrl;
+    }
+
+    public String getInventoryServiceUrl() {
+        return inventoryServiceUrl;
+    }
+
+    public Mode getMode() {
+        return mode;
+    }
+
+    public double getRate() {
+        return rate;
+    }
+
+    public int getConcurrency() {
+        return concurrency;
+    }
+
+    public int getMaxInFlight() {
+        return maxInFlight;
+    }
+
+    public Duration getDuration() {
+        return duration;
+    }
+
+    public Duration getWarmup() {
+        return warmup;
+    }
+
+    public Duration getRequestTimeout() {
+        return requestTimeout;
+    }
+
+    public List<String> getProducts() {
+        return products;
+    }
+
+    public double getZipfExponent() {
+        return zipfExponent;
+    }
+
+    public double getReadRatio() {
+        return readRatio;
+    }
+
+    public double getInventoryReadShare() {
+        return inventoryReadShare;
+    }
+
+    public int getMaxQuantity() {
+        return maxQuantity;
+    }
+
+    public Path getOutput() {
+        return output;
+    }
+
+    @Override
+    public String toString() {
+        return "mode=" + mode
+                + (mode == Mode.OPEN ? " rate=" + rate + "/s maxInFlight=" + maxInFlight : " concurrency=" + concurrency)
+                + " duration=" + duration.toSeconds() + "s warmup=" + warmup.toSeconds() + "s"
+                + " products=" + products.size() + " zipf=" + zipfExponent
+                + " readRatio=" + readRatio + " inventoryReadShare=" + inventoryReadShare;
+    }
+}
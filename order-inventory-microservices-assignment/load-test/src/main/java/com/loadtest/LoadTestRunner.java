@@ -0,0 +1,128 @@
+package com.loadtest;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * End-to-end load generator for order-service and inventory-service.
+ *
+ * <p>Open-loop mode sends requests at a fixed arrival rate and measures latency from each
+ * request's scheduled start, so a stalled server shows up as latency instead of silently
+ * lowering the offered load. Closed-loop mode runs a fixed number of workers back to back.
+ *
+ * <p>Example: {@code ./gradlew run --args="--mode=open --rate=500 --duration=60s --zipf=1.2 --readRatio=0.3"}
+ */
+public class LoadTestRunner {
+
+    private final LoadTestConfig config;
+    private final Workload workload;
+    private final LatencyRecorder recorder;
+    private final HttpClient client;
+
+    public LoadTestRunner(LoadTestConfig config) {
+        this.config = config;
+        this.workload = new Workload(config);
+        this.recorder = new LatencyRecorder(config.getProducts().size());
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(config.getRequestTimeout())
+                .build();
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestConfig config = LoadTestConfig.parse(args);
+        System.out.println("Starting load test: " + config);
+        new LoadTestRunner(config).run();
+    }
+
+    public void run() throws InterruptedException, IOException {
+        long start = System.nanoTime();
+        long measureFrom = start + config.getWarmup().toNanos();
+        long end = measureFrom + config.getDuration().toNanos();
+
+        recorder.setWindow(measureFrom, end);
+
+        if (config.getMode() == LoadTestConfig.Mode.OPEN) {
+            runOpenLoop(start, end);
+        } else {
+            runClosedLoop(end);
+        }
+
+        double measuredSeconds = config.getDuration().toNanos() / 1e9;
+        recorder.report(System.out, config, measuredSeconds);
+    }
+
+    private void runOpenLoop(long start, long end) throws InterruptedException {
+        long intervalNanos = (long) (1e9 / config.getRate());
+        Semaphore inFlight = new Semaphore(config.getMaxInFlight());
+
+        for (long i = 0; ; i++) {
+            long intended = start + i * intervalNanos;
+            if (intended >= end) {
+                break;
+            }
+            long wait = intended - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            if (!inFlight.tryAcquire()) {
+                recorder.recordDropped(intended);
+                continue;
+            }
+
+            Workload.Call call = workload.next();
+            client.sendAsync(call.request(), HttpResponse.BodyHandlers.ofString())
+                    .whenComplete((response, error) -> {
+                        long now = System.nanoTime();
+                        inFlight.release();
+                        complete(call, intended, now, response, error);
+                    });
+        }
+
+        // Let outstanding requests finish so their latency is counted
+        inFlight.acquire(config.getMaxInFlight());
+    }
+
+    private void runClosedLoop(long end) throws InterruptedException {
+        List<Thread> workers = new ArrayList<>();
+        for (int i = 0; i < config.getConcurrency(); i++) {
+            Thread worker = new Thread(() -> {
+                while (System.nanoTime() < end) {
+                    Workload.Call call = workload.next();
+                    long started = System.nanoTime();
+                    HttpResponse<String> response = null;
+                    Throwable error = null;
+                    try {
+                        response = client.send(call.request(), HttpResponse.BodyHandlers.ofString());
+                    } catch (IOException e) {
+                        error = e;
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                    complete(call, started, System.nanoTime(), response, error);
+                }
+            }, "load-worker-" + i);
+            worker.start();
+            workers.add(worker);
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+    }
+
+    private void complete(Workload.Call call, long startNanos, long endNanos,
+                          HttpResponse<String> response, Throwable error) {
+        if (error != null || response == null) {
+            recorder.record(call, startNanos, endNanos, -1);
+            return;
+        }
+        recorder.record(call, startNanos, endNanos, response.statusCode());
+        workload.onResponse(call, response.statusCode(), response.body());
+    }
+}
@@ -0,0 +1,113 @@
+package com.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Generates the request mix: order placements (writes) against Zipf-distributed products,
+ * and reads split between order status polls and inventory lookups.
+ * Order ids returned by placements are kept in a small ring so status polls hit real orders.
+ */
+public class Workload {
+
+    public enum Operation {
+        PLACE_ORDER,
+        GET_ORDER,
+        GET_INVENTORY
+    }
+
+    /**
+     * A request to send, with the product rank it targets (or -1 for order polls).
+     */
+    public record Call(Operation operation, int productRank, HttpRequest request) {
+    }
+
+    private static final Pattern ORDER_ID = Pattern.compile("\"orderId\"\\s*:\\s*\"([^\"]+)\"");
+    private static final int RECENT_ORDERS = 1024;
+
+    private final LoadTestConfig config;
+    private final ZipfGenerator productPicker;
+    private final List<String> products;
+    private final AtomicReferenceArray<String> recentOrderIds = new AtomicReferenceArray<>(RECENT_ORDERS);
+    private final AtomicLong recentOrderCursor = new AtomicLong();
+
+    public Workload(LoadTestConfig config) {
+        this.config = config;
+        this.products = config.getProducts();
+        this.productPicker = new ZipfGenerator(products.size(), config.getZipfExponent());
+    }
+
+    public Call next() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        if (random.nextDouble() >= config.getReadRatio()) {
+            int rank = productPicker.next(random);
+            return new Call(Operation.PLACE_ORDER, rank, placeOrder(products.get(rank), random));
+        }
+
+        if (random.nextDouble() >= config.getInventoryReadShare()) {
+            String orderId = recentOrderId(random);
+            if (orderId != null) {
+                return new Call(Operation.GET_ORDER, -1, get(config.getOrderServiceUrl() + "/order/" + orderId));
+            }
+        }
+
+        int rank = productPicker.next(random);
+        return new Call(Operation.GET_INVENTORY, rank,
+                get(config.getInventoryServiceUrl() + "/inventory/" + products.get(rank)));
+    }
+
+    /**
+     * Remember the order id of a successful placement for later status polls.
+     */
+    public void onResponse(Call call, int status, String body) {
+        if (call.operation() == Operation.PLACE_ORDER && status == 201 && body != null) {
+            Matcher matcher = ORDER_ID.matcher(body);
+            if (matcher.find()) {
+                int slot = (int) (recentOrderCursor.getAndIncrement() % RECENT_ORDERS);
+                recentOrderIds.set(slot, matcher.group(1));
+            }
+        }
+    }
+
+    public List<String> getProducts() {
+        return products;
+    }
+
+    private String recentOrderId(ThreadLocalRandom random) {
+        long written = Math.min(recentOrderCursor.get(), RECENT_ORDERS);
+        if (written == 0) {
+            return null;
+        }
+        return recentOrderIds.get(random.nextInt((int) written));
+    }
+
+    private HttpRequest placeOrder(String productId, ThreadLocalRandom random) {
+        int quantity = 1 + random.nextInt(config.getMaxQuantity());
+        String body = "{\"productId\":\"" + productId + "\",\"quantity\":" + quantity
+                + ",\"customerName\":\"Load Test\",\"customerEmail\":\"load-"
+                + random.nextInt(1000) + "@example.com\"}";
+        return HttpRequest.newBuilder(URI.create(config.getOrderServiceUrl() + "/order"))
+                .timeout(timeout())
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    private HttpRequest get(String url) {
+        return HttpRequest.newBuilder(URI.create(url))
+                .timeout(timeout())
+                .GET()
+                .build();
+    }
+
+    private Duration timeout() {
+        return config.getRequestTimeout();
+    }
+}
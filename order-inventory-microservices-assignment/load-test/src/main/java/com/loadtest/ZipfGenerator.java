@@ -0,0 +1,59 @@
+package com.loadtest;
+
+import java.util.Arrays;
+import java.util.random.RandomGenerator;
+
+/**
+ * Samples ranks 0..n-1 with probability proportional to 1 / (rank + 1)^exponent.
+ * The cumulative distribution is precomputed once, so each sample is a binary search.
+ * An exponent of 0 gives a uniform distribution; around 1 gives the classic hot-SKU skew
+ * where the first few products take most of the traffic.
+ */
+public class ZipfGenerator {
+
+    private final double[] cdf;
+
+    public ZipfGenerator(int n, double exponent) {
+        if (n < 1) {
+            throw new IllegalArgumentException("Zipf population must be at least 1, was " + n);
+        }
+        if (exponent < 0) {
+            throw new IllegalArgumentException("Zipf exponent must not be negative, was " + exponent);
+        }
+        cdf = new double[n];
+        double sum = 0;
+        for (int rank = 0; rank < n; rank++) {
+            sum += 1.0 / Math.pow(rank + 1, exponent);
+            cdf[rank] = sum;
+        }
+        for (int rank = 0; rank < n; rank++) {
+            cdf[rank] /= sum;
+        }
+        cdf[n - 1] = 1.0;
+    }
+
+    /**
+     * Draw the next rank.
+     *
+     * @param random Source of randomness
+     * @return Rank in [0, n), 0 being the most popular
+     */
+    public int next(RandomGenerator random) {
+        int index = Arrays.binarySearch(cdf, random.nextDouble());
+        return index >= 0 ? index : -index - 1;
+    }
+
+    /**
+     * Probability of drawing the given rank.
+     *
+     * @param rank Rank in [0, n)
+     * @return Probability of that rank
+     */
+    public double probability(int rank) {
+        return rank == 0 ? cdf[0] : cdf[rank] - cdf[rank - 1];
+    }
+
+    public int size() {
+        return cdf.length;
+    }
+}
@@ -0,0 +1,54 @@
+package com.loadtest;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+@DisplayName("Zipf Generator Tests")
+class ZipfGeneratorTest {
+
+    @Test
+    @DisplayName("Should skew samples towards the lowest ranks")
+    void shouldSkewTowardsLowRanks() {
+        // Given
+        ZipfGenerator zipf = new ZipfGenerator(100, 1.2);
+        SplittableRandom random = new SplittableRandom(42);
+        int[] counts = new int[100];
+
+        // When
+        int samples = 200_000;
+        for (int i = 0; i < samples; i++) {
+            counts[zipf.next(random)]++;
+        }
+
+        // Then
+        assertThat(counts[0]).isGreaterThan(counts[1]);
+        assertThat(counts[1]).isGreaterThan(counts[10]);
+        assertThat((double) counts[0] / samples).isCloseTo(zipf.probability(0), within(0.01));
+    }
+
+    @Test
+    @DisplayName("Should be uniform with exponent zero")
+    void shouldBeUniformWithZeroExponent() {
+        ZipfGenerator zipf = new ZipfGenerator(4, 0);
+
+        for (int rank = 0; rank < 4; rank++) {
+            assertThat(zipf.probability(rank)).isCloseTo(0.25, within(1e-9));
+        }
+    }
+
+    @Test
+    @DisplayName("Should always return a rank within the population")
+    void shouldStayWithinBounds() {
+        ZipfGenerator zipf = new ZipfGenerator(3, 2.0);
+        SplittableRandom random = new SplittableRandom(7);
+
+        for (int i = 0; i < 10_000; i++) {
+            assertThat(zipf.next(random)).isBetween(0, 2);
+        }
+    }
+}
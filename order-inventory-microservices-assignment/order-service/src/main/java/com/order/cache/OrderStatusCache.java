@@ -0,0 +1,179 @@
+package com.order.cache;
+
+import com.order.dto.OrderCacheMetrics;
+import com.order.dto.OrderResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Bounded, sharded in-memory store of recently written orders, keyed by orderId.
+ * Each shard is an insertion-ordered map behind its own lock, so the eldest entry is
+ * always the least recently written one: size eviction drops it, and age eviction
+ * trims expired entries from the head on every write.
+ * Cached responses are shared between callers and must be treated as read-only.
+ */
+@Component
+@Slf4j
+public class OrderStatusCache {
+
+    private final Shard[] shards;
+    private final int shardMask;
+    private final int maxSizePerShard;
+    private final long ttlNanos;
+    private final LongSupplier nanoClock;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder puts = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+
+    @Autowired
+    public OrderStatusCache(@Value("${order.cache.max-size:100000}") int maxSize,
+                            @Value("${order.cache.ttl:10m}") Duration ttl,
+                            @Value("${order.cache.shards:16}") int shardCount) {
+        this(maxSize, ttl, shardCount, System::nanoTime);
+    }
+
+    OrderStatusCache(int maxSize, Duration ttl, int shardCount, LongSupplier nanoClock) {
+        int count = 1;
+        while (count < shardCount) {
+            count <<= 1;
+        }
+        this.shards = new Shard[count];
+        for (int i = 0; i < count; i++) {
+            shards[i] = new Shard();
+        }
+        this.shardMask = count - 1;
+        this.maxSizePerShard = Math.max(1, maxSize / count);
+        this.ttlNanos = ttl.toNanos();
+        this.nanoClock = nanoClock;
+        log.info("Order status cache: {} shards x {} entries, ttl {}", count, maxSizePerShard, ttl);
+    }
+
+    /**
+     * Look up a cached order. Entries older than the TTL count as misses.
+     *
+     * @param orderId The order identifier
+     * @return The cached order, if present and fresh
+     */
+    public Optional<OrderResponse> get(String orderId) {
+        Shard shard = shardFor(orderId);
+        long now = nanoClock.getAsLong();
+        synchronized (shard) {
+            Entry entry = shard.get(orderId);
+            if (entry != null && now - entry.writtenAt > ttlNanos) {
+                shard.remove(orderId);
+                expirations.increment();
+                entry = null;
+            }
+            if (entry == null) {
+                misses.increment();
+                return Optional.empty();
+            }
+            hits.increment();
+            return Optional.of(entry.value);
+        }
+    }
+
+    /**
+     * Store the latest state of an order, replacing any previous entry.
+     *
+     * @param order The order to cache
+     */
+    public void put(OrderResponse order) {
+        Shard shard = shardFor(order.getOrderId());
+        long now = nanoClock.getAsLong();
+        synchronized (shard) {
+            // Re-insert so the entry moves to the tail and the head stays the oldest write
+            shard.remove(order.getOrderId());
+            shard.put(order.getOrderId(), new Entry(order, now));
+            expireHead(shard, now);
+        }
+        puts.increment();
+    }
+
+    /**
+     * Drop an order from the cache.
+     *
+     * @param orderId The order identifier
+     */
+    public void invalidate(String orderId) {
+        Shard shard = shardFor(orderId);
+        synchronized (shard) {
+            shard.remove(orderId);
+        }
+    }
+
+    /**
+     * Snapshot the cache counters.
+     *
+     * @return Cache metrics
+     */
+    public OrderCacheMetrics metrics() {
+        long size = 0;
+        for (Shard shard : shards) {
+            synchronized (shard) {
+                size += shard.size();
+            }
+        }
+        long hitCount = hits.sum();
+        long missCount = misses.sum();
+        long lookups = hitCount + missCount;
+        return OrderCacheMetrics.builder()
+                .size(size)
+                .maxSize((long) maxSizePerShard * shards.length)
+                .shards(shards.length)
+                .hits(hitCount)
+                .misses(missCount)
+                .hitRate(lookups == 0 ? 0.0 : (double) hitCount / lookups)
+                .puts(puts.sum())
+                .evictions(evictions.sum())
+                .expirations(expirations.sum())
+                .build();
+    }
+
+    private void expireHead(Shard shard, long now) {
+        Iterator<Entry> it = shard.values().iterator();
+        while (it.hasNext()) {
+            Entry eldest = it.next();
+            if (now - eldest.writtenAt <= ttlNanos) {
+                break;
+            }
+            it.remove();
+            expirations.increment();
+        }
+    }
+
+    private Shard shardFor(String orderId) {
+        int h = orderId.hashCode();
+        return shards[(h ^ (h >>> 16)) & shardMask];
+    }
+
+    private record Entry(OrderResponse value, long writtenAt) {
+    }
+
+    private final class Shard extends LinkedHashMap<String, Entry> {
+
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+            if (size() > maxSizePerShard) {
+                evictions.increment();
+                return true;
+            }
+            return false;
+        }
+    }
+}
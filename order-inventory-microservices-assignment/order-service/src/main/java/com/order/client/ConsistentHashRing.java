@@ -0,0 +1,93 @@
+package com.order.client;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Immutable consistent-hash ring over shard ids.
+ * Every shard is placed at a number of virtual node positions, so keys spread evenly over the
+ * shards and adding or removing a shard only moves the keys that hash next to its positions,
+ * roughly 1/N of them. To change membership, build a new ring.
+ * Order Service and Inventory Service must hash identically, since both route by this ring.
+ */
+public final class ConsistentHashRing {
+
+    private final long[] positions;
+    private final String[] owners;
+    private final Set<String> nodes;
+
+    /**
+     * @param nodes Shard ids
+     * @param virtualNodes Positions per shard on the ring
+     */
+    public ConsistentHashRing(Collection<String> nodes, int virtualNodes) {
+        if (virtualNodes < 1) {
+            throw new IllegalArgumentException("Virtual nodes per shard must be positive");
+        }
+        // Sorted, so hash collisions resolve to the same shard in every service
+        Set<String> sortedNodes = new TreeSet<>(nodes);
+        TreeMap<Long, String> points = new TreeMap<>();
+        for (String node : sortedNodes) {
+            for (int i = 0; i < virtualNodes; i++) {
+                points.putIfAbsent(hash(node + "#" + i), node);
+            }
+        }
+        this.positions = new long[points.size()];
+        this.owners = new String[points.size()];
+        int index = 0;
+        for (Map.Entry<Long, String> point : points.entrySet()) {
+            positions[index] = point.getKey();
+            owners[index] = point.getValue();
+            index++;
+        }
+        this.nodes = Collections.unmodifiableSet(sortedNodes);
+    }
+
+    /**
+     * Shard owning the key: the first ring position at or after the key's hash, wrapping around.
+     *
+     * @param key The key, e.g. a product id
+     * @return Shard id
+     */
+    public String nodeFor(String key) {
+        if (positions.length == 0) {
+            throw new IllegalStateException("Hash ring has no shards");
+        }
+        int index = Arrays.binarySearch(positions, hash(key));
+        if (index < 0) {
+            index = -index - 1;
+            if (index == positions.length) {
+                index = 0;
+            }
+        }
+        return owners[index];
+    }
+
+    public Set<String> getNodes() {
+        return nodes;
+    }
+
+    /**
+     * 64-bit FNV-1a over the UTF-8 bytes, followed by the MurmurHash3 finalizer so that similar
+     * keys such as PROD-001 and PROD-002 land far apart.
+     */
+    static long hash(String key) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xff;
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb3fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
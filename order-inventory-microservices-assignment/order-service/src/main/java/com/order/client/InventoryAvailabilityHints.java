@@ -0,0 +1,124 @@
+package com.order.client;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Short-lived knowledge about products learned from Inventory Service responses:
+ * products it does not know (negative cache) and an upper bound on stock for products
+ * that recently ran short. Orders that would certainly fail can then be rejected locally.
+ * Hints expire on their own and are dropped on any successful deduction or explicit
+ * invalidation (e.g. a restock), so they can only ever delay, never wrongly confirm, an order.
+ */
+@Component
+@Slf4j
+public class InventoryAvailabilityHints {
+
+    private final Map<String, Hint> hints = new ConcurrentHashMap<>();
+    private final long unknownProductTtlNanos;
+    private final long stockTtlNanos;
+    private final int maxEntries;
+    private final LongSupplier nanoClock;
+    private final LongAdder rejections = new LongAdder();
+
+    @Autowired
+    public InventoryAvailabilityHints(@Value("${inventory.client.hints.unknown-product-ttl:30s}") Duration unknownProductTtl,
+                                      @Value("${inventory.client.hints.stock-ttl:5s}") Duration stockTtl,
+                                      @Value("${inventory.client.hints.max-entries:10000}") int maxEntries) {
+        this(unknownProductTtl, stockTtl, maxEntries, System::nanoTime);
+    }
+
+    InventoryAvailabilityHints(Duration unknownProductTtl, Duration stockTtl, int maxEntries, LongSupplier nanoClock) {
+        this.unknownProductTtlNanos = unknownProductTtl.toNanos();
+        this.stockTtlNanos = stockTtl.toNanos();
+        this.maxEntries = maxEntries;
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * Reason the order cannot succeed, if a fresh hint says so.
+     *
+     * @param productId The product identifier
+     * @param quantity Requested quantity
+     * @return Rejection reason, or empty if the order should be sent to Inventory Service
+     */
+    public Optional<String> rejectionReason(String productId, int quantity) {
+        Hint hint = hints.get(productId);
+        if (hint == null) {
+            return Optional.empty();
+        }
+        if (nanoClock.getAsLong() - hint.expiresAt >= 0) {
+            hints.remove(productId, hint);
+            return Optional.empty();
+        }
+        if (hint.unknownProduct) {
+            rejections.increment();
+            return Optional.of("Product not found in inventory");
+        }
+        if (quantity > hint.maxAvailable) {
+            rejections.increment();
+            return Optional.of("Insufficient inventory: Required: " + quantity
+                    + ", Available: " + hint.maxAvailable);
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Record that Inventory Service does not know the product.
+     */
+    public void recordUnknownProduct(String productId) {
+        put(productId, new Hint(true, 0, nanoClock.getAsLong() + unknownProductTtlNanos));
+    }
+
+    /**
+     * Record that the product has at most the given quantity available.
+     */
+    public void recordMaxAvailable(String productId, long maxAvailable) {
+        put(productId, new Hint(false, maxAvailable, nanoClock.getAsLong() + stockTtlNanos));
+    }
+
+    /**
+     * Forget everything known about a product, e.g. after a successful deduction or a restock.
+     */
+    public void invalidate(String productId) {
+        hints.remove(productId);
+    }
+
+    /**
+     * Forget everything, e.g. when the source of the hints can no longer be trusted.
+     */
+    public void invalidateAll() {
+        hints.clear();
+    }
+
+    /**
+     * Number of orders rejected locally from hints.
+     */
+    public long getRejectionCount() {
+        return rejections.sum();
+    }
+
+    private void put(String productId, Hint hint) {
+        if (hints.size() >= maxEntries) {
+            long now = nanoClock.getAsLong();
+            hints.values().removeIf(h -> now - h.expiresAt >= 0);
+            if (hints.size() >= maxEntries) {
+                log.debug("Availability hint store full, not recording hint for {}", productId);
+                return;
+            }
+        }
+        hints.put(productId, hint);
+    }
+
+    private record Hint(boolean unknownProduct, long maxAvailable, long expiresAt) {
+    }
+}
@@ -0,0 +1,153 @@
+package com.order.client;
+
+import com.order.dto.InventoryChangeEvent;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Follows the Inventory Service change feed with long polls and drops availability hints for
+ * products that were restocked, so a restock is visible to order placement right away instead
+ * of after the hint expires. Every Inventory Service instance has its own feed, so each one is
+ * followed by its own thread with its own cursor.
+ */
+@Component
+@Slf4j
+public class InventoryChangeListener {
+
+    private static final Duration MAX_BACKOFF = Duration.ofSeconds(30);
+
+    private final WebClient.Builder webClientBuilder;
+    private final InventoryAvailabilityHints availabilityHints;
+    private final InventoryRouter router;
+    private final boolean enabled;
+    private final Duration pollWait;
+    private final Map<String, Long> cursors = new ConcurrentHashMap<>();
+    private final List<Thread> threads = new ArrayList<>();
+
+    private volatile boolean running;
+
+    @Autowired
+    public InventoryChangeListener(WebClient.Builder webClientBuilder,
+                                   InventoryAvailabilityHints availabilityHints,
+                                   InventoryRouter router,
+                                   @Value("${inventory.client.changes.enabled:false}") boolean enabled,
+                                   @Value("${inventory.client.changes.poll-wait:20s}") Duration pollWait) {
+        this.webClientBuilder = webClientBuilder;
+        this.availabilityHints = availabilityHints;
+        this.router = router;
+        this.enabled = enabled;
+        this.pollWait = pollWait;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() {
+        if (!enabled || running) {
+            return;
+        }
+        running = true;
+        for (String baseUrl : router.allBaseUrls()) {
+            Thread thread = new Thread(() -> run(baseUrl), "inventory-change-listener-" + threads.size());
+            thread.setDaemon(true);
+            thread.start();
+            threads.add(thread);
+        }
+    }
+
+    @PreDestroy
+    public synchronized void stop() {
+        running = false;
+        threads.forEach(Thread::interrupt);
+        threads.clear();
+    }
+
+    private void run(String baseUrl) {
+        Duration backoff = Duration.ofSeconds(1);
+        boolean failing = false;
+        while (running) {
+            try {
+                pollOnce(baseUrl);
+                backoff = Duration.ofSeconds(1);
+                if (failing) {
+                    log.info("Inventory change feed at {} reachable again at sequence {}", baseUrl, cursors.get(baseUrl));
+                    failing = false;
+                }
+            } catch (Exception e) {
+                if (!running) {
+                    return;
+                }
+                if (!failing) {
+                    log.warn("Inventory change feed at {} unavailable, retrying: {}", baseUrl, e.getMessage());
+                    failing = true;
+                }
+                try {
+                    Thread.sleep(backoff.toMillis());
+                } catch (InterruptedException ie) {
+                    return;
+                }
+                backoff = backoff.multipliedBy(2).compareTo(MAX_BACKOFF) > 0 ? MAX_BACKOFF : backoff.multipliedBy(2);
+            }
+        }
+    }
+
+    /**
+     * Fetch the next page of changes from one instance, waiting on the server for new ones, and apply them.
+     */
+    void pollOnce(String baseUrl) {
+        Long cursor = cursors.get(baseUrl);
+        UriComponentsBuilder uri = UriComponentsBuilder.fromHttpUrl(baseUrl)
+                .path("/inventory/changes")
+                .queryParam("waitSeconds", pollWait.toSeconds());
+        if (cursor != null) {
+            uri.queryParam("since", cursor);
+        }
+
+        ResponseEntity<List<InventoryChangeEvent>> response = webClientBuilder.build()
+                .get()
+                .uri(uri.toUriString())
+                .accept(MediaType.APPLICATION_NDJSON)
+                .retrieve()
+                .toEntityList(InventoryChangeEvent.class)
+                .block(pollWait.plusSeconds(5));
+        if (response == null) {
+            return;
+        }
+
+        String header = response.getHeaders().getFirst("X-Last-Sequence");
+        long lastSequence = header != null ? Long.parseLong(header) : 0;
+        apply(baseUrl, response.getBody() != null ? response.getBody() : List.of(), lastSequence);
+    }
+
+    void apply(String baseUrl, List<InventoryChangeEvent> events, long lastSequence) {
+        Long cursor = cursors.get(baseUrl);
+        if (cursor != null && lastSequence < cursor) {
+            // The feed restarted without its journal; anything learned since may be stale
+            log.info("Inventory change feed at {} restarted at sequence {}, dropping availability hints",
+                    baseUrl, lastSequence);
+            availabilityHints.invalidateAll();
+            cursors.put(baseUrl, lastSequence);
+            return;
+        }
+        for (InventoryChangeEvent event : events) {
+            if ("RESTOCK".equals(event.getType())) {
+                availabilityHints.invalidate(event.getProductId());
+            }
+            cursor = event.getSequence();
+        }
+        cursors.put(baseUrl, cursor != null ? cursor : lastSequence);
+    }
+}
@@ -1,73 +1,257 @@
 package com.order.client;
 
+import com.order.dto.InventoryAvailabilityResponse;
+import com.order.dto.InventoryBatchResponse;
 import com.order.dto.InventoryUpdateRequest;
 import com.order.dto.InventoryUpdateResponse;
+import com.order.exception.InventoryOverloadedException;
+import com.order.exception.InventoryRejectedException;
 import com.order.exception.InventoryServiceException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.ClientResponse;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.time.Duration;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 /**
  * Client for communicating with the Inventory Service.
  * Uses WebClient for non-blocking HTTP communication.
+ * Product requests go to the instance of the shard owning the product, as chosen by {@link InventoryRouter}.
+ * A 503 with Retry-After means Inventory Service shed the request before doing anything, so it is
+ * reported as a rejection, not an unknown outcome, and retried once if the wait is short enough.
+ * Deductions are sent and answered in Smile, the binary form of JSON, unless the wire format is set
+ * to json. Inventory Service answers errors in JSON either way.
  */
 @Component
 @RequiredArgsConstructor
 @Slf4j
 public class InventoryClient {
 
+    private static final Pattern AVAILABLE_QUANTITY = Pattern.compile("Available: (\\d+)");
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(5);
+    static final MediaType APPLICATION_SMILE = MediaType.parseMediaType("application/x-jackson-smile");
+    private static final ParameterizedTypeReference<List<InventoryBatchResponse>> BATCH_LIST =
+            new ParameterizedTypeReference<>() {};
+
     private final WebClient.Builder webClientBuilder;
+    private final InventoryAvailabilityHints availabilityHints;
+    private final InventoryRouter router;
+
+    @Value("${inventory.client.wire-format:smile}")
+    private String wireFormat;
+
+    @Value("${inventory.client.overload-retry-max-wait:1s}")
+    private Duration overloadRetryMaxWait = Duration.ofSeconds(1);
 
-    @Value("${inventory.service.url}")
-    private String inventoryServiceUrl;
+    /**
+     * Reject an order locally if recent Inventory Service responses show it cannot succeed,
+     * i.e. the product is unknown or has less stock than requested.
+     *
+     * @param productId The product identifier
+     * @param quantity Requested quantity
+     * @throws InventoryRejectedException if the order is known to fail
+     */
+    public void precheck(String productId, int quantity) {
+        availabilityHints.rejectionReason(productId, quantity).ifPresent(reason -> {
+            log.info("Rejecting order for product {} locally: {}", productId, reason);
+            throw new InventoryRejectedException(reason);
+        });
+    }
 
     /**
      * Update inventory for an order.
      * 
      * @param request The inventory update request
      * @return The inventory update response
+     * @throws InventoryRejectedException if Inventory Service answered that nothing was deducted,
+     *         including {@link InventoryOverloadedException} when it was still overloaded on retry
+     * @throws InventoryServiceException if the outcome is unknown, e.g. on a timeout or server error
      */
     public InventoryUpdateResponse updateInventory(InventoryUpdateRequest request) {
         log.info("Calling Inventory Service to update inventory for product: {}", request.getProductId());
         
+        String productId = request.getProductId();
         try {
-            return webClientBuilder.build()
+            Mono<InventoryUpdateResponse> call = webClientBuilder.build()
                     .post()
-                    .uri(inventoryServiceUrl + "/inventory/update")
+                    .uri(router.baseUrlFor(productId) + "/inventory/update")
+                    .contentType(updateMediaType())
+                    .accept(updateMediaType(), MediaType.APPLICATION_JSON)
                     .bodyValue(request)
                     .retrieve()
                     .onStatus(HttpStatus.NOT_FOUND::equals, 
-                            response -> Mono.error(new InventoryServiceException("Product not found in inventory")))
+                            res -> res.bodyToMono(String.class).defaultIfEmpty("")
+                                    .flatMap(body -> Mono.error(notFound(productId, body))))
                     .onStatus(HttpStatus.BAD_REQUEST::equals,
-                            response -> response.bodyToMono(String.class)
-                                    .flatMap(body -> Mono.error(new InventoryServiceException("Insufficient inventory: " + body))))
-                    .onStatus(x -> x.isError(),
-                            response -> Mono.error(new InventoryServiceException("Inventory service error")))
+                            res -> res.bodyToMono(String.class).defaultIfEmpty("")
+                                    .flatMap(body -> Mono.error(insufficient(productId, body))))
+                    .onStatus(x -> x.isError(), this::error)
                     .bodyToMono(InventoryUpdateResponse.class)
-                    .timeout(Duration.ofSeconds(5))
-                    .block();
+                    .timeout(REQUEST_TIMEOUT);
+            InventoryUpdateResponse response = retryIfShed(call).block();
+            availabilityHints.invalidate(productId);
+            return response;
+        } catch (InventoryRejectedException e) {
+            log.info("Inventory Service rejected deduction for product {}: {}", productId, e.getMessage());
+            throw e;
+        } catch (Exception e) {
+            log.error("Error calling Inventory Service: {}", e.getMessage(), e);
+            throw new InventoryServiceException("Failed to communicate with Inventory Service: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Get the inventory batches of a product.
+     *
+     * @param productId The product identifier
+     * @return Batches of the product, including expired ones
+     */
+    public List<InventoryBatchResponse> getInventoryBatches(String productId) {
+        return get(productId, BATCH_LIST, "/inventory/{productId}", productId);
+    }
+
+    /**
+     * Get the available stock of a product. The answer is kept as an availability hint.
+     *
+     * @param productId The product identifier
+     * @param quantity Quantity the caller wants to know about
+     * @return Available quantity and whether the quantity can be fulfilled
+     */
+    public InventoryAvailabilityResponse getAvailability(String productId, int quantity) {
+        InventoryAvailabilityResponse response = get(productId,
+                ParameterizedTypeReference.forType(InventoryAvailabilityResponse.class),
+                "/inventory/{productId}/available?quantity={quantity}", productId, quantity);
+        if (response != null && response.getAvailableQuantity() != null) {
+            availabilityHints.recordMaxAvailable(productId, response.getAvailableQuantity());
+        }
+        return response;
+    }
+
+    private <T> T get(String productId, ParameterizedTypeReference<T> type, String path, Object... uriVariables) {
+        try {
+            Mono<T> call = webClientBuilder.build()
+                    .get()
+                    .uri(router.baseUrlFor(productId) + path, uriVariables)
+                    .retrieve()
+                    .onStatus(HttpStatus.NOT_FOUND::equals,
+                            res -> res.bodyToMono(String.class).defaultIfEmpty("")
+                                    .flatMap(body -> Mono.error(notFound(productId, body))))
+                    .onStatus(x -> x.isError(), this::error)
+                    .bodyToMono(type)
+                    .timeout(REQUEST_TIMEOUT);
+            return retryIfShed(call).block();
+        } catch (InventoryServiceException e) {
+            throw e;
         } catch (Exception e) {
             log.error("Error calling Inventory Service: {}", e.getMessage(), e);
             throw new InventoryServiceException("Failed to communicate with Inventory Service: " + e.getMessage());
         }
     }
 
+    /**
+     * Send the request again after Retry-After when Inventory Service shed it, once, and only if the
+     * wait is at most overload-retry-max-wait. A shard is a single instance, so the retry goes to the
+     * same one.
+     */
+    private <T> Mono<T> retryIfShed(Mono<T> call) {
+        return call.onErrorResume(InventoryOverloadedException.class, e -> {
+            if (e.getRetryAfter().compareTo(overloadRetryMaxWait) > 0) {
+                return Mono.error(e);
+            }
+            log.info("Inventory Service is overloaded, retrying in {} ms", e.getRetryAfter().toMillis());
+            return Mono.delay(e.getRetryAfter()).then(call);
+        });
+    }
+
+    /**
+     * A 503 with Retry-After comes from Inventory Service's concurrency limit and guarantees nothing
+     * was done. Any other error leaves the outcome unknown.
+     */
+    private Mono<? extends Throwable> error(ClientResponse response) {
+        String retryAfter = response.headers().asHttpHeaders().getFirst(HttpHeaders.RETRY_AFTER);
+        if (response.statusCode().value() == HttpStatus.SERVICE_UNAVAILABLE.value() && retryAfter != null) {
+            try {
+                Duration wait = Duration.ofSeconds(Long.parseLong(retryAfter.trim()));
+                return response.releaseBody().then(Mono.error(new InventoryOverloadedException(
+                        "Inventory Service is overloaded, retry after " + wait.toSeconds() + "s", wait)));
+            } catch (NumberFormatException e) {
+                // An HTTP date is not what the concurrency limit sends, so this 503 came from elsewhere
+            }
+        }
+        return response.releaseBody().then(Mono.error(new InventoryServiceException("Inventory service error")));
+    }
+
+    private MediaType updateMediaType() {
+        return "json".equalsIgnoreCase(wireFormat) ? MediaType.APPLICATION_JSON : APPLICATION_SMILE;
+    }
+
+    private InventoryRejectedException notFound(String productId, String body) {
+        // Inventory Service answers 404 both for unknown products and for products with no usable batches
+        if (body.contains("No available inventory")) {
+            availabilityHints.recordMaxAvailable(productId, 0);
+            return new InventoryRejectedException("No available inventory for product");
+        }
+        availabilityHints.recordUnknownProduct(productId);
+        return new InventoryRejectedException("Product not found in inventory");
+    }
+
+    private InventoryRejectedException insufficient(String productId, String body) {
+        Matcher matcher = AVAILABLE_QUANTITY.matcher(body);
+        if (matcher.find()) {
+            availabilityHints.recordMaxAvailable(productId, Long.parseLong(matcher.group(1)));
+        }
+        return new InventoryRejectedException("Insufficient inventory: " + body);
+    }
+
+    /**
+     * Open connections to Inventory Service ahead of traffic by sending concurrent health checks
+     * to every instance. Connections return to the shared pool afterwards and are reused by
+     * order placement.
+     *
+     * @param connections Number of concurrent requests per instance
+     * @return Number of requests that got a response
+     */
+    public long warmUpConnections(int connections) {
+        WebClient webClient = webClientBuilder.build();
+        List<String> baseUrls = router.allBaseUrls();
+        int parallelism = Math.max(1, connections * baseUrls.size());
+        Long answered = Flux.fromIterable(baseUrls)
+                .flatMap(baseUrl -> Flux.range(0, connections).map(i -> baseUrl))
+                .flatMap(baseUrl -> webClient.get()
+                        .uri(baseUrl + "/inventory/health")
+                        .exchangeToMono(response -> response.releaseBody().thenReturn(1))
+                        .onErrorResume(e -> Mono.empty()), parallelism)
+                .count()
+                .block(Duration.ofSeconds(5));
+        return answered != null ? answered : 0;
+    }
+
     /**
      * Check inventory service health.
      * 
-     * @return true if service is available, false otherwise
+     * @return true if every instance is available, false otherwise
      */
     public boolean checkHealth() {
+        return router.allBaseUrls().stream().allMatch(this::checkHealth);
+    }
+
+    private boolean checkHealth(String baseUrl) {
         try {
             String response = webClientBuilder.build()
                     .get()
-                    .uri(inventoryServiceUrl + "/inventory/health")
+                    .uri(baseUrl + "/inventory/health")
                     .retrieve()
                     .bodyToMono(String.class)
                     .timeout(Duration.ofSeconds(3))
@@ -75,7 +259,7 @@ public class InventoryClient {
             
             return response != null && response.contains("running");
         } catch (Exception e) {
-            log.warn("Inventory Service health check failed: {}", e.getMessage());
+            log.warn("Inventory Service health check failed for {}: {}", baseUrl, e.getMessage());
             return false;
         }
     }
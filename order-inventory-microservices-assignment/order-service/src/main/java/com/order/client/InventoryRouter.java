@@ -0,0 +1,101 @@
+package com.order.client;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Picks the Inventory Service instance for a product.
+ * Products are spread over the configured shards with a consistent-hash ring, so each product's
+ * stock lives on exactly one shard and writes scale with the number of shards. Each shard is a
+ * single instance: its database, stock counters, response versions and change feed are not shared
+ * with any other instance, so there are no replicas to spread requests over. Without configured
+ * shards everything goes to inventory.service.url. Membership is fixed at start-up, like the ownership check Inventory
+ * Service runs against the same configuration, so both always agree on the owner.
+ */
+@Component
+@Slf4j
+public class InventoryRouter {
+
+    private final String defaultUrl;
+    private final Topology topology;
+
+    @Autowired
+    public InventoryRouter(ShardingProperties properties,
+                           @Value("${inventory.service.url}") String defaultUrl) {
+        this.defaultUrl = defaultUrl;
+        this.topology = Topology.of(properties.getShards(), properties.getVirtualNodes());
+        if (topology.ring != null) {
+            log.info("Routing inventory requests over shards {}", topology.ring.getNodes());
+        }
+    }
+
+    /**
+     * Base URL of the instance of the shard owning the product.
+     *
+     * @param productId The product identifier
+     * @return Base URL, e.g. http://localhost:8081
+     */
+    public String baseUrlFor(String productId) {
+        if (topology.ring == null) {
+            return defaultUrl;
+        }
+        return topology.shards.get(topology.ring.nodeFor(productId));
+    }
+
+    /**
+     * Shard owning the product, or null when sharding is off.
+     *
+     * @param productId The product identifier
+     * @return Shard id
+     */
+    public String shardFor(String productId) {
+        return topology.ring != null ? topology.ring.nodeFor(productId) : null;
+    }
+
+    /**
+     * Base URLs of every instance, for health checks, connection warm-up and change feeds.
+     *
+     * @return Base URLs, one per shard
+     */
+    public List<String> allBaseUrls() {
+        if (topology.ring == null) {
+            return List.of(defaultUrl);
+        }
+        return List.copyOf(topology.shards.values());
+    }
+
+    private static final class Topology {
+
+        private final ConsistentHashRing ring;
+        private final Map<String, String> shards;
+
+        private Topology(ConsistentHashRing ring, Map<String, String> shards) {
+            this.ring = ring;
+            this.shards = shards;
+        }
+
+        private static Topology of(Map<String, String> configured, int virtualNodes) {
+            Map<String, String> shards = new LinkedHashMap<>();
+            configured.forEach((shard, url) -> {
+                if (url == null || url.isBlank()) {
+                    throw new IllegalArgumentException("Inventory shard " + shard + " has no instance");
+                }
+                if (shards.containsValue(url)) {
+                    throw new IllegalArgumentException("Inventory shard " + shard + " shares instance " + url
+                            + " with another shard");
+                }
+                shards.put(shard, url);
+            });
+            if (shards.isEmpty()) {
+                return new Topology(null, Map.of());
+            }
+            return new Topology(new ConsistentHashRing(shards.keySet(), virtualNodes), shards);
+        }
+    }
+}
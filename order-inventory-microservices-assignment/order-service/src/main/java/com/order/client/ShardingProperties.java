@@ -0,0 +1,29 @@
+package com.order.client;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Inventory shard layout, shared with Inventory Service under the same property names.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "inventory.sharding")
+public class ShardingProperties {
+
+    /**
+     * Shard id to the base URL of the one instance serving it. Instances keep their own database,
+     * stock counters and change feed, so a shard cannot be spread over several of them.
+     * When empty, every request goes to inventory.service.url.
+     */
+    private Map<String, String> shards = new LinkedHashMap<>();
+
+    /**
+     * Positions per shard on the hash ring.
+     */
+    private int virtualNodes = 128;
+}
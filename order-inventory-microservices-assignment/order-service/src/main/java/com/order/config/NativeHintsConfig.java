@@ -0,0 +1,30 @@
+package com.order.config;
+
+import com.order.dto.BulkOrderResult;
+import com.order.dto.InventoryAvailabilityResponse;
+import com.order.dto.InventoryBatchResponse;
+import com.order.dto.InventoryChangeEvent;
+import com.order.dto.InventoryUpdateRequest;
+import com.order.dto.InventoryUpdateResponse;
+import com.order.dto.MovementTotals;
+import com.order.dto.OrderRequest;
+import org.springframework.aot.hint.annotation.RegisterReflectionForBinding;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Hints for a GraalVM native image that Spring AOT cannot infer on its own: types that are
+ * (de)serialized outside controller method signatures, i.e. by WebClient or the NDJSON bulk import.
+ */
+@Configuration(proxyBeanMethods = false)
+@RegisterReflectionForBinding({
+        InventoryUpdateRequest.class,
+        InventoryUpdateResponse.class,
+        InventoryBatchResponse.class,
+        InventoryAvailabilityResponse.class,
+        InventoryChangeEvent.class,
+        MovementTotals.class,
+        OrderRequest.class,
+        BulkOrderResult.class
+})
+public class NativeHintsConfig {
+}
@@ -0,0 +1,67 @@
+package com.order.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.boot.context.metrics.buffering.StartupTimeline;
+import org.springframework.context.ApplicationStartupAware;
+import org.springframework.core.metrics.ApplicationStartup;
+import org.springframework.core.metrics.StartupStep;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Logs the slowest startup steps recorded by the BufferingApplicationStartup installed in
+ * OrderServiceApplication, e.g. Flyway migration, EntityManagerFactory or springdoc setup.
+ * Runs once all singletons exist, which is also the point where an AppCDS training run
+ * (-Dspring.context.exit=onRefresh) stops. A step's duration includes the beans it created.
+ */
+@Component
+@Slf4j
+public class StartupReport implements SmartInitializingSingleton, ApplicationStartupAware {
+
+    private final int steps;
+    private ApplicationStartup applicationStartup;
+
+    public StartupReport(@Value("${order.startup.report-steps:15}") int steps) {
+        this.steps = steps;
+    }
+
+    @Override
+    public void setApplicationStartup(ApplicationStartup applicationStartup) {
+        this.applicationStartup = applicationStartup;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (steps <= 0 || !(applicationStartup instanceof BufferingApplicationStartup buffering)) {
+            return;
+        }
+        StartupTimeline timeline = buffering.drainBufferedTimeline();
+        Map<String, Duration> durations = new HashMap<>();
+        for (StartupTimeline.TimelineEvent event : timeline.getEvents()) {
+            durations.merge(describe(event.getStartupStep()), event.getDuration(), Duration::plus);
+        }
+
+        StringBuilder report = new StringBuilder("Slowest startup steps:");
+        durations.entrySet().stream()
+                .sorted(Map.Entry.<String, Duration>comparingByValue().reversed())
+                .limit(steps)
+                .forEach(entry -> report.append(String.format("%n  %6d ms  %s",
+                        entry.getValue().toMillis(), entry.getKey())));
+        log.info(report.toString());
+    }
+
+    private String describe(StartupStep step) {
+        for (StartupStep.Tag tag : step.getTags()) {
+            if ("beanName".equals(tag.getKey())) {
+                return step.getName() + " " + tag.getValue();
+            }
+        }
+        return step.getName();
+    }
+}
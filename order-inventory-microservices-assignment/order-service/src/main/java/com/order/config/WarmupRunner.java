@@ -0,0 +1,155 @@
+package com.order.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.order.client.InventoryClient;
+import com.order.dto.OrderRequest;
+import com.order.dto.OrderResponse;
+import com.order.model.Order;
+import com.order.model.OrderStatus;
+import com.order.repository.OrderRepository;
+import com.order.service.OrderService;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+
+/**
+ * Exercises the hot request paths before the service reports ready, so the first real orders do not
+ * pay for interpreted code, lazy class loading and cold Hibernate and Jackson caches, and opens
+ * connections to Inventory Service ahead of time.
+ * Spring Boot switches readiness to ACCEPTING_TRAFFIC only after all ApplicationRunners have
+ * completed, and /order/health answers 503 until then.
+ * Orders are written in transactions that are flushed and then rolled back, and Inventory Service
+ * only sees health checks, so no stock is deducted.
+ */
+@Component
+@Slf4j
+public class WarmupRunner implements ApplicationRunner {
+
+    private final OrderService orderService;
+    private final OrderRepository orderRepository;
+    private final InventoryClient inventoryClient;
+    private final TransactionTemplate rollbackTemplate;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final Environment environment;
+    private final boolean enabled;
+    private final int iterations;
+    private final Duration maxDuration;
+    private final int connections;
+
+    public WarmupRunner(OrderService orderService,
+                        OrderRepository orderRepository,
+                        InventoryClient inventoryClient,
+                        PlatformTransactionManager transactionManager,
+                        ObjectMapper objectMapper,
+                        Validator validator,
+                        Environment environment,
+                        @Value("${order.warmup.enabled:true}") boolean enabled,
+                        @Value("${order.warmup.iterations:2000}") int iterations,
+                        @Value("${order.warmup.max-duration:30s}") Duration maxDuration,
+                        @Value("${order.warmup.connections:8}") int connections) {
+        this.orderService = orderService;
+        this.orderRepository = orderRepository;
+        this.inventoryClient = inventoryClient;
+        this.rollbackTemplate = new TransactionTemplate(transactionManager);
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.environment = environment;
+        this.enabled = enabled;
+        this.iterations = iterations;
+        this.maxDuration = maxDuration;
+        this.connections = connections;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!enabled) {
+            return;
+        }
+        long start = System.nanoTime();
+        if (connections > 0) {
+            log.info("Warm-up opened {} of {} connections to Inventory Service",
+                    inventoryClient.warmUpConnections(connections), connections);
+        }
+
+        HttpClient httpClient = HttpClient.newHttpClient();
+        String baseUrl = localBaseUrl();
+        long deadline = start + maxDuration.toNanos();
+        int completed = 0;
+        int failed = 0;
+        while (completed < iterations && System.nanoTime() - deadline < 0) {
+            try {
+                warmUp(completed);
+                if (baseUrl != null) {
+                    httpClient.send(HttpRequest.newBuilder(URI.create(baseUrl + "/order?limit=20")).GET().build(),
+                            HttpResponse.BodyHandlers.discarding());
+                }
+            } catch (RuntimeException | IOException e) {
+                if (failed++ == 0) {
+                    log.debug("Warm-up iteration failed: {}", e.getMessage());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            completed++;
+        }
+        log.info("Warm-up finished: {} iterations ({} failed) in {} ms",
+                completed, failed, Duration.ofNanos(System.nanoTime() - start).toMillis());
+    }
+
+    private void warmUp(int iteration) throws IOException {
+        OrderRequest request = objectMapper.readValue(objectMapper.writeValueAsBytes(OrderRequest.builder()
+                .productId("PROD-WARMUP")
+                .quantity(1)
+                .customerName("Warm-up")
+                .customerEmail("warmup@example.com")
+                .build()), OrderRequest.class);
+        validator.validate(request);
+
+        rollbackTemplate.executeWithoutResult(status -> {
+            status.setRollbackOnly();
+            Order order = orderRepository.save(Order.builder()
+                    .orderId("ORD-WARMUP-" + iteration)
+                    .productId(request.getProductId())
+                    .quantity(request.getQuantity())
+                    .customerName(request.getCustomerName())
+                    .customerEmail(request.getCustomerEmail())
+                    .build());
+            order.setStatus(OrderStatus.CONFIRMED);
+            // Send the INSERT and UPDATE statements too, then roll them back
+            orderRepository.flush();
+            orderRepository.findByOrderId(order.getOrderId());
+        });
+
+        byte[] json = objectMapper.writeValueAsBytes(OrderResponse.builder()
+                .orderId("ORD-WARMUP-" + iteration)
+                .productId(request.getProductId())
+                .quantity(request.getQuantity())
+                .status(OrderStatus.CONFIRMED)
+                .build());
+        objectMapper.readTree(json);
+        objectMapper.writeValueAsBytes(orderService.listOrders(OrderStatus.CONFIRMED, null, null, 20));
+    }
+
+    /**
+     * Base URL of the embedded server, or null when there is none (e.g. in mock web environment tests).
+     */
+    private String localBaseUrl() {
+        String port = environment.getProperty("local.server.port");
+        return port != null ? "http://localhost:" + port : null;
+    }
+}
@@ -1,15 +1,51 @@
 package com.order.config;
 
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.http.client.Http2AllocationStrategy;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
 
 @Configuration
+@Slf4j
 public class WebClientConfig {
 
+    /**
+     * With HTTP/2 enabled, requests to Inventory Service are multiplexed over at most
+     * max-connections HTTP/2 cleartext (h2c) connections per instance, each carrying up to
+     * max-concurrent-streams requests at once, instead of taking one pooled HTTP/1.1 connection
+     * per request in flight. Inventory Service must serve h2c, since the client starts each
+     * connection with the HTTP/2 preface rather than an upgrade.
+     */
     @Bean
-    public WebClient.Builder webClientBuilder() {
-        return WebClient.builder();
+    public WebClient.Builder webClientBuilder(
+            @Value("${inventory.client.http2.enabled:true}") boolean http2Enabled,
+            @Value("${inventory.client.http2.max-connections:4}") int maxConnections,
+            @Value("${inventory.client.http2.max-concurrent-streams:100}") int maxConcurrentStreams,
+            @Value("${inventory.client.http2.pending-acquire-timeout:5s}") Duration pendingAcquireTimeout) {
+        if (!http2Enabled) {
+            return WebClient.builder();
+        }
+        ConnectionProvider provider = ConnectionProvider.builder("inventory-h2c")
+                .allocationStrategy(Http2AllocationStrategy.builder()
+                        .minConnections(1)
+                        .maxConnections(maxConnections)
+                        .maxConcurrentStreams(maxConcurrentStreams)
+                        .build())
+                // Requests wait for a free stream rather than fail while every connection is busy
+                .pendingAcquireMaxCount(-1)
+                .pendingAcquireTimeout(pendingAcquireTimeout)
+                .build();
+        HttpClient httpClient = HttpClient.create(provider).protocol(HttpProtocol.H2C);
+        log.info("Using h2c to Inventory Service: up to {} connections per instance, {} streams each",
+                maxConnections, maxConcurrentStreams);
+        return WebClient.builder().clientConnector(new ReactorClientHttpConnector(httpClient));
     }
 }
-
@@ -1,19 +1,36 @@
 package com.order.controller;
 
+import com.order.dto.OrderCacheMetrics;
+import com.order.dto.OrderPageResponse;
 import com.order.dto.OrderRequest;
 import com.order.dto.OrderResponse;
+import com.order.dto.ReconciliationReport;
+import com.order.model.OrderStatus;
+import com.order.ratelimit.CustomerRateLimiter;
+import com.order.service.BulkOrderService;
+import com.order.service.OrderReconciliationService;
 import com.order.service.OrderService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.availability.ApplicationAvailability;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDateTime;
+
 @RestController
 @RequestMapping("/order")
 @RequiredArgsConstructor
@@ -21,6 +38,10 @@ import org.springframework.web.bind.annotation.*;
 public class OrderController {
 
     private final OrderService orderService;
+    private final BulkOrderService bulkOrderService;
+    private final ApplicationAvailability applicationAvailability;
+    private final CustomerRateLimiter rateLimiter;
+    private final OrderReconciliationService reconciliationService;
 
     @PostMapping
     @Operation(summary = "Place a new order",
@@ -28,16 +49,67 @@ public class OrderController {
     @ApiResponses(value = {
         @ApiResponse(responseCode = "201", description = "Order created successfully"),
         @ApiResponse(responseCode = "400", description = "Invalid request"),
+        @ApiResponse(responseCode = "429", description = "Customer's order rate limit exceeded"),
         @ApiResponse(responseCode = "503", description = "Inventory service unavailable or insufficient inventory")
     })
     public ResponseEntity<OrderResponse> placeOrder(
             @Parameter(description = "Order request details", required = true)
-            @Valid @RequestBody OrderRequest request) {
+            @Valid @RequestBody OrderRequest request,
+            @Parameter(description = "API key of the calling integration, selects its rate limit tier")
+            @RequestHeader(value = "X-API-Key", required = false) String apiKey,
+            HttpServletRequest servletRequest) {
         
+        rateLimiter.acquire(apiKey, request.getCustomerEmail(), servletRequest.getRemoteAddr());
         OrderResponse response = orderService.placeOrder(request);
         return new ResponseEntity<>(response, HttpStatus.CREATED);
     }
 
+    @PostMapping(value = "/bulk",
+                 consumes = MediaType.APPLICATION_NDJSON_VALUE,
+                 produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Bulk import orders",
+               description = "Accepts an NDJSON stream of order requests and streams back one NDJSON result " +
+                       "per line. Lines are validated individually; invalid lines are reported without " +
+                       "failing the rest of the import. Each order takes a token from the caller's rate limit; " +
+                       "orders over the limit are reported as failed lines.")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Import processed, see per-line results")
+    })
+    public void bulkImport(
+            @Parameter(description = "NDJSON stream of order requests", required = true)
+            InputStream requestBody,
+            @Parameter(description = "API key of the calling integration, selects its rate limit tier")
+            @RequestHeader(value = "X-API-Key", required = false) String apiKey,
+            HttpServletRequest servletRequest,
+            HttpServletResponse response) throws IOException {
+        
+        response.setStatus(HttpStatus.OK.value());
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        bulkOrderService.importOrders(requestBody, response.getOutputStream(), apiKey, servletRequest.getRemoteAddr());
+    }
+
+    @GetMapping
+    @Operation(summary = "List orders",
+               description = "Returns orders ordered by creation time using keyset pagination. " +
+                       "Pass the nextCursor of a page as 'after' to fetch the following page.")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Page of orders"),
+        @ApiResponse(responseCode = "400", description = "Invalid filter or cursor")
+    })
+    public ResponseEntity<OrderPageResponse> listOrders(
+            @Parameter(description = "Filter by order status")
+            @RequestParam(required = false) OrderStatus status,
+            @Parameter(description = "Filter by customer email")
+            @RequestParam(required = false) String email,
+            @Parameter(description = "Cursor from the previous page (nextCursor)")
+            @RequestParam(required = false) String after,
+            @Parameter(description = "Page size (1-100, default 20)")
+            @RequestParam(required = false) Integer limit) {
+        
+        OrderPageResponse response = orderService.listOrders(status, email, after, limit);
+        return ResponseEntity.ok(response);
+    }
+
     @GetMapping("/{orderId}")
     @Operation(summary = "Get order by ID",
                description = "Retrieves order details by order identifier")
@@ -69,9 +141,39 @@ public class OrderController {
         return ResponseEntity.ok(response);
     }
 
+    @GetMapping("/reconciliation")
+    @Operation(summary = "Reconcile orders with inventory deductions",
+               description = "Compares the quantity of confirmed orders created in the time window with the " +
+                       "deductions journaled by every Inventory Service instance, per product, and lists the " +
+                       "largest discrepancies. Without 'to', orders placed within the settle time are left out.")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Reconciliation report"),
+        @ApiResponse(responseCode = "400", description = "Invalid time window"),
+        @ApiResponse(responseCode = "503", description = "An Inventory Service instance could not provide its totals")
+    })
+    public ResponseEntity<ReconciliationReport> reconcile(
+            @Parameter(description = "Only reconcile orders created at or after this local time, e.g. 2026-01-01T00:00:00")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @Parameter(description = "Only reconcile orders created before this local time")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        
+        return ResponseEntity.ok(reconciliationService.reconcile(from, to));
+    }
+
+    @GetMapping("/cache/metrics")
+    @Operation(summary = "Order cache metrics",
+               description = "Size, hit rate and eviction counters of the in-memory order status cache")
+    public ResponseEntity<OrderCacheMetrics> cacheMetrics() {
+        return ResponseEntity.ok(orderService.getCacheMetrics());
+    }
+
     @GetMapping("/health")
-    @Operation(summary = "Health check", description = "Check if the service is running")
+    @Operation(summary = "Health check",
+               description = "Check if the service is running and ready for traffic; 503 while warming up")
     public ResponseEntity<String> healthCheck() {
+        if (applicationAvailability.getReadinessState() != ReadinessState.ACCEPTING_TRAFFIC) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body("Order Service is warming up");
+        }
         return ResponseEntity.ok("Order Service is running");
     }
 }
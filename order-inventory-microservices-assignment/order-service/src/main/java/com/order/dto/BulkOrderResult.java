@@ -0,0 +1,27 @@
+package com.order.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.order.model.OrderStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Outcome of one line of a bulk order import.
+ * Rejected lines carry no orderId or status, only the error.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BulkOrderResult {
+
+    private int line;
+    private String orderId;
+    private String productId;
+    private Integer quantity;
+    private OrderStatus status;
+    private String error;
+}
@@ -0,0 +1,20 @@
+package com.order.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Available stock of a product as reported by Inventory Service.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class InventoryAvailabilityResponse {
+    private String productId;
+    private Long availableQuantity;
+    private Integer requestedQuantity;
+    private Boolean canFulfill;
+}
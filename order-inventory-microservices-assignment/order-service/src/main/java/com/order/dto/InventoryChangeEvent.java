@@ -0,0 +1,25 @@
+package com.order.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Inventory batch change as published on the Inventory Service change feed.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class InventoryChangeEvent {
+    private long sequence;
+    private String productId;
+    private String batchNumber;
+    private String type;
+    private Integer quantityDelta;
+    private Integer remainingQuantity;
+    private LocalDateTime occurredAt;
+}
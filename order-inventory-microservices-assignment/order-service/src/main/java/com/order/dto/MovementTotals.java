@@ -0,0 +1,20 @@
+package com.order.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Journaled movements of one product summed up by an Inventory Service instance.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class MovementTotals {
+    private String productId;
+    private long deducted;
+    private long restocked;
+    private long movements;
+}
@@ -0,0 +1,26 @@
+package com.order.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Point-in-time counters of the order status cache.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OrderCacheMetrics {
+
+    private long size;
+    private long maxSize;
+    private int shards;
+    private long hits;
+    private long misses;
+    private double hitRate;
+    private long puts;
+    private long evictions;
+    private long expirations;
+}
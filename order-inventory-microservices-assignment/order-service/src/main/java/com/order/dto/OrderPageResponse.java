@@ -0,0 +1,23 @@
+package com.order.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One keyset page of orders. Pass {@code nextCursor} back as {@code after}
+ * to fetch the following page; it is null on the last page.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OrderPageResponse {
+
+    private List<OrderResponse> orders;
+    private String nextCursor;
+    private boolean hasMore;
+}
@@ -0,0 +1,50 @@
+package com.order.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Confirmed orders compared with Inventory Service deductions for the orders created in a time window.
+ * Only the largest discrepancies are listed; mismatchedProducts counts all of them.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ReconciliationReport {
+
+    private LocalDateTime from;
+    private LocalDateTime to;
+    private int inventoryInstances;
+    private long products;
+    private long confirmedOrders;
+    private long orderedQuantity;
+    private long deductedQuantity;
+    private long mismatchedProducts;
+    private long durationMs;
+
+    @Builder.Default
+    private List<ProductDiscrepancy> discrepancies = new ArrayList<>();
+
+    /**
+     * A product whose deducted quantity differs from its confirmed order quantity.
+     * A positive difference means more was deducted than ordered, e.g. by an order that failed
+     * on a timeout after Inventory Service had already deducted it.
+     */
+    @Data
+    @AllArgsConstructor
+    public static class ProductDiscrepancy {
+        private String productId;
+        private long confirmedOrders;
+        private long failedOrders;
+        private long orderedQuantity;
+        private long deductedQuantity;
+        private long difference;
+    }
+}
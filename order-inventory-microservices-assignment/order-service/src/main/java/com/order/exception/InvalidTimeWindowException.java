@@ -0,0 +1,10 @@
+package com.order.exception;
+
+public class InvalidTimeWindowException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public InvalidTimeWindowException(String message) {
+        super(message);
+    }
+}
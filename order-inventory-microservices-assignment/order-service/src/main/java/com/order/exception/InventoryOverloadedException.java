@@ -0,0 +1,23 @@
+package com.order.exception;
+
+import java.time.Duration;
+
+/**
+ * Inventory Service shed the request at its concurrency limit with 503 and Retry-After, before doing
+ * any work, so nothing was deducted and the request is safe to send again.
+ */
+public class InventoryOverloadedException extends InventoryRejectedException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final Duration retryAfter;
+
+    public InventoryOverloadedException(String message, Duration retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
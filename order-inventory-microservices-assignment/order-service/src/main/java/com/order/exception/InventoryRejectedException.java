@@ -0,0 +1,14 @@
+package com.order.exception;
+
+/**
+ * Inventory Service answered that it did not deduct anything, e.g. the product is unknown or short
+ * of stock, as opposed to a timeout or server error where the deduction may or may not have happened.
+ */
+public class InventoryRejectedException extends InventoryServiceException {
+
+    private static final long serialVersionUID = 1L;
+
+    public InventoryRejectedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,196 @@
+package com.order.ratelimit;
+
+import com.order.exception.RateLimitExceededException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Token bucket per customer, so one misbehaving integration cannot use up the order and inventory
+ * capacity of everyone else. Customers are identified by API key if it is a configured one, else by
+ * email, else by client address; an API key also selects the customer's tier.
+ * Each bucket is a single AtomicLong holding the time at which it will be full again, so taking a
+ * token is one compare-and-set without locks or allocation. A bucket that has been full for the
+ * idle timeout carries no information and is dropped when the map reaches its bound.
+ */
+@Component
+@Slf4j
+public class CustomerRateLimiter {
+
+    private final boolean enabled;
+    private final int maxEntries;
+    private final long idleTimeoutNanos;
+    private final Limits defaultLimits;
+    private final Map<String, Limits> apiKeyLimits = new HashMap<>();
+    private final LongSupplier nanoClock;
+    private final Map<String, Bucket> buckets = new ConcurrentHashMap<>();
+    private final Bucket overflow;
+    private final AtomicBoolean sweeping = new AtomicBoolean();
+    private final LongAdder rejected = new LongAdder();
+
+    @Autowired
+    public CustomerRateLimiter(RateLimitProperties properties) {
+        this(properties, System::nanoTime);
+    }
+
+    CustomerRateLimiter(RateLimitProperties properties, LongSupplier nanoClock) {
+        this.enabled = properties.isEnabled();
+        this.maxEntries = properties.getMaxEntries();
+        this.idleTimeoutNanos = properties.getIdleTimeout().toNanos();
+        this.nanoClock = nanoClock;
+        this.defaultLimits = limits(properties, properties.getDefaultTier());
+        properties.getApiKeys().forEach((apiKey, tier) -> apiKeyLimits.put(apiKey, limits(properties, tier)));
+        this.overflow = new Bucket(defaultLimits, nanoClock.getAsLong());
+    }
+
+    /**
+     * Take one order token for the customer.
+     *
+     * @param apiKey API key sent with the request, or null
+     * @param customerEmail Email from the order, or null
+     * @param clientAddress Address of the caller
+     * @throws RateLimitExceededException if the customer has no token left
+     */
+    public void acquire(String apiKey, String customerEmail, String clientAddress) {
+        Duration wait = tryAcquire(apiKey, customerEmail, clientAddress);
+        if (!wait.isZero()) {
+            throw new RateLimitExceededException("Order rate limit exceeded", wait);
+        }
+    }
+
+    /**
+     * Take one order token for the customer without throwing, e.g. for each line of a bulk import.
+     * A bulk import is charged to its caller, so pass no email there: the orders of one import may
+     * name many customers, and charging them would let a single caller spread past its limit.
+     *
+     * @param apiKey API key sent with the request, or null
+     * @param customerEmail Email from the order, or null
+     * @param clientAddress Address of the caller
+     * @return Zero if a token was taken, else how long until the next one
+     */
+    public Duration tryAcquire(String apiKey, String customerEmail, String clientAddress) {
+        if (!enabled) {
+            return Duration.ZERO;
+        }
+        Limits limits = apiKey != null ? apiKeyLimits.get(apiKey) : null;
+        String key;
+        if (limits != null) {
+            key = "key:" + apiKey;
+        } else {
+            limits = defaultLimits;
+            key = customerEmail != null && !customerEmail.isBlank()
+                    ? "email:" + customerEmail.toLowerCase(Locale.ROOT)
+                    : "ip:" + clientAddress;
+        }
+
+        long now = nanoClock.getAsLong();
+        long waitNanos = bucket(key, limits, now).tryAcquire(now);
+        if (waitNanos > 0) {
+            rejected.increment();
+            return Duration.ofNanos(waitNanos);
+        }
+        return Duration.ZERO;
+    }
+
+    public long getRejectedCount() {
+        return rejected.sum();
+    }
+
+    int getTrackedCustomers() {
+        return buckets.size();
+    }
+
+    private Bucket bucket(String key, Limits limits, long now) {
+        Bucket bucket = buckets.get(key);
+        if (bucket != null) {
+            return bucket;
+        }
+        if (buckets.size() >= maxEntries) {
+            sweep(now);
+            if (buckets.size() >= maxEntries) {
+                return overflow;
+            }
+        }
+        return buckets.computeIfAbsent(key, k -> new Bucket(limits, now));
+    }
+
+    /**
+     * Drop buckets that have been full for the idle timeout. One thread sweeps at a time; others
+     * carry on and, if the map is still at its bound, use the overflow bucket.
+     */
+    private void sweep(long now) {
+        if (!sweeping.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            int before = buckets.size();
+            buckets.values().removeIf(bucket -> now - bucket.fullAt.get() > idleTimeoutNanos);
+            log.debug("Dropped {} idle rate limit buckets", before - buckets.size());
+        } finally {
+            sweeping.set(false);
+        }
+    }
+
+    private static Limits limits(RateLimitProperties properties, String tierName) {
+        RateLimitProperties.Tier tier = properties.getTiers().get(tierName);
+        if (tier == null) {
+            throw new IllegalStateException("Unknown rate limit tier " + tierName);
+        }
+        if (tier.getRate() <= 0 || tier.getBurst() < 1) {
+            throw new IllegalStateException("Rate limit tier " + tierName + " needs a positive rate and burst");
+        }
+        long interval = (long) (1_000_000_000L / tier.getRate());
+        return new Limits(interval, interval * tier.getBurst());
+    }
+
+    /**
+     * Nanoseconds per token and the bucket's capacity expressed in nanoseconds.
+     */
+    private record Limits(long intervalNanos, long capacityNanos) {
+    }
+
+    private static final class Bucket {
+
+        private final long intervalNanos;
+        private final long capacityNanos;
+
+        /**
+         * Time at which the bucket is full again. Each token taken pushes it one interval further;
+         * the bucket is empty while it lies more than the capacity ahead of now.
+         */
+        private final AtomicLong fullAt;
+
+        private Bucket(Limits limits, long now) {
+            this.intervalNanos = limits.intervalNanos();
+            this.capacityNanos = limits.capacityNanos();
+            this.fullAt = new AtomicLong(now);
+        }
+
+        /**
+         * @return 0 if a token was taken, else how long until the next one
+         */
+        private long tryAcquire(long now) {
+            while (true) {
+                long current = fullAt.get();
+                long next = Math.max(current, now) + intervalNanos;
+                long excess = next - now - capacityNanos;
+                if (excess > 0) {
+                    return excess;
+                }
+                if (fullAt.compareAndSet(current, next)) {
+                    return 0;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.order.ratelimit;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Per-customer order rate limits.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "order.rate-limit")
+public class RateLimitProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * Most customers tracked at once. Beyond it, new customers share one bucket of the default tier.
+     */
+    private int maxEntries = 100_000;
+
+    /**
+     * How long a customer's bucket must have been full before it is forgotten.
+     */
+    private Duration idleTimeout = Duration.ofMinutes(10);
+
+    /**
+     * Tier for customers without a known API key.
+     */
+    private String defaultTier = "standard";
+
+    /**
+     * Tier name to its limits.
+     */
+    private Map<String, Tier> tiers = new LinkedHashMap<>(Map.of("standard", new Tier(20, 40)));
+
+    /**
+     * API key to tier name.
+     */
+    private Map<String, String> apiKeys = new LinkedHashMap<>();
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Tier {
+
+        /**
+         * Sustained orders per second.
+         */
+        private double rate;
+
+        /**
+         * Orders that may be placed back to back after an idle period.
+         */
+        private int burst;
+    }
+}
@@ -0,0 +1,101 @@
+package com.order.repository;
+
+import com.order.model.Order;
+import com.order.model.OrderStatus;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Confirmed, failed and cancelled orders moved out of the orders table once they are old enough.
+ * Archived orders keep their id and order id, so getOrder and the order totals still find them, but
+ * they are read-only.
+ */
+@Repository
+@RequiredArgsConstructor
+public class OrderArchiveRepository {
+
+    private static final String LOCK_ARCHIVABLE_SQL =
+            "SELECT id FROM orders WHERE status IN ('CONFIRMED', 'FAILED', 'CANCELLED') AND created_at < ? " +
+            "ORDER BY id FETCH FIRST ? ROWS ONLY FOR UPDATE";
+
+    private static final String COPY_SQL =
+            "INSERT INTO orders_archive (id, order_id, product_id, quantity, customer_name, customer_email, " +
+            "status, created_at, updated_at, failure_reason, archived_at) " +
+            "SELECT id, order_id, product_id, quantity, customer_name, customer_email, status, created_at, " +
+            "updated_at, failure_reason, ? FROM orders WHERE id IN (%s)";
+
+    private static final String DELETE_SQL = "DELETE FROM orders WHERE id IN (%s)";
+
+    private static final String FIND_BY_ORDER_ID_SQL =
+            "SELECT id, order_id, product_id, quantity, customer_name, customer_email, status, created_at, " +
+            "updated_at, failure_reason FROM orders_archive WHERE order_id = ?";
+
+    private static final RowMapper<Order> ROW_MAPPER = (rs, rowNum) -> Order.builder()
+            .id(rs.getLong("id"))
+            .orderId(rs.getString("order_id"))
+            .productId(rs.getString("product_id"))
+            .quantity(rs.getInt("quantity"))
+            .customerName(rs.getString("customer_name"))
+            .customerEmail(rs.getString("customer_email"))
+            .status(OrderStatus.valueOf(rs.getString("status")))
+            .createdAt(rs.getTimestamp("created_at").toLocalDateTime())
+            .updatedAt(rs.getTimestamp("updated_at").toLocalDateTime())
+            .failureReason(rs.getString("failure_reason"))
+            .build();
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Lock up to limit terminal orders created before the cutoff, for the current transaction to archive.
+     *
+     * @param createdBefore Orders created before this time are archivable
+     * @param limit Maximum number of orders
+     * @return Ids of the locked orders, lowest first
+     */
+    public List<Long> lockArchivable(LocalDateTime createdBefore, int limit) {
+        return jdbcTemplate.queryForList(LOCK_ARCHIVABLE_SQL, Long.class, Timestamp.valueOf(createdBefore), limit);
+    }
+
+    /**
+     * Copy orders into orders_archive with every column and delete them from orders, in the
+     * caller's transaction.
+     *
+     * @param ids Ids of orders locked with {@link #lockArchivable}
+     * @param archivedAt Time recorded on the archived rows
+     * @return Number of orders moved
+     */
+    public int archive(List<Long> ids, LocalDateTime archivedAt) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        String placeholders = String.join(", ", Collections.nCopies(ids.size(), "?"));
+        List<Object> copyArgs = new ArrayList<>(ids.size() + 1);
+        copyArgs.add(Timestamp.valueOf(archivedAt));
+        copyArgs.addAll(ids);
+        int copied = jdbcTemplate.update(String.format(COPY_SQL, placeholders), copyArgs.toArray());
+        int deleted = jdbcTemplate.update(String.format(DELETE_SQL, placeholders), ids.toArray());
+        if (copied != deleted) {
+            throw new IllegalStateException("Archived " + copied + " orders but deleted " + deleted);
+        }
+        return deleted;
+    }
+
+    /**
+     * Look up an archived order. The returned order is detached and must not be saved.
+     *
+     * @param orderId The order identifier
+     * @return The archived order, if any
+     */
+    public Optional<Order> findByOrderId(String orderId) {
+        return jdbcTemplate.query(FIND_BY_ORDER_ID_SQL, ROW_MAPPER, orderId).stream().findFirst();
+    }
+}
@@ -0,0 +1,67 @@
+package com.order.repository;
+
+import com.order.model.Order;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+/**
+ * Plain JDBC writes for high-volume paths.
+ * Order uses IDENTITY keys, which makes Hibernate give up on insert batching,
+ * so bulk inserts go through JdbcTemplate.batchUpdate instead.
+ */
+@Repository
+@RequiredArgsConstructor
+public class OrderBatchRepository {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO orders (order_id, product_id, quantity, customer_name, customer_email, " +
+            "status, created_at, updated_at, failure_reason) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String UPDATE_STATUS_SQL =
+            "UPDATE orders SET status = ?, failure_reason = ?, updated_at = ? WHERE order_id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Insert orders as a single JDBC batch. Generated ids are not read back.
+     *
+     * @param orders Orders to insert
+     */
+    public void batchInsert(List<Order> orders) {
+        if (orders.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(INSERT_SQL, orders, orders.size(), (ps, order) -> {
+            ps.setString(1, order.getOrderId());
+            ps.setString(2, order.getProductId());
+            ps.setInt(3, order.getQuantity());
+            ps.setString(4, order.getCustomerName());
+            ps.setString(5, order.getCustomerEmail());
+            ps.setString(6, order.getStatus().name());
+            ps.setTimestamp(7, Timestamp.valueOf(order.getCreatedAt()));
+            ps.setTimestamp(8, Timestamp.valueOf(order.getUpdatedAt()));
+            ps.setString(9, order.getFailureReason());
+        });
+    }
+
+    /**
+     * Write the status, failure reason and update time of orders inserted earlier, as a single JDBC batch.
+     *
+     * @param orders Orders to update, matched by order id
+     */
+    public void batchUpdateStatus(List<Order> orders) {
+        if (orders.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(UPDATE_STATUS_SQL, orders, orders.size(), (ps, order) -> {
+            ps.setString(1, order.getStatus().name());
+            ps.setString(2, order.getFailureReason());
+            ps.setTimestamp(3, Timestamp.valueOf(order.getUpdatedAt()));
+            ps.setString(4, order.getOrderId());
+        });
+    }
+}
@@ -2,9 +2,13 @@ package com.order.repository;
 
 import com.order.model.Order;
 import com.order.model.OrderStatus;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -18,5 +22,59 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
     List<Order> findByCustomerEmail(String customerEmail);
     
     boolean existsByOrderId(String orderId);
-}
 
+    // Keyset (seek) pages of orders ordered by (createdAt, id). Each filter combination has its own
+    // query so the planner can use the index leading with that filter: (created_at, id),
+    // (status, created_at, id) or (customer_email, created_at, id). Pages after a cursor return rows
+    // strictly after (afterCreatedAt, afterId); the createdAt >= bound lets the index seek straight
+    // to the cursor, so the cost of a page does not depend on how deep the client has paged.
+
+    List<Order> findAllByOrderByCreatedAtAscIdAsc(Pageable pageable);
+
+    List<Order> findByStatusOrderByCreatedAtAscIdAsc(OrderStatus status, Pageable pageable);
+
+    List<Order> findByCustomerEmailOrderByCreatedAtAscIdAsc(String customerEmail, Pageable pageable);
+
+    List<Order> findByStatusAndCustomerEmailOrderByCreatedAtAscIdAsc(OrderStatus status, String customerEmail,
+                                                                     Pageable pageable);
+
+    @Query("SELECT o FROM Order o " +
+           "WHERE o.createdAt >= :afterCreatedAt " +
+           "AND (o.createdAt > :afterCreatedAt OR o.id > :afterId) " +
+           "ORDER BY o.createdAt ASC, o.id ASC")
+    List<Order> findPageAfter(@Param("afterCreatedAt") LocalDateTime afterCreatedAt,
+                              @Param("afterId") Long afterId,
+                              Pageable pageable);
+
+    @Query("SELECT o FROM Order o " +
+           "WHERE o.status = :status " +
+           "AND o.createdAt >= :afterCreatedAt " +
+           "AND (o.createdAt > :afterCreatedAt OR o.id > :afterId) " +
+           "ORDER BY o.createdAt ASC, o.id ASC")
+    List<Order> findPageByStatusAfter(@Param("status") OrderStatus status,
+                                      @Param("afterCreatedAt") LocalDateTime afterCreatedAt,
+                                      @Param("afterId") Long afterId,
+                                      Pageable pageable);
+
+    @Query("SELECT o FROM Order o " +
+           "WHERE o.customerEmail = :email " +
+           "AND o.createdAt >= :afterCreatedAt " +
+           "AND (o.createdAt > :afterCreatedAt OR o.id > :afterId) " +
+           "ORDER BY o.createdAt ASC, o.id ASC")
+    List<Order> findPageByCustomerEmailAfter(@Param("email") String email,
+                                             @Param("afterCreatedAt") LocalDateTime afterCreatedAt,
+                                             @Param("afterId") Long afterId,
+                                             Pageable pageable);
+
+    @Query("SELECT o FROM Order o " +
+           "WHERE o.status = :status " +
+           "AND o.customerEmail = :email " +
+           "AND o.createdAt >= :afterCreatedAt " +
+           "AND (o.createdAt > :afterCreatedAt OR o.id > :afterId) " +
+           "ORDER BY o.createdAt ASC, o.id ASC")
+    List<Order> findPageByStatusAndCustomerEmailAfter(@Param("status") OrderStatus status,
+                                                      @Param("email") String email,
+                                                      @Param("afterCreatedAt") LocalDateTime afterCreatedAt,
+                                                      @Param("afterId") Long afterId,
+                                                      Pageable pageable);
+}
@@ -0,0 +1,112 @@
+package com.order.repository;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Per-product order totals over orders and orders_archive, read slice by slice of the id range
+ * for reconciliation against Inventory Service deductions.
+ */
+@Repository
+@RequiredArgsConstructor
+public class OrderTotalsRepository {
+
+    private static final String ID_RANGE_SQL =
+            "SELECT MIN(min_id), MAX(max_id) FROM (" +
+            "SELECT MIN(id) AS min_id, MAX(id) AS max_id FROM orders UNION ALL " +
+            "SELECT MIN(id), MAX(id) FROM orders_archive) ids";
+
+    // Both tables are read by one statement, so an order moved to the archive meanwhile is seen exactly once.
+    // Status and time are filtered outside the union so the slice is read through the primary key; filtered
+    // inside, the status index wins and every slice walks all confirmed orders.
+    private static final String TOTALS_SQL =
+            "SELECT product_id, " +
+            "SUM(CASE WHEN status = 'CONFIRMED' THEN 1 ELSE 0 END) AS confirmed_orders, " +
+            "SUM(CASE WHEN status = 'CONFIRMED' THEN quantity ELSE 0 END) AS confirmed_quantity, " +
+            "SUM(CASE WHEN status = 'FAILED' THEN 1 ELSE 0 END) AS failed_orders " +
+            "FROM (" +
+            "SELECT product_id, quantity, status, created_at FROM orders WHERE id BETWEEN ? AND ? UNION ALL " +
+            "SELECT product_id, quantity, status, created_at FROM orders_archive WHERE id BETWEEN ? AND ?" +
+            ") slice WHERE status IN ('CONFIRMED', 'FAILED') AND %s GROUP BY product_id";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Lowest and highest order id in orders and orders_archive.
+     *
+     * @return The id range, or null if there are no orders
+     */
+    public IdRange findIdRange() {
+        return jdbcTemplate.query(ID_RANGE_SQL, rs -> {
+            rs.next();
+            long min = rs.getLong(1);
+            return rs.wasNull() ? null : new IdRange(min, rs.getLong(2));
+        });
+    }
+
+    /**
+     * Sum up confirmed and failed orders per product for one slice of the id range.
+     *
+     * @param fromId Lowest order id of the slice
+     * @param toId Highest order id of the slice
+     * @param createdFrom Only count orders created at or after this time, or null for no lower bound
+     * @param createdTo Only count orders created before this time
+     * @return Totals by product id, for products with orders in the slice
+     */
+    public Map<String, ProductTotal> sumByProduct(long fromId, long toId, LocalDateTime createdFrom,
+                                                  LocalDateTime createdTo) {
+        String createdFilter = createdFrom != null ? "created_at >= ? AND created_at < ?" : "created_at < ?";
+        List<Object> args = new ArrayList<>(6);
+        args.add(fromId);
+        args.add(toId);
+        args.add(fromId);
+        args.add(toId);
+        if (createdFrom != null) {
+            args.add(Timestamp.valueOf(createdFrom));
+        }
+        args.add(Timestamp.valueOf(createdTo));
+
+        Map<String, ProductTotal> totals = new HashMap<>();
+        jdbcTemplate.query(String.format(TOTALS_SQL, createdFilter), rs -> {
+            String productId = rs.getString("product_id");
+            totals.put(productId, new ProductTotal(productId, rs.getLong("confirmed_orders"),
+                    rs.getLong("confirmed_quantity"), rs.getLong("failed_orders")));
+        }, args.toArray());
+        return totals;
+    }
+
+    @Data
+    @AllArgsConstructor
+    public static class IdRange {
+        private long minId;
+        private long maxId;
+    }
+
+    @Data
+    @AllArgsConstructor
+    public static class ProductTotal {
+        private String productId;
+        private long confirmedOrders;
+        private long confirmedQuantity;
+        private long failedOrders;
+
+        /**
+         * Add the totals of another slice for the same product.
+         */
+        public void add(ProductTotal other) {
+            confirmedOrders += other.confirmedOrders;
+            confirmedQuantity += other.confirmedQuantity;
+            failedOrders += other.failedOrders;
+        }
+    }
+}
@@ -0,0 +1,266 @@
+package com.order.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.order.client.InventoryClient;
+import com.order.dto.BulkOrderResult;
+import com.order.dto.InventoryUpdateRequest;
+import com.order.dto.OrderRequest;
+import com.order.exception.InventoryOverloadedException;
+import com.order.exception.InventoryRejectedException;
+import com.order.exception.InventoryServiceException;
+import com.order.model.Order;
+import com.order.model.OrderStatus;
+import com.order.ratelimit.CustomerRateLimiter;
+import com.order.repository.OrderBatchRepository;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Streaming bulk order import.
+ * Lines are read and validated one at a time and processed in chunks: valid lines in a chunk
+ * are saved as PENDING orders with a single JDBC batch, grouped by product so inventory is deducted
+ * with one call per product, and their final statuses are written with a second batch. Results are
+ * streamed back as each chunk completes. Every valid line takes an order token from the caller's
+ * rate limit; lines over the limit are rejected and the import carries on.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class BulkOrderService {
+
+    private final InventoryClient inventoryClient;
+    private final OrderBatchRepository orderBatchRepository;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final TransactionTemplate transactionTemplate;
+    private final CustomerRateLimiter rateLimiter;
+
+    @Value("${order.bulk.chunk-size:500}")
+    private int chunkSize;
+
+    /**
+     * Import orders from an NDJSON stream of OrderRequest objects and write one
+     * NDJSON BulkOrderResult per non-blank input line.
+     *
+     * @param input NDJSON request stream
+     * @param output NDJSON result stream, flushed after every chunk
+     * @param apiKey API key of the caller, or null
+     * @param clientAddress Address of the caller
+     */
+    public void importOrders(InputStream input, OutputStream output, String apiKey, String clientAddress)
+            throws IOException {
+        ObjectReader requestReader = objectMapper.readerFor(OrderRequest.class);
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+
+        List<BulkLine> chunk = new ArrayList<>(chunkSize);
+        int lineNumber = 0;
+        int processed = 0;
+        String text;
+
+        while ((text = reader.readLine()) != null) {
+            lineNumber++;
+            if (text.isBlank()) {
+                continue;
+            }
+            BulkLine line = parseLine(requestReader, lineNumber, text);
+            if (line.result == null) {
+                Duration wait = rateLimiter.tryAcquire(apiKey, null, clientAddress);
+                if (!wait.isZero()) {
+                    long retryAfterSeconds = Math.max(1, (wait.toMillis() + 999) / 1000);
+                    line.reject("Order rate limit exceeded, retry after " + retryAfterSeconds + "s");
+                }
+            }
+            chunk.add(line);
+            if (chunk.size() >= chunkSize) {
+                processChunk(chunk, output);
+                processed += chunk.size();
+                chunk.clear();
+            }
+        }
+
+        if (!chunk.isEmpty()) {
+            processChunk(chunk, output);
+            processed += chunk.size();
+        }
+
+        log.info("Bulk import finished: {} lines processed", processed);
+    }
+
+    private BulkLine parseLine(ObjectReader requestReader, int lineNumber, String text) {
+        BulkLine line = new BulkLine(lineNumber);
+        try {
+            line.request = requestReader.readValue(text);
+        } catch (JsonProcessingException e) {
+            line.reject("Malformed JSON: " + e.getOriginalMessage());
+            return line;
+        }
+        if (line.request == null) {
+            line.reject("Expected an order object, got null");
+            return line;
+        }
+
+        Set<ConstraintViolation<OrderRequest>> violations = validator.validate(line.request);
+        if (!violations.isEmpty()) {
+            line.reject(violations.stream()
+                    .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining(", ")));
+        }
+        return line;
+    }
+
+    private void processChunk(List<BulkLine> chunk, OutputStream output) throws IOException {
+        Map<String, List<BulkLine>> linesByProduct = new LinkedHashMap<>();
+        List<Order> orders = new ArrayList<>();
+        for (BulkLine line : chunk) {
+            if (line.result == null) {
+                linesByProduct.computeIfAbsent(line.request.getProductId(), k -> new ArrayList<>()).add(line);
+                orders.add(line.createPendingOrder());
+            }
+        }
+
+        // Save the orders as PENDING before any stock moves, as placeOrder does, so every deduction has its order
+        transactionTemplate.executeWithoutResult(status -> orderBatchRepository.batchInsert(orders));
+
+        linesByProduct.forEach(this::deductForProduct);
+
+        transactionTemplate.executeWithoutResult(status -> orderBatchRepository.batchUpdateStatus(orders));
+
+        for (BulkLine line : chunk) {
+            output.write(objectMapper.writeValueAsBytes(line.result));
+            output.write('\n');
+        }
+        output.flush();
+
+        log.debug("Bulk import chunk of {} lines: {} orders across {} products",
+                chunk.size(), orders.size(), linesByProduct.size());
+    }
+
+    /**
+     * Deduct the combined quantity of all lines for a product in one call. If Inventory Service
+     * rejects it (e.g. not enough stock for all of them), fall back to one call per line so the
+     * lines that still fit are confirmed. If the outcome is unknown (timeout, server error) the
+     * grouped deduction may have been applied, so the lines are failed rather than retried and
+     * left for reconciliation to spot.
+     */
+    private void deductForProduct(String productId, List<BulkLine> lines) {
+        try {
+            inventoryClient.precheck(productId, lines.stream().mapToInt(line -> line.request.getQuantity()).min().orElse(0));
+        } catch (InventoryServiceException e) {
+            // Even the smallest line cannot be served, so none of them can
+            lines.forEach(line -> line.complete(OrderStatus.FAILED, e.getMessage()));
+            return;
+        }
+
+        long totalQuantity = lines.stream().mapToLong(line -> line.request.getQuantity()).sum();
+
+        if (lines.size() > 1 && totalQuantity <= Integer.MAX_VALUE) {
+            try {
+                deduct(productId, (int) totalQuantity);
+                lines.forEach(line -> line.complete(OrderStatus.CONFIRMED, null));
+                return;
+            } catch (InventoryOverloadedException e) {
+                // Line by line would only add load; nothing was deducted, so the lines can be imported again
+                log.warn("Grouped deduction of {} units for product {} shed by Inventory Service, failing {} lines: {}",
+                        totalQuantity, productId, lines.size(), e.getMessage());
+                lines.forEach(line -> line.complete(OrderStatus.FAILED, e.getMessage()));
+                return;
+            } catch (InventoryRejectedException e) {
+                log.info("Grouped deduction of {} units for product {} rejected, retrying {} lines individually: {}",
+                        totalQuantity, productId, lines.size(), e.getMessage());
+            } catch (InventoryServiceException e) {
+                log.warn("Grouped deduction of {} units for product {} has an unknown outcome, failing {} lines: {}",
+                        totalQuantity, productId, lines.size(), e.getMessage());
+                lines.forEach(line -> line.complete(OrderStatus.FAILED, "Inventory outcome unknown: " + e.getMessage()));
+                return;
+            }
+        }
+
+        for (BulkLine line : lines) {
+            try {
+                inventoryClient.precheck(productId, line.request.getQuantity());
+                deduct(productId, line.request.getQuantity());
+                line.complete(OrderStatus.CONFIRMED, null);
+            } catch (InventoryServiceException e) {
+                line.complete(OrderStatus.FAILED, e.getMessage());
+            }
+        }
+    }
+
+    private void deduct(String productId, int quantity) {
+        inventoryClient.updateInventory(InventoryUpdateRequest.builder()
+                .productId(productId)
+                .quantity(quantity)
+                .build());
+    }
+
+    private static final class BulkLine {
+        private final int lineNumber;
+        private OrderRequest request;
+        private Order order;
+        private BulkOrderResult result;
+
+        private BulkLine(int lineNumber) {
+            this.lineNumber = lineNumber;
+        }
+
+        private void reject(String error) {
+            result = BulkOrderResult.builder()
+                    .line(lineNumber)
+                    .error(error)
+                    .build();
+        }
+
+        private Order createPendingOrder() {
+            LocalDateTime now = LocalDateTime.now();
+            order = Order.builder()
+                    .orderId(OrderService.generateOrderId())
+                    .productId(request.getProductId())
+                    .quantity(request.getQuantity())
+                    .customerName(request.getCustomerName())
+                    .customerEmail(request.getCustomerEmail())
+                    .status(OrderStatus.PENDING)
+                    .createdAt(now)
+                    .updatedAt(now)
+                    .build();
+            return order;
+        }
+
+        private void complete(OrderStatus status, String failureReason) {
+            order.setStatus(status);
+            order.setFailureReason(failureReason);
+            order.setUpdatedAt(LocalDateTime.now());
+
+            result = BulkOrderResult.builder()
+                    .line(lineNumber)
+                    .orderId(order.getOrderId())
+                    .productId(order.getProductId())
+                    .quantity(order.getQuantity())
+                    .status(status)
+                    .error(failureReason)
+                    .build();
+        }
+    }
+}
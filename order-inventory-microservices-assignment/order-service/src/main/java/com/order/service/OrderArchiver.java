@@ -0,0 +1,108 @@
+package com.order.service;
+
+import com.order.repository.OrderArchiveRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Moves confirmed, failed and cancelled orders older than min-age from the orders table to
+ * orders_archive, so the hot table and its indexes only cover recent and in-flight orders.
+ * Pending orders are never archived, because their outcome is still being written. New orders are
+ * inserted at the high end of the id range while this job takes the lowest ids, so the two rarely
+ * meet. A failed order can still be cancelled, though, so a cancel may wait for the chunk that holds
+ * the order, and once the order is archived the cancel is refused. Each chunk of chunk-size
+ * orders commits on its own, followed by a pause of chunk-pause.
+ */
+@Component
+@Slf4j
+public class OrderArchiver {
+
+    private final OrderArchiveRepository archiveRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Clock clock;
+    private final boolean enabled;
+    private final Duration minAge;
+    private final int chunkSize;
+    private final Duration chunkPause;
+
+    @Autowired
+    public OrderArchiver(OrderArchiveRepository archiveRepository,
+                         PlatformTransactionManager transactionManager,
+                         @Value("${order.archival.enabled:true}") boolean enabled,
+                         @Value("${order.archival.min-age:30d}") Duration minAge,
+                         @Value("${order.archival.chunk-size:500}") int chunkSize,
+                         @Value("${order.archival.chunk-pause:50ms}") Duration chunkPause) {
+        this(archiveRepository, new TransactionTemplate(transactionManager), enabled, minAge, chunkSize,
+                chunkPause, Clock.systemDefaultZone());
+    }
+
+    OrderArchiver(OrderArchiveRepository archiveRepository,
+                  TransactionTemplate transactionTemplate,
+                  boolean enabled, Duration minAge, int chunkSize, Duration chunkPause, Clock clock) {
+        this.archiveRepository = archiveRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.enabled = enabled;
+        this.minAge = minAge;
+        this.chunkSize = Math.max(1, chunkSize);
+        this.chunkPause = chunkPause;
+        this.clock = clock;
+    }
+
+    /**
+     * Archive every terminal order older than min-age, chunk by chunk.
+     *
+     * @return Number of orders archived
+     */
+    @Scheduled(fixedDelayString = "${order.archival.interval-ms:3600000}",
+               initialDelayString = "${order.archival.interval-ms:3600000}")
+    public int archiveAll() {
+        if (!enabled) {
+            return 0;
+        }
+        long start = System.nanoTime();
+        LocalDateTime now = LocalDateTime.now(clock);
+        LocalDateTime cutoff = now.minus(minAge);
+        int total = 0;
+        int moved;
+        do {
+            moved = archiveChunk(cutoff, now);
+            total += moved;
+            if (moved == chunkSize && !pause()) {
+                break;
+            }
+        } while (moved == chunkSize);
+        if (total > 0) {
+            log.info("Archived {} orders created before {} in {} ms", total, cutoff,
+                    (System.nanoTime() - start) / 1_000_000);
+        }
+        return total;
+    }
+
+    private int archiveChunk(LocalDateTime cutoff, LocalDateTime now) {
+        Integer moved = transactionTemplate.execute(status -> {
+            List<Long> ids = archiveRepository.lockArchivable(cutoff, chunkSize);
+            return archiveRepository.archive(ids, now);
+        });
+        return moved != null ? moved : 0;
+    }
+
+    private boolean pause() {
+        try {
+            Thread.sleep(chunkPause.toMillis());
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
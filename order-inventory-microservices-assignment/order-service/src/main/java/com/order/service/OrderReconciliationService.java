@@ -0,0 +1,283 @@
+package com.order.service;
+
+import com.order.client.InventoryRouter;
+import com.order.dto.MovementTotals;
+import com.order.dto.ReconciliationReport;
+import com.order.dto.ReconciliationReport.ProductDiscrepancy;
+import com.order.exception.InvalidTimeWindowException;
+import com.order.exception.InventoryServiceException;
+import com.order.repository.OrderTotalsRepository;
+import com.order.repository.OrderTotalsRepository.IdRange;
+import com.order.repository.OrderTotalsRepository.ProductTotal;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Flux;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Checks that confirmed orders match the deductions Inventory Service journaled for them, so drift
+ * from deductions whose answer timed out shows up per product.
+ * <p>
+ * Order totals are summed on a dedicated fork/join pool: the order id range is split in halves
+ * until a slice holds at most split-size ids, each slice is summed per product by the database
+ * over orders and orders_archive, and the per-product sums are merged back up the tree. Meanwhile
+ * every Inventory Service instance streams its journal totals per product. Memory therefore grows
+ * with the number of products, never with the number of orders or movements, and only the
+ * max-discrepancies largest differences are kept for the report.
+ * <p>
+ * Both sides are cut at the same time, settle-time in the past by default, so orders still being
+ * placed are left out. An order created just before the cutoff but deducted just after it still
+ * shows up as a difference of its quantity.
+ */
+@Service
+@Slf4j
+public class OrderReconciliationService {
+
+    private static final Comparator<ProductDiscrepancy> BY_SIZE =
+            Comparator.<ProductDiscrepancy>comparingLong(d -> Math.abs(d.getDifference()))
+                    .thenComparing(ProductDiscrepancy::getProductId, Comparator.reverseOrder());
+
+    private final OrderTotalsRepository totalsRepository;
+    private final InventoryRouter router;
+    private final WebClient.Builder webClientBuilder;
+    private final ForkJoinPool pool;
+    private final long splitSize;
+    private final int maxDiscrepancies;
+    private final Duration settleTime;
+    private final Duration inventoryTimeout;
+    private final Clock clock;
+
+    @Autowired
+    public OrderReconciliationService(OrderTotalsRepository totalsRepository,
+                                      InventoryRouter router,
+                                      WebClient.Builder webClientBuilder,
+                                      @Value("${order.reconciliation.parallelism:0}") int parallelism,
+                                      @Value("${order.reconciliation.split-size:250000}") long splitSize,
+                                      @Value("${order.reconciliation.max-discrepancies:100}") int maxDiscrepancies,
+                                      @Value("${order.reconciliation.settle-time:1m}") Duration settleTime,
+                                      @Value("${order.reconciliation.inventory-timeout:5m}") Duration inventoryTimeout) {
+        this(totalsRepository, router, webClientBuilder, parallelism, splitSize, maxDiscrepancies, settleTime,
+                inventoryTimeout, Clock.systemDefaultZone());
+    }
+
+    OrderReconciliationService(OrderTotalsRepository totalsRepository,
+                               InventoryRouter router,
+                               WebClient.Builder webClientBuilder,
+                               int parallelism, long splitSize, int maxDiscrepancies,
+                               Duration settleTime, Duration inventoryTimeout, Clock clock) {
+        this.totalsRepository = totalsRepository;
+        this.router = router;
+        this.webClientBuilder = webClientBuilder;
+        int threads = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        this.pool = new ForkJoinPool(threads, forkJoinPool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(forkJoinPool);
+            thread.setName("order-reconciliation-" + thread.getPoolIndex());
+            return thread;
+        }, null, false);
+        this.splitSize = Math.max(1, splitSize);
+        this.maxDiscrepancies = Math.max(0, maxDiscrepancies);
+        this.settleTime = settleTime;
+        this.inventoryTimeout = inventoryTimeout;
+        this.clock = clock;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+
+    /**
+     * Compare confirmed orders with Inventory Service deductions, product by product.
+     *
+     * @param from Only reconcile orders and movements at or after this time, or null for all history
+     * @param to Only reconcile orders and movements before this time, or null for settle-time ago
+     * @return Totals and the largest discrepancies
+     * @throws InvalidTimeWindowException if from is not before to
+     * @throws InventoryServiceException if an Inventory Service instance cannot provide its totals
+     */
+    public ReconciliationReport reconcile(LocalDateTime from, LocalDateTime to) {
+        long start = System.nanoTime();
+        LocalDateTime cutoff = to != null ? to : LocalDateTime.now(clock).minus(settleTime);
+        if (from != null && !from.isBefore(cutoff)) {
+            throw new InvalidTimeWindowException("from must be before " + cutoff);
+        }
+
+        List<String> instances = router.allBaseUrls();
+        CompletableFuture<Map<String, Long>> deductions = fetchDeductions(instances, from, cutoff);
+        Map<String, ProductTotal> orders;
+        try {
+            IdRange range = totalsRepository.findIdRange();
+            orders = range != null
+                    ? pool.invoke(new SliceTask(range.getMinId(), range.getMaxId(), from, cutoff))
+                    : Map.of();
+        } catch (RuntimeException e) {
+            deductions.cancel(true);
+            throw e;
+        }
+
+        ReconciliationReport report = compare(orders, awaitDeductions(deductions, instances));
+        report.setFrom(from);
+        report.setTo(cutoff);
+        report.setInventoryInstances(instances.size());
+        report.setDurationMs((System.nanoTime() - start) / 1_000_000);
+        log.info("Reconciled {} confirmed orders over {} products up to {} in {} ms: {} products mismatched",
+                report.getConfirmedOrders(), report.getProducts(), cutoff, report.getDurationMs(),
+                report.getMismatchedProducts());
+        return report;
+    }
+
+    /**
+     * Stream the deduction totals of every instance and add them up per product as they arrive.
+     */
+    private CompletableFuture<Map<String, Long>> fetchDeductions(List<String> instances, LocalDateTime from,
+                                                                 LocalDateTime to) {
+        WebClient webClient = webClientBuilder.build();
+        return Flux.fromIterable(instances)
+                .flatMap(baseUrl -> {
+                    UriComponentsBuilder uri = UriComponentsBuilder.fromHttpUrl(baseUrl)
+                            .path("/inventory/movements/totals")
+                            .queryParam("to", to);
+                    if (from != null) {
+                        uri.queryParam("from", from);
+                    }
+                    return webClient.get()
+                            .uri(uri.encode().toUriString())
+                            .accept(MediaType.APPLICATION_NDJSON)
+                            .retrieve()
+                            .bodyToFlux(MovementTotals.class)
+                            .onErrorMap(e -> new InventoryServiceException(
+                                    "Cannot read movement totals from " + baseUrl + ": " + e.getMessage(), e));
+                })
+                .<Map<String, Long>>collect(HashMap::new,
+                        (totals, product) -> totals.merge(product.getProductId(), product.getDeducted(), Long::sum))
+                .toFuture();
+    }
+
+    private Map<String, Long> awaitDeductions(CompletableFuture<Map<String, Long>> deductions,
+                                              List<String> instances) {
+        try {
+            return deductions.get(inventoryTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof InventoryServiceException inventoryError) {
+                throw inventoryError;
+            }
+            throw new InventoryServiceException("Cannot read movement totals: " + e.getCause().getMessage(), e);
+        } catch (TimeoutException e) {
+            deductions.cancel(true);
+            throw new InventoryServiceException("Movement totals from " + instances + " took longer than "
+                    + inventoryTimeout, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            deductions.cancel(true);
+            throw new InventoryServiceException("Interrupted while reading movement totals", e);
+        }
+    }
+
+    private ReconciliationReport compare(Map<String, ProductTotal> orders, Map<String, Long> deductions) {
+        ReconciliationReport report = ReconciliationReport.builder().build();
+        // Smallest kept discrepancy on top, so it is the one to drop when a larger one comes along
+        PriorityQueue<ProductDiscrepancy> largest = new PriorityQueue<>(BY_SIZE);
+        Set<String> products = new HashSet<>(orders.keySet());
+        products.addAll(deductions.keySet());
+        for (String productId : products) {
+            ProductTotal ordered = orders.get(productId);
+            long orderedQuantity = ordered != null ? ordered.getConfirmedQuantity() : 0;
+            long deductedQuantity = deductions.getOrDefault(productId, 0L);
+            if (ordered != null) {
+                report.setConfirmedOrders(report.getConfirmedOrders() + ordered.getConfirmedOrders());
+            }
+            report.setOrderedQuantity(report.getOrderedQuantity() + orderedQuantity);
+            report.setDeductedQuantity(report.getDeductedQuantity() + deductedQuantity);
+            if (orderedQuantity == deductedQuantity) {
+                continue;
+            }
+            report.setMismatchedProducts(report.getMismatchedProducts() + 1);
+            if (maxDiscrepancies == 0) {
+                continue;
+            }
+            ProductDiscrepancy discrepancy = new ProductDiscrepancy(productId,
+                    ordered != null ? ordered.getConfirmedOrders() : 0,
+                    ordered != null ? ordered.getFailedOrders() : 0,
+                    orderedQuantity, deductedQuantity, deductedQuantity - orderedQuantity);
+            if (largest.size() < maxDiscrepancies) {
+                largest.add(discrepancy);
+            } else if (BY_SIZE.compare(discrepancy, largest.peek()) > 0) {
+                largest.poll();
+                largest.add(discrepancy);
+            }
+        }
+        report.setProducts(products.size());
+        List<ProductDiscrepancy> discrepancies = new ArrayList<>(largest);
+        discrepancies.sort(BY_SIZE.reversed());
+        report.setDiscrepancies(discrepancies);
+        return report;
+    }
+
+    /**
+     * Per-product order totals of an id slice, split in halves until small enough for one query.
+     */
+    private final class SliceTask extends RecursiveTask<Map<String, ProductTotal>> {
+
+        // Tasks only live on the pool; they are never serialized
+        private static final long serialVersionUID = 1L;
+
+        private final long fromId;
+        private final long toId;
+        private final LocalDateTime createdFrom;
+        private final LocalDateTime createdTo;
+
+        SliceTask(long fromId, long toId, LocalDateTime createdFrom, LocalDateTime createdTo) {
+            this.fromId = fromId;
+            this.toId = toId;
+            this.createdFrom = createdFrom;
+            this.createdTo = createdTo;
+        }
+
+        @Override
+        protected Map<String, ProductTotal> compute() {
+            if (toId - fromId < splitSize) {
+                return totalsRepository.sumByProduct(fromId, toId, createdFrom, createdTo);
+            }
+            long middle = fromId + (toId - fromId) / 2;
+            SliceTask lower = new SliceTask(fromId, middle, createdFrom, createdTo);
+            SliceTask upper = new SliceTask(middle + 1, toId, createdFrom, createdTo);
+            lower.fork();
+            Map<String, ProductTotal> upperTotals = upper.compute();
+            return merge(lower.join(), upperTotals);
+        }
+
+        private Map<String, ProductTotal> merge(Map<String, ProductTotal> a, Map<String, ProductTotal> b) {
+            Map<String, ProductTotal> into = a.size() >= b.size() ? a : b;
+            Map<String, ProductTotal> from = into == a ? b : a;
+            from.forEach((productId, total) -> into.merge(productId, total, (kept, added) -> {
+                kept.add(added);
+                return kept;
+            }));
+            return into;
+        }
+    }
+}
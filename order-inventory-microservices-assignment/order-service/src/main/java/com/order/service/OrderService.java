@@ -1,29 +1,49 @@
 package com.order.service;
 
+import com.order.cache.OrderStatusCache;
 import com.order.client.InventoryClient;
 import com.order.dto.InventoryUpdateRequest;
 import com.order.dto.InventoryUpdateResponse;
+import com.order.dto.OrderCacheMetrics;
+import com.order.dto.OrderPageResponse;
 import com.order.dto.OrderRequest;
 import com.order.dto.OrderResponse;
+import com.order.exception.InvalidCursorException;
 import com.order.exception.InventoryServiceException;
 import com.order.exception.ResourceNotFoundException;
 import com.order.model.Order;
 import com.order.model.OrderStatus;
+import com.order.repository.OrderArchiveRepository;
 import com.order.repository.OrderRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.List;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class OrderService {
 
+    static final int DEFAULT_PAGE_SIZE = 20;
+    static final int MAX_PAGE_SIZE = 100;
+
     private final OrderRepository orderRepository;
     private final InventoryClient inventoryClient;
+    private final OrderStatusCache orderStatusCache;
+    private final OrderArchiveRepository orderArchiveRepository;
 
     /**
      * Place a new order and update inventory.
@@ -36,8 +56,11 @@ public class OrderService {
         log.info("Processing order for product {} with quantity {}", 
                 request.getProductId(), request.getQuantity());
         
+        // Fail fast, before any database write, when the product is known to be unknown or short
+        inventoryClient.precheck(request.getProductId(), request.getQuantity());
+        
         // Generate unique order ID
-        String orderId = "ORD-" + UUID.randomUUID().toString().substring(0, 8).toUpperCase();
+        String orderId = generateOrderId();
         
         // Create order entity
         Order order = Order.builder()
@@ -66,6 +89,7 @@ public class OrderService {
             // Update order status to confirmed
             order.setStatus(OrderStatus.CONFIRMED);
             order = orderRepository.save(order);
+            cacheAfterCommit(order);
             
             return convertToResponse(order, "Order placed successfully");
             
@@ -92,18 +116,70 @@ public class OrderService {
 
     /**
      * Get order by order ID.
+     * Recently written orders are served from the order status cache. The method is
+     * deliberately not transactional so that a cache hit never acquires a JDBC connection;
+     * on a miss the repository call runs in its own read-only transaction. Orders not in the
+     * orders table are looked up in the archive.
      * 
      * @param orderId The order identifier
      * @return Order response
      */
-    @Transactional(readOnly = true)
     public OrderResponse getOrder(String orderId) {
         log.info("Fetching order: {}", orderId);
         
-        Order order = orderRepository.findByOrderId(orderId)
-                .orElseThrow(() -> new ResourceNotFoundException("Order not found with ID: " + orderId));
-        
-        return convertToResponse(order, null);
+        return orderStatusCache.get(orderId).orElseGet(() -> {
+            Order order = orderRepository.findByOrderId(orderId)
+                    .or(() -> orderArchiveRepository.findByOrderId(orderId))
+                    .orElseThrow(() -> new ResourceNotFoundException("Order not found with ID: " + orderId));
+            return convertToResponse(order, null);
+        });
+    }
+
+    /**
+     * List orders page by page using keyset pagination on (createdAt, id).
+     * Only the orders table is listed; archived orders are fetched one at a time with getOrder.
+     *
+     * @param status Optional status filter
+     * @param customerEmail Optional customer email filter
+     * @param after Cursor returned as nextCursor by the previous page, or null for the first page
+     * @param limit Page size, capped at MAX_PAGE_SIZE
+     * @return Page of orders with the cursor for the next page
+     */
+    @Transactional(readOnly = true)
+    public OrderPageResponse listOrders(OrderStatus status, String customerEmail, String after, Integer limit) {
+        int pageSize = limit == null ? DEFAULT_PAGE_SIZE : Math.min(Math.max(limit, 1), MAX_PAGE_SIZE);
+        log.info("Listing orders with status {} and email {} after cursor {} (limit {})",
+                status, customerEmail, after, pageSize);
+
+        LocalDateTime afterCreatedAt = null;
+        Long afterId = null;
+        if (after != null && !after.isBlank()) {
+            String[] cursor = decodeCursor(after);
+            try {
+                afterCreatedAt = LocalDateTime.parse(cursor[0]);
+                afterId = Long.parseLong(cursor[1]);
+            } catch (DateTimeParseException | NumberFormatException e) {
+                throw new InvalidCursorException(after);
+            }
+        }
+
+        // Fetch one extra row to learn whether another page exists without a count query
+        List<Order> orders = findPage(status, customerEmail, afterCreatedAt, afterId, PageRequest.of(0, pageSize + 1));
+
+        boolean hasMore = orders.size() > pageSize;
+        if (hasMore) {
+            orders = orders.subList(0, pageSize);
+        }
+
+        String nextCursor = hasMore ? encodeCursor(orders.get(orders.size() - 1)) : null;
+
+        return OrderPageResponse.builder()
+                .orders(orders.stream()
+                        .map(order -> convertToResponse(order, null))
+                        .collect(Collectors.toList()))
+                .nextCursor(nextCursor)
+                .hasMore(hasMore)
+                .build();
     }
 
     /**
@@ -116,8 +192,12 @@ public class OrderService {
     public OrderResponse cancelOrder(String orderId) {
         log.info("Cancelling order: {}", orderId);
         
-        Order order = orderRepository.findByOrderId(orderId)
-                .orElseThrow(() -> new ResourceNotFoundException("Order not found with ID: " + orderId));
+        Order order = orderRepository.findByOrderId(orderId).orElseThrow(() -> {
+            if (orderArchiveRepository.findByOrderId(orderId).isPresent()) {
+                return new IllegalStateException("Order is archived and can no longer be changed. Order ID: " + orderId);
+            }
+            return new ResourceNotFoundException("Order not found with ID: " + orderId);
+        });
         
         if (order.getStatus() == OrderStatus.CONFIRMED) {
             throw new IllegalStateException("Cannot cancel confirmed order. Order ID: " + orderId);
@@ -129,10 +209,99 @@ public class OrderService {
         
         order.setStatus(OrderStatus.CANCELLED);
         order = orderRepository.save(order);
+        cacheAfterCommit(order);
         
         return convertToResponse(order, "Order cancelled successfully");
     }
 
+    /**
+     * Generate a new order identifier. Twelve hex digits keep collisions negligible
+     * even for bulk imports of hundreds of thousands of orders.
+     *
+     * @return Order identifier such as ORD-A1B2C3D4E5F6
+     */
+    static String generateOrderId() {
+        return "ORD-" + UUID.randomUUID().toString().replace("-", "").substring(0, 12).toUpperCase();
+    }
+
+    /**
+     * Get order status cache metrics.
+     *
+     * @return Cache metrics
+     */
+    public OrderCacheMetrics getCacheMetrics() {
+        return orderStatusCache.metrics();
+    }
+
+    /**
+     * Write the order through to the status cache once the surrounding transaction commits,
+     * so a rolled-back write is never visible to status polls. The cached response is built after
+     * the commit flushed the order, so it carries the updatedAt set by the entity's update callback.
+     */
+    private void cacheAfterCommit(Order order) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    orderStatusCache.put(convertToResponse(order, null));
+                }
+            });
+        } else {
+            orderStatusCache.put(convertToResponse(order, null));
+        }
+    }
+
+    /**
+     * Run the page query of the given filter combination, so each one is planned against its own index.
+     */
+    private List<Order> findPage(OrderStatus status, String customerEmail, LocalDateTime afterCreatedAt,
+                                 Long afterId, Pageable pageable) {
+        if (afterCreatedAt == null) {
+            if (status != null && customerEmail != null) {
+                return orderRepository.findByStatusAndCustomerEmailOrderByCreatedAtAscIdAsc(status, customerEmail,
+                        pageable);
+            }
+            if (status != null) {
+                return orderRepository.findByStatusOrderByCreatedAtAscIdAsc(status, pageable);
+            }
+            if (customerEmail != null) {
+                return orderRepository.findByCustomerEmailOrderByCreatedAtAscIdAsc(customerEmail, pageable);
+            }
+            return orderRepository.findAllByOrderByCreatedAtAscIdAsc(pageable);
+        }
+        if (status != null && customerEmail != null) {
+            return orderRepository.findPageByStatusAndCustomerEmailAfter(status, customerEmail, afterCreatedAt,
+                    afterId, pageable);
+        }
+        if (status != null) {
+            return orderRepository.findPageByStatusAfter(status, afterCreatedAt, afterId, pageable);
+        }
+        if (customerEmail != null) {
+            return orderRepository.findPageByCustomerEmailAfter(customerEmail, afterCreatedAt, afterId, pageable);
+        }
+        return orderRepository.findPageAfter(afterCreatedAt, afterId, pageable);
+    }
+
+    private String encodeCursor(Order order) {
+        String raw = order.getCreatedAt() + "|" + order.getId();
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private String[] decodeCursor(String cursor) {
+        String[] parts;
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            parts = raw.split("\\|");
+        } catch (IllegalArgumentException e) {
+            throw new InvalidCursorException(cursor);
+        }
+        if (parts.length != 2) {
+            throw new InvalidCursorException(cursor);
+        }
+        return parts;
+    }
+
     private OrderResponse convertToResponse(Order order, String message) {
         return OrderResponse.builder()
                 .orderId(order.getOrderId())
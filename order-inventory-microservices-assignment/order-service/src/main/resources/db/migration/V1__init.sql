@@ -0,0 +1,17 @@
+CREATE TABLE orders (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    order_id VARCHAR(255) NOT NULL UNIQUE,
+    product_id VARCHAR(255) NOT NULL,
+    quantity INTEGER NOT NULL,
+    customer_name VARCHAR(255) NOT NULL,
+    customer_email VARCHAR(255),
+    status VARCHAR(32) NOT NULL,
+    created_at TIMESTAMP NOT NULL,
+    updated_at TIMESTAMP NOT NULL,
+    failure_reason VARCHAR(255)
+);
+
+-- Keyset pagination on (created_at, id), optionally filtered by status or customer email
+CREATE INDEX idx_orders_created_id ON orders (created_at, id);
+CREATE INDEX idx_orders_status_created_id ON orders (status, created_at, id);
+CREATE INDEX idx_orders_email_created_id ON orders (customer_email, created_at, id);
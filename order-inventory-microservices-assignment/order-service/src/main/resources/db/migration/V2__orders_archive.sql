@@ -0,0 +1,15 @@
+-- Terminal orders past the archival age are moved here by the archival job, so the orders table
+-- only holds recent and in-flight orders and its indexes stay small enough to remain cached.
+CREATE TABLE orders_archive (
+    id BIGINT PRIMARY KEY,
+    order_id VARCHAR(255) NOT NULL UNIQUE,
+    product_id VARCHAR(255) NOT NULL,
+    quantity INTEGER NOT NULL,
+    customer_name VARCHAR(255) NOT NULL,
+    customer_email VARCHAR(255),
+    status VARCHAR(32) NOT NULL,
+    created_at TIMESTAMP NOT NULL,
+    updated_at TIMESTAMP NOT NULL,
+    failure_reason VARCHAR(255),
+    archived_at TIMESTAMP NOT NULL
+);
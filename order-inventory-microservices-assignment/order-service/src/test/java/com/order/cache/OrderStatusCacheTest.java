@@ -0,0 +1,97 @@
+package com.order.cache;
+
+import com.order.dto.OrderCacheMetrics;
+import com.order.dto.OrderResponse;
+import com.order.model.OrderStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Order Status Cache Tests")
+class OrderStatusCacheTest {
+
+    private AtomicLong clock;
+    private OrderStatusCache cache;
+
+    @BeforeEach
+    void setUp() {
+        clock = new AtomicLong();
+        cache = new OrderStatusCache(4, Duration.ofSeconds(10), 1, clock::get);
+    }
+
+    @Test
+    @DisplayName("Should return cached order and count hits and misses")
+    void shouldReturnCachedOrder() {
+        // Given
+        cache.put(order("ORD-1", OrderStatus.CONFIRMED));
+
+        // When & Then
+        assertThat(cache.get("ORD-1")).hasValueSatisfying(o ->
+                assertThat(o.getStatus()).isEqualTo(OrderStatus.CONFIRMED));
+        assertThat(cache.get("ORD-2")).isEmpty();
+
+        OrderCacheMetrics metrics = cache.metrics();
+        assertThat(metrics.getHits()).isEqualTo(1);
+        assertThat(metrics.getMisses()).isEqualTo(1);
+        assertThat(metrics.getSize()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should replace entry on write-through update")
+    void shouldReplaceEntryOnUpdate() {
+        // Given
+        cache.put(order("ORD-1", OrderStatus.PENDING));
+
+        // When
+        cache.put(order("ORD-1", OrderStatus.CANCELLED));
+
+        // Then
+        assertThat(cache.get("ORD-1")).hasValueSatisfying(o ->
+                assertThat(o.getStatus()).isEqualTo(OrderStatus.CANCELLED));
+        assertThat(cache.metrics().getSize()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should expire entries older than the TTL")
+    void shouldExpireEntriesByAge() {
+        // Given
+        cache.put(order("ORD-1", OrderStatus.CONFIRMED));
+
+        // When
+        clock.addAndGet(Duration.ofSeconds(11).toNanos());
+
+        // Then
+        assertThat(cache.get("ORD-1")).isEmpty();
+        assertThat(cache.metrics().getExpirations()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should evict oldest entries beyond the size bound")
+    void shouldEvictOldestEntriesBySize() {
+        // When
+        for (int i = 1; i <= 6; i++) {
+            cache.put(order("ORD-" + i, OrderStatus.CONFIRMED));
+        }
+
+        // Then
+        assertThat(cache.get("ORD-1")).isEmpty();
+        assertThat(cache.get("ORD-2")).isEmpty();
+        assertThat(cache.get("ORD-6")).isPresent();
+        assertThat(cache.metrics().getSize()).isEqualTo(4);
+        assertThat(cache.metrics().getEvictions()).isEqualTo(2);
+    }
+
+    private OrderResponse order(String orderId, OrderStatus status) {
+        return OrderResponse.builder()
+                .orderId(orderId)
+                .productId("PROD-001")
+                .quantity(1)
+                .status(status)
+                .build();
+    }
+}
@@ -0,0 +1,93 @@
+package com.order.client;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("Consistent Hash Ring Tests")
+class ConsistentHashRingTest {
+
+    private static final List<String> PRODUCTS = IntStream.range(0, 10_000)
+            .mapToObj(i -> String.format("PROD-%05d", i))
+            .toList();
+
+    @Test
+    @DisplayName("Should spread products evenly over shards")
+    void shouldSpreadKeysEvenly() {
+        // Given
+        ConsistentHashRing ring = new ConsistentHashRing(List.of("shard-a", "shard-b", "shard-c"), 128);
+
+        // When
+        Map<String, Integer> counts = new HashMap<>();
+        PRODUCTS.forEach(productId -> counts.merge(ring.nodeFor(productId), 1, Integer::sum));
+
+        // Then
+        assertThat(counts).hasSize(3);
+        assertThat(counts.values()).allSatisfy(count -> assertThat(count).isBetween(2_800, 3_900));
+    }
+
+    @Test
+    @DisplayName("Should move only the new shard's share of products when a shard is added")
+    void shouldMoveFewKeysOnMembershipChange() {
+        // Given
+        ConsistentHashRing before = new ConsistentHashRing(List.of("shard-a", "shard-b", "shard-c"), 128);
+        ConsistentHashRing after = new ConsistentHashRing(List.of("shard-a", "shard-b", "shard-c", "shard-d"), 128);
+
+        // When
+        List<String> moved = PRODUCTS.stream()
+                .filter(productId -> !before.nodeFor(productId).equals(after.nodeFor(productId)))
+                .toList();
+
+        // Then
+        assertThat(moved).allSatisfy(productId -> assertThat(after.nodeFor(productId)).isEqualTo("shard-d"));
+        assertThat(moved.size()).isBetween(1_800, 3_200);
+    }
+
+    @Test
+    @DisplayName("Should not depend on the order shards are configured in")
+    void shouldBeIndependentOfMemberOrder() {
+        // Given
+        ConsistentHashRing first = new ConsistentHashRing(List.of("shard-a", "shard-b"), 64);
+        ConsistentHashRing second = new ConsistentHashRing(List.of("shard-b", "shard-a"), 64);
+
+        // Then
+        assertThat(PRODUCTS).allSatisfy(productId ->
+                assertThat(first.nodeFor(productId)).isEqualTo(second.nodeFor(productId)));
+    }
+
+    @Test
+    @DisplayName("Should hash and place virtual nodes exactly like the ring in Inventory Service")
+    void shouldMatchTheOtherServicesRing() {
+        // Given: the same constants are pinned in the other service's copy of this test
+        ConsistentHashRing ring = new ConsistentHashRing(List.of("shard-a", "shard-b", "shard-c"), 128);
+
+        // When
+        Map<String, Integer> counts = new HashMap<>();
+        PRODUCTS.forEach(productId -> counts.merge(ring.nodeFor(productId), 1, Integer::sum));
+
+        // Then
+        assertThat(ConsistentHashRing.hash("PROD-001")).isEqualTo(-7411531014702386371L);
+        assertThat(ConsistentHashRing.hash("shard-a#0")).isEqualTo(158024568776520412L);
+        assertThat(ConsistentHashRing.hash("shard-c#127")).isEqualTo(2316835761546827693L);
+        assertThat(counts).containsExactlyInAnyOrderEntriesOf(
+                Map.of("shard-a", 2878, "shard-b", 3736, "shard-c", 3386));
+        assertThat(List.of("PROD-001", "PROD-002", "PROD-003", "PROD-004", "PROD-005"))
+                .extracting(ring::nodeFor)
+                .containsExactly("shard-a", "shard-a", "shard-c", "shard-b", "shard-c");
+    }
+
+    @Test
+    @DisplayName("Should reject an empty ring lookup")
+    void shouldRejectLookupOnEmptyRing() {
+        ConsistentHashRing ring = new ConsistentHashRing(List.of(), 16);
+
+        assertThatThrownBy(() -> ring.nodeFor("PROD-001")).isInstanceOf(IllegalStateException.class);
+    }
+}
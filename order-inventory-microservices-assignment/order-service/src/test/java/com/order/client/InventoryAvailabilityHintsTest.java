@@ -0,0 +1,80 @@
+package com.order.client;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Inventory Availability Hints Tests")
+class InventoryAvailabilityHintsTest {
+
+    private AtomicLong clock;
+    private InventoryAvailabilityHints hints;
+
+    @BeforeEach
+    void setUp() {
+        clock = new AtomicLong();
+        hints = new InventoryAvailabilityHints(Duration.ofSeconds(30), Duration.ofSeconds(5), 2, clock::get);
+    }
+
+    @Test
+    @DisplayName("Should reject orders for unknown products until the hint expires")
+    void shouldRejectUnknownProductUntilExpiry() {
+        // Given
+        hints.recordUnknownProduct("PROD-X");
+
+        // When & Then
+        assertThat(hints.rejectionReason("PROD-X", 1)).hasValue("Product not found in inventory");
+
+        clock.addAndGet(Duration.ofSeconds(30).toNanos());
+        assertThat(hints.rejectionReason("PROD-X", 1)).isEmpty();
+        assertThat(hints.getRejectionCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should reject only quantities above the known available stock")
+    void shouldRejectQuantitiesAboveKnownStock() {
+        // Given
+        hints.recordMaxAvailable("PROD-001", 5);
+
+        // When & Then
+        assertThat(hints.rejectionReason("PROD-001", 5)).isEmpty();
+        assertThat(hints.rejectionReason("PROD-001", 6)).hasValueSatisfying(reason ->
+                assertThat(reason).contains("Available: 5"));
+    }
+
+    @Test
+    @DisplayName("Should forget hints on invalidation")
+    void shouldForgetHintsOnInvalidation() {
+        // Given
+        hints.recordMaxAvailable("PROD-001", 0);
+
+        // When
+        hints.invalidate("PROD-001");
+
+        // Then
+        assertThat(hints.rejectionReason("PROD-001", 1)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should stop recording hints when full of live entries")
+    void shouldBoundNumberOfHints() {
+        // Given
+        hints.recordUnknownProduct("PROD-A");
+        hints.recordUnknownProduct("PROD-B");
+
+        // When
+        hints.recordUnknownProduct("PROD-C");
+
+        // Then
+        assertThat(hints.rejectionReason("PROD-C", 1)).isEmpty();
+
+        clock.addAndGet(Duration.ofSeconds(30).toNanos());
+        hints.recordUnknownProduct("PROD-C");
+        assertThat(hints.rejectionReason("PROD-C", 1)).isPresent();
+    }
+}
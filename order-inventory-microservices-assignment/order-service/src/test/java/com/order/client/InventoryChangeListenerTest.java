@@ -0,0 +1,81 @@
+package com.order.client;
+
+import com.order.dto.InventoryChangeEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Inventory Change Listener Tests")
+class InventoryChangeListenerTest {
+
+    private static final String BASE_URL = "http://localhost:8081";
+
+    private InventoryAvailabilityHints hints;
+    private InventoryChangeListener listener;
+
+    @BeforeEach
+    void setUp() {
+        hints = new InventoryAvailabilityHints(Duration.ofSeconds(30), Duration.ofSeconds(30), 100, System::nanoTime);
+        InventoryRouter router = new InventoryRouter(new ShardingProperties(), BASE_URL);
+        listener = new InventoryChangeListener(WebClient.builder(), hints, router, false, Duration.ofSeconds(1));
+    }
+
+    @Test
+    @DisplayName("Should drop stock hints for restocked products only")
+    void shouldInvalidateHintsOnRestock() {
+        // Given
+        hints.recordMaxAvailable("PROD-001", 0);
+        hints.recordMaxAvailable("PROD-002", 0);
+
+        // When
+        listener.apply(BASE_URL, List.of(
+                event(1, "PROD-001", "RESTOCK"),
+                event(2, "PROD-002", "DEDUCTION")), 2);
+
+        // Then
+        assertThat(hints.rejectionReason("PROD-001", 1)).isEmpty();
+        assertThat(hints.rejectionReason("PROD-002", 1)).isPresent();
+    }
+
+    @Test
+    @DisplayName("Should drop all hints when the feed restarts behind the cursor")
+    void shouldInvalidateAllHintsWhenFeedRestarts() {
+        // Given
+        listener.apply(BASE_URL, List.of(event(5, "PROD-001", "DEDUCTION")), 5);
+        hints.recordUnknownProduct("PROD-X");
+
+        // When
+        listener.apply(BASE_URL, List.of(), 0);
+
+        // Then
+        assertThat(hints.rejectionReason("PROD-X", 1)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should keep a separate cursor per inventory instance")
+    void shouldTrackCursorPerInstance() {
+        // Given
+        listener.apply(BASE_URL, List.of(event(5, "PROD-001", "DEDUCTION")), 5);
+        hints.recordUnknownProduct("PROD-X");
+
+        // When
+        listener.apply("http://localhost:8083", List.of(event(1, "PROD-002", "DEDUCTION")), 1);
+
+        // Then
+        assertThat(hints.rejectionReason("PROD-X", 1)).isPresent();
+    }
+
+    private InventoryChangeEvent event(long sequence, String productId, String type) {
+        return InventoryChangeEvent.builder()
+                .sequence(sequence)
+                .productId(productId)
+                .type(type)
+                .build();
+    }
+}
@@ -0,0 +1,208 @@
+package com.order.client;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.order.dto.InventoryBatchResponse;
+import com.order.dto.InventoryUpdateRequest;
+import com.order.dto.InventoryUpdateResponse;
+import com.order.exception.InventoryOverloadedException;
+import com.order.exception.InventoryRejectedException;
+import com.order.exception.InventoryServiceException;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("Inventory Client Tests")
+class InventoryClientTest {
+
+    private HttpServer server;
+    private AtomicInteger updates;
+    private AtomicInteger sheds;
+    private final List<String> updateContentTypes = new CopyOnWriteArrayList<>();
+    private final ObjectMapper smileMapper = new ObjectMapper(new SmileFactory());
+    private InventoryClient client;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        updates = new AtomicInteger();
+        sheds = new AtomicInteger();
+        server = server();
+
+        InventoryAvailabilityHints hints = new InventoryAvailabilityHints(
+                Duration.ofSeconds(30), Duration.ofSeconds(30), 100, System::nanoTime);
+        ShardingProperties properties = new ShardingProperties();
+        properties.setShards(Map.of("shard-a", url(server)));
+        InventoryRouter router = new InventoryRouter(properties, "http://unused");
+        client = new InventoryClient(WebClient.builder(), hints, router);
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    @DisplayName("Should read the batches of a product from its shard")
+    void shouldReadBatches() {
+        // When
+        List<InventoryBatchResponse> batches = client.getInventoryBatches("PROD-001");
+
+        // Then
+        assertThat(batches).extracting(InventoryBatchResponse::getBatchNumber).containsExactly("BATCH-1");
+    }
+
+    @Test
+    @DisplayName("Should send deductions in Smile and read the Smile answer")
+    void shouldExchangeDeductionsInSmile() {
+        // When
+        InventoryUpdateResponse response = client.updateInventory(
+                InventoryUpdateRequest.builder().productId("PROD-001").quantity(1).build());
+
+        // Then
+        assertThat(updateContentTypes).containsExactly("application/x-jackson-smile");
+        assertThat(response.getProductId()).isEqualTo("PROD-001");
+        assertThat(response.getTotalQuantityDeducted()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should send deductions in JSON when configured to")
+    void shouldExchangeDeductionsInJson() {
+        // Given
+        ReflectionTestUtils.setField(client, "wireFormat", "json");
+
+        // When
+        InventoryUpdateResponse response = client.updateInventory(
+                InventoryUpdateRequest.builder().productId("PROD-001").quantity(1).build());
+
+        // Then
+        assertThat(updateContentTypes).containsExactly("application/json");
+        assertThat(response.getTotalQuantityDeducted()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should tell a rejected deduction from one with an unknown outcome")
+    void shouldDistinguishRejectedDeductions() {
+        // When / Then
+        assertThatThrownBy(() -> client.updateInventory(
+                InventoryUpdateRequest.builder().productId("PROD-SHORT").quantity(5).build()))
+                .isInstanceOf(InventoryRejectedException.class)
+                .hasMessageContaining("Insufficient inventory");
+        assertThatThrownBy(() -> client.updateInventory(
+                InventoryUpdateRequest.builder().productId("PROD-DOWN").quantity(1).build()))
+                .isInstanceOf(InventoryServiceException.class)
+                .isNotInstanceOf(InventoryRejectedException.class);
+    }
+
+    @Test
+    @DisplayName("Should retry a deduction shed by the concurrency limit once after Retry-After")
+    void shouldRetryShedDeduction() {
+        // Given
+        sheds.set(1);
+
+        // When
+        InventoryUpdateResponse response = client.updateInventory(
+                InventoryUpdateRequest.builder().productId("PROD-BUSY").quantity(1).build());
+
+        // Then
+        assertThat(updates).hasValue(2);
+        assertThat(response.getTotalQuantityDeducted()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should report a shed deduction as rejected when Retry-After is too long to wait")
+    void shouldRejectShedDeductionWithLongRetryAfter() {
+        // Given
+        sheds.set(1);
+        ReflectionTestUtils.setField(client, "overloadRetryMaxWait", Duration.ZERO);
+
+        // When / Then
+        assertThatThrownBy(() -> client.updateInventory(
+                InventoryUpdateRequest.builder().productId("PROD-BUSY").quantity(1).build()))
+                .isInstanceOf(InventoryOverloadedException.class)
+                .satisfies(e -> assertThat(((InventoryOverloadedException) e).getRetryAfter())
+                        .isEqualTo(Duration.ofSeconds(1)));
+        assertThat(updates).hasValue(1);
+    }
+
+    @Test
+    @DisplayName("Should treat a 503 without Retry-After as an unknown outcome")
+    void shouldNotTrustUnavailableWithoutRetryAfter() {
+        // When / Then
+        assertThatThrownBy(() -> client.updateInventory(
+                InventoryUpdateRequest.builder().productId("PROD-GATEWAY").quantity(1).build()))
+                .isInstanceOf(InventoryServiceException.class)
+                .isNotInstanceOf(InventoryRejectedException.class);
+        assertThat(updates).hasValue(1);
+    }
+
+    private HttpServer server() throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/inventory/", exchange -> {
+            String body;
+            String contentType = "application/json";
+            int status = 200;
+            if ("POST".equals(exchange.getRequestMethod())) {
+                updates.incrementAndGet();
+                contentType = exchange.getRequestHeaders().getFirst("Content-Type");
+                updateContentTypes.add(contentType);
+                // Smile keeps short strings as plain bytes, so the product id can be spotted either way
+                String request = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.ISO_8859_1);
+                if (request.contains("PROD-BUSY") && sheds.getAndDecrement() > 0) {
+                    status = 503;
+                    contentType = "application/json";
+                    body = "{\"message\":\"Inventory service is overloaded, retry later\"}";
+                    exchange.getResponseHeaders().set("Retry-After", "1");
+                } else if (request.contains("PROD-GATEWAY")) {
+                    status = 503;
+                    contentType = "application/json";
+                    body = "{\"message\":\"Bad gateway\"}";
+                } else if (request.contains("PROD-SHORT")) {
+                    status = 400;
+                    contentType = "application/json";
+                    body = "{\"message\":\"Insufficient inventory. Required: 5, Available: 2\"}";
+                } else if (request.contains("PROD-DOWN")) {
+                    status = 500;
+                    contentType = "application/json";
+                    body = "{\"message\":\"An unexpected error occurred\"}";
+                } else {
+                    body = "{\"productId\":\"PROD-001\",\"totalQuantityDeducted\":1,\"batchDeductions\":[]}";
+                }
+            } else {
+                body = "[{\"batchNumber\":\"BATCH-1\",\"productId\":\"PROD-001\",\"quantity\":5,\"expiryDate\":\"2030-01-01\"}]";
+            }
+            byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+            if (contentType.startsWith("application/x-jackson-smile")) {
+                // Answer in the format the deduction was sent in
+                bytes = smileMapper.writeValueAsBytes(new ObjectMapper().readTree(bytes));
+            }
+            exchange.getResponseHeaders().set("Content-Type", contentType);
+            exchange.sendResponseHeaders(status, bytes.length);
+            exchange.getResponseBody().write(bytes);
+            exchange.close();
+        });
+        server.start();
+        return server;
+    }
+
+    private String url(HttpServer server) {
+        return "http://localhost:" + server.getAddress().getPort();
+    }
+}
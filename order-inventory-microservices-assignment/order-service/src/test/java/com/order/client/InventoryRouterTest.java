@@ -0,0 +1,43 @@
+package com.order.client;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("Inventory Router Tests")
+class InventoryRouterTest {
+
+    @Test
+    @DisplayName("Should return the owning shard's instance and fall back to the single URL without shards")
+    void shouldRouteThroughRouter() {
+        // Given
+        ShardingProperties properties = new ShardingProperties();
+        properties.setShards(Map.of("shard-a", "http://a1"));
+        InventoryRouter router = new InventoryRouter(properties, "http://default");
+        InventoryRouter unsharded = new InventoryRouter(new ShardingProperties(), "http://default");
+
+        // Then
+        assertThat(router.baseUrlFor("PROD-001")).isEqualTo("http://a1");
+        assertThat(router.allBaseUrls()).containsExactly("http://a1");
+        assertThat(unsharded.baseUrlFor("PROD-001")).isEqualTo("http://default");
+        assertThat(unsharded.shardFor("PROD-001")).isNull();
+    }
+
+    @Test
+    @DisplayName("Should refuse two shards served by the same instance")
+    void shouldRejectSharedInstance() {
+        // Given
+        ShardingProperties properties = new ShardingProperties();
+        properties.setShards(new LinkedHashMap<>(Map.of("shard-a", "http://a1", "shard-b", "http://a1")));
+
+        // When / Then
+        assertThatThrownBy(() -> new InventoryRouter(properties, "http://default"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("shares instance http://a1");
+    }
+}
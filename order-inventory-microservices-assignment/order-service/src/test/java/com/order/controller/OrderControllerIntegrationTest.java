@@ -4,26 +4,45 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.order.client.InventoryClient;
 import com.order.dto.InventoryUpdateResponse;
 import com.order.dto.OrderRequest;
+import com.order.exception.InventoryRejectedException;
 import com.order.exception.InventoryServiceException;
+import com.order.model.Order;
+import com.order.model.OrderStatus;
+import com.order.repository.OrderRepository;
+import com.order.repository.OrderTotalsRepository;
+import com.order.service.OrderArchiver;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.availability.ReadinessState;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.Collections;
+import java.util.Map;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
-@SpringBootTest
+@SpringBootTest(properties = {
+        "order.warmup.iterations=20",
+        "order.rate-limit.tiers.trial.rate=0.01",
+        "order.rate-limit.tiers.trial.burst=1",
+        "order.rate-limit.api-keys.trial-key=trial",
+        "order.rate-limit.api-keys.bulk-trial-key=trial"
+})
 @AutoConfigureMockMvc
 @Transactional
 @DisplayName("Order Controller Integration Tests")
@@ -32,9 +51,21 @@ class OrderControllerIntegrationTest {
     @Autowired
     private MockMvc mockMvc;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderArchiver orderArchiver;
+
+    @Autowired
+    private OrderTotalsRepository orderTotalsRepository;
+
     @MockBean
     private InventoryClient inventoryClient;
 
@@ -73,6 +104,39 @@ class OrderControllerIntegrationTest {
         verify(inventoryClient, times(1)).updateInventory(any());
     }
 
+    @Test
+    @DisplayName("Should return 429 before any inventory call once the customer's rate is exceeded")
+    void shouldReturn429WhenRateLimited() throws Exception {
+        // Given
+        OrderRequest request = OrderRequest.builder()
+                .productId("PROD-001")
+                .quantity(1)
+                .customerName("Jane Doe")
+                .customerEmail("jane.doe@example.com")
+                .build();
+        when(inventoryClient.updateInventory(any())).thenReturn(InventoryUpdateResponse.builder()
+                .productId("PROD-001")
+                .totalQuantityDeducted(1)
+                .batchDeductions(Collections.emptyList())
+                .build());
+        mockMvc.perform(post("/order")
+                        .header("X-API-Key", "trial-key")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated());
+
+        // When & Then
+        mockMvc.perform(post("/order")
+                        .header("X-API-Key", "trial-key")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().exists("Retry-After"))
+                .andExpect(jsonPath("$.error").value("Too Many Requests"));
+
+        verify(inventoryClient, times(1)).updateInventory(any());
+    }
+
     @Test
     @DisplayName("Should return 503 when inventory service fails")
     void shouldReturn503WhenInventoryServiceFails() throws Exception {
@@ -114,6 +178,263 @@ class OrderControllerIntegrationTest {
         verify(inventoryClient, never()).updateInventory(any());
     }
 
+    @Test
+    @DisplayName("Should page through orders with keyset cursor")
+    void shouldPageThroughOrdersWithCursor() throws Exception {
+        // Given
+        LocalDateTime createdAt = LocalDateTime.of(2024, 11, 21, 10, 30);
+        for (int i = 0; i < 3; i++) {
+            orderRepository.save(Order.builder()
+                    .orderId("ORD-PAGE-" + i)
+                    .productId("PROD-001")
+                    .quantity(1)
+                    .customerName("Jane Doe")
+                    .customerEmail("pager@example.com")
+                    .status(OrderStatus.CONFIRMED)
+                    .createdAt(createdAt)
+                    .build());
+        }
+
+        // When & Then
+        String body = mockMvc.perform(get("/order")
+                        .param("email", "pager@example.com")
+                        .param("status", "CONFIRMED")
+                        .param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.orders", hasSize(2)))
+                .andExpect(jsonPath("$.orders[0].orderId").value("ORD-PAGE-0"))
+                .andExpect(jsonPath("$.hasMore").value(true))
+                .andReturn().getResponse().getContentAsString();
+
+        String cursor = objectMapper.readTree(body).get("nextCursor").asText();
+
+        mockMvc.perform(get("/order")
+                        .param("email", "pager@example.com")
+                        .param("after", cursor)
+                        .param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.orders", hasSize(1)))
+                .andExpect(jsonPath("$.orders[0].orderId").value("ORD-PAGE-2"))
+                .andExpect(jsonPath("$.hasMore").value(false));
+    }
+
+    @Test
+    @DisplayName("Should archive old terminal orders and still serve them by ID")
+    void shouldServeArchivedOrder() throws Exception {
+        // Given
+        LocalDateTime longAgo = LocalDateTime.of(2024, 1, 15, 9, 0);
+        orderRepository.save(Order.builder()
+                .orderId("ORD-ARCHIVE-1")
+                .productId("PROD-001")
+                .quantity(1)
+                .customerName("Jane Doe")
+                .status(OrderStatus.CONFIRMED)
+                .createdAt(longAgo)
+                .build());
+        orderRepository.save(Order.builder()
+                .orderId("ORD-ARCHIVE-2")
+                .productId("PROD-001")
+                .quantity(1)
+                .customerName("Jane Doe")
+                .status(OrderStatus.PENDING)
+                .createdAt(longAgo)
+                .build());
+
+        // When
+        int archived = orderArchiver.archiveAll();
+
+        // Then
+        assertThat(archived).isGreaterThanOrEqualTo(1);
+        assertThat(orderRepository.findByOrderId("ORD-ARCHIVE-1")).isEmpty();
+        assertThat(orderRepository.findByOrderId("ORD-ARCHIVE-2")).isPresent();
+        mockMvc.perform(get("/order/ORD-ARCHIVE-1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("CONFIRMED"));
+    }
+
+    @Test
+    @DisplayName("Should sum confirmed and failed orders per product across live and archived orders")
+    void shouldSumOrderTotalsAcrossArchive() {
+        // Given
+        LocalDateTime longAgo = LocalDateTime.of(2024, 1, 15, 9, 0);
+        saveOrder("ORD-RECON-1", 3, OrderStatus.CONFIRMED, longAgo);
+        saveOrder("ORD-RECON-2", 4, OrderStatus.CONFIRMED, LocalDateTime.now());
+        saveOrder("ORD-RECON-3", 2, OrderStatus.FAILED, LocalDateTime.now());
+        saveOrder("ORD-RECON-4", 9, OrderStatus.CANCELLED, LocalDateTime.now());
+        orderArchiver.archiveAll();
+
+        // When
+        OrderTotalsRepository.IdRange range = orderTotalsRepository.findIdRange();
+        Map<String, OrderTotalsRepository.ProductTotal> totals = orderTotalsRepository.sumByProduct(
+                range.getMinId(), range.getMaxId(), longAgo.minusDays(1), LocalDateTime.now().plusMinutes(1));
+
+        // Then
+        assertThat(orderRepository.findByOrderId("ORD-RECON-1")).isEmpty();
+        assertThat(totals.get("PROD-RECON"))
+                .isEqualTo(new OrderTotalsRepository.ProductTotal("PROD-RECON", 2, 7, 1));
+    }
+
+    @Test
+    @DisplayName("Should return 400 for malformed page cursor")
+    void shouldReturn400ForMalformedCursor() throws Exception {
+        mockMvc.perform(get("/order").param("after", "%%%"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Bad Request"));
+    }
+
+    @Test
+    @DisplayName("Should bulk import orders with one inventory call per product")
+    void shouldBulkImportOrdersGroupedByProduct() throws Exception {
+        // Given
+        String ndjson = String.join("\n",
+                "{\"productId\":\"PROD-001\",\"quantity\":2,\"customerName\":\"A\"}",
+                "{\"productId\":\"PROD-002\",\"quantity\":1,\"customerName\":\"B\"}",
+                "{\"productId\":\"PROD-001\",\"quantity\":3,\"customerName\":\"C\"}",
+                "{\"productId\":\"\",\"quantity\":0,\"customerName\":\"D\"}",
+                "not json");
+
+        when(inventoryClient.updateInventory(any())).thenReturn(InventoryUpdateResponse.builder().build());
+
+        // When
+        String body = mockMvc.perform(post("/order/bulk")
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content(ndjson))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString();
+
+        // Then
+        String[] results = body.trim().split("\n");
+        assertThat(results).hasSize(5);
+        assertThat(objectMapper.readTree(results[0]).get("status").asText()).isEqualTo("CONFIRMED");
+        assertThat(objectMapper.readTree(results[2]).get("orderId").asText()).startsWith("ORD-");
+        assertThat(objectMapper.readTree(results[3]).get("error").asText()).contains("productId");
+        assertThat(objectMapper.readTree(results[4]).get("error").asText()).contains("Malformed JSON");
+
+        verify(inventoryClient).updateInventory(argThat(r -> "PROD-001".equals(r.getProductId()) && r.getQuantity() == 5));
+        verify(inventoryClient).updateInventory(argThat(r -> "PROD-002".equals(r.getProductId()) && r.getQuantity() == 1));
+        verify(inventoryClient, times(2)).updateInventory(any());
+        assertThat(orderRepository.count()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Should reject a null line in a bulk import and import the others")
+    void shouldRejectNullLineInBulkImport() throws Exception {
+        // Given
+        String ndjson = String.join("\n",
+                "null",
+                "{\"productId\":\"PROD-001\",\"quantity\":2,\"customerName\":\"A\"}");
+
+        when(inventoryClient.updateInventory(any())).thenReturn(InventoryUpdateResponse.builder().build());
+
+        // When
+        String body = mockMvc.perform(post("/order/bulk")
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content(ndjson))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        // Then
+        String[] results = body.trim().split("\n");
+        assertThat(results).hasSize(2);
+        assertThat(objectMapper.readTree(results[0]).get("line").asInt()).isEqualTo(1);
+        assertThat(objectMapper.readTree(results[0]).get("error").asText()).contains("got null");
+        assertThat(objectMapper.readTree(results[1]).get("status").asText()).isEqualTo("CONFIRMED");
+        assertThat(orderRepository.count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should charge each bulk import line to the caller's rate limit")
+    void shouldRateLimitBulkImportLines() throws Exception {
+        // Given: the trial tier holds a single token, and the lines name different customers
+        String ndjson = String.join("\n",
+                "{\"productId\":\"PROD-001\",\"quantity\":1,\"customerName\":\"A\",\"customerEmail\":\"a@example.com\"}",
+                "{\"productId\":\"PROD-002\",\"quantity\":1,\"customerName\":\"B\",\"customerEmail\":\"b@example.com\"}");
+
+        when(inventoryClient.updateInventory(any())).thenReturn(InventoryUpdateResponse.builder().build());
+
+        // When
+        String body = mockMvc.perform(post("/order/bulk")
+                        .header("X-API-Key", "bulk-trial-key")
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content(ndjson))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        // Then
+        String[] results = body.trim().split("\n");
+        assertThat(objectMapper.readTree(results[0]).get("status").asText()).isEqualTo("CONFIRMED");
+        assertThat(objectMapper.readTree(results[1]).get("error").asText()).startsWith("Order rate limit exceeded");
+        verify(inventoryClient, times(1)).updateInventory(any());
+        assertThat(orderRepository.count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should fall back to per-line deductions when grouped deduction fails")
+    void shouldFallBackToPerLineDeductionsInBulkImport() throws Exception {
+        // Given
+        String ndjson = String.join("\n",
+                "{\"productId\":\"PROD-001\",\"quantity\":3,\"customerName\":\"A\"}",
+                "{\"productId\":\"PROD-001\",\"quantity\":4,\"customerName\":\"B\"}");
+
+        when(inventoryClient.updateInventory(argThat(r -> r != null && r.getQuantity() == 3)))
+                .thenReturn(InventoryUpdateResponse.builder().build());
+        when(inventoryClient.updateInventory(argThat(r -> r != null && r.getQuantity() != 3)))
+                .thenThrow(new InventoryRejectedException("Insufficient inventory"));
+
+        // When
+        String body = mockMvc.perform(post("/order/bulk")
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content(ndjson))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        // Then
+        String[] results = body.trim().split("\n");
+        assertThat(objectMapper.readTree(results[0]).get("status").asText()).isEqualTo("CONFIRMED");
+        assertThat(objectMapper.readTree(results[1]).get("status").asText()).isEqualTo("FAILED");
+        assertThat(objectMapper.readTree(results[1]).get("error").asText()).contains("Insufficient inventory");
+        verify(inventoryClient, times(3)).updateInventory(any());
+        assertThat(orderRepository.findByOrderId(objectMapper.readTree(results[0]).get("orderId").asText()))
+                .hasValueSatisfying(order -> assertThat(order.getStatus()).isEqualTo(OrderStatus.CONFIRMED));
+        assertThat(orderRepository.findByOrderId(objectMapper.readTree(results[1]).get("orderId").asText()))
+                .hasValueSatisfying(order -> {
+                    assertThat(order.getStatus()).isEqualTo(OrderStatus.FAILED);
+                    assertThat(order.getFailureReason()).contains("Insufficient inventory");
+                });
+    }
+
+    @Test
+    @DisplayName("Should not retry lines one by one when the grouped deduction outcome is unknown")
+    void shouldNotFallBackWhenBulkDeductionOutcomeIsUnknown() throws Exception {
+        // Given
+        String ndjson = String.join("\n",
+                "{\"productId\":\"PROD-001\",\"quantity\":3,\"customerName\":\"A\"}",
+                "{\"productId\":\"PROD-001\",\"quantity\":4,\"customerName\":\"B\"}");
+
+        when(inventoryClient.updateInventory(any()))
+                .thenThrow(new InventoryServiceException("Failed to communicate with Inventory Service: timeout"));
+
+        // When
+        String body = mockMvc.perform(post("/order/bulk")
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content(ndjson))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        // Then
+        String[] results = body.trim().split("\n");
+        for (String result : results) {
+            assertThat(objectMapper.readTree(result).get("status").asText()).isEqualTo("FAILED");
+            assertThat(objectMapper.readTree(result).get("error").asText()).startsWith("Inventory outcome unknown");
+        }
+        verify(inventoryClient).updateInventory(argThat(r -> r.getQuantity() == 7));
+        verify(inventoryClient, times(1)).updateInventory(any());
+        assertThat(orderRepository.findAll())
+                .hasSize(2)
+                .allSatisfy(order -> assertThat(order.getStatus()).isEqualTo(OrderStatus.FAILED));
+    }
+
     @Test
     @DisplayName("Should return health check")
     void shouldReturnHealthCheck() throws Exception {
@@ -121,5 +442,28 @@ class OrderControllerIntegrationTest {
                 .andExpect(status().isOk())
                 .andExpect(content().string(containsString("running")));
     }
-}
 
+    @Test
+    @DisplayName("Should report not ready while refusing traffic")
+    void shouldReturn503FromHealthCheckWhileNotReady() throws Exception {
+        AvailabilityChangeEvent.publish(eventPublisher, this, ReadinessState.REFUSING_TRAFFIC);
+        try {
+            mockMvc.perform(get("/order/health"))
+                    .andExpect(status().isServiceUnavailable())
+                    .andExpect(content().string(containsString("warming up")));
+        } finally {
+            AvailabilityChangeEvent.publish(eventPublisher, this, ReadinessState.ACCEPTING_TRAFFIC);
+        }
+    }
+
+    private void saveOrder(String orderId, int quantity, OrderStatus status, LocalDateTime createdAt) {
+        orderRepository.save(Order.builder()
+                .orderId(orderId)
+                .productId("PROD-RECON")
+                .quantity(quantity)
+                .customerName("Jane Doe")
+                .status(status)
+                .createdAt(createdAt)
+                .build());
+    }
+}
@@ -0,0 +1,132 @@
+package com.order.ratelimit;
+
+import com.order.exception.RateLimitExceededException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("Customer Rate Limiter Tests")
+class CustomerRateLimiterTest {
+
+    private AtomicLong clock;
+    private RateLimitProperties properties;
+
+    @BeforeEach
+    void setUp() {
+        clock = new AtomicLong(TimeUnit.SECONDS.toNanos(100));
+        properties = new RateLimitProperties();
+        properties.setTiers(Map.of(
+                "standard", new RateLimitProperties.Tier(10, 3),
+                "partner", new RateLimitProperties.Tier(100, 50)));
+        properties.setApiKeys(Map.of("partner-key", "partner"));
+    }
+
+    @Test
+    @DisplayName("Should allow a burst, then reject with the time until the next token")
+    void shouldRejectAfterBurst() {
+        // Given
+        CustomerRateLimiter limiter = new CustomerRateLimiter(properties, clock::get);
+        for (int i = 0; i < 3; i++) {
+            limiter.acquire(null, "alice@example.com", "10.0.0.1");
+        }
+
+        // When / Then
+        assertThatThrownBy(() -> limiter.acquire(null, "alice@example.com", "10.0.0.1"))
+                .isInstanceOf(RateLimitExceededException.class)
+                .satisfies(e -> assertThat(((RateLimitExceededException) e).getRetryAfter())
+                        .isEqualTo(Duration.ofMillis(100)));
+        assertThat(limiter.getRejectedCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should refill tokens at the tier's rate")
+    void shouldRefillOverTime() {
+        // Given
+        CustomerRateLimiter limiter = new CustomerRateLimiter(properties, clock::get);
+        for (int i = 0; i < 3; i++) {
+            limiter.acquire(null, "alice@example.com", "10.0.0.1");
+        }
+
+        // When
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(100));
+
+        // Then
+        assertThatCode(() -> limiter.acquire(null, "alice@example.com", "10.0.0.1")).doesNotThrowAnyException();
+        assertThatThrownBy(() -> limiter.acquire(null, "alice@example.com", "10.0.0.1"))
+                .isInstanceOf(RateLimitExceededException.class);
+    }
+
+    @Test
+    @DisplayName("Should keep customers independent and treat emails case-insensitively")
+    void shouldIsolateCustomers() {
+        // Given
+        CustomerRateLimiter limiter = new CustomerRateLimiter(properties, clock::get);
+        for (int i = 0; i < 3; i++) {
+            limiter.acquire(null, "Alice@Example.com", "10.0.0.1");
+        }
+
+        // Then
+        assertThatThrownBy(() -> limiter.acquire(null, "alice@example.com", "10.0.0.2"))
+                .isInstanceOf(RateLimitExceededException.class);
+        assertThatCode(() -> limiter.acquire(null, "bob@example.com", "10.0.0.1")).doesNotThrowAnyException();
+        assertThatCode(() -> limiter.acquire(null, null, "10.0.0.1")).doesNotThrowAnyException();
+    }
+
+    @Test
+    @DisplayName("Should apply the tier of a configured API key and ignore unknown keys")
+    void shouldUseApiKeyTier() {
+        // Given
+        CustomerRateLimiter limiter = new CustomerRateLimiter(properties, clock::get);
+
+        // When
+        for (int i = 0; i < 50; i++) {
+            limiter.acquire("partner-key", "alice@example.com", "10.0.0.1");
+        }
+        for (int i = 0; i < 3; i++) {
+            limiter.acquire("made-up-key-" + i, "alice@example.com", "10.0.0.1");
+        }
+
+        // Then
+        assertThatThrownBy(() -> limiter.acquire("partner-key", null, "10.0.0.1"))
+                .isInstanceOf(RateLimitExceededException.class);
+        assertThatThrownBy(() -> limiter.acquire("another-key", "alice@example.com", "10.0.0.1"))
+                .isInstanceOf(RateLimitExceededException.class);
+    }
+
+    @Test
+    @DisplayName("Should stay bounded, forgetting idle customers and sharing a bucket beyond the bound")
+    void shouldEvictIdleCustomers() {
+        // Given
+        properties.setMaxEntries(2);
+        properties.setIdleTimeout(Duration.ofSeconds(60));
+        CustomerRateLimiter limiter = new CustomerRateLimiter(properties, clock::get);
+        limiter.acquire(null, "a@example.com", "10.0.0.1");
+        limiter.acquire(null, "b@example.com", "10.0.0.1");
+
+        // When: still active, so newcomers share the overflow bucket
+        for (int i = 0; i < 3; i++) {
+            limiter.acquire(null, "new" + i + "@example.com", "10.0.0.1");
+        }
+
+        // Then
+        assertThat(limiter.getTrackedCustomers()).isEqualTo(2);
+        assertThatThrownBy(() -> limiter.acquire(null, "new3@example.com", "10.0.0.1"))
+                .isInstanceOf(RateLimitExceededException.class);
+
+        // When: both buckets have been full for longer than the idle timeout
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(120));
+        limiter.acquire(null, "c@example.com", "10.0.0.1");
+
+        // Then
+        assertThat(limiter.getTrackedCustomers()).isEqualTo(1);
+    }
+}
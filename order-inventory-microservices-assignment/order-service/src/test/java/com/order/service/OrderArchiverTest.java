@@ -0,0 +1,66 @@
+package com.order.service;
+
+import com.order.repository.OrderArchiveRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Order Archiver Tests")
+class OrderArchiverTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2025, 3, 1, 12, 0);
+
+    @Mock
+    private OrderArchiveRepository archiveRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    @DisplayName("Should archive orders older than the minimum age in chunks, one transaction each")
+    void shouldArchiveInChunks() {
+        // Given
+        LocalDateTime cutoff = NOW.minusDays(30);
+        when(archiveRepository.lockArchivable(cutoff, 2)).thenReturn(List.of(1L, 2L)).thenReturn(List.of(7L));
+        when(archiveRepository.archive(List.of(1L, 2L), NOW)).thenReturn(2);
+        when(archiveRepository.archive(List.of(7L), NOW)).thenReturn(1);
+
+        // When
+        int archived = archiver(true).archiveAll();
+
+        // Then
+        assertThat(archived).isEqualTo(3);
+        verify(transactionManager, times(2)).commit(any());
+    }
+
+    @Test
+    @DisplayName("Should do nothing when disabled")
+    void shouldDoNothingWhenDisabled() {
+        // When
+        int archived = archiver(false).archiveAll();
+
+        // Then
+        assertThat(archived).isZero();
+        verifyNoInteractions(archiveRepository, transactionManager);
+    }
+
+    private OrderArchiver archiver(boolean enabled) {
+        return new OrderArchiver(archiveRepository, new TransactionTemplate(transactionManager), enabled,
+                Duration.ofDays(30), 2, Duration.ZERO, Clock.fixed(NOW.toInstant(ZoneOffset.UTC), ZoneOffset.UTC));
+    }
+}
@@ -0,0 +1,152 @@
+package com.order.service;
+
+import com.order.client.InventoryRouter;
+import com.order.dto.ReconciliationReport;
+import com.order.dto.ReconciliationReport.ProductDiscrepancy;
+import com.order.exception.InvalidTimeWindowException;
+import com.order.exception.InventoryServiceException;
+import com.order.repository.OrderTotalsRepository;
+import com.order.repository.OrderTotalsRepository.IdRange;
+import com.order.repository.OrderTotalsRepository.ProductTotal;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Order Reconciliation Service Tests")
+class OrderReconciliationServiceTest {
+
+    private static final String BASE_URL = "http://localhost:8081";
+    private static final LocalDateTime NOW = LocalDateTime.of(2025, 3, 1, 12, 0);
+    private static final LocalDateTime CUTOFF = NOW.minusMinutes(1);
+
+    @Mock
+    private OrderTotalsRepository totalsRepository;
+
+    @Mock
+    private InventoryRouter router;
+
+    private final List<URI> requested = new ArrayList<>();
+    private OrderReconciliationService service;
+
+    @AfterEach
+    void tearDown() {
+        if (service != null) {
+            service.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Should sum orders slice by slice and keep only the largest discrepancies")
+    void shouldReconcileSlicesAgainstDeductions() {
+        // Given
+        service = service(HttpStatus.OK,
+                "{\"productId\":\"PROD-001\",\"deducted\":10,\"restocked\":0,\"movements\":3}\n" +
+                "{\"productId\":\"PROD-002\",\"deducted\":8,\"restocked\":50,\"movements\":4}\n" +
+                "{\"productId\":\"PROD-003\",\"deducted\":2,\"restocked\":0,\"movements\":1}\n");
+        when(totalsRepository.findIdRange()).thenReturn(new IdRange(1, 25));
+        Map<Long, Map<String, ProductTotal>> slices = Map.of(
+                1L, totals(new ProductTotal("PROD-001", 1, 4, 0), new ProductTotal("PROD-002", 1, 2, 1)),
+                8L, totals(new ProductTotal("PROD-004", 2, 7, 0)),
+                14L, totals(new ProductTotal("PROD-001", 2, 6, 0), new ProductTotal("PROD-002", 1, 3, 0)),
+                20L, totals());
+        when(totalsRepository.sumByProduct(anyLong(), anyLong(), isNull(), eq(CUTOFF)))
+                .thenAnswer(invocation -> slices.get(invocation.<Long>getArgument(0)));
+
+        // When
+        ReconciliationReport report = service.reconcile(null, null);
+
+        // Then
+        verify(totalsRepository).sumByProduct(1, 7, null, CUTOFF);
+        verify(totalsRepository).sumByProduct(8, 13, null, CUTOFF);
+        verify(totalsRepository).sumByProduct(14, 19, null, CUTOFF);
+        verify(totalsRepository).sumByProduct(20, 25, null, CUTOFF);
+        assertThat(requested).singleElement().satisfies(uri -> {
+            assertThat(uri.getPath()).isEqualTo("/inventory/movements/totals");
+            assertThat(uri.getQuery()).isEqualTo("to=2025-03-01T11:59");
+        });
+        assertThat(report.getTo()).isEqualTo(CUTOFF);
+        assertThat(report.getProducts()).isEqualTo(4);
+        assertThat(report.getConfirmedOrders()).isEqualTo(7);
+        assertThat(report.getOrderedQuantity()).isEqualTo(22);
+        assertThat(report.getDeductedQuantity()).isEqualTo(20);
+        assertThat(report.getMismatchedProducts()).isEqualTo(3);
+        assertThat(report.getDiscrepancies()).containsExactly(
+                new ProductDiscrepancy("PROD-004", 2, 0, 7, 0, -7),
+                new ProductDiscrepancy("PROD-002", 2, 1, 5, 8, 3));
+    }
+
+    @Test
+    @DisplayName("Should fail when an inventory instance cannot provide its totals")
+    void shouldFailWhenInventoryTotalsAreUnavailable() {
+        // Given
+        service = service(HttpStatus.NOT_IMPLEMENTED, "{\"message\":\"The movement journal is disabled\"}");
+        when(totalsRepository.findIdRange()).thenReturn(null);
+
+        // When / Then
+        assertThatThrownBy(() -> service.reconcile(NOW.minusDays(1), NOW))
+                .isInstanceOf(InventoryServiceException.class)
+                .hasMessageContaining(BASE_URL);
+        assertThat(requested).singleElement()
+                .satisfies(uri -> assertThat(uri.getQuery()).isEqualTo("to=2025-03-01T12:00&from=2025-02-28T12:00"));
+    }
+
+    @Test
+    @DisplayName("Should reject an empty time window")
+    void shouldRejectEmptyWindow() {
+        // Given
+        service = service(HttpStatus.OK, "");
+
+        // When / Then
+        assertThatThrownBy(() -> service.reconcile(NOW, NOW))
+                .isInstanceOf(InvalidTimeWindowException.class)
+                .hasMessageContaining("from must be before");
+        verifyNoInteractions(totalsRepository);
+        assertThat(requested).isEmpty();
+    }
+
+    private OrderReconciliationService service(HttpStatus status, String body) {
+        lenient().when(router.allBaseUrls()).thenReturn(List.of(BASE_URL));
+        WebClient.Builder webClientBuilder = WebClient.builder().exchangeFunction(request -> {
+            requested.add(request.url());
+            return Mono.just(ClientResponse.create(status)
+                    .header(HttpHeaders.CONTENT_TYPE, "application/x-ndjson")
+                    .body(body)
+                    .build());
+        });
+        return new OrderReconciliationService(totalsRepository, router, webClientBuilder, 2, 10, 2,
+                Duration.ofMinutes(1), Duration.ofSeconds(5), Clock.fixed(NOW.toInstant(ZoneOffset.UTC), ZoneOffset.UTC));
+    }
+
+    private static Map<String, ProductTotal> totals(ProductTotal... totals) {
+        Map<String, ProductTotal> byProduct = new HashMap<>();
+        for (ProductTotal total : totals) {
+            byProduct.put(total.getProductId(), total);
+        }
+        return byProduct;
+    }
+}
@@ -1,14 +1,18 @@
 package com.order.service;
 
+import com.order.cache.OrderStatusCache;
 import com.order.client.InventoryClient;
 import com.order.dto.InventoryUpdateRequest;
 import com.order.dto.InventoryUpdateResponse;
+import com.order.dto.OrderPageResponse;
 import com.order.dto.OrderRequest;
 import com.order.dto.OrderResponse;
+import com.order.exception.InvalidCursorException;
 import com.order.exception.InventoryServiceException;
 import com.order.exception.ResourceNotFoundException;
 import com.order.model.Order;
 import com.order.model.OrderStatus;
+import com.order.repository.OrderArchiveRepository;
 import com.order.repository.OrderRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -19,7 +23,10 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.*;
@@ -36,6 +43,12 @@ class OrderServiceTest {
     @Mock
     private InventoryClient inventoryClient;
 
+    @Mock
+    private OrderStatusCache orderStatusCache;
+
+    @Mock
+    private OrderArchiveRepository orderArchiveRepository;
+
     @InjectMocks
     private OrderService orderService;
 
@@ -95,6 +108,7 @@ class OrderServiceTest {
         ArgumentCaptor<Order> orderCaptor = ArgumentCaptor.forClass(Order.class);
         verify(orderRepository, times(2)).save(orderCaptor.capture());
         verify(inventoryClient).updateInventory(any(InventoryUpdateRequest.class));
+        verify(orderStatusCache).put(argThat(o -> o.getStatus() == OrderStatus.CONFIRMED));
     }
 
     @Test
@@ -122,6 +136,22 @@ class OrderServiceTest {
         assertThat(savedOrder.getFailureReason()).contains("Insufficient inventory");
     }
 
+    @Test
+    @DisplayName("Should reject order without saving when inventory is known to be short")
+    void shouldRejectOrderWithoutSavingWhenPrecheckFails() {
+        // Given
+        doThrow(new InventoryServiceException("Product not found in inventory"))
+                .when(inventoryClient).precheck("PROD-001", 10);
+
+        // When & Then
+        assertThatThrownBy(() -> orderService.placeOrder(testOrderRequest))
+                .isInstanceOf(InventoryServiceException.class)
+                .hasMessage("Product not found in inventory");
+
+        verify(orderRepository, never()).save(any(Order.class));
+        verify(inventoryClient, never()).updateInventory(any(InventoryUpdateRequest.class));
+    }
+
     @Test
     @DisplayName("Should get order by ID successfully")
     void shouldGetOrderByIdSuccessfully() {
@@ -139,6 +169,40 @@ class OrderServiceTest {
         verify(orderRepository).findByOrderId("ORD-12345678");
     }
 
+    @Test
+    @DisplayName("Should serve recent order from cache without hitting the repository")
+    void shouldGetOrderFromCache() {
+        // Given
+        OrderResponse cached = OrderResponse.builder()
+                .orderId("ORD-12345678")
+                .status(OrderStatus.CONFIRMED)
+                .build();
+        when(orderStatusCache.get("ORD-12345678")).thenReturn(Optional.of(cached));
+
+        // When
+        OrderResponse response = orderService.getOrder("ORD-12345678");
+
+        // Then
+        assertThat(response.getStatus()).isEqualTo(OrderStatus.CONFIRMED);
+        verifyNoInteractions(orderRepository);
+    }
+
+    @Test
+    @DisplayName("Should fall back to the archive for an order no longer in the orders table")
+    void shouldGetArchivedOrder() {
+        // Given
+        testOrder.setStatus(OrderStatus.CONFIRMED);
+        when(orderRepository.findByOrderId("ORD-12345678")).thenReturn(Optional.empty());
+        when(orderArchiveRepository.findByOrderId("ORD-12345678")).thenReturn(Optional.of(testOrder));
+
+        // When
+        OrderResponse response = orderService.getOrder("ORD-12345678");
+
+        // Then
+        assertThat(response.getOrderId()).isEqualTo("ORD-12345678");
+        assertThat(response.getStatus()).isEqualTo(OrderStatus.CONFIRMED);
+    }
+
     @Test
     @DisplayName("Should throw ResourceNotFoundException when order not found")
     void shouldThrowExceptionWhenOrderNotFound() {
@@ -196,5 +260,54 @@ class OrderServiceTest {
                 .isInstanceOf(IllegalStateException.class)
                 .hasMessageContaining("already cancelled");
     }
-}
 
+    @Test
+    @DisplayName("Should return keyset page with next cursor when more orders exist")
+    void shouldReturnKeysetPageWithNextCursor() {
+        // Given
+        LocalDateTime createdAt = LocalDateTime.of(2024, 11, 21, 10, 30);
+        List<Order> orders = new ArrayList<>();
+        for (long i = 1; i <= 3; i++) {
+            orders.add(Order.builder()
+                    .id(i)
+                    .orderId("ORD-" + i)
+                    .productId("PROD-001")
+                    .quantity(1)
+                    .customerName("John Doe")
+                    .status(OrderStatus.CONFIRMED)
+                    .createdAt(createdAt.plusSeconds(i))
+                    .build());
+        }
+        when(orderRepository.findByStatusOrderByCreatedAtAscIdAsc(eq(OrderStatus.CONFIRMED), any()))
+                .thenReturn(orders);
+
+        // When
+        OrderPageResponse page = orderService.listOrders(OrderStatus.CONFIRMED, null, null, 2);
+
+        // Then
+        assertThat(page.getOrders()).hasSize(2);
+        assertThat(page.isHasMore()).isTrue();
+        assertThat(page.getNextCursor()).isNotNull();
+
+        // The cursor resumes strictly after the last returned row
+        when(orderRepository.findPageByStatusAfter(any(), any(), any(), any()))
+                .thenReturn(List.of(orders.get(2)));
+        OrderPageResponse next = orderService.listOrders(OrderStatus.CONFIRMED, null, page.getNextCursor(), 2);
+
+        assertThat(next.getOrders()).hasSize(1);
+        assertThat(next.isHasMore()).isFalse();
+        assertThat(next.getNextCursor()).isNull();
+        verify(orderRepository).findPageByStatusAfter(eq(OrderStatus.CONFIRMED),
+                eq(createdAt.plusSeconds(2)), eq(2L), any());
+    }
+
+    @Test
+    @DisplayName("Should reject malformed page cursor")
+    void shouldRejectMalformedCursor() {
+        assertThatThrownBy(() -> orderService.listOrders(null, null, "not-a-cursor", 10))
+                .isInstanceOf(InvalidCursorException.class)
+                .hasMessageContaining("Invalid page cursor");
+
+        verifyNoInteractions(orderRepository);
+    }
+}
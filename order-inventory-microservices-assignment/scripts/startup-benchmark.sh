@@ -0,0 +1,68 @@
+#!/usr/bin/env bash
+#
+# Measures time to first successful request and resident memory of a service build.
+#
+# Usage: scripts/startup-benchmark.sh <health-url> <command...>
+#
+# Examples:
+#   scripts/startup-benchmark.sh http://localhost:8081/inventory/health \
+#       java -jar inventory-service/build/libs/inventory-service-1.0.0.jar
+#   scripts/startup-benchmark.sh http://localhost:8081/inventory/health \
+#       java -Dspring.aot.enabled=true -jar inventory-service/build/libs/inventory-service-1.0.0.jar
+#   scripts/startup-benchmark.sh http://localhost:8081/inventory/health \
+#       inventory-service/build/native/nativeCompile/inventory-service
+#
+# Environment:
+#   RUNS     number of cold starts to measure (default 5)
+#   TIMEOUT  seconds to wait for the first successful request (default 60)
+
+set -euo pipefail
+
+if [ $# -lt 2 ]; then
+    sed -n '3,17p' "$0" | sed 's/^# \{0,1\}//'
+    exit 1
+fi
+
+url=$1
+shift
+runs=${RUNS:-5}
+timeout=${TIMEOUT:-60}
+
+now_ms() {
+    date +%s%3N
+}
+
+printf '%-5s %12s %10s\n' run startup_ms rss_mb
+total_ms=0
+total_rss=0
+for run in $(seq 1 "$runs"); do
+    start=$(now_ms)
+    "$@" > /dev/null 2>&1 &
+    pid=$!
+
+    ready=""
+    while [ -z "$ready" ]; do
+        if curl -sf -o /dev/null "$url"; then
+            ready=$(now_ms)
+        elif ! kill -0 "$pid" 2>/dev/null; then
+            echo "process exited before becoming ready" >&2
+            exit 1
+        elif [ $(( $(now_ms) - start )) -gt $(( timeout * 1000 )) ]; then
+            kill "$pid"
+            echo "not ready after ${timeout}s" >&2
+            exit 1
+        else
+            sleep 0.02
+        fi
+    done
+
+    rss_kb=$(ps -o rss= -p "$pid" | tr -d ' ')
+    kill "$pid"
+    wait "$pid" 2>/dev/null || true
+
+    elapsed=$(( ready - start ))
+    total_ms=$(( total_ms + elapsed ))
+    total_rss=$(( total_rss + rss_kb ))
+    printf '%-5s %12d %10d\n' "$run" "$elapsed" $(( rss_kb / 1024 ))
+done
+printf '%-5s %12d %10d\n' avg $(( total_ms / runs )) $(( total_rss / runs / 1024 ))